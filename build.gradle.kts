@@ -140,6 +140,55 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// The Vector API pixel kernels are compiled in but only selected at runtime when the
+// JVM resolves jdk.incubator.vector; every other JVM falls back to the scalar kernels.
+// Only the main sources reference the module, so only compileJava resolves it. javac has no
+// switch to silence it, so compileJava always prints one expected
+// "using incubating module(s): jdk.incubator.vector" warning, and JVMs started with the
+// module print "Using incubator modules" once at startup.
+val vectorModuleArgs = listOf("--add-modules", "jdk.incubator.vector")
+val jmhVersion = "1.37"
+
+tasks.compileJava {
+    options.compilerArgs.addAll(vectorModuleArgs)
+}
+
+tasks.withType<Test>().configureEach {
+    jvmArgs(vectorModuleArgs)
+}
+
+tasks.javadoc {
+    (options as StandardJavadocDocletOptions).addStringOption("-add-modules", "jdk.incubator.vector")
+}
+
+// JMH micro-benchmarks live in src/jmh/java and are never packaged with the library.
+// They see everything the main sources compile against, and, like the tests, get Processing
+// core and the local sketchbook libraries at runtime.
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+}
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+    "jmhRuntimeOnly"(group = "org.processing", name = "core", version = processingCoreVersion)
+    "jmhRuntimeOnly"(fileTree("src/main/libs/controlP5.jar"))
+    "jmhRuntimeOnly"(fileTree("src/main/libs/spout.jar"))
+    "jmhRuntimeOnly"(fileTree("src/main/libs/Syphon.jar"))
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks comparing the scalar and Vector API pixel kernels"
+
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    jvmArgs(vectorModuleArgs)
+    // Extra JMH options, for example -PjmhArgs="-f 1 -wi 2 PixelKernelsBenchmark"
+    args((providers.gradleProperty("jmhArgs").orNull ?: "").split(" ").filter { it.isNotBlank() })
+}
+
 val qualificationResultsDirectory = layout.buildDirectory.dir("test-results/qualification")
 val qualificationReportDirectory = layout.buildDirectory.dir("reports/qualification")
 
@@ -385,7 +434,7 @@ tasks.register("buildReleaseArtifacts") {
             )
 
             into(releaseDirectory)
-            exclude("**/*.DS_Store", "**/networks/**", "src/test/**", "src/main/libs/**")
+            exclude("**/*.DS_Store", "**/networks/**", "src/test/**", "src/jmh/**", "src/main/libs/**")
         }
 
         println("Copy repository library.txt...")
@@ -543,7 +592,7 @@ tasks.register("deployToProcessingSketchbook") {
                 "reference/**",
                 "src/**"
             )
-            exclude("src/test/**", "src/main/libs/**")
+            exclude("src/test/**", "src/jmh/**", "src/main/libs/**")
             into(installDirectory)
         }
     }
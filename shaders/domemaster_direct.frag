@@ -0,0 +1,65 @@
+#version 410 core
+#define PROCESSING_COLOR_SHADER
+
+uniform sampler2D posX, negX, posY, negY, posZ, negZ;
+uniform vec2 resolution; // Resolução da imagem de saída
+uniform float fov; // Campo de visão em graus, permitindo até 360 graus
+uniform float sizeScale; // Size% / 100, aplicado no mesmo passe
+uniform vec3 orientation[3]; // Linhas da rotação esférica aplicada na projeção
+
+// Output variable
+out vec4 FragColor;
+
+// Converte coordenadas XYZ para UV e face (mesma convenção de equirectangular.frag)
+void convert_xyz_to_cube_uv(vec3 d, out int index, out vec2 uv) {
+    vec3 a = abs(d);
+    float maxAxis, uc, vc;
+
+    if (d.x > 0.0 && a.x >= a.y && a.x >= a.z) {
+        maxAxis = a.x; uc = -d.z; vc = d.y; index = 0; // +X
+    } else if (d.x <= 0.0 && a.x >= a.y && a.x >= a.z) {
+        maxAxis = a.x; uc = d.z; vc = d.y; index = 1; // -X
+    } else if (d.y > 0.0 && a.y >= a.x && a.y >= a.z) {
+        maxAxis = a.y; uc = d.x; vc = -d.z; index = 2; // +Y
+    } else if (d.y <= 0.0 && a.y >= a.x && a.y >= a.z) {
+        maxAxis = a.y; uc = d.x; vc = d.z; index = 3; // -Y
+    } else if (d.z > 0.0) {
+        maxAxis = a.z; uc = d.x; vc = d.y; index = 4; // +Z
+    } else {
+        maxAxis = a.z; uc = -d.x; vc = d.y; index = 5; // -Z
+    }
+
+    uv = clamp(0.5 * (vec2(uc, vc) / maxAxis + 1.0), 0.0, 1.0);
+}
+
+void main() {
+    float diameter = resolution.x * sizeScale;
+    if (diameter <= 0.0) {
+        discard;
+    }
+
+    // Coordenadas do domo já escaladas por Size%, centradas no quadro
+    vec2 uv = (2.0 * gl_FragCoord.xy - resolution) / diameter;
+    float l = length(uv);
+    if (l > 1.0) {
+        discard;
+    }
+
+    float theta = l * radians(min(fov, 360.0)) / 2.0;
+    float radial = l > 0.0 ? sin(theta) / l : 0.0;
+    // O centro olha para +Z; o eixo Y do Processing aponta para baixo
+    vec3 dir = vec3(radial * uv.x, -radial * uv.y, cos(theta));
+    // Orientação esférica: as faces são capturadas sem rotação
+    dir = vec3(dot(orientation[0], dir), dot(orientation[1], dir), dot(orientation[2], dir));
+
+    int index;
+    vec2 faceUV;
+    convert_xyz_to_cube_uv(dir, index, faceUV);
+
+    if (index == 0) FragColor = texture(posX, faceUV);
+    else if (index == 1) FragColor = texture(negX, faceUV);
+    else if (index == 2) FragColor = texture(posY, faceUV);
+    else if (index == 3) FragColor = texture(negY, faceUV);
+    else if (index == 4) FragColor = texture(posZ, faceUV);
+    else FragColor = texture(negZ, faceUV);
+}
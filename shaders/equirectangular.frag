@@ -4,6 +4,7 @@
 uniform sampler2D posX, negX, posY, negY, posZ, negZ;
 uniform sampler2D heightMap; // Mapa de alturas em tons de cinza
 uniform vec2 resolution;
+uniform vec3 orientation[3]; // Linhas da rotação esférica aplicada na projeção
 
 const float PI = 3.1415926535897932384626433832795;
 const float edgeBlendWidth = 0.02; // Controle de largura da transição
@@ -11,18 +12,6 @@ const float edgeBlendWidth = 0.02; // Controle de largura da transição
 // Output variable
 out vec4 FragColor;
 
-// Função que aplica a transformação Equi-Angular (EAC) no cubemap
-vec3 applyEACMapping(vec3 dir) {
-    float theta = acos(dir.y);        // Ângulo polar (latitude)
-    float phi = atan(dir.z, dir.x);   // Ângulo azimutal (longitude)
-
-    // Aplica a transformação EAC ao ângulo polar
-    float eacTheta = 2.0 * atan(tan(theta * 0.5));
-
-    // Converte de volta para coordenadas cartesianas
-    return normalize(vec3(sin(eacTheta) * cos(phi), cos(eacTheta), sin(eacTheta) * sin(phi)));
-}
-
 // Função para calcular a normal a partir de um mapa de alturas (grayscale -> Normal Map)
 vec3 calculateNormalFromHeightMap(vec2 uv) {
     float heightScale = 0.1; // Escala para ajustar o relevo
@@ -103,11 +92,8 @@ vec4 sampleCubemapFace(vec3 dir) {
     vec2 uvCube;
     int index;
 
-    // Aplica mapeamento EAC na direção
-    vec3 adjustedDir = applyEACMapping(dir);
-
-    // Converte direção ajustada para face do cubemap e coordenadas UV
-    convert_xyz_to_cube_uv(adjustedDir.x, adjustedDir.y, adjustedDir.z, index, uvCube);
+    // Converte a direção para face do cubemap e coordenadas UV
+    convert_xyz_to_cube_uv(dir.x, dir.y, dir.z, index, uvCube);
 
     // Usa interpolação bilinear na face correspondente
     vec4 color;
@@ -134,6 +120,9 @@ void main() {
     dir.x = -dir.x;
     dir.z = -dir.z;
 
+    // Orientação esférica: as faces são capturadas sem rotação
+    dir = vec3(dot(orientation[0], dir), dot(orientation[1], dir), dot(orientation[2], dir));
+
     // Amostra a cor diretamente do cubemap usando o mapeamento calculado
     vec4 color = sampleCubemapFace(dir);
 
@@ -0,0 +1,79 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.support.PixelKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the NDI worker's pixel conversion step on full frames.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhArgs=NdiConversionBenchmark}. Pixels are read from a direct
+ * little-endian word view, as the worker reads a pooled {@link OutputFrame}. {@code argbToRgba} and
+ * {@code argbToUyvy} are the {@link PixelKernels} calls the worker makes, parallel above
+ * {@link PixelKernels#PARALLEL_THRESHOLD}; {@code singleThread} converts the same frame on the calling
+ * thread only. The default BGRA layout is sent as read back, with no conversion to measure.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class NdiConversionBenchmark {
+
+	@Param({"1920x1080", "3840x2160", "4096x4096"})
+	public String frame;
+
+	private IntBuffer argb;
+	private int width;
+	private int height;
+	private ByteBuffer rgba;
+
+	@Setup
+	public void setUp() {
+		String[] size = frame.split("x");
+		width = Integer.parseInt(size[0]);
+		height = Integer.parseInt(size[1]);
+		int pixels = width * height;
+		Random random = new Random(42L);
+		argb = ByteBuffer.allocateDirect(pixels * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		for (int i = 0; i < pixels; i++) {
+			argb.put(i, random.nextInt());
+		}
+		rgba = ByteBuffer.allocateDirect(pixels * 4).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Benchmark
+	public ByteBuffer argbToRgba() {
+		PixelKernels.argbToRgba(argb, argb.capacity(), rgba);
+		return rgba;
+	}
+
+	@Benchmark
+	public ByteBuffer argbToUyvy() {
+		PixelKernels.argbToUyvy(argb, width, height, rgba);
+		return rgba;
+	}
+
+	@Benchmark
+	public ByteBuffer singleThread() {
+		PixelKernels.argbToRgba(argb, argb.capacity(), rgba, null);
+		return rgba;
+	}
+}
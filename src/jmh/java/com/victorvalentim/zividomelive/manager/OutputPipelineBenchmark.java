@@ -0,0 +1,79 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.zividomelive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import processing.core.PApplet;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the draw thread's share of the output pipeline without a GPU: copying a read-back frame
+ * into a pooled {@link OutputFrame} and fanning it out to {@link MemoryOutputSink}s.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhArgs=OutputPipelineBenchmark}. {@code sinks} pixel sinks share the
+ * fisheye view, so the cost beyond the copy is the per-sink hand-off. The sketch is never started, so
+ * the benchmark runs headless, without a display or an OpenGL context.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Djava.awt.headless=true"})
+public class OutputPipelineBenchmark {
+
+	@Param({"1920x1080", "4096x4096"})
+	public String frame;
+
+	@Param({"1", "4"})
+	public int sinks;
+
+	private OutputManager outputManager;
+	private MemoryOutputSink lastSink;
+	private int[] argb;
+	private int width;
+	private int height;
+
+	@Setup
+	public void setUp() {
+		String[] size = frame.split("x");
+		width = Integer.parseInt(size[0]);
+		height = Integer.parseInt(size[1]);
+		argb = new int[width * height];
+		Random random = new Random(42L);
+		for (int i = 0; i < argb.length; i++) {
+			argb[i] = random.nextInt();
+		}
+
+		outputManager = new OutputManager(new zividomelive(new PApplet()));
+		for (int index = 0; index < sinks; index++) {
+			lastSink = new MemoryOutputSink("sink-" + index, OutputSink.Input.PIXELS,
+					zividomelive.ViewType.FISHEYE_DOMEMASTER, 0);
+			outputManager.addOutputSink(lastSink);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		outputManager.shutdownOutputs();
+	}
+
+	@Benchmark
+	public long publishPixels() {
+		outputManager.publishPixels(zividomelive.ViewType.FISHEYE_DOMEMASTER, argb, width, height);
+		return lastSink.getFrameCount();
+	}
+}
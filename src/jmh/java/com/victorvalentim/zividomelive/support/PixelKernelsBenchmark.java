@@ -0,0 +1,82 @@
+package com.victorvalentim.zividomelive.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and Vector API pixel kernels on a 4K frame.
+ * <p>
+ * Run with {@code ./gradlew jmh}. {@code argbToRgba} converts one 3840x2160 NDI frame; {@code blendBilinear}
+ * blends the same number of pixels in the 256-pixel chunks {@code ResampleKernel} uses.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class PixelKernelsBenchmark {
+
+	private static final int WIDTH = 3840;
+	private static final int HEIGHT = 2160;
+	private static final int CHUNK = 256;
+
+	@Param({"scalar", "vector"})
+	public String kernel;
+
+	private PixelKernels.Kernels kernels;
+	private int[] argb;
+	private ByteBuffer rgba;
+	private int[] scratch;
+	private int[] target;
+
+	@Setup
+	public void setUp() {
+		kernels = "vector".equals(kernel) ? PixelKernels.vector() : PixelKernels.scalar();
+		if (kernels == null) {
+			throw new IllegalStateException("jdk.incubator.vector is not enabled in the benchmark JVM");
+		}
+		Random random = new Random(42L);
+		argb = new int[WIDTH * HEIGHT];
+		for (int i = 0; i < argb.length; i++) {
+			argb[i] = random.nextInt();
+		}
+		rgba = ByteBuffer.allocateDirect(argb.length * 4);
+		scratch = new int[5 * CHUNK];
+		for (int i = 0; i < 4 * CHUNK; i++) {
+			scratch[i] = random.nextInt();
+		}
+		for (int i = 4 * CHUNK; i < scratch.length; i++) {
+			scratch[i] = random.nextInt(1 << 16);
+		}
+		target = new int[argb.length];
+	}
+
+	@Benchmark
+	public ByteBuffer argbToRgba() {
+		kernels.argbToRgba(argb, argb.length, rgba);
+		return rgba;
+	}
+
+	@Benchmark
+	public int[] blendBilinear() {
+		for (int start = 0; start < target.length; start += CHUNK) {
+			kernels.blendBilinear(scratch, CHUNK, Math.min(CHUNK, target.length - start), target, start);
+		}
+		return target;
+	}
+}
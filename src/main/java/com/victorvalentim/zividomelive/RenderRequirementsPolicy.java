@@ -13,7 +13,8 @@ final class RenderRequirementsPolicy {
 	private static final int EQUIRECTANGULAR = 1 << 1;
 	private static final int CUBEMAP_LAYOUT = 1 << 2;
 	private static final int STANDARD = 1 << 3;
-	private static final int COMBINATION_COUNT = 1 << 4;
+	private static final int DIRECT_FISHEYE = 1 << 4;
+	private static final int COMBINATION_COUNT = 1 << 5;
 	private static final Requirements[] REQUIREMENTS = createRequirements();
 
 	private RenderRequirementsPolicy() {
@@ -31,10 +32,30 @@ final class RenderRequirementsPolicy {
 			RenderMode renderMode,
 			zividomelive.ViewType selectedView,
 			boolean floatingFisheye) {
+		return forPreview(renderMode, selectedView, floatingFisheye, false);
+	}
+
+	/**
+	 * Resolves the passes needed by the application preview.
+	 *
+	 * @param renderMode active global render mode
+	 * @param selectedView view composited into the Processing window
+	 * @param floatingFisheye whether the floating domemaster preview is visible
+	 * @param directFisheye whether fisheye is projected straight from the cubemap faces
+	 * @return cached render requirements
+	 */
+	static Requirements forPreview(
+			RenderMode renderMode,
+			zividomelive.ViewType selectedView,
+			boolean floatingFisheye,
+			boolean directFisheye) {
 		int requestedViews = maskFor(resolveView(renderMode, selectedView));
 		if (floatingFisheye) {
 			requestedViews |= FISHEYE;
 		}
+		if (directFisheye) {
+			requestedViews |= DIRECT_FISHEYE;
+		}
 		return REQUIREMENTS[requestedViews];
 	}
 
@@ -83,6 +104,28 @@ final class RenderRequirementsPolicy {
 			boolean equirectangularRequested,
 			boolean cubemapRequested,
 			boolean standardRequested) {
+		return forOutputs(
+				outputsActive, fisheyeRequested, equirectangularRequested, cubemapRequested, standardRequested, false);
+	}
+
+	/**
+	 * Resolves the union of views requested by enabled external outputs.
+	 *
+	 * @param outputsActive whether at least one external output is enabled
+	 * @param fisheyeRequested whether an enabled output requests fisheye
+	 * @param equirectangularRequested whether an enabled output requests equirectangular
+	 * @param cubemapRequested whether an enabled output requests the cubemap layout
+	 * @param standardRequested whether an enabled output requests Standard
+	 * @param directFisheye whether fisheye is projected straight from the cubemap faces
+	 * @return cached render requirements
+	 */
+	static Requirements forOutputs(
+			boolean outputsActive,
+			boolean fisheyeRequested,
+			boolean equirectangularRequested,
+			boolean cubemapRequested,
+			boolean standardRequested,
+			boolean directFisheye) {
 		if (!outputsActive) {
 			return REQUIREMENTS[0];
 		}
@@ -100,6 +143,9 @@ final class RenderRequirementsPolicy {
 		if (standardRequested) {
 			requestedViews |= STANDARD;
 		}
+		if (directFisheye) {
+			requestedViews |= DIRECT_FISHEYE;
+		}
 		return REQUIREMENTS[requestedViews];
 	}
 
@@ -130,26 +176,39 @@ final class RenderRequirementsPolicy {
 		return requirements;
 	}
 
-	/** Immutable dependency closure for one combination of requested views. */
+	/**
+	 * Immutable dependency closure for one combination of requested views.
+	 *
+	 * <p>Fisheye depends on equirectangular only in the legacy source mode. A direct fisheye
+	 * samples the cubemap faces itself, so equirectangular is produced only when requested.</p>
+	 */
 	static final class Requirements {
 		private final boolean needsFisheye;
+		private final boolean needsDirectFisheye;
 		private final boolean needsEquirectangular;
 		private final boolean needsCubemapLayout;
 		private final boolean needsStandard;
 		private final boolean needsCubemapSource;
+		private final boolean needsFullSphere;
 
 		private Requirements(int requestedViews) {
 			needsFisheye = (requestedViews & FISHEYE) != 0;
-			needsEquirectangular = (requestedViews & EQUIRECTANGULAR) != 0 || needsFisheye;
+			needsDirectFisheye = needsFisheye && (requestedViews & DIRECT_FISHEYE) != 0;
+			needsEquirectangular = (requestedViews & EQUIRECTANGULAR) != 0 || (needsFisheye && !needsDirectFisheye);
 			needsCubemapLayout = (requestedViews & CUBEMAP_LAYOUT) != 0;
 			needsStandard = (requestedViews & STANDARD) != 0;
-			needsCubemapSource = needsEquirectangular || needsCubemapLayout;
+			needsCubemapSource = needsFisheye || needsEquirectangular || needsCubemapLayout;
+			needsFullSphere = (requestedViews & (EQUIRECTANGULAR | CUBEMAP_LAYOUT)) != 0;
 		}
 
 		boolean needsFisheye() {
 			return needsFisheye;
 		}
 
+		boolean needsDirectFisheye() {
+			return needsDirectFisheye;
+		}
+
 		boolean needsEquirectangular() {
 			return needsEquirectangular;
 		}
@@ -165,5 +224,18 @@ final class RenderRequirementsPolicy {
 		boolean needsCubemapSource() {
 			return needsCubemapSource;
 		}
+
+		/**
+		 * Returns whether a requested view shows the whole sphere.
+		 *
+		 * <p>When only the domemaster consumes the cubemap, faces outside its field of view
+		 * may be culled. An equirectangular map used solely as the legacy fisheye source does
+		 * not count as a full-sphere request.</p>
+		 *
+		 * @return {@code true} when an equirectangular or skybox view is requested
+		 */
+		boolean needsFullSphere() {
+			return needsFullSphere;
+		}
 	}
 }
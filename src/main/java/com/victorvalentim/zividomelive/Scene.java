@@ -31,6 +31,23 @@ public interface Scene {
 
 	}
 
+	/**
+	 * Reports whether the scene would draw differently than at its previous render.
+	 *
+	 * <p>Called once per frame, after {@link #update()} and before any cubemap capture. Returning
+	 * {@code false} lets the library reuse the previously captured cube faces and, when the dome
+	 * orientation, FOV, Size% and face layout are unchanged too, the previous projection outputs.
+	 * The default always returns {@code true}, so every frame is rendered. Scenes that move the
+	 * shared scene camera should also report a change while
+	 * {@link com.victorvalentim.zividomelive.render.camera.OrbitCamera#isMoving()} is {@code true}.</p>
+	 *
+	 * @param frame the Processing frame count of the frame about to be rendered
+	 * @return {@code true} if the scene content changed since the last frame
+	 */
+	default boolean hasChanged(long frame) {
+		return true;
+	}
+
 	/**
      * Renders the scene using the provided PGraphics object.
      * The render target is already inside an active draw frame owned by the library,
@@ -0,0 +1,146 @@
+package com.victorvalentim.zividomelive.manager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Central pool of direct, page-aligned frame buffers shared by every CPU output.
+ *
+ * <p>Each buffer is owned by one reference-counted {@link OutputFrame}. The draw thread fills a frame
+ * once per view and every pixel sink reads the same memory; NDI routes also take their conversion
+ * buffers from here. When the last reference is released the frame returns to an idle list for its size
+ * class, rounded up to whole pages, so steady-state frames allocate nothing. At most
+ * {@link #MAX_IDLE_PER_SIZE} idle frames are kept per size; {@link #trim()} drops the rest, for example
+ * after a resolution change.</p>
+ *
+ * <p>Occupancy and high-water marks count frames and bytes currently held by a consumer. All methods
+ * are thread-safe.</p>
+ */
+final class FrameBufferPool {
+
+	/** Alignment and size granularity of every buffer. */
+	static final int PAGE_SIZE = 4096;
+
+	/** Idle frames kept per size class. */
+	static final int MAX_IDLE_PER_SIZE = 4;
+
+	private final Map<Integer, Queue<OutputFrame>> idle = new ConcurrentHashMap<>();
+	private final AtomicInteger idleFrames = new AtomicInteger();
+	private final AtomicInteger framesInUse = new AtomicInteger();
+	private final AtomicInteger highWaterFrames = new AtomicInteger();
+	private final AtomicLong bytesInUse = new AtomicLong();
+	private final AtomicLong highWaterBytes = new AtomicLong();
+	private final AtomicLong bytesAllocated = new AtomicLong();
+
+	/**
+	 * Takes a frame whose buffer holds at least {@code bytes} bytes, reusing an idle one of the same size
+	 * class when possible. The buffer is cleared to {@code [0, bytes)} and little-endian, and the caller
+	 * owns the single reference.
+	 *
+	 * @param bytes bytes the frame must hold
+	 * @return an owned frame
+	 * @throws IllegalArgumentException if {@code bytes} is not positive
+	 */
+	OutputFrame acquire(int bytes) {
+		if (bytes <= 0) {
+			throw new IllegalArgumentException("Frame buffer size must be positive");
+		}
+		int capacity = sizeClass(bytes);
+		Queue<OutputFrame> frames = idle.get(capacity);
+		OutputFrame frame = frames != null ? frames.poll() : null;
+		if (frame != null) {
+			idleFrames.decrementAndGet();
+		} else {
+			frame = new OutputFrame(this, allocateAligned(capacity));
+			bytesAllocated.addAndGet(capacity);
+		}
+		frame.pixels.clear().limit(bytes);
+		frame.acquired();
+
+		int frameCount = framesInUse.incrementAndGet();
+		long byteCount = bytesInUse.addAndGet(capacity);
+		highWaterFrames.accumulateAndGet(frameCount, Math::max);
+		highWaterBytes.accumulateAndGet(byteCount, Math::max);
+		return frame;
+	}
+
+	/** Takes back a frame after its last release. Called only by {@link OutputFrame#release()}. */
+	void recycle(OutputFrame frame) {
+		int capacity = frame.pixels.capacity();
+		framesInUse.decrementAndGet();
+		bytesInUse.addAndGet(-capacity);
+
+		Queue<OutputFrame> frames = idle.computeIfAbsent(capacity, ignored -> new ConcurrentLinkedQueue<>());
+		if (frames.size() < MAX_IDLE_PER_SIZE) {
+			frames.offer(frame);
+			idleFrames.incrementAndGet();
+		} else {
+			bytesAllocated.addAndGet(-capacity);
+		}
+	}
+
+	/** Drops every idle frame; their memory is reclaimed with the buffers. Frames in use are unaffected. */
+	void trim() {
+		for (Queue<OutputFrame> frames : idle.values()) {
+			OutputFrame frame;
+			while ((frame = frames.poll()) != null) {
+				idleFrames.decrementAndGet();
+				bytesAllocated.addAndGet(-frame.pixels.capacity());
+			}
+		}
+	}
+
+	/** Returns the number of frames currently held by a consumer. */
+	int framesInUse() {
+		return framesInUse.get();
+	}
+
+	/** Returns the largest number of frames ever held at once. */
+	int highWaterFrames() {
+		return highWaterFrames.get();
+	}
+
+	/** Returns the number of idle frames ready for reuse. */
+	int idleFrames() {
+		return idleFrames.get();
+	}
+
+	/** Returns the bytes of the frames currently held by a consumer. */
+	long bytesInUse() {
+		return bytesInUse.get();
+	}
+
+	/** Returns the largest number of bytes ever held at once. */
+	long highWaterBytes() {
+		return highWaterBytes.get();
+	}
+
+	/** Returns the bytes of every frame the pool still references, in use or idle. */
+	long bytesAllocated() {
+		return bytesAllocated.get();
+	}
+
+	/** Rounds a byte count up to whole pages. */
+	static int sizeClass(int bytes) {
+		return Math.addExact(bytes, PAGE_SIZE - 1) & -PAGE_SIZE;
+	}
+
+	/**
+	 * Allocates a little-endian direct buffer of exactly {@code capacity} bytes starting on a page
+	 * boundary.
+	 *
+	 * @param capacity multiple of {@link #PAGE_SIZE}
+	 * @return aligned buffer
+	 */
+	static ByteBuffer allocateAligned(int capacity) {
+		ByteBuffer raw = ByteBuffer.allocateDirect(Math.addExact(capacity, PAGE_SIZE - 1));
+		ByteBuffer aligned = raw.alignedSlice(PAGE_SIZE);
+		return aligned.limit(capacity).slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
@@ -0,0 +1,154 @@
+package com.victorvalentim.zividomelive.manager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free latest-frame triple buffer between one writer and one reader thread.
+ *
+ * <p>The three items are split between a back item owned by the writer, a front item owned by the
+ * reader, and a middle item handed over through a single atomic index. The writer fills
+ * {@link #writable()} and swaps it into the middle with {@link #publish()}; the reader swaps its front
+ * item with a freshly published middle in {@link #take()}. A newer publish replaces a middle the reader
+ * has not taken yet, so the reader always gets the latest frame, and the reader's front item is never
+ * handed back to the writer while it is being read.</p>
+ *
+ * <p>Neither side takes a lock or allocates. The reader parks in {@link #await(long)} and the writer
+ * unparks it after each publish. Once {@link #close()} is called every publish is rejected.</p>
+ *
+ * @param <T> reusable item type
+ */
+final class FrameMailbox<T> {
+
+	/** Outcome of {@link #publish()}. */
+	enum Publish {
+		/** The item is waiting for the reader. */
+		FRESH,
+		/** The item is waiting for the reader and replaced an unread one, now {@link #writable()}. */
+		REPLACED,
+		/** The mailbox is closed; the item stays {@link #writable()} and was not handed over. */
+		CLOSED
+	}
+
+	private static final int INDEX_MASK = 3;
+	private static final int FRESH_BIT = 4;
+	private static final int CLOSED_STATE = -1;
+
+	private final Object[] items;
+	/** Middle item index, with {@link #FRESH_BIT} set while it holds an unread publish. */
+	private final AtomicInteger middle = new AtomicInteger(1);
+	/** Writer-owned item index. */
+	private int back;
+	/** Reader-owned item index. */
+	private int front = 2;
+	private volatile Thread reader;
+
+	/**
+	 * Creates an open mailbox around three distinct reusable items.
+	 *
+	 * @param first initial writer item
+	 * @param second initial middle item
+	 * @param third initial reader item
+	 */
+	FrameMailbox(T first, T second, T third) {
+		items = new Object[]{first, second, third};
+	}
+
+	/**
+	 * Returns the item the writer fills next. Writer thread only.
+	 *
+	 * @return writer-owned item
+	 */
+	@SuppressWarnings("unchecked")
+	T writable() {
+		return (T) items[back];
+	}
+
+	/**
+	 * Hands the writable item to the reader and wakes it. Writer thread only.
+	 *
+	 * @return whether the item was handed over and whether it replaced an unread one
+	 */
+	Publish publish() {
+		int published = back | FRESH_BIT;
+		int previous;
+		do {
+			previous = middle.get();
+			if (previous == CLOSED_STATE) {
+				return Publish.CLOSED;
+			}
+		} while (!middle.compareAndSet(previous, published));
+
+		back = previous & INDEX_MASK;
+		Thread waiting = reader;
+		if (waiting != null) {
+			LockSupport.unpark(waiting);
+		}
+		return (previous & FRESH_BIT) != 0 ? Publish.REPLACED : Publish.FRESH;
+	}
+
+	/**
+	 * Takes the latest published item, if any arrived since the previous take. The returned item stays
+	 * owned by the reader until the next take. Reader thread only.
+	 *
+	 * @return latest unread item, or {@code null} when none is pending or the mailbox is closed
+	 */
+	@SuppressWarnings("unchecked")
+	T take() {
+		int current;
+		do {
+			current = middle.get();
+			if (current == CLOSED_STATE || (current & FRESH_BIT) == 0) {
+				return null;
+			}
+		} while (!middle.compareAndSet(current, front));
+
+		front = current & INDEX_MASK;
+		return (T) items[front];
+	}
+
+	/**
+	 * Takes the latest published item, parking up to {@code timeoutNanos} for one. Returns early when the
+	 * reader is interrupted, leaving its interrupt status set. Reader thread only.
+	 *
+	 * @param timeoutNanos longest wait in nanoseconds
+	 * @return latest unread item, or {@code null} when none arrived in time
+	 */
+	T await(long timeoutNanos) {
+		reader = Thread.currentThread();
+		T item = take();
+		if (item != null) {
+			return item;
+		}
+		LockSupport.parkNanos(this, timeoutNanos);
+		return take();
+	}
+
+	/**
+	 * Reports whether a published item is waiting for the reader.
+	 *
+	 * @return {@code true} while an unread item is pending
+	 */
+	boolean hasPending() {
+		int current = middle.get();
+		return current != CLOSED_STATE && (current & FRESH_BIT) != 0;
+	}
+
+	/**
+	 * Rejects every later publish and wakes the reader.
+	 *
+	 * @return the unread item that was pending, for its owner to release, or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	T close() {
+		int previous = middle.getAndSet(CLOSED_STATE);
+		Thread waiting = reader;
+		if (waiting != null) {
+			LockSupport.unpark(waiting);
+		}
+		if (previous == CLOSED_STATE || (previous & FRESH_BIT) == 0) {
+			return null;
+		}
+		return (T) items[previous & INDEX_MASK];
+	}
+}
@@ -0,0 +1,165 @@
+package com.victorvalentim.zividomelive.manager;
+
+/**
+ * Decides on each draw frame whether pixel outputs capture, so they run at a rational target rate
+ * rather than at the render rate.
+ *
+ * <p>Capture deadlines advance by exactly {@code denominator / numerator} seconds. The whole nanoseconds
+ * of each period and the remainder are accumulated separately, so the schedule never drifts, even for
+ * rates such as 30000/1001. A frame captures when it is closer to the next deadline than half a draw
+ * interval, which keeps a 60 fps sketch at an even 30 fps rather than alternating between one and two
+ * frame gaps. When rendering is slower than the target every frame captures, and after falling more
+ * than a second behind, for example while no output was enabled, the schedule restarts instead of
+ * catching up.</p>
+ *
+ * <p>Inter-capture jitter is the mean deviation of capture intervals from the target period, smoothed
+ * with the 1/16 gain used for RTP interarrival jitter. Metrics may be read from any thread.</p>
+ */
+final class FramePacer {
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	/** Falling further behind than this restarts the schedule. */
+	private static final long RESYNC_NANOS = NANOS_PER_SECOND;
+
+	/** Weight of each new interval deviation in the jitter estimate. */
+	private static final double JITTER_GAIN = 1.0 / 16.0;
+
+	private int numerator;
+	private long periodNanos;
+	private long periodRemainder;
+
+	private boolean anchored;
+	private long nextDueNanos;
+	/** Accumulated remainder of {@link #nextDueNanos}, in units of {@code 1 / numerator} ns. */
+	private long dueFraction;
+	private long lastFrameNanos;
+	private long drawIntervalNanos;
+	private long lastCaptureNanos;
+	private boolean hasLastCapture;
+
+	private volatile double jitterNanos;
+	private volatile long lastIntervalNanos;
+	private volatile long skippedFrames;
+
+	/**
+	 * Creates a pacer for a target rate.
+	 *
+	 * @param numerator positive frame-rate numerator
+	 * @param denominator positive frame-rate denominator
+	 * @throws IllegalArgumentException if either value is zero or negative
+	 */
+	FramePacer(int numerator, int denominator) {
+		setRate(numerator, denominator);
+	}
+
+	/**
+	 * Changes the target rate and restarts the schedule on the next frame.
+	 *
+	 * @param numerator positive frame-rate numerator
+	 * @param denominator positive frame-rate denominator
+	 * @throws IllegalArgumentException if either value is zero or negative
+	 */
+	synchronized void setRate(int numerator, int denominator) {
+		if (numerator <= 0 || denominator <= 0) {
+			throw new IllegalArgumentException("Frame-rate numerator and denominator must be positive.");
+		}
+		long periodScaled = NANOS_PER_SECOND * denominator;
+		this.numerator = numerator;
+		this.periodNanos = periodScaled / numerator;
+		this.periodRemainder = periodScaled % numerator;
+		anchored = false;
+		hasLastCapture = false;
+	}
+
+	/**
+	 * Returns the whole nanoseconds of one target period.
+	 *
+	 * @return target frame interval, rounded down
+	 */
+	synchronized long periodNanos() {
+		return periodNanos;
+	}
+
+	/**
+	 * Decides whether the current draw frame captures. Call once per draw frame on the draw thread.
+	 *
+	 * @param nowNanos current time on the {@link System#nanoTime()} clock
+	 * @return {@code true} if the frame should be captured
+	 */
+	synchronized boolean shouldCapture(long nowNanos) {
+		if (!anchored || nowNanos - nextDueNanos > RESYNC_NANOS) {
+			anchored = true;
+			hasLastCapture = false;
+			drawIntervalNanos = 0L;
+			lastFrameNanos = nowNanos;
+			nextDueNanos = nowNanos;
+			dueFraction = 0L;
+			advance();
+			recordCapture(nowNanos);
+			return true;
+		}
+
+		drawIntervalNanos = nowNanos - lastFrameNanos;
+		lastFrameNanos = nowNanos;
+		long tolerance = Math.min(drawIntervalNanos, periodNanos) / 2;
+		if (nowNanos < nextDueNanos - tolerance) {
+			skippedFrames++;
+			return false;
+		}
+
+		do {
+			advance();
+		} while (nextDueNanos <= nowNanos);
+		recordCapture(nowNanos);
+		return true;
+	}
+
+	/** Moves the next deadline one exact period ahead. */
+	private void advance() {
+		nextDueNanos += periodNanos;
+		dueFraction += periodRemainder;
+		if (dueFraction >= numerator) {
+			dueFraction -= numerator;
+			nextDueNanos++;
+		}
+	}
+
+	private void recordCapture(long nowNanos) {
+		if (hasLastCapture) {
+			long interval = nowNanos - lastCaptureNanos;
+			double deviation = Math.abs(interval - periodNanos);
+			lastIntervalNanos = interval;
+			jitterNanos += (deviation - jitterNanos) * JITTER_GAIN;
+		}
+		lastCaptureNanos = nowNanos;
+		hasLastCapture = true;
+	}
+
+	/**
+	 * Returns the smoothed deviation of capture intervals from the target period.
+	 *
+	 * @return jitter in nanoseconds
+	 */
+	long jitterNanos() {
+		return Math.round(jitterNanos);
+	}
+
+	/**
+	 * Returns the interval between the two latest captures.
+	 *
+	 * @return interval in nanoseconds, or zero before the second capture
+	 */
+	long lastIntervalNanos() {
+		return lastIntervalNanos;
+	}
+
+	/**
+	 * Returns how many draw frames were not captured to hold the target rate.
+	 *
+	 * @return skipped draw frames
+	 */
+	long skippedFrames() {
+		return skippedFrames;
+	}
+}
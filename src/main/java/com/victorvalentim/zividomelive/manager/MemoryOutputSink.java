@@ -0,0 +1,328 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.zividomelive;
+import processing.opengl.PGraphicsOpenGL;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Output sink that keeps what it receives in memory instead of sending it anywhere.
+ *
+ * <p>It stands in for a real backend where none can run, such as on a GPU-less CI machine: register
+ * it with {@link OutputManager#addOutputSink(OutputSink)} and inspect the received frames, their
+ * capture-to-delivery latency and the delivery rate. A pixel sink keeps a reference to the latest
+ * frame and a bounded history of {@link Record}s; a texture sink records only dimensions and
+ * timings. All methods are thread-safe.</p>
+ *
+ * @since 1.6.0
+ */
+public final class MemoryOutputSink implements OutputSink {
+
+	/** Records kept when no history size is given. */
+	public static final int DEFAULT_HISTORY = 256;
+
+	/**
+	 * One delivered frame.
+	 */
+	public static final class Record {
+		private final long sequence;
+		private final int width;
+		private final int height;
+		private final zividomelive.ViewType view;
+		private final OutputManager.NdiPixelFormat pixelFormat;
+		private final long captureNanos;
+		private final long receivedNanos;
+
+		Record(long sequence, int width, int height, zividomelive.ViewType view,
+			   OutputManager.NdiPixelFormat pixelFormat, long captureNanos, long receivedNanos) {
+			this.sequence = sequence;
+			this.width = width;
+			this.height = height;
+			this.view = view;
+			this.pixelFormat = pixelFormat;
+			this.captureNanos = captureNanos;
+			this.receivedNanos = receivedNanos;
+		}
+
+		/** Returns the zero-based delivery index. */
+		public long sequence() {
+			return sequence;
+		}
+
+		/** Returns the frame width in pixels. */
+		public int width() {
+			return width;
+		}
+
+		/** Returns the frame height in pixels. */
+		public int height() {
+			return height;
+		}
+
+		/** Returns the source view, or {@code null} for texture frames. */
+		public zividomelive.ViewType view() {
+			return view;
+		}
+
+		/** Returns the pixel layout, or {@code null} for texture frames. */
+		public OutputManager.NdiPixelFormat pixelFormat() {
+			return pixelFormat;
+		}
+
+		/** Returns the capture timestamp on the {@link System#nanoTime()} clock. */
+		public long captureNanos() {
+			return captureNanos;
+		}
+
+		/** Returns the delivery timestamp on the {@link System#nanoTime()} clock. */
+		public long receivedNanos() {
+			return receivedNanos;
+		}
+
+		/** Returns the time from capture to delivery in nanoseconds. */
+		public long latencyNanos() {
+			return receivedNanos - captureNanos;
+		}
+	}
+
+	private final String name;
+	private final Input input;
+	private final int history;
+	private volatile zividomelive.ViewType view;
+	private volatile OutputManager.NdiPixelFormat pixelFormat = OutputManager.DEFAULT_NDI_PIXEL_FORMAT;
+	private volatile boolean enabled = true;
+
+	private final ArrayDeque<Record> records = new ArrayDeque<>();
+	private OutputFrame latestFrame;
+	private long frameCount;
+	private long failedFrames;
+	private long droppedFrames;
+	private long totalLatencyNanos;
+	private long maxLatencyNanos;
+	private long firstReceivedNanos;
+	private long lastReceivedNanos;
+
+	/**
+	 * Creates an enabled sink keeping {@link #DEFAULT_HISTORY} records.
+	 *
+	 * @param name sink name
+	 * @param input what the sink consumes
+	 * @param view view the sink sends
+	 * @throws IllegalArgumentException if an argument is {@code null}
+	 */
+	public MemoryOutputSink(String name, Input input, zividomelive.ViewType view) {
+		this(name, input, view, DEFAULT_HISTORY);
+	}
+
+	/**
+	 * Creates an enabled sink.
+	 *
+	 * @param name sink name
+	 * @param input what the sink consumes
+	 * @param view view the sink sends
+	 * @param history number of most recent records to keep
+	 * @throws IllegalArgumentException if an argument is {@code null} or {@code history} is negative
+	 */
+	public MemoryOutputSink(String name, Input input, zividomelive.ViewType view, int history) {
+		if (name == null || input == null || view == null) {
+			throw new IllegalArgumentException("Memory sink name, input and view cannot be null.");
+		}
+		if (history < 0) {
+			throw new IllegalArgumentException("Memory sink history cannot be negative.");
+		}
+		this.name = name;
+		this.input = input;
+		this.view = view;
+		this.history = history;
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public Input input() {
+		return input;
+	}
+
+	@Override
+	public zividomelive.ViewType view() {
+		return view;
+	}
+
+	/**
+	 * Changes the view the sink sends.
+	 *
+	 * @param view new view; {@code null} is ignored
+	 */
+	public void setView(zividomelive.ViewType view) {
+		if (view != null) {
+			this.view = view;
+		}
+	}
+
+	@Override
+	public OutputManager.NdiPixelFormat pixelFormat() {
+		return pixelFormat;
+	}
+
+	/**
+	 * Changes the preferred layout of a pixel sink.
+	 *
+	 * @param pixelFormat new layout; {@code null} is ignored
+	 */
+	public void setPixelFormat(OutputManager.NdiPixelFormat pixelFormat) {
+		if (pixelFormat != null) {
+			this.pixelFormat = pixelFormat;
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts or stops receiving frames.
+	 *
+	 * @param enabled {@code true} to receive frames
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public void sendTexture(PGraphicsOpenGL graphics) {
+		record(graphics.width, graphics.height, null, null, System.nanoTime(), null);
+	}
+
+	@Override
+	public void sendPixels(OutputFrame frame) {
+		record(frame.width(), frame.height(), frame.view(), frame.pixelFormat(), frame.captureNanos(), frame);
+	}
+
+	@Override
+	public synchronized void recordFailedFrame() {
+		failedFrames++;
+	}
+
+	@Override
+	public synchronized void recordDroppedFrame() {
+		droppedFrames++;
+	}
+
+	private synchronized void record(int width, int height, zividomelive.ViewType frameView,
+									 OutputManager.NdiPixelFormat format, long captureNanos, OutputFrame frame) {
+		long now = System.nanoTime();
+		if (frame != null) {
+			frame.retain();
+			if (latestFrame != null) {
+				latestFrame.release();
+			}
+			latestFrame = frame;
+		}
+
+		long latency = now - captureNanos;
+		if (frameCount == 0) {
+			firstReceivedNanos = now;
+		}
+		lastReceivedNanos = now;
+		totalLatencyNanos += latency;
+		maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+
+		if (history > 0) {
+			if (records.size() == history) {
+				records.removeFirst();
+			}
+			records.addLast(new Record(frameCount, width, height, frameView, format, captureNanos, now));
+		}
+		frameCount++;
+	}
+
+	/**
+	 * Returns the latest pixel frame. The sink holds a reference until the next frame or
+	 * {@link #reset()}; callers must not release it.
+	 *
+	 * @return latest frame, or {@code null} before the first pixel frame
+	 */
+	public synchronized OutputFrame getLatestFrame() {
+		return latestFrame;
+	}
+
+	/**
+	 * Returns a copy of the latest BGRA frame's pixels as Processing ARGB.
+	 *
+	 * @return {@code width * height} ARGB pixels, or {@code null} when the latest frame is not BGRA
+	 */
+	public synchronized int[] copyLatestPixels() {
+		if (latestFrame == null || latestFrame.pixelFormat() != OutputManager.NdiPixelFormat.BGRA) {
+			return null;
+		}
+		int[] copy = new int[latestFrame.pixelCount];
+		latestFrame.argbWords().get(0, copy);
+		return copy;
+	}
+
+	/**
+	 * Returns the most recent records, oldest first.
+	 *
+	 * @return a snapshot of at most the configured history
+	 */
+	public synchronized List<Record> getRecords() {
+		return new ArrayList<>(records);
+	}
+
+	/** Returns the number of frames received. */
+	public synchronized long getFrameCount() {
+		return frameCount;
+	}
+
+	/** Returns the number of frames reported lost before reaching the sink. */
+	public synchronized long getFailedFrames() {
+		return failedFrames;
+	}
+
+	/** Returns the number of frames reported skipped before reaching the sink. */
+	public synchronized long getDroppedFrames() {
+		return droppedFrames;
+	}
+
+	/** Returns the mean capture-to-delivery latency in nanoseconds, or zero before the first frame. */
+	public synchronized double getMeanLatencyNanos() {
+		return frameCount == 0 ? 0.0 : (double) totalLatencyNanos / frameCount;
+	}
+
+	/** Returns the largest capture-to-delivery latency in nanoseconds. */
+	public synchronized long getMaxLatencyNanos() {
+		return maxLatencyNanos;
+	}
+
+	/**
+	 * Returns the delivery rate between the first and the latest frame.
+	 *
+	 * @return frames per second, or zero before the second frame
+	 */
+	public synchronized double getFramesPerSecond() {
+		long elapsed = lastReceivedNanos - firstReceivedNanos;
+		return frameCount < 2 || elapsed <= 0 ? 0.0 : (frameCount - 1) * 1_000_000_000.0 / elapsed;
+	}
+
+	/** Clears every record and counter and releases the latest frame. */
+	public synchronized void reset() {
+		if (latestFrame != null) {
+			latestFrame.release();
+			latestFrame = null;
+		}
+		records.clear();
+		frameCount = 0;
+		failedFrames = 0;
+		droppedFrames = 0;
+		totalLatencyNanos = 0;
+		maxLatencyNanos = 0;
+		firstReceivedNanos = 0;
+		lastReceivedNanos = 0;
+	}
+}
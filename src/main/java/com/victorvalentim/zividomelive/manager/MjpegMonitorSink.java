@@ -0,0 +1,430 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.victorvalentim.zividomelive.support.LogManager;
+import com.victorvalentim.zividomelive.support.ThreadManager;
+import com.victorvalentim.zividomelive.zividomelive;
+import processing.core.PConstants;
+import processing.opengl.PGraphicsOpenGL;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Serves a low-rate MJPEG preview over HTTP for monitoring on devices that cannot decode NDI.
+ *
+ * <p>A texture {@link OutputSink} that wants frames only while at least one client is connected. When
+ * a frame is due at the monitor rate, the draw thread draws its view into a small graphics target and
+ * reads that back, so the per-frame cost is one blit and one readback of at most
+ * {@link #maxSize()} pixels a side. The pixels are JPEG-encoded on {@link ThreadManager}, one frame at a
+ * time; a frame due while the previous one is still encoding is skipped. Each client is streamed the
+ * latest JPEG as {@code multipart/x-mixed-replace} from a handler thread of the embedded
+ * {@link HttpServer}.</p>
+ */
+final class MjpegMonitorSink implements OutputSink {
+
+	static final int MAX_CLIENTS = 4;
+	static final String BOUNDARY = "ziviDomeLiveFrame";
+
+	/** Longest a client waits for a frame before checking that the monitor still runs. */
+	private static final long CLIENT_WAIT_MILLIS = 1_000L;
+
+	private final Logger logger = LogManager.getLogger();
+	private final String threadName;
+
+	private volatile zividomelive.ViewType view = zividomelive.ViewType.FISHEYE_DOMEMASTER;
+	private volatile int port;
+	private volatile int maxSize;
+	private volatile float quality;
+	private final FramePacer pacer;
+
+	/* Lifecycle state, guarded by this. */
+	private volatile boolean serving;
+	private volatile boolean unavailable;
+	private volatile String failureReason = "";
+	private HttpServer server;
+	private ExecutorService handlers;
+
+	/* Downscaled target, used only on the Processing/OpenGL thread. */
+	private PGraphicsOpenGL target;
+
+	/* Encoder state, owned by whichever side holds the encoding flag. */
+	private final AtomicBoolean encoding = new AtomicBoolean();
+	private BufferedImage image;
+	private ImageWriter writer;
+	private final ByteArrayOutputStream jpegBytes = new ByteArrayOutputStream();
+	private boolean failureLogged;
+
+	/* Latest JPEG for the client handlers, guarded by frameLock. */
+	private final Object frameLock = new Object();
+	private byte[] latestJpeg;
+	private long latestSequence;
+
+	private final AtomicInteger clients = new AtomicInteger();
+	private final AtomicLong encodedFrames = new AtomicLong();
+	private final AtomicLong skippedFrames = new AtomicLong();
+	private final AtomicLong failedFrames = new AtomicLong();
+
+	/**
+	 * Creates a stopped monitor.
+	 *
+	 * @param threadName prefix of the HTTP handler thread names
+	 * @param port TCP port to listen on, or zero for any free port
+	 * @param framesPerSecond monitor rate
+	 * @param maxSize longest side of the served frames
+	 * @param quality JPEG quality between zero and one
+	 */
+	MjpegMonitorSink(String threadName, int port, int framesPerSecond, int maxSize, float quality) {
+		this.threadName = threadName;
+		this.pacer = new FramePacer(framesPerSecond, 1);
+		setPort(port);
+		setMaxSize(maxSize);
+		setQuality(quality);
+	}
+
+	@Override
+	public String name() {
+		return "MJPEG monitor";
+	}
+
+	@Override
+	public Input input() {
+		return Input.TEXTURE;
+	}
+
+	@Override
+	public zividomelive.ViewType view() {
+		return view;
+	}
+
+	void setView(zividomelive.ViewType view) {
+		this.view = view;
+	}
+
+	/** Wants frames only while a client is watching, so an idle monitor costs nothing per frame. */
+	@Override
+	public boolean isEnabled() {
+		return serving && clients.get() > 0;
+	}
+
+	boolean isServing() {
+		return serving;
+	}
+
+	/** Returns the bound port while serving, otherwise the configured one. */
+	synchronized int port() {
+		HttpServer current = server;
+		return current != null ? current.getAddress().getPort() : port;
+	}
+
+	/** Sets the port, used from the next start. */
+	void setPort(int port) {
+		if (port < 0 || port > 65_535) {
+			throw new IllegalArgumentException("Port must be between 0 and 65535");
+		}
+		this.port = port;
+	}
+
+	void setFrameRate(int framesPerSecond) {
+		pacer.setRate(framesPerSecond, 1);
+	}
+
+	int maxSize() {
+		return maxSize;
+	}
+
+	void setMaxSize(int maxSize) {
+		if (maxSize < 16 || maxSize > 4_096) {
+			throw new IllegalArgumentException("Monitor size must be between 16 and 4096 pixels");
+		}
+		this.maxSize = maxSize;
+	}
+
+	float quality() {
+		return quality;
+	}
+
+	void setQuality(float quality) {
+		if (!(quality >= 0.0f && quality <= 1.0f)) {
+			throw new IllegalArgumentException("JPEG quality must be between 0 and 1");
+		}
+		this.quality = quality;
+	}
+
+	/**
+	 * Starts or stops serving. Starting binds the HTTP server on all interfaces; stopping closes it and
+	 * signals every client handler to finish, without waiting for them.
+	 *
+	 * @param serve {@code true} to serve the monitor stream
+	 * @return the resulting state
+	 */
+	synchronized OutputManager.OutputState setEnabled(boolean serve) {
+		if (serve) {
+			start();
+		} else {
+			stop();
+		}
+		return state();
+	}
+
+	private void start() {
+		if (serving) {
+			return;
+		}
+		unavailable = false;
+		failureReason = "";
+		failureLogged = false;
+
+		HttpServer created;
+		try {
+			created = HttpServer.create(new InetSocketAddress(port), 0);
+		} catch (IOException | RuntimeException error) {
+			unavailable = true;
+			failureReason = OutputManager.rootCauseMessage(error);
+			logger.warning("MJPEG monitor is unavailable: " + failureReason);
+			return;
+		}
+
+		AtomicInteger threads = new AtomicInteger();
+		handlers = Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(task, threadName + "-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		created.setExecutor(handlers);
+		created.createContext("/", this::stream);
+		server = created;
+		serving = true;
+		created.start();
+		logger.info("MJPEG monitor serving on port " + created.getAddress().getPort() + ".");
+	}
+
+	private void stop() {
+		if (!serving && server == null) {
+			return;
+		}
+		serving = false;
+		synchronized (frameLock) {
+			frameLock.notifyAll();
+		}
+		HttpServer current = server;
+		server = null;
+		if (current != null) {
+			current.stop(0);
+		}
+		ExecutorService pool = handlers;
+		handlers = null;
+		if (pool != null) {
+			// Handlers see the cleared flag or the interrupt and exit on their daemon threads
+			pool.shutdownNow();
+		}
+		logger.info("MJPEG monitor stopped.");
+	}
+
+	/**
+	 * Downscales the view on the GPU and hands the small readback to the encoder when a frame is due.
+	 * Runs on the Processing/OpenGL thread.
+	 */
+	@Override
+	public void sendTexture(PGraphicsOpenGL graphics) {
+		if (!wantsFrame(System.nanoTime())) {
+			return;
+		}
+
+		float scale = Math.min(1.0f, (float) maxSize / Math.max(graphics.width, graphics.height));
+		int width = Math.max(1, Math.round(graphics.width * scale));
+		int height = Math.max(1, Math.round(graphics.height * scale));
+		if (target == null || target.width != width || target.height != height) {
+			if (target != null) {
+				target.dispose();
+			}
+			target = (PGraphicsOpenGL) graphics.parent.createGraphics(width, height, PConstants.P2D);
+		}
+
+		target.beginDraw();
+		target.image(graphics, 0, 0, width, height);
+		target.endDraw();
+		target.loadPixels();
+		offer(target.pixels, width, height);
+	}
+
+	/**
+	 * Reports whether a frame should be captured now: a client is connected, the encoder is idle and
+	 * the monitor rate has a frame due.
+	 */
+	boolean wantsFrame(long nowNanos) {
+		if (!isEnabled()) {
+			return false;
+		}
+		if (encoding.get()) {
+			skippedFrames.incrementAndGet();
+			return false;
+		}
+		return pacer.shouldCapture(nowNanos);
+	}
+
+	/**
+	 * Copies ARGB pixels into the encoder image and schedules one encode.
+	 *
+	 * @return {@code false} if the previous frame is still encoding
+	 */
+	boolean offer(int[] argb, int width, int height) {
+		if (!encoding.compareAndSet(false, true)) {
+			skippedFrames.incrementAndGet();
+			return false;
+		}
+
+		if (image == null || image.getWidth() != width || image.getHeight() != height) {
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		}
+		int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		System.arraycopy(argb, 0, data, 0, width * height);
+
+		try {
+			ThreadManager.submitTask(() -> {
+				encode();
+				return null;
+			});
+		} catch (RejectedExecutionException error) {
+			failedFrames.incrementAndGet();
+			encoding.set(false);
+		}
+		return true;
+	}
+
+	/** Encodes the pending image and publishes it to the clients. Runs on a {@link ThreadManager} thread. */
+	private void encode() {
+		try {
+			if (writer == null) {
+				Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+				if (!writers.hasNext()) {
+					throw new IOException("no JPEG encoder is available");
+				}
+				writer = writers.next();
+			}
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(quality);
+
+			jpegBytes.reset();
+			try (ImageOutputStream out = new MemoryCacheImageOutputStream(jpegBytes)) {
+				writer.setOutput(out);
+				writer.write(null, new IIOImage(image, null, null), param);
+			}
+			byte[] jpeg = jpegBytes.toByteArray();
+			synchronized (frameLock) {
+				latestJpeg = jpeg;
+				latestSequence++;
+				frameLock.notifyAll();
+			}
+			encodedFrames.incrementAndGet();
+		} catch (IOException | RuntimeException error) {
+			failedFrames.incrementAndGet();
+			if (!failureLogged) {
+				failureLogged = true;
+				logger.warning("MJPEG monitor failed to encode a frame: " + OutputManager.rootCauseMessage(error));
+			}
+		} finally {
+			encoding.set(false);
+		}
+	}
+
+	/** Streams JPEGs to one client until it disconnects or the monitor stops. Runs on a handler thread. */
+	private void stream(HttpExchange exchange) throws IOException {
+		try {
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+			if (clients.incrementAndGet() > MAX_CLIENTS) {
+				clients.decrementAndGet();
+				exchange.sendResponseHeaders(503, -1);
+				return;
+			}
+
+			try {
+				exchange.getResponseHeaders().set("Content-Type", "multipart/x-mixed-replace; boundary=" + BOUNDARY);
+				exchange.getResponseHeaders().set("Cache-Control", "no-cache, no-store");
+				exchange.sendResponseHeaders(200, 0);
+				OutputStream body = exchange.getResponseBody();
+				long sequence;
+				synchronized (frameLock) {
+					sequence = latestSequence;
+				}
+				byte[] jpeg;
+				while (true) {
+					synchronized (frameLock) {
+						while (serving && latestSequence == sequence) {
+							frameLock.wait(CLIENT_WAIT_MILLIS);
+						}
+						if (!serving) {
+							return;
+						}
+						sequence = latestSequence;
+						jpeg = latestJpeg;
+					}
+					String part = "--" + BOUNDARY + "\r\nContent-Type: image/jpeg\r\nContent-Length: "
+							+ jpeg.length + "\r\n\r\n";
+					body.write(part.getBytes(StandardCharsets.US_ASCII));
+					body.write(jpeg);
+					body.write('\r');
+					body.write('\n');
+					body.flush();
+				}
+			} catch (IOException disconnected) {
+				// The client closed the connection
+			} catch (InterruptedException stopping) {
+				Thread.currentThread().interrupt();
+			} finally {
+				clients.decrementAndGet();
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/** Returns the observable lifecycle state of this sink. */
+	OutputManager.OutputState state() {
+		return OutputManager.resolveOutputState(true, unavailable, serving, serving, false);
+	}
+
+	String failureReason() {
+		return failureReason;
+	}
+
+	int clients() {
+		return clients.get();
+	}
+
+	long encodedFrames() {
+		return encodedFrames.get();
+	}
+
+	long skippedFrames() {
+		return skippedFrames.get();
+	}
+
+	long failedFrames() {
+		return failedFrames.get();
+	}
+}
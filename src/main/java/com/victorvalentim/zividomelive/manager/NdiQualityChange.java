@@ -0,0 +1,87 @@
+package com.victorvalentim.zividomelive.manager;
+
+import java.util.Locale;
+
+/**
+ * One step of the adaptive NDI quality controller and the window of measurements behind it.
+ *
+ * @since 1.6.0
+ */
+public final class NdiQualityChange {
+
+	private final OutputManager.NdiQuality previous;
+	private final OutputManager.NdiQuality current;
+	private final double lossRatio;
+	private final double sendLoad;
+	private final long timestampNanos;
+
+	NdiQualityChange(OutputManager.NdiQuality previous, OutputManager.NdiQuality current, double lossRatio,
+					 double sendLoad, long timestampNanos) {
+		this.previous = previous;
+		this.current = current;
+		this.lossRatio = lossRatio;
+		this.sendLoad = sendLoad;
+		this.timestampNanos = timestampNanos;
+	}
+
+	/**
+	 * Returns the level in use before the step.
+	 *
+	 * @return previous level
+	 */
+	public OutputManager.NdiQuality previous() {
+		return previous;
+	}
+
+	/**
+	 * Returns the level in use after the step.
+	 *
+	 * @return new level
+	 */
+	public OutputManager.NdiQuality current() {
+		return current;
+	}
+
+	/**
+	 * Reports whether the step lowered quality.
+	 *
+	 * @return {@code true} for a step down
+	 */
+	public boolean isDowngrade() {
+		return current.ordinal() > previous.ordinal();
+	}
+
+	/**
+	 * Returns the share of captured frames dropped or failed over the measurement window.
+	 *
+	 * @return ratio from zero to one
+	 */
+	public double lossRatio() {
+		return lossRatio;
+	}
+
+	/**
+	 * Returns the mean time spent preparing and sending one frame over the window, as a fraction of
+	 * the NDI frame period.
+	 *
+	 * @return send load, above one when the worker cannot keep up
+	 */
+	public double sendLoad() {
+		return sendLoad;
+	}
+
+	/**
+	 * Returns when the step was taken, on the {@link System#nanoTime()} clock.
+	 *
+	 * @return timestamp in nanoseconds
+	 */
+	public long timestampNanos() {
+		return timestampNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "NDI quality %s -> %s (loss %.1f%%, send load %.0f%%)",
+				previous, current, lossRatio * 100.0, sendLoad * 100.0);
+	}
+}
@@ -0,0 +1,178 @@
+package com.victorvalentim.zividomelive.manager;
+
+/**
+ * Closed-loop controller that steps NDI quality down when receivers or the network fall behind and
+ * back up once they have recovered.
+ *
+ * <p>The controller is fed the running captured, lost (dropped plus failed), sent and send-time
+ * totals of the enabled routes, kept per route by {@link NdiQualityTotals}, once per draw frame. Every {@link #SAMPLE_NANOS} it stores their
+ * growth as one sample of a sliding window of {@link #WINDOW_SAMPLES}. Once the window is full it
+ * derives the loss ratio and the send load, the mean time to prepare and send a frame over the frame
+ * period:</p>
+ * <ul>
+ *   <li>a loss ratio above {@link #DOWN_LOSS_RATIO} or a send load above {@link #DOWN_SEND_LOAD} steps
+ *   one {@link OutputManager.NdiQuality} level down;</li>
+ *   <li>a loss ratio at most {@link #UP_LOSS_RATIO} with a send load below {@link #UP_SEND_LOAD},
+ *   sustained for {@link #UP_HOLD_NANOS} since the last step, steps one level up.</li>
+ * </ul>
+ * <p>The gap between the thresholds and the longer hold before stepping up keep the controller from
+ * oscillating. Clocked NDI senders block for about one frame period per send, so a send load near one
+ * is normal; only a sustained load above it means frames back up. Every step restarts the window, so
+ * each decision only sees frames sent at the current level.</p>
+ *
+ * <p>Not thread-safe: it is driven from the Processing draw thread.</p>
+ */
+final class NdiQualityController {
+
+	/** Length of one window sample. */
+	static final long SAMPLE_NANOS = 250_000_000L;
+	/** Samples in the sliding window, two seconds in total. */
+	static final int WINDOW_SAMPLES = 8;
+	/** Captured frames a window needs before it is judged. */
+	static final int MIN_WINDOW_FRAMES = 8;
+	/** Loss ratio above which quality steps down. */
+	static final double DOWN_LOSS_RATIO = 0.05;
+	/** Send load above which quality steps down. */
+	static final double DOWN_SEND_LOAD = 1.2;
+	/** Loss ratio at or below which quality may step up. */
+	static final double UP_LOSS_RATIO = 0.01;
+	/** Send load below which quality may step up. */
+	static final double UP_SEND_LOAD = 1.05;
+	/** Time since the last step before quality may step up. */
+	static final long UP_HOLD_NANOS = 10_000_000_000L;
+
+	private final long[] capturedSamples = new long[WINDOW_SAMPLES];
+	private final long[] lostSamples = new long[WINDOW_SAMPLES];
+	private final long[] sentSamples = new long[WINDOW_SAMPLES];
+	private final long[] sendNanosSamples = new long[WINDOW_SAMPLES];
+	private int head;
+	private int samples;
+
+	private boolean started;
+	private long sampleStartNanos;
+	private long lastCaptured;
+	private long lastLost;
+	private long lastSent;
+	private long lastSendNanos;
+	private long lastChangeNanos;
+
+	private OutputManager.NdiQuality quality = OutputManager.NdiQuality.FULL;
+	private double lossRatio;
+	private double sendLoad;
+
+	/**
+	 * Records the current counters and steps quality when the window calls for it.
+	 *
+	 * @param nowNanos current time on the {@link System#nanoTime()} clock
+	 * @param captured frames handed to the enabled routes
+	 * @param lost frames the enabled routes dropped or failed to send
+	 * @param sent frames the enabled routes sent
+	 * @param sendNanos total time the enabled routes spent preparing and sending frames
+	 * @param periodNanos NDI frame period
+	 * @return the step taken, or {@code null} when quality is unchanged
+	 */
+	NdiQualityChange update(long nowNanos, long captured, long lost, long sent, long sendNanos, long periodNanos) {
+		if (!started) {
+			started = true;
+			lastChangeNanos = nowNanos;
+			rebase(nowNanos, captured, lost, sent, sendNanos);
+			return null;
+		}
+		if (nowNanos - sampleStartNanos < SAMPLE_NANOS) {
+			return null;
+		}
+
+		long capturedDelta = captured - lastCaptured;
+		long lostDelta = lost - lastLost;
+		long sentDelta = sent - lastSent;
+		long sendNanosDelta = sendNanos - lastSendNanos;
+		rebase(nowNanos, captured, lost, sent, sendNanos);
+		if (capturedDelta < 0 || lostDelta < 0 || sentDelta < 0 || sendNanosDelta < 0) {
+			// The totals were rebuilt; their history no longer adds up
+			samples = 0;
+			return null;
+		}
+
+		capturedSamples[head] = capturedDelta;
+		lostSamples[head] = lostDelta;
+		sentSamples[head] = sentDelta;
+		sendNanosSamples[head] = sendNanosDelta;
+		head = (head + 1) % WINDOW_SAMPLES;
+		if (samples < WINDOW_SAMPLES) {
+			samples++;
+		}
+		if (samples < WINDOW_SAMPLES) {
+			return null;
+		}
+
+		long windowCaptured = 0;
+		long windowLost = 0;
+		long windowSent = 0;
+		long windowSendNanos = 0;
+		for (int index = 0; index < WINDOW_SAMPLES; index++) {
+			windowCaptured += capturedSamples[index];
+			windowLost += lostSamples[index];
+			windowSent += sentSamples[index];
+			windowSendNanos += sendNanosSamples[index];
+		}
+		if (windowCaptured < MIN_WINDOW_FRAMES) {
+			return null;
+		}
+		lossRatio = Math.min(1.0, (double) windowLost / windowCaptured);
+		sendLoad = windowSent == 0 ? 0.0 : (double) windowSendNanos / windowSent / Math.max(1L, periodNanos);
+
+		OutputManager.NdiQuality next = quality;
+		if (lossRatio > DOWN_LOSS_RATIO || sendLoad > DOWN_SEND_LOAD) {
+			next = quality.lower();
+		} else if (lossRatio <= UP_LOSS_RATIO && sendLoad < UP_SEND_LOAD
+				&& nowNanos - lastChangeNanos >= UP_HOLD_NANOS) {
+			next = quality.higher();
+		}
+		if (next == quality) {
+			return null;
+		}
+
+		NdiQualityChange change = new NdiQualityChange(quality, next, lossRatio, sendLoad, nowNanos);
+		quality = next;
+		lastChangeNanos = nowNanos;
+		samples = 0;
+		return change;
+	}
+
+	private void rebase(long nowNanos, long captured, long lost, long sent, long sendNanos) {
+		sampleStartNanos = nowNanos;
+		lastCaptured = captured;
+		lastLost = lost;
+		lastSent = sent;
+		lastSendNanos = sendNanos;
+	}
+
+	/** Forgets the window, for example while no route is enabled, and keeps the current level. */
+	void pause() {
+		started = false;
+		samples = 0;
+	}
+
+	/** Forgets the window and returns to {@link OutputManager.NdiQuality#FULL}. */
+	void reset() {
+		pause();
+		quality = OutputManager.NdiQuality.FULL;
+		lossRatio = 0.0;
+		sendLoad = 0.0;
+	}
+
+	/** Returns the level currently selected. */
+	OutputManager.NdiQuality quality() {
+		return quality;
+	}
+
+	/** Returns the loss ratio of the last judged window. */
+	double lossRatio() {
+		return lossRatio;
+	}
+
+	/** Returns the send load of the last judged window. */
+	double sendLoad() {
+		return sendLoad;
+	}
+}
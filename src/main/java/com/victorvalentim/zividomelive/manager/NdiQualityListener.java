@@ -0,0 +1,20 @@
+package com.victorvalentim.zividomelive.manager;
+
+/**
+ * Receives the NDI quality steps taken by the adaptive controller.
+ *
+ * <p>Register it with {@link OutputManager#addNdiQualityListener(NdiQualityListener)}. Notifications run
+ * on the Processing draw thread and must return quickly.</p>
+ *
+ * @since 1.6.0
+ */
+@FunctionalInterface
+public interface NdiQualityListener {
+
+	/**
+	 * Called after every NDI route switched to a new quality level.
+	 *
+	 * @param change previous and new level with the measurements that triggered the step
+	 */
+	void ndiQualityChanged(NdiQualityChange change);
+}
@@ -0,0 +1,95 @@
+package com.victorvalentim.zividomelive.manager;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Running counters of the enabled NDI routes, fed to {@link NdiQualityController}.
+ *
+ * <p>Route counters are cumulative over the route's lifetime, across every start and stop. Summing
+ * them directly would make a route that starts add its whole history as one burst, and a route that
+ * stops pull the sum backwards. Each enabled route instead keeps a baseline, taken the first sample it
+ * is enabled in and dropped at the first sample it is not, and only its growth since that baseline is
+ * added to the totals. The totals therefore never go backwards while routes start and stop.</p>
+ *
+ * <p>A sample is one {@link #add} per enabled route followed by {@link #endSample()}.</p>
+ *
+ * <p>Not thread-safe: it is driven from the Processing draw thread.</p>
+ */
+final class NdiQualityTotals {
+
+	private final Map<Object, Baseline> baselines = new IdentityHashMap<>();
+	private long sample;
+	private long captured;
+	private long lost;
+	private long sent;
+	private long sendNanos;
+
+	/**
+	 * Adds an enabled route's growth since its baseline and moves the baseline forward. A route without
+	 * a baseline only records one.
+	 *
+	 * @param route the route the counters belong to
+	 * @param routeCaptured frames handed to the route
+	 * @param routeLost frames the route dropped or failed to send
+	 * @param routeSent frames the route sent
+	 * @param routeSendNanos time the route spent preparing and sending frames
+	 */
+	void add(Object route, long routeCaptured, long routeLost, long routeSent, long routeSendNanos) {
+		Baseline baseline = baselines.get(route);
+		if (baseline == null) {
+			baseline = new Baseline();
+			baselines.put(route, baseline);
+		} else {
+			captured += routeCaptured - baseline.captured;
+			lost += routeLost - baseline.lost;
+			sent += routeSent - baseline.sent;
+			sendNanos += routeSendNanos - baseline.sendNanos;
+		}
+		baseline.captured = routeCaptured;
+		baseline.lost = routeLost;
+		baseline.sent = routeSent;
+		baseline.sendNanos = routeSendNanos;
+		baseline.sample = sample;
+	}
+
+	/** Drops the baselines of routes not added since the previous sample, as they stopped or were removed. */
+	void endSample() {
+		baselines.values().removeIf(baseline -> baseline.sample != sample);
+		sample++;
+	}
+
+	/** Drops every baseline, so each enabled route starts over from its next sample. */
+	void clear() {
+		baselines.clear();
+	}
+
+	/** Returns the frames handed to the enabled routes. */
+	long captured() {
+		return captured;
+	}
+
+	/** Returns the frames the enabled routes dropped or failed to send. */
+	long lost() {
+		return lost;
+	}
+
+	/** Returns the frames the enabled routes sent. */
+	long sent() {
+		return sent;
+	}
+
+	/** Returns the time the enabled routes spent preparing and sending frames. */
+	long sendNanos() {
+		return sendNanos;
+	}
+
+	/** Counters of one route when it was last added. */
+	private static final class Baseline {
+		long captured;
+		long lost;
+		long sent;
+		long sendNanos;
+		long sample;
+	}
+}
@@ -0,0 +1,645 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.support.LogManager;
+import com.victorvalentim.zividomelive.support.PixelKernels;
+import com.victorvalentim.zividomelive.zividomelive;
+import me.walkerknapp.devolay.DevolaySender;
+import me.walkerknapp.devolay.DevolayVideoFrame;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * One NDI sender with its own worker, frame slots and counters.
+ *
+ * <p>A route is a pixel {@link OutputSink}: the draw thread hands it a shared {@link OutputFrame} for
+ * its view through {@link #sendPixels(OutputFrame)}, and the route's dedicated worker converts it
+ * into one of three slots when needed and sends it. The slots rotate through a lock-free
+ * {@link FrameMailbox}, so a newer frame replaces one the worker has not taken yet and the slot being
+ * sent is never touched. Bounded shutdown with deferred native cleanup and explicit restart behave
+ * exactly as for the single NDI output this class was extracted from.</p>
+ *
+ * <p>The draw thread never waits for the lifecycle: {@link #request(boolean, Executor)} records the
+ * requested publication, stops publishing at once when disabling, and leaves creating the sender or
+ * joining the worker to a lifecycle executor.</p>
+ */
+final class NdiRoute implements OutputSink {
+
+	/** One slot may be sent while one is filled and one waits for the worker. */
+	static final int SLOT_COUNT = 3;
+
+	/** Longest worker park between checks of its running flag. */
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final Logger logger = LogManager.getLogger();
+	private final String name;
+	private final String senderName;
+	private final String workerName;
+	private final String label;
+	private final FrameBufferPool framePool;
+	private final long shutdownTimeoutMillis;
+
+	private volatile zividomelive.ViewType view;
+	private volatile OutputManager.NdiPixelFormat pixelFormat;
+	private volatile OutputManager.NdiQuality quality = OutputManager.NdiQuality.FULL;
+
+	/* Lifecycle and worker state. */
+	private final Object lifecycleLock = new Object();
+	private volatile DevolaySender sender;
+	private volatile boolean enabled;
+	/** Publication last requested; lifecycle tasks converge the route to it. */
+	private volatile boolean requested;
+	private volatile boolean unavailable;
+	private volatile String failureReason = "";
+	private volatile boolean workerRunning;
+	private volatile boolean shutdownPending;
+	private boolean restartRequested;
+	private volatile Thread workerThread;
+
+	private final Slot[] slots = new Slot[SLOT_COUNT];
+	/** Hand-off between the draw thread and the worker; {@code null} while no activation owns slots. */
+	private volatile FrameMailbox<Slot> mailbox;
+
+	private final AtomicLong capturedFrames = new AtomicLong();
+	private final AtomicLong sentFrames = new AtomicLong();
+	private final AtomicLong droppedFrames = new AtomicLong();
+	private final AtomicLong failedFrames = new AtomicLong();
+	private final AtomicLong sendNanos = new AtomicLong();
+
+	/**
+	 * Creates a stopped route.
+	 *
+	 * @param name route identifier, also used in worker and log names
+	 * @param senderName NDI source name announced on the network
+	 * @param workerName name of the sender worker thread
+	 * @param label prefix of log messages, such as {@code "NDI"}
+	 * @param view initial view sent by the route
+	 * @param pixelFormat initial layout of the sent frames
+	 * @param framePool pool providing conversion buffers
+	 * @param shutdownTimeoutMillis longest wait for the worker when stopping
+	 */
+	NdiRoute(String name, String senderName, String workerName, String label,
+			 zividomelive.ViewType view, OutputManager.NdiPixelFormat pixelFormat, FrameBufferPool framePool,
+			 long shutdownTimeoutMillis) {
+		this.name = name;
+		this.senderName = senderName;
+		this.workerName = workerName;
+		this.label = label;
+		this.view = view;
+		this.pixelFormat = pixelFormat;
+		this.framePool = framePool;
+		this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public Input input() {
+		return Input.PIXELS;
+	}
+
+	@Override
+	public zividomelive.ViewType view() {
+		return view;
+	}
+
+	void setView(zividomelive.ViewType view) {
+		this.view = view;
+	}
+
+	@Override
+	public OutputManager.NdiPixelFormat pixelFormat() {
+		return quality.pixelFormat(pixelFormat);
+	}
+
+	void setPixelFormat(OutputManager.NdiPixelFormat pixelFormat) {
+		this.pixelFormat = pixelFormat;
+	}
+
+	/** Returns the configured pixel format, before any quality step. */
+	OutputManager.NdiPixelFormat configuredPixelFormat() {
+		return pixelFormat;
+	}
+
+	OutputManager.NdiQuality quality() {
+		return quality;
+	}
+
+	/** Applies a quality level from the next captured frame on. */
+	void setQuality(OutputManager.NdiQuality quality) {
+		this.quality = quality;
+	}
+
+	/**
+	 * Requests that the route publish or stop, without waiting for the sender or worker.
+	 *
+	 * <p>Safe on the draw thread. Disabling stops publication immediately; the lifecycle task then
+	 * starts or stops the route according to the latest request when it runs, so superseded requests
+	 * collapse into one transition.</p>
+	 *
+	 * @param publish {@code true} to start publishing
+	 * @param lifecycle executor running sender creation and worker shutdown
+	 * @return future completed with the route state once the request has been applied
+	 */
+	CompletableFuture<OutputManager.OutputState> request(boolean publish, Executor lifecycle) {
+		requested = publish;
+		if (!publish) {
+			enabled = false;
+		}
+		try {
+			return CompletableFuture.supplyAsync(this::applyRequest, lifecycle);
+		} catch (RejectedExecutionException error) {
+			return CompletableFuture.failedFuture(error);
+		}
+	}
+
+	/** Starts or stops the route to match the latest request. Lifecycle executor only. */
+	private OutputManager.OutputState applyRequest() {
+		if (requested) {
+			start();
+		} else {
+			stop();
+		}
+		return state();
+	}
+
+	/**
+	 * Reports the publication last requested through {@link #request(boolean, Executor)}.
+	 *
+	 * @return {@code true} while the route is requested to publish and has not failed since
+	 */
+	boolean isRequested() {
+		return requested;
+	}
+
+	/** Initializes the sender and starts its dedicated worker. */
+	void start() {
+		synchronized (lifecycleLock) {
+			if (isEnabled()) {
+				return;
+			}
+
+			Thread worker = workerThread;
+			if (worker != null && worker.isAlive()) {
+				if (workerRunning && !shutdownPending && sender != null) {
+					// A disable request was superseded before its worker was stopped
+					enabled = true;
+					return;
+				}
+				restartRequested = true;
+				unavailable = false;
+				failureReason = "";
+				logger.info(label + " restart scheduled after the current worker finishes stopping.");
+				return;
+			}
+
+			if (worker != null || sender != null) {
+				workerThread = null;
+				releaseResourcesLocked();
+			}
+
+			initializeLocked();
+		}
+	}
+
+	/** Creates one activation cycle. Must be called while holding the lifecycle lock. */
+	private void initializeLocked() {
+		unavailable = false;
+		failureReason = "";
+		shutdownPending = false;
+		restartRequested = false;
+
+		try {
+			sender = new DevolaySender(senderName);
+			initializeSlots();
+
+			Thread worker = new Thread(this::workerLoop, workerName);
+			worker.setDaemon(true);
+			workerThread = worker;
+			workerRunning = true;
+			enabled = true;
+			worker.start();
+
+			logger.info(label + " output initialized with a dedicated sender worker.");
+		} catch (LinkageError | RuntimeException error) {
+			enabled = false;
+			workerRunning = false;
+			workerThread = null;
+			releaseResourcesLocked();
+
+			unavailable = true;
+			requested = false;
+			failureReason = OutputManager.rootCauseMessage(error);
+
+			logger.warning(
+					label + " unavailable on "
+							+ System.getProperty("os.name", "unknown")
+							+ "/"
+							+ System.getProperty("os.arch", "unknown")
+							+ ": "
+							+ failureReason
+			);
+		}
+	}
+
+	/** Creates the fixed frame slots and their mailbox after Devolay initializes successfully. */
+	private void initializeSlots() {
+		for (int index = 0; index < SLOT_COUNT; index++) {
+			slots[index] = new Slot(framePool);
+		}
+		mailbox = new FrameMailbox<>(slots[0], slots[1], slots[2]);
+	}
+
+	/**
+	 * Hands a shared frame to this route's worker, replacing a pending frame the worker has not taken.
+	 *
+	 * <p>Called on the draw thread. The route takes its own reference; the caller keeps its one. BGRA
+	 * frames, which hold the ARGB pixels, are sent in the route's pixel format; other frames are sent
+	 * in their own.</p>
+	 *
+	 * @param frame captured frame for this route's view
+	 */
+	@Override
+	public void sendPixels(OutputFrame frame) {
+		FrameMailbox<Slot> handoff = mailbox;
+		if (handoff == null) {
+			droppedFrames.incrementAndGet();
+			return;
+		}
+
+		Slot slot = handoff.writable();
+		frame.retain();
+		slot.source = frame;
+		if (frame.pixelFormat == OutputManager.NdiPixelFormat.BGRA) {
+			OutputManager.NdiQuality level = quality;
+			int scale = level.scaleDivisor();
+			if (frame.width < scale || frame.height < scale) {
+				scale = 1;
+			}
+			slot.scale = scale;
+			slot.pixelFormat = level.pixelFormat(pixelFormat).forWidth(frame.width / scale);
+		} else {
+			slot.scale = 1;
+			slot.pixelFormat = frame.pixelFormat;
+		}
+		switch (handoff.publish()) {
+			case FRESH:
+				capturedFrames.incrementAndGet();
+				break;
+			case REPLACED:
+				capturedFrames.incrementAndGet();
+				droppedFrames.incrementAndGet();
+				handoff.writable().releaseSource();
+				break;
+			default:
+				droppedFrames.incrementAndGet();
+				slot.releaseSource();
+				break;
+		}
+	}
+
+	@Override
+	public void recordFailedFrame() {
+		failedFrames.incrementAndGet();
+	}
+
+	@Override
+	public void recordDroppedFrame() {
+		droppedFrames.incrementAndGet();
+	}
+
+	/** Dedicated conversion and sender loop. No OpenGL calls are made here. */
+	private void workerLoop() {
+		Thread worker = Thread.currentThread();
+		try {
+			FrameMailbox<Slot> handoff = mailbox;
+			while (handoff != null && (workerRunning || handoff.hasPending())) {
+				Slot slot = null;
+
+				try {
+					slot = handoff.await(IDLE_PARK_NANOS);
+					if (slot == null) {
+						if (Thread.interrupted() && !workerRunning) {
+							Thread.currentThread().interrupt();
+							break;
+						}
+						continue;
+					}
+
+					DevolaySender activeSender = sender;
+					if (!enabled || activeSender == null) {
+						if (unavailable) {
+							failedFrames.incrementAndGet();
+						}
+						continue;
+					}
+
+					long sendStart = System.nanoTime();
+					slot.prepareDevolayFrame();
+					activeSender.sendVideoFrame(slot.frame);
+					sendNanos.addAndGet(System.nanoTime() - sendStart);
+					sentFrames.incrementAndGet();
+				} catch (Exception | LinkageError error) {
+					failedFrames.incrementAndGet();
+					markWorkerUnavailable(worker, error);
+				} finally {
+					if (slot != null) {
+						slot.releaseSource();
+					}
+				}
+			}
+		} finally {
+			finishWorker(worker);
+		}
+	}
+
+	/** Records a worker failure without closing native objects still owned by that worker. */
+	private void markWorkerUnavailable(Thread worker, Throwable error) {
+		String reason = OutputManager.rootCauseMessage(error);
+		synchronized (lifecycleLock) {
+			if (workerThread != worker) {
+				return;
+			}
+			enabled = false;
+			requested = false;
+			workerRunning = false;
+			unavailable = true;
+			failureReason = reason;
+		}
+		logger.warning(label + " sender worker failed and was disabled: " + reason);
+	}
+
+	/** Completes deferred cleanup after the worker can no longer touch native NDI resources. */
+	private void finishWorker(Thread worker) {
+		synchronized (lifecycleLock) {
+			if (workerThread != worker) {
+				return;
+			}
+
+			workerThread = null;
+			enabled = false;
+			workerRunning = false;
+			shutdownPending = false;
+
+			boolean restart = restartRequested;
+			restartRequested = false;
+			releaseResourcesLocked();
+
+			if (restart) {
+				initializeLocked();
+			}
+		}
+	}
+
+	/** Stops the worker before releasing the native sender and frame resources. */
+	void stop() {
+		Thread worker;
+		requested = false;
+		// Stop publishing even while a lifecycle task still holds the lock
+		enabled = false;
+		synchronized (lifecycleLock) {
+			enabled = false;
+			workerRunning = false;
+			restartRequested = false;
+
+			worker = workerThread;
+			if (worker == null) {
+				shutdownPending = false;
+				releaseResourcesLocked();
+				return;
+			}
+
+			if (!worker.isAlive()) {
+				workerThread = null;
+				shutdownPending = false;
+				releaseResourcesLocked();
+				return;
+			}
+
+			worker.interrupt();
+			if (worker == Thread.currentThread() || shutdownPending) {
+				shutdownPending = true;
+				return;
+			}
+			shutdownPending = true;
+		}
+
+		boolean stopped = OutputManager.waitForWorker(worker, shutdownTimeoutMillis);
+		if (!stopped) {
+			String reason = label + " sender worker did not stop within "
+					+ shutdownTimeoutMillis
+					+ " ms; native cleanup was deferred.";
+			synchronized (lifecycleLock) {
+				if (workerThread == worker && worker.isAlive()) {
+					failureReason = reason;
+				}
+			}
+			logger.warning(reason);
+			return;
+		}
+
+		synchronized (lifecycleLock) {
+			if (workerThread == worker) {
+				workerThread = null;
+				shutdownPending = false;
+				releaseResourcesLocked();
+			}
+		}
+		logger.info(label + " output shut down.");
+	}
+
+	/** Releases resources only after no worker can still use them. Lifecycle lock required. */
+	private void releaseResourcesLocked() {
+		FrameMailbox<Slot> handoff = mailbox;
+		mailbox = null;
+		if (handoff != null) {
+			Slot pending = handoff.close();
+			if (pending != null) {
+				pending.releaseSource();
+			}
+		}
+		closeSlots();
+		closeSender();
+	}
+
+	/** Closes every pooled Devolay frame. */
+	private void closeSlots() {
+		for (int index = 0; index < slots.length; index++) {
+			Slot slot = slots[index];
+			slots[index] = null;
+
+			if (slot != null) {
+				try {
+					slot.close();
+				} catch (RuntimeException | LinkageError error) {
+					String reason = OutputManager.rootCauseMessage(error);
+					if (failureReason.isEmpty()) {
+						failureReason = reason;
+					}
+					logger.warning("Failed to close an NDI frame slot: " + reason);
+				}
+			}
+		}
+	}
+
+	/** Closes the native NDI sender. */
+	private void closeSender() {
+		DevolaySender closing = sender;
+		sender = null;
+
+		if (closing != null) {
+			try {
+				closing.close();
+			} catch (RuntimeException | LinkageError error) {
+				String reason = OutputManager.rootCauseMessage(error);
+				if (failureReason.isEmpty()) {
+					failureReason = reason;
+				}
+				logger.warning("Failed to close the NDI sender: " + reason);
+			}
+		}
+	}
+
+	/**
+	 * Reports whether the route is enabled and ready to send frames.
+	 *
+	 * @return {@code true} when the sender and its worker are active
+	 */
+	@Override
+	public boolean isEnabled() {
+		return enabled && sender != null && workerRunning;
+	}
+
+	/** Returns the observable lifecycle state of this route. */
+	OutputManager.OutputState state() {
+		return OutputManager.resolveOutputState(
+				true,
+				unavailable,
+				sender != null || workerThread != null,
+				isEnabled(),
+				shutdownPending && workerThread != null);
+	}
+
+	String failureReason() {
+		return failureReason;
+	}
+
+	long capturedFrames() {
+		return capturedFrames.get();
+	}
+
+	long sentFrames() {
+		return sentFrames.get();
+	}
+
+	long droppedFrames() {
+		return droppedFrames.get();
+	}
+
+	long failedFrames() {
+		return failedFrames.get();
+	}
+
+	/** Returns the total time the worker spent preparing and sending frames. */
+	long sendNanos() {
+		return sendNanos.get();
+	}
+
+	/**
+	 * Reusable route slot.
+	 *
+	 * <p>A slot references the shared frame it sends. Frames already in the slot's layout are sent
+	 * straight from the shared buffer; BGRA frames sent as RGBA or UYVY are converted on the worker into a
+	 * buffer borrowed from the frame pool for the duration of the send. A reduced quality level first
+	 * shrinks BGRA frames into another borrowed buffer.</p>
+	 */
+	private static final class Slot implements AutoCloseable {
+
+		private final DevolayVideoFrame frame = new DevolayVideoFrame();
+		private final FrameBufferPool framePool;
+		private OutputFrame source;
+		private OutputFrame converted;
+		private OutputFrame scaled;
+		private OutputManager.NdiPixelFormat pixelFormat;
+		/** Integer shrink factor applied to BGRA frames before conversion. */
+		private int scale = 1;
+
+		private Slot(FrameBufferPool framePool) {
+			this.framePool = framePool;
+		}
+
+		/**
+		 * Shrinks the shared frame by the slot's scale, converts it to the slot's pixel format when they
+		 * differ, and configures the reusable Devolay frame.
+		 */
+		private void prepareDevolayFrame() {
+			OutputFrame captured = source;
+			OutputFrame pixels = captured;
+			if (scale > 1) {
+				int width = captured.width / scale;
+				int height = captured.height / scale;
+				scaled = framePool.acquire(Math.multiplyExact(width * height, OutputManager.NdiPixelFormat.BGRA.bytesPerPixel()));
+				scaled.width = width;
+				scaled.height = height;
+				scaled.pixelCount = width * height;
+				scaled.pixelFormat = OutputManager.NdiPixelFormat.BGRA;
+				PixelKernels.downsampleArgb(captured.argbWords(), captured.width, captured.height, scale, scaled.argbWords());
+				pixels = scaled;
+			}
+
+			ByteBuffer data = pixels.pixels;
+			if (pixelFormat != pixels.pixelFormat) {
+				converted = framePool.acquire(Math.multiplyExact(pixels.pixelCount, pixelFormat.bytesPerPixel()));
+				data = converted.pixels;
+				if (pixelFormat == OutputManager.NdiPixelFormat.UYVY) {
+					OutputManager.writeArgbAsUyvy(pixels.argbWords(), pixels.width, pixels.height, data);
+				} else {
+					OutputManager.writeArgbAsRgba(pixels.argbWords(), pixels.pixelCount, data);
+				}
+			}
+
+			frame.setResolution(pixels.width, pixels.height);
+			frame.setData(data);
+			frame.setFourCCType(pixelFormat.fourCCType());
+			frame.setLineStride(OutputManager.ndiLineStride(pixels.width, pixelFormat));
+			frame.setFormatType(OutputManager.NDI_FRAME_FORMAT_TYPE);
+			frame.setFrameRate(captured.frameRateNumerator, captured.frameRateDenominator);
+		}
+
+		/** Drops the slot's references to its shared frame and its scaling and conversion buffers. */
+		private void releaseSource() {
+			OutputFrame captured = source;
+			source = null;
+			if (captured != null) {
+				captured.release();
+			}
+			OutputFrame shrunk = scaled;
+			scaled = null;
+			if (shrunk != null) {
+				shrunk.release();
+			}
+			OutputFrame buffer = converted;
+			converted = null;
+			if (buffer != null) {
+				buffer.release();
+			}
+		}
+
+		/**
+		 * Releases the native Devolay frame. Frame references are released by whichever side of the
+		 * mailbox owns the slot, so a draw-thread publish racing shutdown cannot release one twice.
+		 */
+		@Override
+		public void close() {
+			frame.close();
+		}
+	}
+}
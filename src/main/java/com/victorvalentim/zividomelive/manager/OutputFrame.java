@@ -0,0 +1,175 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.zividomelive;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One captured view frame shared by every pixel {@link OutputSink} that sends that view.
+ *
+ * <p>The draw thread reads a view back once per frame into a direct, page-aligned buffer taken from the
+ * manager's frame pool, and hands the same frame to each sink without further copies. A frame is only
+ * guaranteed valid during {@link OutputSink#sendPixels(OutputFrame)}; a sink that sends it later, for
+ * example from its own worker, calls {@link #retain()} before returning and {@link #release()} once
+ * done. The last release returns the buffer to the pool for reuse, so a released frame must not be
+ * touched again.</p>
+ *
+ * <p>The bytes are in {@link #pixelFormat()}. A {@link OutputManager.NdiPixelFormat#BGRA} frame is also
+ * Processing's ARGB pixels stored as little-endian words, exposed by {@link #argbPixels()}. Both views
+ * are read-only for sinks.</p>
+ *
+ * @since 1.6.0
+ */
+public final class OutputFrame {
+
+	private final FrameBufferPool pool;
+	private final AtomicInteger references = new AtomicInteger();
+
+	/** Page-aligned little-endian pixels, rows top first, limited to the frame size. */
+	final ByteBuffer pixels;
+	int width;
+	int height;
+	int pixelCount;
+	/** Layout of {@link #pixels}. */
+	OutputManager.NdiPixelFormat pixelFormat = OutputManager.NdiPixelFormat.BGRA;
+	zividomelive.ViewType view;
+	long captureNanos;
+	int frameRateNumerator;
+	int frameRateDenominator;
+
+	/**
+	 * Creates a frame around a pooled buffer. Frames are only created by {@link FrameBufferPool}.
+	 *
+	 * @param pool pool receiving the frame after its last release
+	 * @param pixels direct little-endian buffer owned by this frame
+	 */
+	OutputFrame(FrameBufferPool pool, ByteBuffer pixels) {
+		this.pool = pool;
+		this.pixels = pixels;
+	}
+
+	/** Hands the frame to a new owner holding a single reference. */
+	void acquired() {
+		references.set(1);
+	}
+
+	/** Returns a little-endian word view of the pixels, for writing ARGB pixels or reading them back. */
+	IntBuffer argbWords() {
+		return pixels.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+	}
+
+	/**
+	 * Keeps the frame alive beyond the current {@link OutputSink#sendPixels(OutputFrame)} call.
+	 * Every call must be matched by one {@link #release()}.
+	 */
+	public void retain() {
+		references.incrementAndGet();
+	}
+
+	/**
+	 * Drops one reference, returning the buffer to its pool after the last one.
+	 *
+	 * @throws IllegalStateException if every reference was already released
+	 */
+	public void release() {
+		int remaining = references.decrementAndGet();
+		if (remaining == 0) {
+			pool.recycle(this);
+		} else if (remaining < 0) {
+			references.incrementAndGet();
+			throw new IllegalStateException("OutputFrame released more often than retained");
+		}
+	}
+
+	/** Returns the number of outstanding references. */
+	int references() {
+		return references.get();
+	}
+
+	/**
+	 * Returns the frame width.
+	 *
+	 * @return width in pixels
+	 */
+	public int width() {
+		return width;
+	}
+
+	/**
+	 * Returns the frame height.
+	 *
+	 * @return height in pixels
+	 */
+	public int height() {
+		return height;
+	}
+
+	/**
+	 * Returns the view the frame was read from, after render-mode resolution.
+	 *
+	 * @return source view
+	 */
+	public zividomelive.ViewType view() {
+		return view;
+	}
+
+	/**
+	 * Returns the layout of {@link #pixels()}.
+	 *
+	 * @return the frame's pixel layout
+	 */
+	public OutputManager.NdiPixelFormat pixelFormat() {
+		return pixelFormat;
+	}
+
+	/**
+	 * Returns a read-only little-endian view of the frame bytes.
+	 *
+	 * @return rows top first, {@code width * height * pixelFormat bytes} long
+	 */
+	public ByteBuffer pixels() {
+		return pixels.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Returns a read-only view of the Processing ARGB pixels of a BGRA frame.
+	 *
+	 * @return row-major ARGB pixels, top row first, or {@code null} when the frame is not BGRA
+	 */
+	public IntBuffer argbPixels() {
+		if (pixelFormat != OutputManager.NdiPixelFormat.BGRA) {
+			return null;
+		}
+		return pixels.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+	}
+
+	/**
+	 * Returns when the frame was read back, on the {@link System#nanoTime()} clock.
+	 *
+	 * @return capture timestamp in nanoseconds
+	 */
+	public long captureNanos() {
+		return captureNanos;
+	}
+
+	/**
+	 * Returns the frame-rate numerator configured when the frame was captured.
+	 *
+	 * @return positive numerator
+	 */
+	public int frameRateNumerator() {
+		return frameRateNumerator;
+	}
+
+	/**
+	 * Returns the frame-rate denominator configured when the frame was captured.
+	 *
+	 * @return positive denominator
+	 */
+	public int frameRateDenominator() {
+		return frameRateDenominator;
+	}
+}
@@ -3,30 +3,43 @@ package com.victorvalentim.zividomelive.manager;
 import codeanticode.syphon.SyphonServer;
 import com.victorvalentim.zividomelive.RenderMode;
 import com.victorvalentim.zividomelive.support.LogManager;
+import com.victorvalentim.zividomelive.support.PixelKernels;
 import com.victorvalentim.zividomelive.zividomelive;
 import me.walkerknapp.devolay.DevolayFrameFormatType;
 import me.walkerknapp.devolay.DevolayFrameFourCCType;
-import me.walkerknapp.devolay.DevolaySender;
-import me.walkerknapp.devolay.DevolayVideoFrame;
 import processing.core.PConstants;
 import processing.opengl.PGraphicsOpenGL;
 import spout.Spout;
 
+import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
  * Manages all external video outputs produced by ziviDomeLive.
  *
- * <p>The manager keeps two independent output domains:</p>
+ * <p>The manager keeps five independent output domains:</p>
  * <ul>
  *     <li>a platform-local GPU texture output: Syphon on macOS or Spout on Windows;</li>
- *     <li>an NDI network output backed by a dedicated CPU worker.</li>
+ *     <li>NDI network outputs: the primary sender plus optional named routes, each backed by a
+ *     dedicated CPU worker;</li>
+ *     <li>a Linux shared-memory ring that local processes map and read without the network;</li>
+ *     <li>a raw UDP stream of uncompressed frames, sent by its own worker;</li>
+ *     <li>a low-rate MJPEG monitor served over HTTP while clients watch.</li>
  * </ul>
  *
  * <p>Syphon and Spout are mutually exclusive because only one of them is valid for the
@@ -39,6 +52,9 @@ import java.util.logging.Logger;
  * NDI is isolated from that path: the Processing draw thread only performs the required
  * pixel readback and a bounded copy, while conversion and network transmission run on a
  * dedicated worker.</p>
+ *
+ * <p>Every backend is an {@link OutputSink}. The draw loop only walks the registered sinks, so
+ * additional destinations plug in through {@link #addOutputSink(OutputSink)}.</p>
  */
 public class OutputManager implements PConstants {
 
@@ -49,7 +65,25 @@ public class OutputManager implements PConstants {
 		/** Windows Spout texture output. */
 		SPOUT,
 		/** macOS Syphon texture output. */
-		SYPHON
+		SYPHON,
+		/**
+		 * Linux shared-memory frame ring under {@code /dev/shm}.
+		 *
+		 * @since 1.6.0
+		 */
+		SHARED_MEMORY,
+		/**
+		 * Uncompressed frames streamed as UDP datagrams.
+		 *
+		 * @since 1.6.0
+		 */
+		UDP,
+		/**
+		 * Low-rate MJPEG monitoring stream served over HTTP.
+		 *
+		 * @since 1.6.0
+		 */
+		MJPEG
 	}
 
 	/**
@@ -73,6 +107,99 @@ public class OutputManager implements PConstants {
 		STOPPING
 	}
 
+	/**
+	 * Pixel layout of the frames sent over NDI.
+	 *
+	 * @since 1.6.0
+	 */
+	public enum NdiPixelFormat {
+		/**
+		 * Packed BGRA. Processing's ARGB {@code int} stored little-endian already has this byte order,
+		 * so the worker copies the frame without any per-channel work.
+		 */
+		BGRA(DevolayFrameFourCCType.BGRA, 4),
+		/** Packed RGBA, swizzled from ARGB on the NDI worker. */
+		RGBA(DevolayFrameFourCCType.RGBA, 4),
+		/**
+		 * BT.709 limited-range YCbCr 4:2:2, half the bytes of the packed formats. Alpha is dropped and
+		 * frames with an odd width fall back to {@link #BGRA}.
+		 */
+		UYVY(DevolayFrameFourCCType.UYVY, 2);
+
+		private final DevolayFrameFourCCType fourCCType;
+		private final int bytesPerPixel;
+
+		NdiPixelFormat(DevolayFrameFourCCType fourCCType, int bytesPerPixel) {
+			this.fourCCType = fourCCType;
+			this.bytesPerPixel = bytesPerPixel;
+		}
+
+		/** Returns the Devolay FourCC tag announced for this layout. */
+		DevolayFrameFourCCType fourCCType() {
+			return fourCCType;
+		}
+
+		/** Returns the average number of bytes each pixel occupies in this layout. */
+		int bytesPerPixel() {
+			return bytesPerPixel;
+		}
+
+		/** Returns the layout actually sent for a frame of the given width. */
+		NdiPixelFormat forWidth(int width) {
+			return this == UYVY && (width & 1) != 0 ? BGRA : this;
+		}
+	}
+
+	/**
+	 * NDI quality levels the adaptive controller steps through, from full quality down to the lightest
+	 * stream. Each level at least halves the bytes sent per frame of the one above it when the configured
+	 * pixel format is packed.
+	 *
+	 * @since 1.6.0
+	 */
+	public enum NdiQuality {
+		/** The configured pixel format at the captured resolution. */
+		FULL(1, false),
+		/** {@link NdiPixelFormat#UYVY} at the captured resolution. */
+		COMPACT(1, true),
+		/** UYVY at half the captured width and height, one resolution bucket down. */
+		HALF(2, true),
+		/** UYVY at a quarter of the captured width and height, two resolution buckets down. */
+		QUARTER(4, true);
+
+		private final int scaleDivisor;
+		private final boolean compact;
+
+		NdiQuality(int scaleDivisor, boolean compact) {
+			this.scaleDivisor = scaleDivisor;
+			this.compact = compact;
+		}
+
+		/**
+		 * Returns how much the captured width and height are divided by before sending.
+		 *
+		 * @return 1, 2 or 4
+		 */
+		public int scaleDivisor() {
+			return scaleDivisor;
+		}
+
+		/** Returns the layout sent at this level for a configured layout. */
+		NdiPixelFormat pixelFormat(NdiPixelFormat configured) {
+			return compact ? NdiPixelFormat.UYVY : configured;
+		}
+
+		/** Returns the next lower level, or this one at the bottom. */
+		NdiQuality lower() {
+			return this == QUARTER ? QUARTER : values()[ordinal() + 1];
+		}
+
+		/** Returns the next higher level, or this one at the top. */
+		NdiQuality higher() {
+			return this == FULL ? FULL : values()[ordinal() - 1];
+		}
+	}
+
 	/** The single platform-local texture-sharing implementation available in this process. */
 	private enum LocalTextureBackend {
 		SYPHON,
@@ -81,20 +208,33 @@ public class OutputManager implements PConstants {
 	}
 
 	private static final String NDI_SENDER_NAME = "ziviDomeLive NDI Output";
+	private static final String NDI_ROUTE_SENDER_PREFIX = "ziviDomeLive NDI ";
+	private static final String NDI_WORKER_NAME = "ziviDomeLive-NDI-Sender";
+	private static final String NDI_LIFECYCLE_THREAD_NAME = "ziviDomeLive-NDI-Lifecycle";
+	private static final long NDI_LIFECYCLE_KEEP_ALIVE_SECONDS = 30L;
 	private static final String SPOUT_SENDER_NAME = "ziviDomeLive Spout";
 	private static final String SYPHON_SERVER_NAME = "ziviDomeLive Syphon";
+	private static final String SHARED_MEMORY_PATH = "/dev/shm/ziviDomeLive";
+	private static final String UDP_WORKER_NAME = "ziviDomeLive-UDP-Sender";
+	/** Payload per datagram; larger payloads fragment at the IP layer and lose whole datagrams together. */
+	static final int DEFAULT_UDP_PAYLOAD_BYTES = 8_192;
+	private static final String MJPEG_THREAD_NAME = "ziviDomeLive-MJPEG";
+	static final int DEFAULT_MJPEG_PORT = 8088;
+	static final int DEFAULT_MJPEG_FRAME_RATE = 5;
+	static final int DEFAULT_MJPEG_SIZE = 512;
+	static final float DEFAULT_MJPEG_QUALITY = 0.7f;
 
-	/** One slot may be sent while the remaining slots are free or queued. */
-	private static final int NDI_SLOT_COUNT = 3;
 	private static final long DEFAULT_NDI_SHUTDOWN_TIMEOUT_MILLIS = 1_000L;
 	private static final int NDI_BYTES_PER_PIXEL = 4;
 
 	/** Default metadata follows the facade's default Processing frame rate. */
 	static final int DEFAULT_NDI_FRAME_RATE_NUMERATOR = 60;
 	static final int DEFAULT_NDI_FRAME_RATE_DENOMINATOR = 1;
-	static final DevolayFrameFourCCType NDI_FRAME_FOUR_CC_TYPE = DevolayFrameFourCCType.RGBA;
+	static final NdiPixelFormat DEFAULT_NDI_PIXEL_FORMAT = NdiPixelFormat.BGRA;
 	static final DevolayFrameFormatType NDI_FRAME_FORMAT_TYPE = DevolayFrameFormatType.PROGRESSIVE;
 
+	private static final zividomelive.ViewType[] VIEW_TYPES = zividomelive.ViewType.values();
+
 	private final Logger logger = LogManager.getLogger();
 	private final zividomelive parent;
 	private final boolean isMacOS;
@@ -103,7 +243,6 @@ public class OutputManager implements PConstants {
 	private final long ndiShutdownTimeoutMillis;
 
 	/* Independent output routing. Preview/viewer state is intentionally not stored here. */
-	private volatile zividomelive.ViewType ndiView = zividomelive.ViewType.FISHEYE_DOMEMASTER;
 	private volatile zividomelive.ViewType spoutView = zividomelive.ViewType.FISHEYE_DOMEMASTER;
 	private volatile zividomelive.ViewType syphonView = zividomelive.ViewType.FISHEYE_DOMEMASTER;
 
@@ -118,30 +257,61 @@ public class OutputManager implements PConstants {
 	private int spoutWidth = -1;
 	private int spoutHeight = -1;
 
-	/* NDI lifecycle and worker state. */
-	private final Object ndiLifecycleLock = new Object();
-	private volatile DevolaySender ndiSender;
-	private volatile boolean ndiEnabled;
-	private volatile boolean ndiUnavailable;
-	private volatile String ndiFailureReason = "";
-	private volatile boolean ndiWorkerRunning;
-	private volatile boolean ndiShutdownPending;
-	private boolean ndiRestartRequested;
-	private volatile Thread ndiWorkerThread;
-
-	private final ArrayBlockingQueue<NdiFrameSlot> ndiFreeSlots =
-			new ArrayBlockingQueue<>(NDI_SLOT_COUNT);
-	private final ArrayBlockingQueue<NdiFrameSlot> ndiReadySlots =
-			new ArrayBlockingQueue<>(NDI_SLOT_COUNT);
-	private final NdiFrameSlot[] ndiSlots = new NdiFrameSlot[NDI_SLOT_COUNT];
+	/*
+	 * NDI routes: the primary output and any named routes, each with its own sender worker, slots and
+	 * counters.
+	 */
+	private final NdiRoute ndiRoute;
+	private final CopyOnWriteArrayList<NdiRoute> ndiRoutes = new CopyOnWriteArrayList<>();
+
+	/* Linux shared-memory ring, written on the Processing thread. */
+	private final SharedMemorySink sharedMemorySink;
+
+	/* Raw UDP stream with its own sender worker. */
+	private final UdpFrameSink udpSink;
+
+	/* HTTP monitoring stream, downscaled on the GPU and encoded on ThreadManager. */
+	private final MjpegMonitorSink mjpegSink;
+
+	/*
+	 * Creates senders and joins workers off the draw thread. One daemon thread applies requests in
+	 * order and exits when idle.
+	 */
+	private final ExecutorService ndiLifecycle = new ThreadPoolExecutor(0, 1,
+			NDI_LIFECYCLE_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), task -> {
+				Thread thread = new Thread(task, NDI_LIFECYCLE_THREAD_NAME);
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	/*
+	 * Every sink driven by the draw loop, in publication order: the local texture backend, the NDI
+	 * routes and any registered sinks. Views read back once per frame are shared between pixel sinks
+	 * through OutputFrames backed by one central pool of page-aligned buffers.
+	 */
+	private final CopyOnWriteArrayList<OutputSink> outputSinks = new CopyOnWriteArrayList<>();
+	private final FrameBufferPool framePool = new FrameBufferPool();
 
 	private volatile int ndiFrameRateNumerator = DEFAULT_NDI_FRAME_RATE_NUMERATOR;
 	private volatile int ndiFrameRateDenominator = DEFAULT_NDI_FRAME_RATE_DENOMINATOR;
+	private volatile NdiPixelFormat ndiPixelFormat = DEFAULT_NDI_PIXEL_FORMAT;
 
-	private final AtomicLong ndiCapturedFrames = new AtomicLong();
-	private final AtomicLong ndiSentFrames = new AtomicLong();
-	private final AtomicLong ndiDroppedFrames = new AtomicLong();
-	private final AtomicLong ndiFailedFrames = new AtomicLong();
+	/* Decimates pixel capture to the NDI frame rate. Decisions are made on the Processing/OpenGL thread. */
+	private final FramePacer framePacer;
+	private volatile boolean ndiPacing = true;
+
+	/* Steps NDI quality with receiver backpressure. The controller is only driven on the Processing thread. */
+	private final NdiQualityController ndiQualityController = new NdiQualityController();
+	private final NdiQualityTotals ndiQualityTotals = new NdiQualityTotals();
+	private final CopyOnWriteArrayList<NdiQualityListener> ndiQualityListeners = new CopyOnWriteArrayList<>();
+	private volatile boolean ndiAdaptiveQuality;
+	private volatile boolean ndiAdaptiveQualityReset;
+	private volatile NdiQuality ndiQuality = NdiQuality.FULL;
+
+	/* Optional pixel-pack-buffer readback, one ring per view. Only touched on the Processing/OpenGL thread. */
+	private final Map<zividomelive.ViewType, PboReadback> readbacks = new EnumMap<>(zividomelive.ViewType.class);
+	private volatile boolean ndiAsyncReadback;
+	private boolean ndiAsyncReadbackFallbackLogged;
 
 	/** Prevents repeated warnings from the deprecated single-view setter. */
 	private boolean legacySetViewWarningLogged;
@@ -167,12 +337,20 @@ public class OutputManager implements PConstants {
 
 		this.parent = parent;
 		this.ndiShutdownTimeoutMillis = ndiShutdownTimeoutMillis;
+		this.ndiRoute = new NdiRoute("ndi", NDI_SENDER_NAME, NDI_WORKER_NAME, "NDI",
+				zividomelive.ViewType.FISHEYE_DOMEMASTER, ndiPixelFormat, framePool, ndiShutdownTimeoutMillis);
 		this.ndiFrameRateNumerator = parent.getTargetFrameRate();
 		this.ndiFrameRateDenominator = DEFAULT_NDI_FRAME_RATE_DENOMINATOR;
+		this.framePacer = new FramePacer(ndiFrameRateNumerator, ndiFrameRateDenominator);
 
 		String osName = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
 		this.isMacOS = osName.contains("mac");
 		this.isWindows = osName.contains("win");
+		this.sharedMemorySink = new SharedMemorySink(Path.of(SHARED_MEMORY_PATH), osName.contains("linux"));
+		this.udpSink = new UdpFrameSink(UDP_WORKER_NAME, DEFAULT_UDP_PAYLOAD_BYTES, ndiShutdownTimeoutMillis,
+				ndiLifecycle);
+		this.mjpegSink = new MjpegMonitorSink(MJPEG_THREAD_NAME, DEFAULT_MJPEG_PORT, DEFAULT_MJPEG_FRAME_RATE,
+				DEFAULT_MJPEG_SIZE, DEFAULT_MJPEG_QUALITY);
 
 		if (isMacOS) {
 			this.localTextureBackend = LocalTextureBackend.SYPHON;
@@ -181,6 +359,16 @@ public class OutputManager implements PConstants {
 		} else {
 			this.localTextureBackend = LocalTextureBackend.NONE;
 		}
+
+		if (localTextureBackend == LocalTextureBackend.SPOUT) {
+			outputSinks.add(new SpoutSink());
+		} else if (localTextureBackend == LocalTextureBackend.SYPHON) {
+			outputSinks.add(new SyphonSink());
+		}
+		outputSinks.add(ndiRoute);
+		outputSinks.add(sharedMemorySink);
+		outputSinks.add(udpSink);
+		outputSinks.add(mjpegSink);
 	}
 
 	/**
@@ -197,11 +385,17 @@ public class OutputManager implements PConstants {
 
 		switch (outputType) {
 			case NDI:
-				return ndiView;
+				return ndiRoute.view();
 			case SPOUT:
 				return spoutView;
 			case SYPHON:
 				return syphonView;
+			case SHARED_MEMORY:
+				return sharedMemorySink.view();
+			case UDP:
+				return udpSink.view();
+			case MJPEG:
+				return mjpegSink.view();
 			default:
 				return zividomelive.ViewType.FISHEYE_DOMEMASTER;
 		}
@@ -222,7 +416,7 @@ public class OutputManager implements PConstants {
 
 		switch (outputType) {
 			case NDI:
-				ndiView = viewType;
+				ndiRoute.setView(viewType);
 				break;
 			case SPOUT:
 				spoutView = viewType;
@@ -230,6 +424,15 @@ public class OutputManager implements PConstants {
 			case SYPHON:
 				syphonView = viewType;
 				break;
+			case SHARED_MEMORY:
+				sharedMemorySink.setView(viewType);
+				break;
+			case UDP:
+				udpSink.setView(viewType);
+				break;
+			case MJPEG:
+				mjpegSink.setView(viewType);
+				break;
 			default:
 				return;
 		}
@@ -253,7 +456,11 @@ public class OutputManager implements PConstants {
 	 * @return current graphics target, or {@code null} when unavailable
 	 */
 	private PGraphicsOpenGL resolveGraphics(zividomelive.ViewType viewType) {
-		zividomelive.ViewType effectiveView = resolveOutputView(viewType);
+		return graphicsFor(resolveOutputView(viewType));
+	}
+
+	/** Returns the graphics target of a view already resolved under the render mode. */
+	private PGraphicsOpenGL graphicsFor(zividomelive.ViewType effectiveView) {
 		if (effectiveView == null) {
 			return null;
 		}
@@ -468,92 +675,30 @@ public class OutputManager implements PConstants {
 	}
 
 	/**
-	 * Initializes NDI and starts its dedicated sender worker.
-	 */
-	private void initNDI() {
-		synchronized (ndiLifecycleLock) {
-			if (isNdiEnabled()) {
-				return;
-			}
-
-			Thread worker = ndiWorkerThread;
-			if (worker != null && worker.isAlive()) {
-				ndiRestartRequested = true;
-				ndiUnavailable = false;
-				ndiFailureReason = "";
-				logger.info("NDI restart scheduled after the current worker finishes stopping.");
-				return;
-			}
-
-			if (worker != null || ndiSender != null) {
-				ndiWorkerThread = null;
-				releaseNdiResourcesLocked();
-			}
-
-			initializeNdiLocked();
-		}
-	}
-
-	/** Creates one NDI activation cycle. Must be called while holding the lifecycle lock. */
-	private void initializeNdiLocked() {
-		ndiUnavailable = false;
-		ndiFailureReason = "";
-		ndiShutdownPending = false;
-		ndiRestartRequested = false;
-
-		try {
-			ndiSender = new DevolaySender(NDI_SENDER_NAME);
-			initializeNdiSlots();
-
-			Thread worker = new Thread(this::ndiWorkerLoop, "ziviDomeLive-NDI-Sender");
-			worker.setDaemon(true);
-			ndiWorkerThread = worker;
-			ndiWorkerRunning = true;
-			ndiEnabled = true;
-			worker.start();
-
-			logger.info("NDI output initialized with a dedicated sender worker.");
-		} catch (LinkageError | RuntimeException error) {
-			ndiEnabled = false;
-			ndiWorkerRunning = false;
-			ndiWorkerThread = null;
-			releaseNdiResourcesLocked();
-
-			ndiUnavailable = true;
-			ndiFailureReason = rootCauseMessage(error);
-
-			logger.warning(
-					"NDI unavailable on "
-							+ System.getProperty("os.name", "unknown")
-							+ "/"
-							+ System.getProperty("os.arch", "unknown")
-							+ ": "
-							+ ndiFailureReason
-			);
-		}
-	}
-
-	/**
-	 * Creates the fixed NDI frame pool after Devolay initializes successfully.
+	 * Starts or stops the primary NDI output without blocking the caller.
+	 *
+	 * <p>Creating the native sender and joining its worker run on a dedicated lifecycle thread, so this
+	 * is safe on the draw thread during a show. Disabling stops publication before returning. Requests
+	 * are applied in order and a later request supersedes a pending one. Observe progress through
+	 * {@link #getOutputState(OutputType)} or the returned future.</p>
+	 *
+	 * @param enabled {@code true} to create the sender and start sending
+	 * @return future completed with the NDI state once the request has been applied
+	 * @since 1.6.0
 	 */
-	private void initializeNdiSlots() {
-		ndiFreeSlots.clear();
-		ndiReadySlots.clear();
-
-		for (int index = 0; index < NDI_SLOT_COUNT; index++) {
-			NdiFrameSlot slot = new NdiFrameSlot();
-			ndiSlots[index] = slot;
-			ndiFreeSlots.offer(slot);
-		}
+	public CompletableFuture<OutputState> setNdiEnabled(boolean enabled) {
+		return ndiRoute.request(enabled, ndiLifecycle);
 	}
 
 	/**
 	 * Toggles an output without coupling it to preview selection or another output.
 	 *
-	 * <p>NDI owns a dynamic worker lifecycle. Syphon and Spout do not: their native backend is
-	 * prepared once and the toggle changes only the publication boolean.</p>
+	 * <p>NDI owns a dynamic worker lifecycle, applied asynchronously as with
+	 * {@link #setNdiEnabled(boolean)}. Syphon and Spout do not: their native backend is prepared once and
+	 * the toggle changes only the publication boolean.</p>
 	 *
-	 * @param method output identifier: {@code "ndi"}, {@code "spout"}, or {@code "syphon"}
+	 * @param method output identifier: {@code "ndi"}, {@code "spout"}, {@code "syphon"}, {@code "shm"},
+	 *               {@code "udp"}, or {@code "mjpeg"}
 	 */
 	public void toggleOutput(String method) {
 		if (method == null || method.trim().isEmpty()) {
@@ -565,11 +710,7 @@ public class OutputManager implements PConstants {
 
 		switch (normalizedMethod) {
 			case "ndi":
-				if (isNdiEnabled()) {
-					shutdownNDI();
-				} else {
-					initNDI();
-				}
+				setNdiEnabled(!ndiRoute.isRequested());
 				break;
 
 			case "spout":
@@ -588,12 +729,167 @@ public class OutputManager implements PConstants {
 				toggleSyphonPublication();
 				break;
 
+			case "shm":
+				setSharedMemoryEnabled(!sharedMemorySink.isEnabled());
+				break;
+
+			case "udp":
+				setUdpEnabled(!udpSink.isEnabled());
+				break;
+
+			case "mjpeg":
+				setMjpegMonitorEnabled(!mjpegSink.isServing());
+				break;
+
 			default:
 				logger.warning("Unknown output method: " + normalizedMethod);
 				break;
 		}
 	}
 
+	/**
+	 * Starts or stops the Linux shared-memory output.
+	 *
+	 * <p>Frames of the shared-memory view are copied once per frame from the readback into a ring of
+	 * three slots in {@link #getSharedMemoryPath()}, guarded by sequence numbers so local readers such as
+	 * {@link SharedMemoryFrameReader} never block the draw thread. The ring is created on the first frame
+	 * and grows with the frame size. Stopping deletes the file.</p>
+	 *
+	 * @param enabled {@code true} to publish frames
+	 * @return resulting state; {@link OutputState#UNAVAILABLE} off Linux or when the file cannot be
+	 *         written
+	 * @since 1.6.0
+	 */
+	public OutputState setSharedMemoryEnabled(boolean enabled) {
+		return sharedMemorySink.setEnabled(enabled);
+	}
+
+	/**
+	 * Starts or stops the UDP output.
+	 *
+	 * <p>Frames of the UDP view are handed to a dedicated sender worker, which cuts them into datagrams
+	 * numbered by frame and packet and sends each with a gathering write straight from the readback
+	 * buffer. The stream is uncompressed and unacknowledged, so it suits a dedicated or loopback link;
+	 * {@link UdpFrameReceiver} reassembles it and reports loss. Set the receiver with
+	 * {@link #setUdpDestination(String, int)} first.</p>
+	 *
+	 * @param enabled {@code true} to stream frames
+	 * @return resulting state; {@link OutputState#UNAVAILABLE} without a resolvable destination or when
+	 *         the socket cannot be opened
+	 * @since 1.6.0
+	 */
+	public OutputState setUdpEnabled(boolean enabled) {
+		return udpSink.setEnabled(enabled);
+	}
+
+	/**
+	 * Sets the receiver of the UDP output. A running stream keeps its receiver until it is restarted.
+	 *
+	 * @param host receiver host name or address
+	 * @param port receiver UDP port
+	 * @throws IllegalArgumentException if the host is empty or the port is out of range
+	 * @since 1.6.0
+	 */
+	public void setUdpDestination(String host, int port) {
+		if (host == null || host.trim().isEmpty()) {
+			throw new IllegalArgumentException("UDP host cannot be empty");
+		}
+		udpSink.setDestination(new InetSocketAddress(host.trim(), port));
+	}
+
+	/**
+	 * Returns the receiver of the UDP output.
+	 *
+	 * @return receiver address, or {@code null} before {@link #setUdpDestination(String, int)}
+	 * @since 1.6.0
+	 */
+	public InetSocketAddress getUdpDestination() {
+		return udpSink.destination();
+	}
+
+	/**
+	 * Sets the largest pixel payload per UDP datagram, applied from the next frame. Payloads above the
+	 * link MTU rely on IP fragmentation, where one lost fragment loses the whole datagram.
+	 *
+	 * @param payloadBytes payload bytes per datagram
+	 * @throws IllegalArgumentException if the payload does not fit a UDP datagram
+	 * @since 1.6.0
+	 */
+	public void setUdpPayloadBytes(int payloadBytes) {
+		udpSink.setMaxPayloadBytes(payloadBytes);
+	}
+
+	/**
+	 * Starts or stops the MJPEG monitor, an HTTP stream for tablets and browsers that cannot decode NDI.
+	 *
+	 * <p>Open {@code http://<host>:<port>/} to watch. Frames are drawn and read back only while at least
+	 * one client is connected and a frame is due at the monitor rate; the draw thread then scales the
+	 * view into a small target and reads that back, and JPEG encoding runs on the shared {@code ThreadManager} pool. The
+	 * server listens on every interface without authentication, so keep it on a trusted network. Stopping
+	 * closes the server and returns without waiting for client handlers, which exit on their own threads.</p>
+	 *
+	 * @param enabled {@code true} to serve the monitor stream
+	 * @return resulting state; {@link OutputState#UNAVAILABLE} when the port cannot be bound
+	 * @since 1.6.0
+	 */
+	public OutputState setMjpegMonitorEnabled(boolean enabled) {
+		return mjpegSink.setEnabled(enabled);
+	}
+
+	/**
+	 * Sets the TCP port of the MJPEG monitor, used from the next start.
+	 *
+	 * @param port port to listen on, or zero for any free port
+	 * @throws IllegalArgumentException if the port is out of range
+	 * @since 1.6.0
+	 */
+	public void setMjpegMonitorPort(int port) {
+		mjpegSink.setPort(port);
+	}
+
+	/**
+	 * Returns the port of the MJPEG monitor.
+	 *
+	 * @return bound port while serving, otherwise the configured port
+	 * @since 1.6.0
+	 */
+	public int getMjpegMonitorPort() {
+		return mjpegSink.port();
+	}
+
+	/**
+	 * Sets the MJPEG monitor rate.
+	 *
+	 * @param framesPerSecond frames encoded per second while a client watches
+	 * @throws IllegalArgumentException if the rate is not positive
+	 * @since 1.6.0
+	 */
+	public void setMjpegMonitorFrameRate(int framesPerSecond) {
+		mjpegSink.setFrameRate(framesPerSecond);
+	}
+
+	/**
+	 * Sets the longest side of the MJPEG monitor frames. Views are never scaled up.
+	 *
+	 * @param size longest side in pixels, between 16 and 4096
+	 * @throws IllegalArgumentException if the size is out of range
+	 * @since 1.6.0
+	 */
+	public void setMjpegMonitorSize(int size) {
+		mjpegSink.setMaxSize(size);
+	}
+
+	/**
+	 * Sets the JPEG quality of the MJPEG monitor, applied from the next frame.
+	 *
+	 * @param quality quality between zero and one
+	 * @throws IllegalArgumentException if the quality is out of range
+	 * @since 1.6.0
+	 */
+	public void setMjpegMonitorQuality(float quality) {
+		mjpegSink.setQuality(quality);
+	}
+
 	/** Toggles Windows Spout publication without destroying or recreating its native sender. */
 	private void toggleSpoutPublication() {
 		if (!localTextureInitialized) {
@@ -658,25 +954,91 @@ public class OutputManager implements PConstants {
 	 * Sends one frame to every enabled output.
 	 *
 	 * <p>This method must run once per Processing draw cycle, after all relevant graphics targets
-	 * have completed {@code endDraw()}. The local GPU output is published before NDI readback.</p>
+	 * have completed {@code endDraw()}. Texture sinks, including the local GPU output, are published
+	 * before any pixel readback.</p>
 	 */
 	public void sendOutput() {
-		sendLocalTextureFrame();
-		captureNdiFrame();
+		sendTextureFrames();
+		capturePixelFrames();
+		adaptNdiQuality();
 	}
 
-	/** Publishes the single platform-local texture output on the Processing/OpenGL thread. */
-	private void sendLocalTextureFrame() {
-		switch (localTextureBackend) {
-			case SPOUT:
-				sendSpoutFrame();
-				break;
-			case SYPHON:
-				sendSyphonFrame();
-				break;
-			case NONE:
-			default:
-				break;
+	/**
+	 * Feeds the per-route counter growth of the enabled NDI routes to the quality controller and applies
+	 * any step it takes. Runs on the Processing thread, after the frame's capture.
+	 */
+	private void adaptNdiQuality() {
+		if (ndiAdaptiveQualityReset) {
+			ndiAdaptiveQualityReset = false;
+			ndiQualityController.reset();
+			ndiQualityTotals.clear();
+			applyNdiQuality(new NdiQualityChange(ndiQuality, NdiQuality.FULL, 0.0, 0.0, System.nanoTime()));
+		}
+		if (!ndiAdaptiveQuality) {
+			return;
+		}
+
+		boolean anyEnabled = false;
+		for (OutputSink sink : outputSinks) {
+			if (!(sink instanceof NdiRoute) || !sink.isEnabled()) {
+				continue;
+			}
+			NdiRoute route = (NdiRoute) sink;
+			anyEnabled = true;
+			ndiQualityTotals.add(route, route.capturedFrames(), route.droppedFrames() + route.failedFrames(),
+					route.sentFrames(), route.sendNanos());
+		}
+		ndiQualityTotals.endSample();
+		if (!anyEnabled) {
+			ndiQualityController.pause();
+			return;
+		}
+
+		NdiQualityChange change = ndiQualityController.update(System.nanoTime(), ndiQualityTotals.captured(),
+				ndiQualityTotals.lost(), ndiQualityTotals.sent(), ndiQualityTotals.sendNanos(),
+				framePacer.periodNanos());
+		if (change != null) {
+			applyNdiQuality(change);
+		}
+	}
+
+	/** Applies a quality step to every NDI route and notifies the listeners on the Processing thread. */
+	private void applyNdiQuality(NdiQualityChange change) {
+		if (change.current() == ndiQuality) {
+			return;
+		}
+		ndiQuality = change.current();
+		ndiRoute.setQuality(change.current());
+		for (NdiRoute route : ndiRoutes) {
+			route.setQuality(change.current());
+		}
+		logger.info("NDI quality changed: " + change + ".");
+		for (NdiQualityListener listener : ndiQualityListeners) {
+			try {
+				listener.ndiQualityChanged(change);
+			} catch (RuntimeException error) {
+				logger.warning("NDI quality listener failed: " + rootCauseMessage(error));
+			}
+		}
+	}
+
+	/** Hands every enabled texture sink the graphics target of its view on the Processing/OpenGL thread. */
+	private void sendTextureFrames() {
+		for (OutputSink sink : outputSinks) {
+			if (sink.input() != OutputSink.Input.TEXTURE || !sink.isEnabled()) {
+				continue;
+			}
+
+			PGraphicsOpenGL graphics = resolveGraphics(sink.view());
+			if (graphics == null) {
+				continue;
+			}
+
+			try {
+				sink.sendTexture(graphics);
+			} catch (RuntimeException error) {
+				logger.warning("Output sink '" + sink.name() + "' failed to publish a frame: " + rootCauseMessage(error));
+			}
 		}
 	}
 
@@ -685,17 +1047,12 @@ public class OutputManager implements PConstants {
 	 *
 	 * <p>No pixel readback or intermediate graphics target is created.</p>
 	 */
-	private void sendSpoutFrame() {
+	private void sendSpoutFrame(PGraphicsOpenGL graphics) {
 		if (!spoutEnabled || spoutSender == null || !isWindows) {
 			return;
 		}
 
 		try {
-			PGraphicsOpenGL graphics = resolveGraphics(spoutView);
-			if (graphics == null) {
-				return;
-			}
-
 			if (graphics.width != spoutWidth || graphics.height != spoutHeight) {
 				spoutSender.updateSender(graphics.width, graphics.height);
 				spoutWidth = graphics.width;
@@ -719,17 +1076,14 @@ public class OutputManager implements PConstants {
 	 *
 	 * <p>No pixel readback or intermediate graphics target is created.</p>
 	 */
-	private void sendSyphonFrame() {
+	private void sendSyphonFrame(PGraphicsOpenGL graphics) {
 		if (!syphonEnabled || syphonServer == null || !isMacOS) {
 			return;
 		}
 
 		try {
-			PGraphicsOpenGL graphics = resolveGraphics(syphonView);
-			if (graphics != null) {
-				syphonServer.sendImage(graphics);
-				localTextureFailureReason = "";
-			}
+			syphonServer.sendImage(graphics);
+			localTextureFailureReason = "";
 		} catch (Exception | LinkageError error) {
 			syphonEnabled = false;
 			localTextureFailureReason = rootCauseMessage(error);
@@ -754,6 +1108,9 @@ public class OutputManager implements PConstants {
 			return;
 		}
 
+		// Idle frames of the previous size would never be reused
+		framePool.trim();
+
 		if (localTextureBackend == LocalTextureBackend.SPOUT && spoutSender != null) {
 			PGraphicsOpenGL graphics = resolveGraphics(spoutView);
 			if (graphics != null && graphics.width > 0 && graphics.height > 0) {
@@ -776,28 +1133,48 @@ public class OutputManager implements PConstants {
 	}
 
 	/**
-	 * Captures the selected NDI graphics target into a pooled CPU slot.
+	 * Captures each view sent by an enabled pixel sink once and shares it between those sinks.
 	 *
 	 * <p>{@code loadPixels()} must remain on the Processing/OpenGL thread. Conversion and synchronous
-	 * NDI sending are performed by the dedicated worker. The latest-frame policy keeps latency bounded.</p>
+	 * NDI sending are performed by each route's dedicated worker. The latest-frame policy keeps latency
+	 * bounded. With {@link #setNdiAsyncReadback(boolean)} the readback is queued instead and delivered a
+	 * frame or two later.</p>
+	 *
+	 * <p>With pacing enabled only frames due at the NDI frame rate are read back; on the others, earlier
+	 * asynchronous readbacks are still delivered.</p>
 	 */
-	private void captureNdiFrame() {
-		if (!ndiEnabled || ndiSender == null || !ndiWorkerRunning) {
-			return;
-		}
+	private void capturePixelFrames() {
+		boolean async = ndiAsyncReadback;
+		long now = System.nanoTime();
+		boolean due = !ndiPacing || !anyPixelSinkEnabled() || framePacer.shouldCapture(now);
+		for (zividomelive.ViewType view : VIEW_TYPES) {
+			boolean needed = pixelSinksSend(view);
+			if (!needed || !async) {
+				PboReadback readback = readbacks.remove(view);
+				if (readback != null) {
+					releaseReadback(readback);
+				}
+			}
+			if (!needed) {
+				continue;
+			}
 
-		PGraphicsOpenGL graphics = resolveGraphics(ndiView);
-		if (graphics == null || graphics.width <= 0 || graphics.height <= 0) {
-			return;
-		}
+			PGraphicsOpenGL graphics = graphicsFor(view);
+			if (graphics == null || graphics.width <= 0 || graphics.height <= 0) {
+				continue;
+			}
 
-		NdiFrameSlot slot = acquireNdiCaptureSlot();
-		if (slot == null) {
-			ndiDroppedFrames.incrementAndGet();
-			return;
+			if (async && captureFrameAsync(view, graphics, due, now)) {
+				continue;
+			}
+			if (due) {
+				captureFrame(view, graphics, now);
+			}
 		}
+	}
 
-		boolean queued = false;
+	/** Reads one view back with {@code loadPixels()} and offers it to every pixel sink sending it. */
+	private void captureFrame(zividomelive.ViewType view, PGraphicsOpenGL graphics, long captureNanos) {
 		try {
 			graphics.loadPixels();
 
@@ -806,158 +1183,204 @@ public class OutputManager implements PConstants {
 			int pixelCount = Math.multiplyExact(width, height);
 
 			if (graphics.pixels == null || graphics.pixels.length < pixelCount) {
-				ndiFailedFrames.incrementAndGet();
-				logger.warning("NDI frame skipped: Processing pixel buffer is unavailable or incomplete.");
+				recordFrameFailure(view);
+				logger.warning("Output frame skipped: Processing pixel buffer is unavailable or incomplete.");
 				return;
 			}
 
-			slot.ensureCapacity(width, height);
-			System.arraycopy(graphics.pixels, 0, slot.argbPixels, 0, pixelCount);
-			slot.width = width;
-			slot.height = height;
-			slot.pixelCount = pixelCount;
-			slot.frameRateNumerator = ndiFrameRateNumerator;
-			slot.frameRateDenominator = ndiFrameRateDenominator;
-
-			queued = offerLatestNdiFrame(slot);
-			if (queued) {
-				ndiCapturedFrames.incrementAndGet();
-			} else {
-				ndiDroppedFrames.incrementAndGet();
-			}
+			publishPixels(view, graphics.pixels, width, height, captureNanos);
 		} catch (RuntimeException error) {
-			ndiFailedFrames.incrementAndGet();
-			logger.warning("NDI frame capture failed: " + rootCauseMessage(error));
-		} finally {
-			if (!queued) {
-				ndiFreeSlots.offer(slot);
-			}
+			recordFrameFailure(view);
+			logger.warning("Output frame capture failed: " + rootCauseMessage(error));
 		}
 	}
 
 	/**
-	 * Obtains a slot for the next NDI capture.
+	 * Copies the ARGB pixels of a view into a pooled frame and offers it to every enabled pixel sink
+	 * sending that view. The frame stores the pixels as little-endian words, which is BGRA, so BGRA sinks
+	 * send it without another copy.
 	 *
-	 * <p>If no slot is free, the oldest frame still waiting in the ready queue is replaced. The slot
-	 * currently owned by the worker is never touched.</p>
+	 * <p>This is everything after the GPU readback, so tests and benchmarks drive the capture, fan-out
+	 * and send pipeline through it without an OpenGL context.</p>
 	 *
-	 * @return slot available for capture, or {@code null} when all slots are unavailable
+	 * @param view effective view the pixels belong to
+	 * @param argbPixels Processing ARGB pixels holding at least {@code width * height} entries
+	 * @param width frame width in pixels
+	 * @param height frame height in pixels
 	 */
-	private NdiFrameSlot acquireNdiCaptureSlot() {
-		NdiFrameSlot slot = ndiFreeSlots.poll();
-		if (slot != null) {
-			return slot;
-		}
+	void publishPixels(zividomelive.ViewType view, int[] argbPixels, int width, int height) {
+		publishPixels(view, argbPixels, width, height, System.nanoTime());
+	}
 
-		slot = ndiReadySlots.poll();
-		if (slot != null) {
-			ndiDroppedFrames.incrementAndGet();
+	/**
+	 * Publishes ARGB pixels captured at a given time.
+	 *
+	 * @param view effective view the pixels belong to
+	 * @param argbPixels Processing ARGB pixels holding at least {@code width * height} entries
+	 * @param width frame width in pixels
+	 * @param height frame height in pixels
+	 * @param captureNanos capture time on the {@link System#nanoTime()} clock
+	 */
+	void publishPixels(zividomelive.ViewType view, int[] argbPixels, int width, int height, long captureNanos) {
+		int pixelCount = Math.multiplyExact(width, height);
+		OutputFrame frame = framePool.acquire(Math.multiplyExact(pixelCount, NDI_BYTES_PER_PIXEL));
+		try {
+			frame.argbWords().put(argbPixels, 0, pixelCount);
+			frame.pixelFormat = NdiPixelFormat.BGRA;
+			offerFrame(view, frame, width, height, captureNanos);
+		} finally {
+			frame.release();
 		}
-		return slot;
 	}
 
 	/**
-	 * Queues the newest NDI frame, replacing the oldest pending frame when required.
+	 * Delivers any completed pixel-pack readback of a view and, when the frame is due, queues one for the
+	 * current frame stamped with its capture time.
 	 *
-	 * @param slot prepared NDI slot
-	 * @return {@code true} if the slot was queued
+	 * @return {@code false} when the context lacks PBOs or fences and {@code loadPixels()} must be used
 	 */
-	private boolean offerLatestNdiFrame(NdiFrameSlot slot) {
-		if (ndiReadySlots.offer(slot)) {
-			return true;
+	private boolean captureFrameAsync(zividomelive.ViewType view, PGraphicsOpenGL graphics, boolean due,
+									  long captureNanos) {
+		if (!PboReadback.isSupported(graphics.pgl)) {
+			if (!ndiAsyncReadbackFallbackLogged) {
+				ndiAsyncReadbackFallbackLogged = true;
+				logger.warning("NDI asynchronous readback is unavailable in this OpenGL context; using loadPixels().");
+			}
+			return false;
 		}
 
-		NdiFrameSlot stale = ndiReadySlots.poll();
-		if (stale != null) {
-			ndiDroppedFrames.incrementAndGet();
-			ndiFreeSlots.offer(stale);
+		PboReadback readback = readbacks.computeIfAbsent(view, ignored -> new PboReadback(PboReadback.DEFAULT_RING_SIZE));
+		try {
+			PboReadback.Poll delivery = readback.poll((pixels, width, height, pixelFormat, requestedNanos) ->
+					queueReadback(view, pixels, width, height, pixelFormat, requestedNanos));
+			if (delivery == PboReadback.Poll.LOST) {
+				recordFrameFailure(view);
+			}
+			if (due && !readback.request(graphics, readbackFormat(view), captureNanos)) {
+				forEachPixelSink(view, OutputSink::recordDroppedFrame);
+			}
+		} catch (RuntimeException error) {
+			recordFrameFailure(view);
+			logger.warning("NDI asynchronous readback failed: " + rootCauseMessage(error));
+			readbacks.remove(view);
+			releaseReadback(readback);
 		}
+		return true;
+	}
 
-		return ndiReadySlots.offer(slot);
+	/**
+	 * Picks the layout a view is read back in: RGBA when every sink sending it prefers RGBA, otherwise
+	 * BGRA, which also carries the ARGB pixels that UYVY is encoded from.
+	 */
+	private NdiPixelFormat readbackFormat(zividomelive.ViewType view) {
+		boolean rgba = false;
+		for (OutputSink sink : outputSinks) {
+			if (!sendsPixels(sink, view)) {
+				continue;
+			}
+			if (sink.pixelFormat() != NdiPixelFormat.RGBA) {
+				return NdiPixelFormat.BGRA;
+			}
+			rgba = true;
+		}
+		return rgba ? NdiPixelFormat.RGBA : NdiPixelFormat.BGRA;
 	}
 
-	/** Dedicated NDI conversion and sender loop. No OpenGL calls are made here. */
-	private void ndiWorkerLoop() {
-		Thread worker = Thread.currentThread();
+	/** Copies a mapped readback into a shared frame, flipping it to source row order. */
+	private void queueReadback(zividomelive.ViewType view, ByteBuffer pixels, int width, int height,
+							   NdiPixelFormat pixelFormat, long captureNanos) {
+		int rowBytes = Math.multiplyExact(width, NDI_BYTES_PER_PIXEL);
+		OutputFrame frame = framePool.acquire(Math.multiplyExact(rowBytes, height));
 		try {
-			while (ndiWorkerRunning || !ndiReadySlots.isEmpty()) {
-				NdiFrameSlot slot = null;
+			PboReadback.copyRowsFlipped(pixels, rowBytes, height, frame.pixels);
+			frame.pixelFormat = pixelFormat == NdiPixelFormat.RGBA ? NdiPixelFormat.RGBA : NdiPixelFormat.BGRA;
+			offerFrame(view, frame, width, height, captureNanos);
+		} finally {
+			frame.release();
+		}
+	}
 
-				try {
-					slot = ndiReadySlots.poll(100, TimeUnit.MILLISECONDS);
-					if (slot == null) {
-						continue;
-					}
-
-					DevolaySender sender = ndiSender;
-					if (!ndiEnabled || sender == null) {
-						if (ndiUnavailable) {
-							ndiFailedFrames.incrementAndGet();
-						}
-						continue;
-					}
-
-					slot.prepareDevolayFrame();
-					sender.sendVideoFrame(slot.frame);
-					ndiSentFrames.incrementAndGet();
-				} catch (InterruptedException interrupted) {
-					if (!ndiWorkerRunning) {
-						Thread.currentThread().interrupt();
-						break;
-					}
-				} catch (Exception | LinkageError error) {
-					ndiFailedFrames.incrementAndGet();
-					markNdiWorkerUnavailable(worker, error);
-				} finally {
-					if (slot != null) {
-						ndiFreeSlots.offer(slot);
-					}
-				}
+	/** Stamps frame metadata and hands the frame to every enabled pixel sink sending its view. */
+	private void offerFrame(zividomelive.ViewType view, OutputFrame frame, int width, int height,
+							long captureNanos) {
+		frame.width = width;
+		frame.height = height;
+		frame.pixelCount = width * height;
+		frame.view = view;
+		frame.captureNanos = captureNanos;
+		frame.frameRateNumerator = ndiFrameRateNumerator;
+		frame.frameRateDenominator = ndiFrameRateDenominator;
+		forEachPixelSink(view, sink -> {
+			try {
+				sink.sendPixels(frame);
+			} catch (RuntimeException error) {
+				sink.recordFailedFrame();
+				logger.warning("Output sink '" + sink.name() + "' rejected a frame: " + rootCauseMessage(error));
+			}
+		});
+	}
+
+	/** Reports whether a sink is an enabled pixel sink currently resolving to a view. */
+	private boolean sendsPixels(OutputSink sink, zividomelive.ViewType view) {
+		return sink.input() == OutputSink.Input.PIXELS && sink.isEnabled() && resolveOutputView(sink.view()) == view;
+	}
+
+	/** Reports whether any enabled pixel sink currently resolves to a view. */
+	private boolean pixelSinksSend(zividomelive.ViewType view) {
+		for (OutputSink sink : outputSinks) {
+			if (sendsPixels(sink, view)) {
+				return true;
 			}
-		} finally {
-			finishNdiWorker(worker);
 		}
+		return false;
 	}
 
-	/** Records a worker failure without closing native objects still owned by that worker. */
-	private void markNdiWorkerUnavailable(Thread worker, Throwable error) {
-		String failureReason = rootCauseMessage(error);
-		synchronized (ndiLifecycleLock) {
-			if (ndiWorkerThread != worker) {
-				return;
+	/** Reports whether any pixel sink is enabled, whatever its view. */
+	private boolean anyPixelSinkEnabled() {
+		for (OutputSink sink : outputSinks) {
+			if (sink.input() == OutputSink.Input.PIXELS && sink.isEnabled()) {
+				return true;
 			}
-			ndiEnabled = false;
-			ndiWorkerRunning = false;
-			ndiUnavailable = true;
-			ndiFailureReason = failureReason;
 		}
-		logger.warning("NDI sender worker failed and was disabled: " + failureReason);
+		return false;
 	}
 
-	/** Completes deferred cleanup after the worker can no longer touch native NDI resources. */
-	private void finishNdiWorker(Thread worker) {
-		synchronized (ndiLifecycleLock) {
-			if (ndiWorkerThread != worker) {
-				return;
+	/** Applies an action to every enabled pixel sink that resolves to a view. */
+	private void forEachPixelSink(zividomelive.ViewType view, Consumer<OutputSink> action) {
+		for (OutputSink sink : outputSinks) {
+			if (sendsPixels(sink, view)) {
+				action.accept(sink);
 			}
+		}
+	}
 
-			ndiWorkerThread = null;
-			ndiEnabled = false;
-			ndiWorkerRunning = false;
-			ndiShutdownPending = false;
+	private void recordFrameFailure(zividomelive.ViewType view) {
+		forEachPixelSink(view, OutputSink::recordFailedFrame);
+	}
 
-			boolean restart = ndiRestartRequested;
-			ndiRestartRequested = false;
-			releaseNdiResourcesLocked();
+	/** Deletes every view's pixel-pack buffers. Processing/OpenGL thread only. */
+	private void releaseReadbacks() {
+		for (PboReadback readback : readbacks.values()) {
+			releaseReadback(readback);
+		}
+		readbacks.clear();
+	}
 
-			if (restart) {
-				initializeNdiLocked();
-			}
+	/** Deletes one ring of pixel-pack buffers, dropping readbacks in flight. */
+	private void releaseReadback(PboReadback readback) {
+		try {
+			readback.dispose();
+		} catch (RuntimeException error) {
+			logger.warning("NDI pixel-pack buffers could not be released: " + rootCauseMessage(error));
 		}
 	}
 
 	/**
-	 * Changes the NDI frame-rate metadata used for subsequently captured frames.
+	 * Changes the NDI frame rate of subsequently captured frames.
+	 *
+	 * <p>The rate is stamped on every frame and, while pacing is enabled, also limits how often pixel
+	 * outputs read back: a sketch drawing at 60 fps with a 30/1 rate captures every second frame. Use
+	 * 30000/1001 and similar rates for broadcast timing; the schedule does not drift.</p>
 	 *
 	 * @param numerator positive frame-rate numerator
 	 * @param denominator positive frame-rate denominator
@@ -972,71 +1395,211 @@ public class OutputManager implements PConstants {
 
 		ndiFrameRateNumerator = numerator;
 		ndiFrameRateDenominator = denominator;
+		framePacer.setRate(numerator, denominator);
 	}
 
 	/**
-	 * Shuts down every output and releases native resources.
+	 * Enables or disables capture pacing at the NDI frame rate.
+	 *
+	 * <p>Pacing is enabled by default and applies to every pixel output, since they share one readback
+	 * per view. When disabled, every draw frame is captured and the frame rate is metadata only.</p>
 	 *
-	 * <p>This is the only normal lifecycle path that destroys Syphon or Spout.</p>
+	 * @param enabled {@code true} to capture only the frames due at the NDI frame rate
+	 * @since 1.6.0
 	 */
-	public void shutdownOutputs() {
-		shutdownNDI();
-		releaseLocalTextureBackend();
-		logger.info("All output services have been shut down.");
+	public void setNdiPacing(boolean enabled) {
+		ndiPacing = enabled;
 	}
 
-	/** Stops the NDI worker before releasing its native sender and frame resources. */
-	private void shutdownNDI() {
-		Thread worker;
-		synchronized (ndiLifecycleLock) {
-			ndiEnabled = false;
-			ndiWorkerRunning = false;
-			ndiRestartRequested = false;
-
-			worker = ndiWorkerThread;
-			if (worker == null) {
-				ndiShutdownPending = false;
-				releaseNdiResourcesLocked();
-				return;
-			}
+	/**
+	 * Returns whether capture is paced at the NDI frame rate.
+	 *
+	 * @return {@code true} if draw frames between NDI frames are not captured
+	 * @since 1.6.0
+	 */
+	public boolean isNdiPacing() {
+		return ndiPacing;
+	}
 
-			if (!worker.isAlive()) {
-				ndiWorkerThread = null;
-				ndiShutdownPending = false;
-				releaseNdiResourcesLocked();
-				return;
-			}
+	/**
+	 * Returns the inter-frame jitter of paced captures: the smoothed deviation of the interval between
+	 * captures from the NDI frame period.
+	 *
+	 * @return jitter in nanoseconds, or zero before the second capture
+	 * @since 1.6.0
+	 */
+	public long getNdiFrameJitterNanos() {
+		return framePacer.jitterNanos();
+	}
 
-			worker.interrupt();
-			if (worker == Thread.currentThread() || ndiShutdownPending) {
-				ndiShutdownPending = true;
-				return;
-			}
-			ndiShutdownPending = true;
+	/**
+	 * Returns the interval between the two latest paced captures.
+	 *
+	 * @return interval in nanoseconds, or zero before the second capture
+	 * @since 1.6.0
+	 */
+	public long getNdiFrameIntervalNanos() {
+		return framePacer.lastIntervalNanos();
+	}
+
+	/**
+	 * Returns the number of draw frames not captured because they fell between NDI frames.
+	 *
+	 * <p>These frames were never read back, so they are not counted as dropped.</p>
+	 *
+	 * @return draw frames skipped by pacing
+	 * @since 1.6.0
+	 */
+	public long getNdiPacingSkippedFrames() {
+		return framePacer.skippedFrames();
+	}
+
+	/**
+	 * Enables or disables adaptive NDI quality.
+	 *
+	 * <p>When enabled, the draw loop watches the captured, dropped and failed frame counts and the
+	 * per-frame send time of the enabled NDI routes over a two-second window. Sustained loss or slow
+	 * sends step every route one {@link NdiQuality} level down: first to UYVY, then to half and a quarter
+	 * of the captured resolution. Quality steps back up one level at a time once sends have been clean
+	 * for ten seconds. Disabled by default; disabling it restores {@link NdiQuality#FULL} on the next
+	 * frame.</p>
+	 *
+	 * @param enabled {@code true} to let backpressure choose the NDI quality
+	 * @since 1.6.0
+	 */
+	public void setNdiAdaptiveQuality(boolean enabled) {
+		if (ndiAdaptiveQuality != enabled) {
+			ndiAdaptiveQuality = enabled;
+			ndiAdaptiveQualityReset = true;
 		}
+	}
 
-		boolean stopped = waitForWorker(worker, ndiShutdownTimeoutMillis);
-		if (!stopped) {
-			String reason = "NDI sender worker did not stop within "
-					+ ndiShutdownTimeoutMillis
-					+ " ms; native cleanup was deferred.";
-			synchronized (ndiLifecycleLock) {
-				if (ndiWorkerThread == worker && worker.isAlive()) {
-					ndiFailureReason = reason;
-				}
-			}
-			logger.warning(reason);
-			return;
+	/**
+	 * Returns whether NDI quality adapts to backpressure.
+	 *
+	 * @return {@code true} if adaptive NDI quality is enabled
+	 * @since 1.6.0
+	 */
+	public boolean isNdiAdaptiveQuality() {
+		return ndiAdaptiveQuality;
+	}
+
+	/**
+	 * Returns the quality level currently applied to every NDI route.
+	 *
+	 * @return current NDI quality, {@link NdiQuality#FULL} unless adaptive quality stepped it down
+	 * @since 1.6.0
+	 */
+	public NdiQuality getNdiQuality() {
+		return ndiQuality;
+	}
+
+	/**
+	 * Registers a listener notified of every NDI quality step, on the Processing thread.
+	 *
+	 * @param listener listener to add
+	 * @throws IllegalArgumentException if {@code listener} is {@code null} or already registered
+	 * @since 1.6.0
+	 */
+	public void addNdiQualityListener(NdiQualityListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("NDI quality listener cannot be null.");
 		}
+		if (!ndiQualityListeners.addIfAbsent(listener)) {
+			throw new IllegalArgumentException("NDI quality listener already registered.");
+		}
+	}
 
-		synchronized (ndiLifecycleLock) {
-			if (ndiWorkerThread == worker) {
-				ndiWorkerThread = null;
-				ndiShutdownPending = false;
-				releaseNdiResourcesLocked();
-			}
+	/**
+	 * Unregisters a listener added with {@link #addNdiQualityListener(NdiQualityListener)}.
+	 *
+	 * @param listener registered listener
+	 * @return {@code true} if the listener was registered
+	 * @since 1.6.0
+	 */
+	public boolean removeNdiQualityListener(NdiQualityListener listener) {
+		return listener != null && ndiQualityListeners.remove(listener);
+	}
+
+	/**
+	 * Selects the pixel layout of subsequently captured NDI frames.
+	 *
+	 * <p>{@link NdiPixelFormat#BGRA}, the default, sends Processing's pixels unchanged. Choose
+	 * {@link NdiPixelFormat#RGBA} only for receivers that mishandle BGRA, and
+	 * {@link NdiPixelFormat#UYVY} to halve network bandwidth at the cost of chroma resolution and
+	 * alpha.</p>
+	 *
+	 * @param format the NDI pixel layout
+	 * @throws IllegalArgumentException if {@code format} is {@code null}
+	 * @since 1.6.0
+	 */
+	public void setNdiPixelFormat(NdiPixelFormat format) {
+		if (format == null) {
+			throw new IllegalArgumentException("NDI pixel format cannot be null.");
+		}
+		ndiPixelFormat = format;
+		ndiRoute.setPixelFormat(format);
+		for (NdiRoute route : ndiRoutes) {
+			route.setPixelFormat(format);
 		}
-		logger.info("NDI output shut down.");
+	}
+
+	/**
+	 * Returns the pixel layout used for newly captured NDI frames.
+	 *
+	 * @return the NDI pixel layout
+	 * @since 1.6.0
+	 */
+	public NdiPixelFormat getNdiPixelFormat() {
+		return ndiPixelFormat;
+	}
+
+	/**
+	 * Reads NDI frames back through a ring of pixel-pack buffers instead of {@code loadPixels()}.
+	 *
+	 * <p>The draw thread then only queues {@code glReadPixels}, maps the buffer of a frame finished one or
+	 * two frames earlier, and copies its rows, flipped to source order, into a pooled frame shared by the
+	 * pixel sinks, at the cost of that much extra latency. A readback the GPU never completes, or whose
+	 * buffer cannot be mapped, counts as a failed frame. Contexts without pixel-pack buffers or fence
+	 * objects keep using {@code loadPixels()}. Disabled by default.</p>
+	 *
+	 * @param enabled {@code true} to use asynchronous readback when the context supports it
+	 * @since 1.6.0
+	 */
+	public void setNdiAsyncReadback(boolean enabled) {
+		ndiAsyncReadback = enabled;
+	}
+
+	/**
+	 * Returns whether asynchronous NDI readback is requested.
+	 *
+	 * @return {@code true} if pixel-pack buffers are used when available
+	 * @since 1.6.0
+	 */
+	public boolean isNdiAsyncReadback() {
+		return ndiAsyncReadback;
+	}
+
+	/**
+	 * Shuts down every output and releases native resources.
+	 *
+	 * <p>This is the only normal lifecycle path that destroys Syphon or Spout. Unlike
+	 * {@link #setNdiEnabled(boolean)} it stops NDI on the calling thread, waiting at most the bounded
+	 * worker shutdown timeout per route, so the outputs are released when it returns. NDI requests still
+	 * pending are superseded.</p>
+	 */
+	public void shutdownOutputs() {
+		ndiRoute.stop();
+		for (NdiRoute route : ndiRoutes) {
+			route.stop();
+		}
+		sharedMemorySink.setEnabled(false);
+		udpSink.setEnabled(false);
+		mjpegSink.setEnabled(false);
+		releaseReadbacks();
+		framePool.trim();
+		releaseLocalTextureBackend();
+		logger.info("All output services have been shut down.");
 	}
 
 	/** Waits a bounded interval for a worker without clearing an interrupt from the caller. */
@@ -1053,14 +1616,6 @@ public class OutputManager implements PConstants {
 		return !worker.isAlive();
 	}
 
-	/** Releases NDI resources only after no worker can still use them. Lifecycle lock required. */
-	private void releaseNdiResourcesLocked() {
-		ndiReadySlots.clear();
-		ndiFreeSlots.clear();
-		closeNdiSlots();
-		closeNdiSender();
-	}
-
 	/** Releases the platform-local backend during final application shutdown. */
 	private void releaseLocalTextureBackend() {
 		spoutEnabled = false;
@@ -1106,44 +1661,6 @@ public class OutputManager implements PConstants {
 		}
 	}
 
-	/** Closes every pooled Devolay frame. */
-	private void closeNdiSlots() {
-		for (int index = 0; index < ndiSlots.length; index++) {
-			NdiFrameSlot slot = ndiSlots[index];
-			ndiSlots[index] = null;
-
-			if (slot != null) {
-				try {
-					slot.close();
-				} catch (RuntimeException | LinkageError error) {
-					String failureReason = rootCauseMessage(error);
-					if (ndiFailureReason.isEmpty()) {
-						ndiFailureReason = failureReason;
-					}
-					logger.warning("Failed to close an NDI frame slot: " + failureReason);
-				}
-			}
-		}
-	}
-
-	/** Closes the native NDI sender. */
-	private void closeNdiSender() {
-		DevolaySender sender = ndiSender;
-		ndiSender = null;
-
-		if (sender != null) {
-			try {
-				sender.close();
-			} catch (RuntimeException | LinkageError error) {
-				String failureReason = rootCauseMessage(error);
-				if (ndiFailureReason.isEmpty()) {
-					ndiFailureReason = failureReason;
-				}
-				logger.warning("Failed to close the NDI sender: " + failureReason);
-			}
-		}
-	}
-
 	/**
 	 * Returns the lifecycle state of one output without treating it as a render requirement.
 	 *
@@ -1158,12 +1675,7 @@ public class OutputManager implements PConstants {
 
 		switch (outputType) {
 			case NDI:
-				return resolveOutputState(
-						true,
-						ndiUnavailable,
-						ndiSender != null || ndiWorkerThread != null,
-						isNdiEnabled(),
-						ndiShutdownPending && ndiWorkerThread != null);
+				return ndiRoute.state();
 			case SPOUT:
 				return resolveOutputState(
 						isWindows,
@@ -1178,6 +1690,12 @@ public class OutputManager implements PConstants {
 						syphonServer != null,
 						isSyphonEnabled(),
 						false);
+			case SHARED_MEMORY:
+				return sharedMemorySink.state();
+			case UDP:
+				return udpSink.state();
+			case MJPEG:
+				return mjpegSink.state();
 			default:
 				return OutputState.UNAVAILABLE;
 		}
@@ -1192,7 +1710,16 @@ public class OutputManager implements PConstants {
 	 */
 	public String getOutputFailureReason(OutputType outputType) {
 		if (outputType == OutputType.NDI) {
-			return ndiFailureReason;
+			return ndiRoute.failureReason();
+		}
+		if (outputType == OutputType.SHARED_MEMORY) {
+			return sharedMemorySink.failureReason();
+		}
+		if (outputType == OutputType.UDP) {
+			return udpSink.failureReason();
+		}
+		if (outputType == OutputType.MJPEG) {
+			return mjpegSink.failureReason();
 		}
 		if (outputType != null && outputType == localOutputType()) {
 			return localTextureFailureReason;
@@ -1228,7 +1755,7 @@ public class OutputManager implements PConstants {
 	 * @return {@code true} when NDI is active
 	 */
 	public boolean isNdiEnabled() {
-		return ndiEnabled && ndiSender != null && ndiWorkerRunning;
+		return ndiRoute.isEnabled();
 	}
 
 	/**
@@ -1249,6 +1776,36 @@ public class OutputManager implements PConstants {
 		return isMacOS && syphonEnabled && syphonServer != null;
 	}
 
+	/**
+	 * Reports whether the shared-memory output is publishing.
+	 *
+	 * @return {@code true} on Linux while shared-memory publication is enabled
+	 * @since 1.6.0
+	 */
+	public boolean isSharedMemoryEnabled() {
+		return sharedMemorySink.isEnabled();
+	}
+
+	/**
+	 * Reports whether the UDP output is streaming.
+	 *
+	 * @return {@code true} while the UDP sender worker runs
+	 * @since 1.6.0
+	 */
+	public boolean isUdpEnabled() {
+		return udpSink.isEnabled();
+	}
+
+	/**
+	 * Reports whether the MJPEG monitor is serving, with or without connected clients.
+	 *
+	 * @return {@code true} while the monitor's HTTP server runs
+	 * @since 1.6.0
+	 */
+	public boolean isMjpegMonitorEnabled() {
+		return mjpegSink.isServing();
+	}
+
 	/**
 	 * Reports whether the platform-local backend has been prepared.
 	 *
@@ -1308,6 +1865,117 @@ public class OutputManager implements PConstants {
 		setViewForOutput(OutputType.SYPHON, view);
 	}
 
+	/**
+	 * Selects the view sent through shared memory.
+	 *
+	 * @param view view to route to the shared-memory output
+	 * @since 1.6.0
+	 */
+	public void setSharedMemoryView(zividomelive.ViewType view) {
+		setViewForOutput(OutputType.SHARED_MEMORY, view);
+	}
+
+	/**
+	 * Returns the file local readers open with {@link SharedMemoryFrameReader#open(Path)}.
+	 *
+	 * @return shared-memory ring path
+	 * @since 1.6.0
+	 */
+	public Path getSharedMemoryPath() {
+		return sharedMemorySink.path();
+	}
+
+	/**
+	 * Returns the number of frames copied into the shared-memory ring.
+	 *
+	 * @return written frames
+	 * @since 1.6.0
+	 */
+	public long getSharedMemoryWrittenFrames() {
+		return sharedMemorySink.writtenFrames();
+	}
+
+	/**
+	 * Returns the number of shared-memory frames lost to failed readbacks or ring errors.
+	 *
+	 * @return failed frames
+	 * @since 1.6.0
+	 */
+	public long getSharedMemoryFailedFrames() {
+		return sharedMemorySink.failedFrames();
+	}
+
+	/**
+	 * Selects the view streamed over UDP.
+	 *
+	 * @param view view to route to the UDP output
+	 * @since 1.6.0
+	 */
+	public void setUdpView(zividomelive.ViewType view) {
+		setViewForOutput(OutputType.UDP, view);
+	}
+
+	/**
+	 * Returns the number of frames fully handed to the UDP socket.
+	 *
+	 * @return sent frames
+	 * @since 1.6.0
+	 */
+	public long getUdpSentFrames() {
+		return udpSink.sentFrames();
+	}
+
+	/**
+	 * Returns the number of UDP frames replaced before the sender took them, or refused by a receiver
+	 * that was not listening.
+	 *
+	 * @return dropped frames
+	 * @since 1.6.0
+	 */
+	public long getUdpDroppedFrames() {
+		return udpSink.droppedFrames();
+	}
+
+	/**
+	 * Returns the number of UDP frames lost to failed readbacks or socket errors.
+	 *
+	 * @return failed frames
+	 * @since 1.6.0
+	 */
+	public long getUdpFailedFrames() {
+		return udpSink.failedFrames();
+	}
+
+	/**
+	 * Selects the view served by the MJPEG monitor.
+	 *
+	 * @param view view to route to the monitor
+	 * @since 1.6.0
+	 */
+	public void setMjpegMonitorView(zividomelive.ViewType view) {
+		setViewForOutput(OutputType.MJPEG, view);
+	}
+
+	/**
+	 * Returns the number of clients watching the MJPEG monitor.
+	 *
+	 * @return connected clients
+	 * @since 1.6.0
+	 */
+	public int getMjpegMonitorClients() {
+		return mjpegSink.clients();
+	}
+
+	/**
+	 * Returns the number of frames the MJPEG monitor encoded.
+	 *
+	 * @return encoded frames
+	 * @since 1.6.0
+	 */
+	public long getMjpegMonitorEncodedFrames() {
+		return mjpegSink.encodedFrames();
+	}
+
 	/**
 	 * Sets the view of the valid platform-local texture backend.
 	 *
@@ -1372,7 +2040,7 @@ public class OutputManager implements PConstants {
 	 * @return total captured NDI frames
 	 */
 	public long getNdiCapturedFrames() {
-		return ndiCapturedFrames.get();
+		return ndiRoute.capturedFrames();
 	}
 
 	/**
@@ -1381,7 +2049,7 @@ public class OutputManager implements PConstants {
 	 * @return total sent NDI frames
 	 */
 	public long getNdiSentFrames() {
-		return ndiSentFrames.get();
+		return ndiRoute.sentFrames();
 	}
 
 	/**
@@ -1390,7 +2058,7 @@ public class OutputManager implements PConstants {
 	 * @return total dropped NDI frames
 	 */
 	public long getNdiDroppedFrames() {
-		return ndiDroppedFrames.get();
+		return ndiRoute.droppedFrames();
 	}
 
 	/**
@@ -1403,7 +2071,310 @@ public class OutputManager implements PConstants {
 	 * @since 1.5.0
 	 */
 	public long getNdiFailedFrames() {
-		return ndiFailedFrames.get();
+		return ndiRoute.failedFrames();
+	}
+
+	/**
+	 * Returns the number of pooled frame buffers currently held by a sink, route or capture.
+	 *
+	 * @return frame buffers in use
+	 * @since 1.6.0
+	 */
+	public int getFrameBuffersInUse() {
+		return framePool.framesInUse();
+	}
+
+	/**
+	 * Returns the largest number of pooled frame buffers held at once.
+	 *
+	 * @return high-water mark of frame buffers in use
+	 * @since 1.6.0
+	 */
+	public int getFrameBuffersHighWater() {
+		return framePool.highWaterFrames();
+	}
+
+	/**
+	 * Returns the bytes of the pooled frame buffers currently held.
+	 *
+	 * @return bytes in use, in whole pages
+	 * @since 1.6.0
+	 */
+	public long getFrameBufferBytesInUse() {
+		return framePool.bytesInUse();
+	}
+
+	/**
+	 * Returns the largest number of pooled frame-buffer bytes held at once.
+	 *
+	 * @return high-water mark of bytes in use
+	 * @since 1.6.0
+	 */
+	public long getFrameBufferBytesHighWater() {
+		return framePool.highWaterBytes();
+	}
+
+	/**
+	 * Returns the direct memory referenced by the frame pool, in use or idle.
+	 *
+	 * @return allocated bytes
+	 * @since 1.6.0
+	 */
+	public long getFrameBufferBytesAllocated() {
+		return framePool.bytesAllocated();
+	}
+
+	/**
+	 * Registers an additional named NDI sender, initially stopped.
+	 *
+	 * <p>Each route owns its sender, worker, frame slots and counters. Routes sending the same view
+	 * share one readback per frame. The route is announced as {@code "ziviDomeLive NDI <name>"} once
+	 * enabled with {@link #setNdiRouteEnabled(String, boolean)}; the primary NDI output is unaffected.</p>
+	 *
+	 * @param name unique route name
+	 * @param view view the route sends
+	 * @throws IllegalArgumentException if {@code name} is blank or taken, or {@code view} is {@code null}
+	 * @since 1.6.0
+	 */
+	public void addNdiRoute(String name, zividomelive.ViewType view) {
+		if (name == null || name.trim().isEmpty()) {
+			throw new IllegalArgumentException("NDI route name cannot be blank.");
+		}
+		if (view == null) {
+			throw new IllegalArgumentException("NDI route view cannot be null.");
+		}
+		String routeName = name.trim();
+		synchronized (ndiRoutes) {
+			if (findNdiRoute(routeName) != null) {
+				throw new IllegalArgumentException("NDI route already exists: " + routeName);
+			}
+			NdiRoute route = new NdiRoute(routeName, NDI_ROUTE_SENDER_PREFIX + routeName,
+					NDI_WORKER_NAME + "-" + routeName, "NDI route '" + routeName + "'",
+					view, ndiPixelFormat, framePool, ndiShutdownTimeoutMillis);
+			route.setQuality(ndiQuality);
+			ndiRoutes.add(route);
+			outputSinks.add(route);
+		}
+		logger.info("Added NDI route '" + routeName + "' for " + view + ".");
+	}
+
+	/**
+	 * Unregisters a named NDI route and stops it on the lifecycle thread.
+	 *
+	 * @param name route name
+	 * @return {@code true} if the route existed
+	 * @since 1.6.0
+	 */
+	public boolean removeNdiRoute(String name) {
+		NdiRoute route;
+		synchronized (ndiRoutes) {
+			route = findNdiRoute(name);
+			if (route == null) {
+				return false;
+			}
+			ndiRoutes.remove(route);
+			outputSinks.remove(route);
+		}
+		route.request(false, ndiLifecycle);
+		return true;
+	}
+
+	/**
+	 * Starts or stops a named NDI route without blocking the caller, as {@link #setNdiEnabled(boolean)}
+	 * does for the primary output.
+	 *
+	 * @param name route name
+	 * @param enabled {@code true} to create the sender and start sending
+	 * @return future completed with the route state once the request has been applied
+	 * @throws IllegalArgumentException if no route has that name
+	 * @since 1.6.0
+	 */
+	public CompletableFuture<OutputState> setNdiRouteEnabled(String name, boolean enabled) {
+		return requireNdiRoute(name).request(enabled, ndiLifecycle);
+	}
+
+	/**
+	 * Reports whether a named NDI route is enabled and ready to send frames.
+	 *
+	 * @param name route name
+	 * @return {@code true} when the route is active
+	 * @throws IllegalArgumentException if no route has that name
+	 * @since 1.6.0
+	 */
+	public boolean isNdiRouteEnabled(String name) {
+		return requireNdiRoute(name).isEnabled();
+	}
+
+	/**
+	 * Changes the view sent by a named NDI route.
+	 *
+	 * @param name route name
+	 * @param view view to send
+	 * @throws IllegalArgumentException if no route has that name or {@code view} is {@code null}
+	 * @since 1.6.0
+	 */
+	public void setNdiRouteView(String name, zividomelive.ViewType view) {
+		if (view == null) {
+			throw new IllegalArgumentException("NDI route view cannot be null.");
+		}
+		requireNdiRoute(name).setView(view);
+	}
+
+	/**
+	 * Returns the view configured for a named NDI route.
+	 *
+	 * @param name route name
+	 * @return configured view
+	 * @throws IllegalArgumentException if no route has that name
+	 * @since 1.6.0
+	 */
+	public zividomelive.ViewType getNdiRouteView(String name) {
+		return requireNdiRoute(name).view();
+	}
+
+	/**
+	 * Returns the names of the registered NDI routes in registration order.
+	 *
+	 * @return a snapshot of the route names; the primary NDI output is not included
+	 * @since 1.6.0
+	 */
+	public List<String> getNdiRouteNames() {
+		List<String> names = new ArrayList<>();
+		for (NdiRoute route : ndiRoutes) {
+			names.add(route.name());
+		}
+		return names;
+	}
+
+	/**
+	 * Returns the lifecycle state of a named NDI route.
+	 *
+	 * @param name route name
+	 * @return current state
+	 * @throws IllegalArgumentException if no route has that name
+	 * @since 1.6.0
+	 */
+	public OutputState getNdiRouteState(String name) {
+		return requireNdiRoute(name).state();
+	}
+
+	/**
+	 * Returns the latest failure reason of a named NDI route.
+	 *
+	 * @param name route name
+	 * @return diagnostic text, or an empty string when no failure has been recorded
+	 * @throws IllegalArgumentException if no route has that name
+	 * @since 1.6.0
+	 */
+	public String getNdiRouteFailureReason(String name) {
+		return requireNdiRoute(name).failureReason();
+	}
+
+	/**
+	 * Returns the number of frames a named NDI route queued for sending.
+	 *
+	 * @param name route name
+	 * @return total captured frames of the route
+	 * @throws IllegalArgumentException if no route has that name
+	 * @since 1.6.0
+	 */
+	public long getNdiCapturedFrames(String name) {
+		return requireNdiRoute(name).capturedFrames();
+	}
+
+	/**
+	 * Returns the number of frames sent by a named NDI route.
+	 *
+	 * @param name route name
+	 * @return total sent frames of the route
+	 * @throws IllegalArgumentException if no route has that name
+	 * @since 1.6.0
+	 */
+	public long getNdiSentFrames(String name) {
+		return requireNdiRoute(name).sentFrames();
+	}
+
+	/**
+	 * Returns the number of frames a named NDI route discarded under backpressure.
+	 *
+	 * @param name route name
+	 * @return total dropped frames of the route
+	 * @throws IllegalArgumentException if no route has that name
+	 * @since 1.6.0
+	 */
+	public long getNdiDroppedFrames(String name) {
+		return requireNdiRoute(name).droppedFrames();
+	}
+
+	/**
+	 * Returns the number of frames a named NDI route lost to capture or sender failures.
+	 *
+	 * @param name route name
+	 * @return total failed frames of the route
+	 * @throws IllegalArgumentException if no route has that name
+	 * @since 1.6.0
+	 */
+	public long getNdiFailedFrames(String name) {
+		return requireNdiRoute(name).failedFrames();
+	}
+
+	private NdiRoute findNdiRoute(String name) {
+		if (name == null) {
+			return null;
+		}
+		String routeName = name.trim();
+		for (NdiRoute route : ndiRoutes) {
+			if (route.name().equals(routeName)) {
+				return route;
+			}
+		}
+		return null;
+	}
+
+	private NdiRoute requireNdiRoute(String name) {
+		NdiRoute route = findNdiRoute(name);
+		if (route == null) {
+			throw new IllegalArgumentException("Unknown NDI route: " + name);
+		}
+		return route;
+	}
+
+	/**
+	 * Registers an additional output sink driven by the draw loop.
+	 *
+	 * <p>Texture sinks receive their view's graphics target after the built-in texture output; pixel
+	 * sinks share the per-view readback with the NDI routes. The caller keeps ownership of the sink:
+	 * {@link #shutdownOutputs()} does not stop it.</p>
+	 *
+	 * @param sink sink to drive each frame
+	 * @throws IllegalArgumentException if {@code sink} is {@code null} or already registered
+	 * @since 1.6.0
+	 */
+	public void addOutputSink(OutputSink sink) {
+		if (sink == null) {
+			throw new IllegalArgumentException("Output sink cannot be null.");
+		}
+		if (!outputSinks.addIfAbsent(sink)) {
+			throw new IllegalArgumentException("Output sink already registered: " + sink.name());
+		}
+		logger.info("Added output sink '" + sink.name() + "' (" + sink.input() + ").");
+	}
+
+	/**
+	 * Unregisters a sink added with {@link #addOutputSink(OutputSink)}. The sink receives no frame
+	 * after this method returns on the Processing thread.
+	 *
+	 * @param sink registered sink
+	 * @return {@code true} if the sink was registered
+	 * @since 1.6.0
+	 */
+	public boolean removeOutputSink(OutputSink sink) {
+		if (sink == null || sink instanceof NdiRoute || sink instanceof SharedMemorySink
+				|| sink instanceof UdpFrameSink || sink instanceof MjpegMonitorSink
+				|| sink instanceof SpoutSink || sink instanceof SyphonSink) {
+			return false;
+		}
+		return outputSinks.remove(sink);
 	}
 
 	/**
@@ -1421,22 +2392,33 @@ public class OutputManager implements PConstants {
 			return false;
 		}
 
-		if (isNdiEnabled() && resolveOutputView(ndiView) == view) {
+		if (isNdiEnabled() && resolveOutputView(ndiRoute.view()) == view) {
 			return true;
 		}
-		if (isSpoutEnabled() && resolveOutputView(spoutView) == view) {
-			return true;
+		for (OutputSink sink : outputSinks) {
+			if (sink != ndiRoute && sink.isEnabled() && resolveOutputView(sink.view()) == view) {
+				return true;
+			}
 		}
-		return isSyphonEnabled() && resolveOutputView(syphonView) == view;
+		return false;
 	}
 
 	/**
 	 * Checks whether at least one external output is active.
 	 *
-	 * @return {@code true} when NDI or the valid local texture output is enabled
+	 * @return {@code true} when NDI, an NDI route, the valid local texture output or a registered
+	 *         sink is enabled
 	 */
 	public boolean isActive() {
-		return isNdiEnabled() || isSpoutEnabled() || isSyphonEnabled();
+		if (isNdiEnabled()) {
+			return true;
+		}
+		for (OutputSink sink : outputSinks) {
+			if (sink.isEnabled()) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/** Stops and releases every output owned by this manager. */
@@ -1450,7 +2432,7 @@ public class OutputManager implements PConstants {
 	 * @param error failure whose root cause should be inspected
 	 * @return root-cause class and message
 	 */
-	private static String rootCauseMessage(Throwable error) {
+	static String rootCauseMessage(Throwable error) {
 		Throwable root = error;
 		while (root.getCause() != null && root.getCause() != root) {
 			root = root.getCause();
@@ -1463,84 +2445,105 @@ public class OutputManager implements PConstants {
 		return root.getClass().getSimpleName() + ": " + message;
 	}
 
-	/** Computes the packed RGBA line stride used by Devolay. */
-	static int ndiLineStride(int width) {
+	/** Computes the line stride of one frame row in the given pixel layout. */
+	static int ndiLineStride(int width, NdiPixelFormat format) {
 		if (width <= 0) {
 			throw new IllegalArgumentException("NDI frame width must be positive");
 		}
-		return Math.multiplyExact(width, NDI_BYTES_PER_PIXEL);
+		return Math.multiplyExact(width, format.bytesPerPixel());
 	}
 
-	/** Writes Processing ARGB pixels as packed RGBA while preserving source row order. */
-	static void writeArgbAsRgba(int[] argbPixels, int pixelCount, ByteBuffer rgbaBuffer) {
+	/**
+	 * Writes ARGB pixels read from a pooled frame's word view as packed RGBA, preserving row order.
+	 *
+	 * <p>Pixels are swizzled a word at a time; frames of at least
+	 * {@link PixelKernels#PARALLEL_THRESHOLD} pixels are split into bands converted on the common
+	 * fork/join pool while the NDI worker waits.</p>
+	 */
+	static void writeArgbAsRgba(IntBuffer argbPixels, int pixelCount, ByteBuffer rgbaBuffer) {
 		if (argbPixels == null || rgbaBuffer == null || pixelCount < 0
-				|| pixelCount > argbPixels.length
+				|| pixelCount > argbPixels.capacity()
 				|| rgbaBuffer.capacity() < Math.multiplyExact(pixelCount, NDI_BYTES_PER_PIXEL)) {
 			throw new IllegalArgumentException("Invalid NDI pixel conversion buffers");
 		}
 
 		rgbaBuffer.clear();
-		for (int index = 0; index < pixelCount; index++) {
-			int pixel = argbPixels[index];
-			rgbaBuffer.put((byte) ((pixel >>> 16) & 0xFF));
-			rgbaBuffer.put((byte) ((pixel >>> 8) & 0xFF));
-			rgbaBuffer.put((byte) (pixel & 0xFF));
-			rgbaBuffer.put((byte) ((pixel >>> 24) & 0xFF));
-		}
-		rgbaBuffer.flip();
+		PixelKernels.argbToRgba(argbPixels, pixelCount, rgbaBuffer);
+		rgbaBuffer.limit(pixelCount * NDI_BYTES_PER_PIXEL);
 	}
 
 	/**
-	 * Reusable NDI frame slot.
+	 * Writes ARGB pixels read from a pooled frame's word view as BT.709 UYVY 4:2:2.
 	 *
-	 * <p>The Processing ARGB copy is written on the draw thread. RGBA conversion and Devolay
-	 * submission occur exclusively on the NDI worker.</p>
+	 * <p>Each pixel pair shares one chroma sample and alpha is discarded. Frames of at least
+	 * {@link PixelKernels#PARALLEL_THRESHOLD} pixels are encoded by rows on the common fork/join
+	 * pool while the NDI worker waits.</p>
 	 */
-	private static final class NdiFrameSlot implements AutoCloseable {
+	static void writeArgbAsUyvy(IntBuffer argbPixels, int width, int height, ByteBuffer uyvyBuffer) {
+		if (argbPixels == null || uyvyBuffer == null || width <= 0 || height <= 0 || (width & 1) != 0
+				|| Math.multiplyExact(width, height) > argbPixels.capacity()
+				|| uyvyBuffer.capacity() < Math.multiplyExact(Math.multiplyExact(width, height), 2)) {
+			throw new IllegalArgumentException("Invalid NDI pixel conversion buffers");
+		}
 
-		private final DevolayVideoFrame frame = new DevolayVideoFrame();
-		private int[] argbPixels;
-		private ByteBuffer rgbaBuffer;
-		private int width;
-		private int height;
-		private int pixelCount;
-		private int frameRateNumerator;
-		private int frameRateDenominator;
+		uyvyBuffer.clear();
+		PixelKernels.argbToUyvy(argbPixels, width, height, uyvyBuffer);
+		uyvyBuffer.limit(width * height * 2);
+	}
 
-		/** Ensures the slot buffers exactly match the requested frame dimensions. */
-		private void ensureCapacity(int requiredWidth, int requiredHeight) {
-			int requiredPixels = Math.multiplyExact(requiredWidth, requiredHeight);
-			int requiredBytes = Math.multiplyExact(requiredPixels, NDI_BYTES_PER_PIXEL);
+	/** Publishes through the Windows Spout sender owned by this manager. */
+	private final class SpoutSink implements OutputSink {
+		@Override
+		public String name() {
+			return "Spout";
+		}
 
-			if (argbPixels == null || argbPixels.length != requiredPixels) {
-				argbPixels = new int[requiredPixels];
-			}
+		@Override
+		public Input input() {
+			return Input.TEXTURE;
+		}
 
-			if (rgbaBuffer == null || rgbaBuffer.capacity() != requiredBytes) {
-				rgbaBuffer = ByteBuffer
-						.allocateDirect(requiredBytes)
-						.order(ByteOrder.LITTLE_ENDIAN);
-			}
+		@Override
+		public zividomelive.ViewType view() {
+			return spoutView;
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return isSpoutEnabled();
+		}
+
+		@Override
+		public void sendTexture(PGraphicsOpenGL graphics) {
+			sendSpoutFrame(graphics);
+		}
+	}
+
+	/** Publishes through the macOS Syphon server owned by this manager. */
+	private final class SyphonSink implements OutputSink {
+		@Override
+		public String name() {
+			return "Syphon";
+		}
+
+		@Override
+		public Input input() {
+			return Input.TEXTURE;
 		}
 
-		/** Converts the stored ARGB frame to RGBA and configures the reusable Devolay frame. */
-		private void prepareDevolayFrame() {
-			writeArgbAsRgba(argbPixels, pixelCount, rgbaBuffer);
+		@Override
+		public zividomelive.ViewType view() {
+			return syphonView;
+		}
 
-			frame.setResolution(width, height);
-			frame.setData(rgbaBuffer);
-			frame.setFourCCType(NDI_FRAME_FOUR_CC_TYPE);
-			frame.setLineStride(ndiLineStride(width));
-			frame.setFormatType(NDI_FRAME_FORMAT_TYPE);
-			frame.setFrameRate(frameRateNumerator, frameRateDenominator);
+		@Override
+		public boolean isEnabled() {
+			return isSyphonEnabled();
 		}
 
-		/** Releases the native Devolay frame and clears Java buffer references. */
 		@Override
-		public void close() {
-			frame.close();
-			argbPixels = null;
-			rgbaBuffer = null;
+		public void sendTexture(PGraphicsOpenGL graphics) {
+			sendSyphonFrame(graphics);
 		}
 	}
 }
@@ -0,0 +1,94 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.zividomelive;
+import processing.opengl.PGraphicsOpenGL;
+
+/**
+ * Destination of the frames published by {@link OutputManager}.
+ *
+ * <p>A sink declares what it consumes through {@link #input()}, the view it sends through
+ * {@link #view()} and, for pixel sinks, its preferred {@link #pixelFormat()}. Once per draw cycle
+ * the manager hands every enabled texture sink the graphics target of its view, then reads each view
+ * needed by enabled pixel sinks back once and offers the same {@link OutputFrame} to all of them.
+ * Syphon, Spout, the shared-memory, UDP and MJPEG outputs and every NDI route are sinks; further destinations are
+ * added with {@link OutputManager#addOutputSink(OutputSink)} without changing the draw loop.</p>
+ *
+ * <p>Both send methods run on the Processing/OpenGL thread and must return quickly. Pixel sinks that
+ * encode or transmit should retain the frame and do that work on their own thread.</p>
+ *
+ * @since 1.6.0
+ */
+public interface OutputSink {
+
+	/** What a sink consumes each frame. */
+	enum Input {
+		/** The GPU graphics target itself, without any readback. */
+		TEXTURE,
+		/** CPU pixels read back from the graphics target. */
+		PIXELS
+	}
+
+	/**
+	 * Returns a stable name for logs and diagnostics.
+	 *
+	 * @return sink name
+	 */
+	String name();
+
+	/**
+	 * Returns what the sink consumes.
+	 *
+	 * @return {@link Input#TEXTURE} or {@link Input#PIXELS}
+	 */
+	Input input();
+
+	/**
+	 * Returns the view the sink sends. Dedicated render modes override it without changing it.
+	 *
+	 * @return configured view
+	 */
+	zividomelive.ViewType view();
+
+	/**
+	 * Returns the layout a pixel sink prefers. Packed frames arrive in it when every sink sharing
+	 * the view agrees; otherwise frames arrive as ARGB or in the layout named by
+	 * {@link OutputFrame#pixelFormat()}. Ignored for texture sinks.
+	 *
+	 * @return preferred layout
+	 */
+	default OutputManager.NdiPixelFormat pixelFormat() {
+		return OutputManager.DEFAULT_NDI_PIXEL_FORMAT;
+	}
+
+	/**
+	 * Reports whether the sink currently wants frames. Disabled sinks cost nothing per frame.
+	 *
+	 * @return {@code true} to receive frames
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Publishes a finished graphics target. Called only for {@link Input#TEXTURE} sinks.
+	 *
+	 * @param graphics graphics target of the sink's effective view
+	 */
+	default void sendTexture(PGraphicsOpenGL graphics) {
+	}
+
+	/**
+	 * Receives a frame read back for the sink's effective view. Called only for {@link Input#PIXELS}
+	 * sinks. The frame is valid until this method returns unless the sink retains it.
+	 *
+	 * @param frame shared captured frame
+	 */
+	default void sendPixels(OutputFrame frame) {
+	}
+
+	/** Records a frame lost before reaching the sink, such as a failed readback. */
+	default void recordFailedFrame() {
+	}
+
+	/** Records a frame the sink could not take, such as one skipped by a full readback ring. */
+	default void recordDroppedFrame() {
+	}
+}
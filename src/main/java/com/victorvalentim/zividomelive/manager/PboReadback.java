@@ -0,0 +1,348 @@
+package com.victorvalentim.zividomelive.manager;
+
+import processing.opengl.FrameBuffer;
+import processing.opengl.PGL;
+import processing.opengl.PGraphicsOpenGL;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Locale;
+
+/**
+ * Asynchronous GPU readback through a ring of pixel-pack buffers.
+ *
+ * <p>{@link #request} queues {@code glReadPixels} into the next free buffer and fences it, so the draw
+ * thread does not wait for the GPU. The read always targets the color framebuffer of the graphics
+ * target, bound as the read framebuffer just for the call, whatever framebuffer happens to be bound.
+ * {@link #poll} maps the oldest buffer once its fence has signalled, usually one or two frames later,
+ * and hands the mapped rows to a {@link Sink} before unmapping. Only when every buffer is still in
+ * flight does {@code poll} wait for the oldest one, and a buffer that still does not complete, or
+ * cannot be mapped, is reported as {@link Poll#LOST}.</p>
+ *
+ * <p>All methods must be called on the Processing/OpenGL thread. Rows arrive bottom-up, as OpenGL
+ * reads them; {@link #copyRowsFlipped} restores Processing's top-down order.</p>
+ */
+final class PboReadback {
+
+	/** Buffers in the ring: one being written by the GPU, one waiting, one being mapped. */
+	static final int DEFAULT_RING_SIZE = 3;
+
+	/** {@code GL_BGRA}, the layout of a little-endian Processing ARGB word. */
+	static final int GL_BGRA = 0x80E1;
+
+	/** {@code GL_READ_FRAMEBUFFER_BINDING}, restored after each read. */
+	static final int GL_READ_FRAMEBUFFER_BINDING = 0x8CAA;
+
+	/** Longest wait for the oldest buffer when the ring is full. */
+	private static final long FULL_RING_WAIT_NANOS = 100_000_000L;
+
+	/** Outcome of {@link #poll}. */
+	enum Poll {
+		/** No readback is in flight, or the oldest one has not completed yet. */
+		IDLE,
+		/** The oldest readback was handed to the sink. */
+		DELIVERED,
+		/** The oldest readback was given up: the GPU never completed it or its buffer could not be mapped. */
+		LOST
+	}
+
+	/** Receives one mapped frame; the buffer is only valid during the call. */
+	interface Sink {
+		/**
+		 * Consumes a completed readback.
+		 *
+		 * @param pixels mapped rows, bottom row first, four bytes per pixel in {@code format} order
+		 * @param width frame width in pixels
+		 * @param height frame height in pixels
+		 * @param format the {@link OutputManager.NdiPixelFormat} requested with the frame
+		 * @param captureNanos timestamp passed to {@link #request} for the frame
+		 */
+		void accept(ByteBuffer pixels, int width, int height, OutputManager.NdiPixelFormat format,
+					long captureNanos);
+	}
+
+	/** The OpenGL calls that select and read the framebuffer, kept narrow so tests can record them. */
+	interface FramebufferReader {
+		/** @return the framebuffer currently bound for reading */
+		int readFramebufferBinding();
+
+		/** @param framebuffer framebuffer to bind for reading, zero for the default one */
+		void bindReadFramebuffer(int framebuffer);
+
+		/** @param mode color buffer of the read framebuffer to read from */
+		void readBuffer(int mode);
+
+		/**
+		 * Reads the whole read buffer into the bound pixel-pack buffer at offset zero.
+		 *
+		 * @param width pixels in one row
+		 * @param height number of rows
+		 * @param format {@code GL_RGBA} or {@code GL_BGRA}
+		 */
+		void readPixelsIntoPackBuffer(int width, int height, int format);
+	}
+
+	private final int[] buffers;
+	private final long[] fences;
+	private final int[] widths;
+	private final int[] heights;
+	private final OutputManager.NdiPixelFormat[] formats;
+	private final long[] captureNanos;
+	private PGL gl;
+	private FramebufferReader reader;
+	private int head;
+	private int pending;
+
+	/**
+	 * Creates an empty ring; buffers are generated on the first request.
+	 *
+	 * @param ringSize number of pixel-pack buffers, at least two
+	 */
+	PboReadback(int ringSize) {
+		if (ringSize < 2) {
+			throw new IllegalArgumentException("PBO ring needs at least two buffers");
+		}
+		buffers = new int[ringSize];
+		fences = new long[ringSize];
+		widths = new int[ringSize];
+		heights = new int[ringSize];
+		formats = new OutputManager.NdiPixelFormat[ringSize];
+		captureNanos = new long[ringSize];
+	}
+
+	/**
+	 * Returns whether a context offers pixel-pack buffers and fence objects.
+	 *
+	 * @param pgl the OpenGL wrapper of the graphics target, or {@code null}
+	 * @return {@code true} when asynchronous readback can be used
+	 */
+	static boolean isSupported(PGL pgl) {
+		return pgl != null && isSupportedVersion(pgl.getString(PGL.VERSION));
+	}
+
+	/**
+	 * Checks a {@code GL_VERSION} string for pixel-pack buffers and fence objects, which desktop OpenGL
+	 * provides from 3.2 and OpenGL ES from 3.0, the same versions {@link PGL} checks internally.
+	 *
+	 * @param version the {@code GL_VERSION} string, such as {@code "4.6.0 NVIDIA"} or
+	 *                {@code "OpenGL ES 3.2 Mesa"}
+	 * @return {@code true} when asynchronous readback can be used
+	 */
+	static boolean isSupportedVersion(String version) {
+		if (version == null) {
+			return false;
+		}
+		String text = version.trim().toLowerCase(Locale.ROOT);
+		boolean es = text.contains("opengl es");
+		int start = 0;
+		while (start < text.length() && !Character.isDigit(text.charAt(start))) {
+			start++;
+		}
+		int dot = text.indexOf('.', start);
+		if (start == text.length() || dot < 0 || dot + 1 >= text.length()
+				|| !Character.isDigit(text.charAt(dot + 1))) {
+			return false;
+		}
+		int major;
+		try {
+			major = Integer.parseInt(text.substring(start, dot));
+		} catch (NumberFormatException error) {
+			return false;
+		}
+		int minor = Character.digit(text.charAt(dot + 1), 10);
+		return es ? major >= 3 : major > 3 || (major == 3 && minor >= 2);
+	}
+
+	/**
+	 * Queues a readback of the whole target into the next free buffer.
+	 *
+	 * <p>Must follow the target's {@code endDraw()}, which resolves multisampled drawing into the
+	 * color framebuffer read here.</p>
+	 *
+	 * @param graphics target whose framebuffer holds a finished frame
+	 * @param format layout the frame will be sent in; {@link OutputManager.NdiPixelFormat#RGBA} is read
+	 *               as RGBA, every other layout as BGRA
+	 * @param timestamp capture time on the {@link System#nanoTime()} clock, delivered with the frame
+	 * @return {@code false} if the ring is full and nothing was queued
+	 * @throws IllegalStateException if the target has no color framebuffer yet
+	 */
+	boolean request(PGraphicsOpenGL graphics, OutputManager.NdiPixelFormat format, long timestamp) {
+		if (pending == buffers.length) {
+			return false;
+		}
+		FrameBuffer colorFramebuffer = graphics.getFrameBuffer();
+		if (colorFramebuffer == null) {
+			throw new IllegalStateException("Graphics target has no color framebuffer to read");
+		}
+		PGL pgl = graphics.beginPGL();
+		try {
+			ensureBuffers(pgl);
+			int index = (head + pending) % buffers.length;
+			int width = graphics.width;
+			int height = graphics.height;
+			int glFormat = format == OutputManager.NdiPixelFormat.RGBA ? PGL.RGBA : GL_BGRA;
+			pgl.bindBuffer(PGL.PIXEL_PACK_BUFFER, buffers[index]);
+			// Orphan the previous storage so the driver never waits on an earlier mapping
+			pgl.bufferData(PGL.PIXEL_PACK_BUFFER, Math.multiplyExact(Math.multiplyExact(width, height), 4),
+					null, PGL.STREAM_READ);
+			readColorFramebuffer(reader, colorFramebuffer.glFbo, width, height, glFormat);
+			pgl.bindBuffer(PGL.PIXEL_PACK_BUFFER, 0);
+			fences[index] = pgl.fenceSync(PGL.SYNC_GPU_COMMANDS_COMPLETE, 0);
+			widths[index] = width;
+			heights[index] = height;
+			formats[index] = format;
+			captureNanos[index] = timestamp;
+			pending++;
+			return true;
+		} finally {
+			graphics.endPGL();
+		}
+	}
+
+	/**
+	 * Reads the color attachment of a framebuffer into the bound pixel-pack buffer, leaving the read
+	 * framebuffer binding as it was.
+	 *
+	 * @param gl the OpenGL calls to issue
+	 * @param framebuffer name of the framebuffer to read
+	 * @param width pixels in one row
+	 * @param height number of rows
+	 * @param format {@code GL_RGBA} or {@code GL_BGRA}
+	 */
+	static void readColorFramebuffer(FramebufferReader gl, int framebuffer, int width, int height, int format) {
+		int previous = gl.readFramebufferBinding();
+		gl.bindReadFramebuffer(framebuffer);
+		try {
+			gl.readBuffer(PGL.COLOR_ATTACHMENT0);
+			gl.readPixelsIntoPackBuffer(width, height, format);
+		} finally {
+			gl.bindReadFramebuffer(previous);
+		}
+	}
+
+	private static FramebufferReader framebufferReader(PGL pgl) {
+		return new FramebufferReader() {
+			private final IntBuffer binding = IntBuffer.allocate(1);
+
+			@Override
+			public int readFramebufferBinding() {
+				pgl.getIntegerv(GL_READ_FRAMEBUFFER_BINDING, binding);
+				return binding.get(0);
+			}
+
+			@Override
+			public void bindReadFramebuffer(int framebuffer) {
+				pgl.bindFramebuffer(PGL.READ_FRAMEBUFFER, framebuffer);
+			}
+
+			@Override
+			public void readBuffer(int mode) {
+				pgl.readBuffer(mode);
+			}
+
+			@Override
+			public void readPixelsIntoPackBuffer(int width, int height, int format) {
+				pgl.readPixels(0, 0, width, height, format, PGL.UNSIGNED_BYTE, 0L);
+			}
+		};
+	}
+
+	/**
+	 * Delivers the oldest readback if its fence has signalled, or unconditionally when the ring is full.
+	 *
+	 * @param sink receiver of the mapped rows
+	 * @return whether a frame was delivered, is still pending, or was lost
+	 */
+	Poll poll(Sink sink) {
+		if (pending == 0) {
+			return Poll.IDLE;
+		}
+		int index = head;
+		long timeout = pending == buffers.length ? FULL_RING_WAIT_NANOS : 0L;
+		int status = gl.clientWaitSync(fences[index], 0, timeout);
+		if (status != PGL.ALREADY_SIGNALED && status != PGL.CONDITION_SATISFIED) {
+			if (timeout == 0L) {
+				return Poll.IDLE;
+			}
+			// The GPU never completed the oldest read; give up on it rather than stall further
+			release(index);
+			return Poll.LOST;
+		}
+		try {
+			gl.bindBuffer(PGL.PIXEL_PACK_BUFFER, buffers[index]);
+			ByteBuffer mapped = gl.mapBuffer(PGL.PIXEL_PACK_BUFFER, PGL.READ_ONLY);
+			if (mapped == null) {
+				gl.bindBuffer(PGL.PIXEL_PACK_BUFFER, 0);
+				return Poll.LOST;
+			}
+			try {
+				sink.accept(mapped, widths[index], heights[index], formats[index], captureNanos[index]);
+			} finally {
+				gl.unmapBuffer(PGL.PIXEL_PACK_BUFFER);
+				gl.bindBuffer(PGL.PIXEL_PACK_BUFFER, 0);
+			}
+			return Poll.DELIVERED;
+		} finally {
+			release(index);
+		}
+	}
+
+	/** Drops every readback in flight without delivering it. */
+	void discardPending() {
+		while (pending > 0) {
+			release(head);
+		}
+	}
+
+	/**
+	 * Deletes the buffers and fences. Must run on the thread owning the OpenGL context.
+	 */
+	void dispose() {
+		if (gl == null) {
+			return;
+		}
+		discardPending();
+		gl.deleteBuffers(buffers.length, IntBuffer.wrap(buffers));
+		gl = null;
+		reader = null;
+	}
+
+	/**
+	 * Copies bottom-up rows into a top-down buffer, writing from index zero and setting the limit to
+	 * the frame size.
+	 *
+	 * @param bottomUp source rows, bottom row first
+	 * @param rowBytes bytes in one row
+	 * @param rows number of rows
+	 * @param topDown destination, cleared before the copy
+	 */
+	static void copyRowsFlipped(ByteBuffer bottomUp, int rowBytes, int rows, ByteBuffer topDown) {
+		topDown.clear();
+		ByteBuffer source = bottomUp.duplicate();
+		for (int row = rows - 1; row >= 0; row--) {
+			source.limit(row * rowBytes + rowBytes).position(row * rowBytes);
+			topDown.put(source);
+		}
+		topDown.flip();
+	}
+
+	private void ensureBuffers(PGL pgl) {
+		if (gl == pgl) {
+			return;
+		}
+		if (gl != null) {
+			dispose();
+		}
+		pgl.genBuffers(buffers.length, IntBuffer.wrap(buffers));
+		gl = pgl;
+		reader = framebufferReader(pgl);
+	}
+
+	private void release(int index) {
+		gl.deleteSync(fences[index]);
+		fences[index] = 0L;
+		formats[index] = null;
+		head = (index + 1) % buffers.length;
+		pending--;
+	}
+}
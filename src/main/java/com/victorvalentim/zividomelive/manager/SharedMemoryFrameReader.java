@@ -0,0 +1,306 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.zividomelive;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reference reader for the shared-memory output enabled with
+ * {@link OutputManager#setSharedMemoryEnabled(boolean)}.
+ *
+ * <p>The reader maps the ring read-only and copies the latest complete frame with one bulk copy. It
+ * never blocks the writer: a frame overwritten while it is copied is detected through the slot's
+ * sequence number and read again. When the output stops or grows its slots, the reader reopens the
+ * path on the next {@link #poll()}. Consumers in other languages can follow the layout documented in
+ * the external-integration guide.</p>
+ *
+ * <pre>{@code
+ * try (SharedMemoryFrameReader reader = SharedMemoryFrameReader.open(Path.of("/dev/shm/ziviDomeLive"))) {
+ *     SharedMemoryFrameReader.Frame frame = reader.poll();
+ *     if (frame != null) {
+ *         upload(frame.pixels(), frame.width(), frame.height());
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>Not thread-safe: use one reader per consumer thread.</p>
+ *
+ * @since 1.6.0
+ */
+public final class SharedMemoryFrameReader implements AutoCloseable {
+
+	/** Copies attempted before a slot the writer keeps overwriting is given up for this poll. */
+	private static final int MAX_ATTEMPTS = 4;
+
+	private static final OutputManager.NdiPixelFormat[] PIXEL_FORMATS = OutputManager.NdiPixelFormat.values();
+	private static final zividomelive.ViewType[] VIEW_TYPES = zividomelive.ViewType.values();
+
+	private final Path path;
+	private MappedByteBuffer buffer;
+	private int slotCount;
+	private int slotStride;
+	private int slotCapacity;
+	private long lastFrameNumber;
+	private long missedFrames;
+	private long retries;
+	private ByteBuffer pixels = ByteBuffer.allocateDirect(0);
+	private final Frame frame = new Frame();
+
+	private SharedMemoryFrameReader(Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * Opens the ring published at {@code path}.
+	 *
+	 * @param path shared-memory file, such as {@link OutputManager#getSharedMemoryPath()}
+	 * @return a reader positioned before the latest frame
+	 * @throws IOException if the file is missing or is not a ziviDomeLive frame ring
+	 */
+	public static SharedMemoryFrameReader open(Path path) throws IOException {
+		SharedMemoryFrameReader reader = new SharedMemoryFrameReader(path);
+		reader.map();
+		return reader;
+	}
+
+	private void map() throws IOException {
+		MappedByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < SharedMemoryRing.HEADER_BYTES) {
+				throw new IOException("Not a ziviDomeLive shared-memory output: " + path);
+			}
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		mapped.order(ByteOrder.LITTLE_ENDIAN);
+		if (mapped.getInt(SharedMemoryRing.MAGIC_OFFSET) != SharedMemoryRing.MAGIC) {
+			throw new IOException("Not a ziviDomeLive shared-memory output: " + path);
+		}
+		int version = mapped.getInt(SharedMemoryRing.VERSION_OFFSET);
+		if (version != SharedMemoryRing.VERSION) {
+			throw new IOException("Unsupported shared-memory layout version " + version + ": " + path);
+		}
+		int count = mapped.getInt(SharedMemoryRing.SLOT_COUNT_OFFSET);
+		int stride = mapped.getInt(SharedMemoryRing.SLOT_STRIDE_OFFSET);
+		int capacity = mapped.getInt(SharedMemoryRing.SLOT_CAPACITY_OFFSET);
+		if (count < 2 || capacity <= 0 || stride < SharedMemoryRing.SLOT_HEADER_BYTES + capacity
+				|| SharedMemoryRing.HEADER_BYTES + (long) count * stride > mapped.capacity()) {
+			throw new IOException("Corrupt shared-memory output header: " + path);
+		}
+
+		buffer = mapped;
+		slotCount = count;
+		slotStride = stride;
+		slotCapacity = capacity;
+		// Frame numbers restart with every ring
+		lastFrameNumber = 0L;
+	}
+
+	/**
+	 * Copies the latest frame published since the previous poll.
+	 *
+	 * <p>The returned frame and its pixels are reused and stay valid until the next poll.</p>
+	 *
+	 * @return the latest new frame, or {@code null} when none was published, the output is stopped, or
+	 *         the writer overwrote the slot on every attempt
+	 * @throws IOException if the output was replaced by a file that cannot be read
+	 * @throws IllegalStateException if the reader is closed
+	 */
+	public Frame poll() throws IOException {
+		if (buffer == null) {
+			throw new IllegalStateException("Shared-memory reader is closed");
+		}
+		if ((int) SharedMemoryRing.INTS.getVolatile(buffer, SharedMemoryRing.STATE_OFFSET)
+				== SharedMemoryRing.STATE_CLOSED) {
+			try {
+				map();
+			} catch (NoSuchFileException stopped) {
+				return null;
+			}
+		}
+
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			long latest = (long) SharedMemoryRing.LONGS.getAcquire(buffer, SharedMemoryRing.LATEST_OFFSET);
+			if (latest <= lastFrameNumber) {
+				return null;
+			}
+			if (copySlot(SharedMemoryRing.slotOffset((int) (latest % slotCount), slotStride))) {
+				missedFrames += frame.frameNumber - lastFrameNumber - 1;
+				lastFrameNumber = frame.frameNumber;
+				return frame;
+			}
+			retries++;
+		}
+		return null;
+	}
+
+	/** Copies one slot under its sequence lock, reporting whether the copy is consistent. */
+	private boolean copySlot(int slot) {
+		long before = (long) SharedMemoryRing.LONGS.getAcquire(buffer, slot + SharedMemoryRing.SEQUENCE_OFFSET);
+		if ((before & 1L) != 0) {
+			return false;
+		}
+
+		long number = buffer.getLong(slot + SharedMemoryRing.FRAME_NUMBER_OFFSET);
+		long captureNanos = buffer.getLong(slot + SharedMemoryRing.CAPTURE_NANOS_OFFSET);
+		int width = buffer.getInt(slot + SharedMemoryRing.WIDTH_OFFSET);
+		int height = buffer.getInt(slot + SharedMemoryRing.HEIGHT_OFFSET);
+		int fourCC = buffer.getInt(slot + SharedMemoryRing.FORMAT_OFFSET);
+		int lineStride = buffer.getInt(slot + SharedMemoryRing.LINE_STRIDE_OFFSET);
+		int bytes = buffer.getInt(slot + SharedMemoryRing.BYTES_OFFSET);
+		int view = buffer.getInt(slot + SharedMemoryRing.VIEW_OFFSET);
+		if (bytes < 0 || bytes > slotCapacity) {
+			return false;
+		}
+		if (pixels.capacity() < bytes) {
+			pixels = ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		pixels.clear().put(0, buffer, slot + SharedMemoryRing.SLOT_HEADER_BYTES, bytes).limit(bytes);
+
+		VarHandle.loadLoadFence();
+		long after = (long) SharedMemoryRing.LONGS.getAcquire(buffer, slot + SharedMemoryRing.SEQUENCE_OFFSET);
+		if (before != after || number <= lastFrameNumber) {
+			return false;
+		}
+
+		frame.frameNumber = number;
+		frame.captureNanos = captureNanos;
+		frame.width = width;
+		frame.height = height;
+		frame.pixelFormat = pixelFormat(fourCC);
+		frame.lineStride = lineStride;
+		frame.view = view >= 0 && view < VIEW_TYPES.length ? VIEW_TYPES[view] : null;
+		return true;
+	}
+
+	private static OutputManager.NdiPixelFormat pixelFormat(int fourCC) {
+		for (OutputManager.NdiPixelFormat format : PIXEL_FORMATS) {
+			if (SharedMemoryRing.fourCC(format) == fourCC) {
+				return format;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns how many published frames were never returned because a newer one was read first.
+	 *
+	 * @return frames skipped since the reader opened
+	 */
+	public long getMissedFrames() {
+		return missedFrames;
+	}
+
+	/**
+	 * Returns how many copies were repeated because the writer overwrote the slot during the copy.
+	 *
+	 * @return torn copies since the reader opened
+	 */
+	public long getRetries() {
+		return retries;
+	}
+
+	/** Drops the mapping; it is released when collected. */
+	@Override
+	public void close() {
+		buffer = null;
+	}
+
+	/**
+	 * One frame copied out of the ring. Instances are reused by {@link #poll()}.
+	 *
+	 * @since 1.6.0
+	 */
+	public final class Frame {
+
+		private long frameNumber;
+		private long captureNanos;
+		private int width;
+		private int height;
+		private int lineStride;
+		private OutputManager.NdiPixelFormat pixelFormat;
+		private zividomelive.ViewType view;
+
+		private Frame() {
+		}
+
+		/**
+		 * Returns the writer's frame number, counting from one for each ring.
+		 *
+		 * @return frame number
+		 */
+		public long frameNumber() {
+			return frameNumber;
+		}
+
+		/**
+		 * Returns when the frame was captured, on the writer's {@link System#nanoTime()} clock.
+		 *
+		 * @return capture time in nanoseconds
+		 */
+		public long captureNanos() {
+			return captureNanos;
+		}
+
+		/**
+		 * Returns the frame width.
+		 *
+		 * @return width in pixels
+		 */
+		public int width() {
+			return width;
+		}
+
+		/**
+		 * Returns the frame height.
+		 *
+		 * @return height in pixels
+		 */
+		public int height() {
+			return height;
+		}
+
+		/**
+		 * Returns the bytes between the starts of two rows.
+		 *
+		 * @return line stride in bytes
+		 */
+		public int lineStride() {
+			return lineStride;
+		}
+
+		/**
+		 * Returns the layout of {@link #pixels()}.
+		 *
+		 * @return pixel layout, or {@code null} if the writer used an unknown one
+		 */
+		public OutputManager.NdiPixelFormat pixelFormat() {
+			return pixelFormat;
+		}
+
+		/**
+		 * Returns the view the frame was rendered from.
+		 *
+		 * @return view, or {@code null} if unknown
+		 */
+		public zividomelive.ViewType view() {
+			return view;
+		}
+
+		/**
+		 * Returns the copied pixels, rows top first, valid until the next poll.
+		 *
+		 * @return read-only little-endian view of the frame bytes
+		 */
+		public ByteBuffer pixels() {
+			return pixels.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+}
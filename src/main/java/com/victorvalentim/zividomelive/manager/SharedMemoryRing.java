@@ -0,0 +1,235 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.zividomelive;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer side of a memory-mapped frame ring shared with local processes.
+ *
+ * <p>The file holds a one-page header followed by a fixed number of slots, each made of a 64-byte slot
+ * header and the frame bytes. All fields are little-endian:</p>
+ * <pre>
+ * header  0 int  magic "ZDSM"        slot  0 long sequence, odd while written
+ *         4 int  layout version            8 long frame number
+ *         8 int  slot count               16 long capture time, System.nanoTime()
+ *        12 int  slot header bytes        24 int  width
+ *        16 int  slot stride              28 int  height
+ *        20 int  slot data capacity       32 int  pixel format FourCC
+ *        24 int  state, 1 once closed     36 int  line stride
+ *        32 long latest frame number      40 int  frame bytes
+ *                                         44 int  view ordinal
+ * </pre>
+ *
+ * <p>Each slot is guarded by a sequence lock. The writer makes the sequence odd, copies the frame with
+ * one bulk copy, fills the slot header, makes the sequence even again and only then publishes the frame
+ * number. A reader copies a slot between two reads of its sequence and retries when they differ, so
+ * readers never block the writer and the writer never waits for a reader.</p>
+ *
+ * <p>Growing the slots replaces the file: a new ring is built under a temporary name and renamed over
+ * the path, then the old header is marked closed so readers reopen the path. Closing marks the header
+ * and deletes the file.</p>
+ *
+ * <p>Not thread-safe: one writer thread owns a ring.</p>
+ */
+final class SharedMemoryRing implements AutoCloseable {
+
+	/** {@code "ZDSM"} read as a little-endian int. */
+	static final int MAGIC = 0x4D53445A;
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 4096;
+	static final int SLOT_HEADER_BYTES = 64;
+	static final int STATE_OPEN = 0;
+	static final int STATE_CLOSED = 1;
+
+	static final int MAGIC_OFFSET = 0;
+	static final int VERSION_OFFSET = 4;
+	static final int SLOT_COUNT_OFFSET = 8;
+	static final int SLOT_HEADER_BYTES_OFFSET = 12;
+	static final int SLOT_STRIDE_OFFSET = 16;
+	static final int SLOT_CAPACITY_OFFSET = 20;
+	static final int STATE_OFFSET = 24;
+	static final int LATEST_OFFSET = 32;
+
+	static final int SEQUENCE_OFFSET = 0;
+	static final int FRAME_NUMBER_OFFSET = 8;
+	static final int CAPTURE_NANOS_OFFSET = 16;
+	static final int WIDTH_OFFSET = 24;
+	static final int HEIGHT_OFFSET = 28;
+	static final int FORMAT_OFFSET = 32;
+	static final int LINE_STRIDE_OFFSET = 36;
+	static final int BYTES_OFFSET = 40;
+	static final int VIEW_OFFSET = 44;
+
+	/* Ordered access to the header and sequence fields of a mapped buffer. */
+	static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private static final int PAGE_BYTES = 4096;
+
+	private final Path path;
+	private final int slotCount;
+	private final int slotCapacity;
+	private final int slotStride;
+	private final MappedByteBuffer buffer;
+	private long frameNumber;
+	private boolean closed;
+
+	private SharedMemoryRing(Path path, int slotCount, int slotCapacity, MappedByteBuffer buffer) {
+		this.path = path;
+		this.slotCount = slotCount;
+		this.slotCapacity = slotCapacity;
+		this.slotStride = slotStride(slotCapacity);
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Creates a ring at {@code path}, replacing any file there atomically.
+	 *
+	 * @param path file to publish, normally under {@code /dev/shm}
+	 * @param slotCount number of frame slots, at least two
+	 * @param slotCapacity frame bytes each slot holds
+	 * @return an open ring with no published frame
+	 * @throws IOException if the file cannot be created, mapped or renamed
+	 * @throws IllegalArgumentException if a size is out of range
+	 */
+	static SharedMemoryRing create(Path path, int slotCount, int slotCapacity) throws IOException {
+		if (slotCount < 2 || slotCapacity <= 0) {
+			throw new IllegalArgumentException("Shared-memory ring needs two slots and a positive capacity");
+		}
+		long size = HEADER_BYTES + (long) slotCount * slotStride(slotCapacity);
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Shared-memory ring is too large: " + size + " bytes");
+		}
+
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		Files.deleteIfExists(temporary);
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(temporary,
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC_OFFSET, MAGIC);
+		buffer.putInt(VERSION_OFFSET, VERSION);
+		buffer.putInt(SLOT_COUNT_OFFSET, slotCount);
+		buffer.putInt(SLOT_HEADER_BYTES_OFFSET, SLOT_HEADER_BYTES);
+		buffer.putInt(SLOT_STRIDE_OFFSET, slotStride(slotCapacity));
+		buffer.putInt(SLOT_CAPACITY_OFFSET, slotCapacity);
+		INTS.setVolatile(buffer, STATE_OFFSET, STATE_OPEN);
+		LONGS.setVolatile(buffer, LATEST_OFFSET, 0L);
+
+		try {
+			Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException error) {
+			Files.deleteIfExists(temporary);
+			throw error;
+		}
+		return new SharedMemoryRing(path, slotCount, slotCapacity, buffer);
+	}
+
+	/** Slot header plus data, rounded to whole pages so every slot starts page-aligned. */
+	static int slotStride(int slotCapacity) {
+		long stride = (long) SLOT_HEADER_BYTES + slotCapacity;
+		return Math.toIntExact((stride + PAGE_BYTES - 1) / PAGE_BYTES * PAGE_BYTES);
+	}
+
+	/** Returns the byte offset of a slot's header. */
+	static int slotOffset(int slot, int slotStride) {
+		return HEADER_BYTES + slot * slotStride;
+	}
+
+	/** Encodes a four-letter pixel format name as a little-endian FourCC. */
+	static int fourCC(OutputManager.NdiPixelFormat format) {
+		String name = format.name();
+		return name.charAt(0) | name.charAt(1) << 8 | name.charAt(2) << 16 | name.charAt(3) << 24;
+	}
+
+	Path path() {
+		return path;
+	}
+
+	int slotCount() {
+		return slotCount;
+	}
+
+	int slotCapacity() {
+		return slotCapacity;
+	}
+
+	/** Returns the number of the latest published frame, zero before the first. */
+	long frameNumber() {
+		return frameNumber;
+	}
+
+	/**
+	 * Copies one frame into the next slot and publishes it.
+	 *
+	 * @param frame frame to publish; its bytes must fit {@link #slotCapacity()}
+	 * @throws IllegalArgumentException if the frame does not fit
+	 * @throws IllegalStateException if the ring is closed
+	 */
+	void write(OutputFrame frame) {
+		int bytes = frame.pixels.limit();
+		if (bytes > slotCapacity) {
+			throw new IllegalArgumentException("Frame of " + bytes + " bytes exceeds the slot capacity " + slotCapacity);
+		}
+		if (closed) {
+			throw new IllegalStateException("Shared-memory ring is closed");
+		}
+
+		long number = frameNumber + 1;
+		int slot = slotOffset((int) (number % slotCount), slotStride);
+		long sequence = (long) LONGS.get(buffer, slot + SEQUENCE_OFFSET);
+		LONGS.setOpaque(buffer, slot + SEQUENCE_OFFSET, sequence + 1);
+		VarHandle.storeStoreFence();
+
+		buffer.put(slot + SLOT_HEADER_BYTES, frame.pixels, 0, bytes);
+		zividomelive.ViewType view = frame.view;
+		buffer.putLong(slot + FRAME_NUMBER_OFFSET, number);
+		buffer.putLong(slot + CAPTURE_NANOS_OFFSET, frame.captureNanos);
+		buffer.putInt(slot + WIDTH_OFFSET, frame.width);
+		buffer.putInt(slot + HEIGHT_OFFSET, frame.height);
+		buffer.putInt(slot + FORMAT_OFFSET, fourCC(frame.pixelFormat));
+		buffer.putInt(slot + LINE_STRIDE_OFFSET, OutputManager.ndiLineStride(frame.width, frame.pixelFormat));
+		buffer.putInt(slot + BYTES_OFFSET, bytes);
+		buffer.putInt(slot + VIEW_OFFSET, view != null ? view.ordinal() : -1);
+
+		LONGS.setRelease(buffer, slot + SEQUENCE_OFFSET, sequence + 2);
+		LONGS.setRelease(buffer, LATEST_OFFSET, number);
+		frameNumber = number;
+	}
+
+	/**
+	 * Marks the ring closed for readers without removing the file, for a replacement renamed over it.
+	 */
+	void supersede() {
+		if (!closed) {
+			closed = true;
+			INTS.setVolatile(buffer, STATE_OFFSET, STATE_CLOSED);
+		}
+	}
+
+	/**
+	 * Marks the ring closed and deletes its file unless a replacement has taken the path. The mapping
+	 * itself is released when the buffer is collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		supersede();
+		Files.deleteIfExists(path);
+	}
+}
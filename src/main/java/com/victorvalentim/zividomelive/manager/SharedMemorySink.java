@@ -0,0 +1,189 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.support.LogManager;
+import com.victorvalentim.zividomelive.zividomelive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Publishes frames to local processes through a {@link SharedMemoryRing}.
+ *
+ * <p>A pixel {@link OutputSink}: the draw thread copies each frame straight from the shared
+ * {@link OutputFrame} into the next ring slot, with no worker, conversion or network stack. The ring is
+ * created on the first frame, sized for it, and replaced when a larger frame arrives. Disabling the sink
+ * closes the ring and deletes its file.</p>
+ */
+final class SharedMemorySink implements OutputSink {
+
+	/** One slot may be read while one is written and one holds the previous frame. */
+	static final int SLOT_COUNT = 3;
+
+	private final Logger logger = LogManager.getLogger();
+	private final Path path;
+	private final boolean supported;
+
+	private volatile zividomelive.ViewType view = zividomelive.ViewType.FISHEYE_DOMEMASTER;
+	private volatile boolean enabled;
+	private volatile boolean unavailable;
+	private volatile String failureReason = "";
+	/* Replaced and closed under this; volatile so state() can read it without waiting on a frame copy. */
+	private volatile SharedMemoryRing ring;
+
+	private final AtomicLong writtenFrames = new AtomicLong();
+	private final AtomicLong droppedFrames = new AtomicLong();
+	private final AtomicLong failedFrames = new AtomicLong();
+
+	/**
+	 * Creates a stopped sink.
+	 *
+	 * @param path ring file, normally under {@code /dev/shm}
+	 * @param supported whether the platform provides shared memory at {@code path}
+	 */
+	SharedMemorySink(Path path, boolean supported) {
+		this.path = path;
+		this.supported = supported;
+	}
+
+	@Override
+	public String name() {
+		return "Shared memory";
+	}
+
+	@Override
+	public Input input() {
+		return Input.PIXELS;
+	}
+
+	@Override
+	public zividomelive.ViewType view() {
+		return view;
+	}
+
+	void setView(zividomelive.ViewType view) {
+		this.view = view;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	Path path() {
+		return path;
+	}
+
+	/**
+	 * Starts or stops publication. Starting only checks the target directory; the ring is created on the
+	 * first frame. Stopping closes the ring and deletes its file.
+	 *
+	 * @param publish {@code true} to publish frames
+	 * @return the resulting state
+	 */
+	synchronized OutputManager.OutputState setEnabled(boolean publish) {
+		if (!publish) {
+			enabled = false;
+			closeRing();
+			return state();
+		}
+		if (enabled) {
+			return state();
+		}
+
+		unavailable = false;
+		failureReason = "";
+		if (!supported) {
+			fail("shared memory is only available on Linux");
+		} else if (!Files.isDirectory(path.getParent()) || !Files.isWritable(path.getParent())) {
+			fail(path.getParent() + " is not a writable directory");
+		} else {
+			enabled = true;
+			logger.info("Shared-memory output enabled at " + path + ".");
+		}
+		return state();
+	}
+
+	@Override
+	public synchronized void sendPixels(OutputFrame frame) {
+		if (!enabled) {
+			droppedFrames.incrementAndGet();
+			return;
+		}
+
+		try {
+			int bytes = frame.pixels.limit();
+			SharedMemoryRing current = ring;
+			if (current == null || current.slotCapacity() < bytes) {
+				current = SharedMemoryRing.create(path, SLOT_COUNT, bytes);
+				SharedMemoryRing previous = ring;
+				ring = current;
+				if (previous != null) {
+					previous.supersede();
+				}
+				logger.info("Shared-memory ring sized for " + frame.width + "x" + frame.height + " frames.");
+			}
+			current.write(frame);
+			writtenFrames.incrementAndGet();
+		} catch (IOException | RuntimeException error) {
+			failedFrames.incrementAndGet();
+			enabled = false;
+			closeRing();
+			fail(OutputManager.rootCauseMessage(error));
+		}
+	}
+
+	@Override
+	public void recordFailedFrame() {
+		failedFrames.incrementAndGet();
+	}
+
+	@Override
+	public void recordDroppedFrame() {
+		droppedFrames.incrementAndGet();
+	}
+
+	private void fail(String reason) {
+		unavailable = true;
+		failureReason = reason;
+		logger.warning("Shared-memory output is unavailable: " + reason);
+	}
+
+	/** Closes the ring, if any. Callers hold the monitor. */
+	private void closeRing() {
+		SharedMemoryRing current = ring;
+		ring = null;
+		if (current == null) {
+			return;
+		}
+		try {
+			current.close();
+			logger.info("Shared-memory output closed.");
+		} catch (IOException error) {
+			logger.warning("Failed to delete the shared-memory file: " + OutputManager.rootCauseMessage(error));
+		}
+	}
+
+	/** Returns the observable lifecycle state of this sink without waiting for a frame being copied. */
+	OutputManager.OutputState state() {
+		return OutputManager.resolveOutputState(supported, unavailable, ring != null, enabled, false);
+	}
+
+	String failureReason() {
+		return failureReason;
+	}
+
+	long writtenFrames() {
+		return writtenFrames.get();
+	}
+
+	long droppedFrames() {
+		return droppedFrames.get();
+	}
+
+	long failedFrames() {
+		return failedFrames.get();
+	}
+}
@@ -0,0 +1,349 @@
+package com.victorvalentim.zividomelive.manager;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.BitSet;
+
+/**
+ * Reference receiver for the UDP output enabled with {@link OutputManager#setUdpEnabled(boolean)}.
+ *
+ * <p>The receiver reassembles datagrams into frames by frame number and byte offset. Packets of a frame
+ * may arrive in any order; a packet of a newer frame abandons an incomplete one, which is counted as lost
+ * together with its missing packets, and frame numbers that never arrived are counted as lost frames.
+ * Packets of older frames are discarded unless they trail by more than a few frames, which marks a
+ * restarted sender whose numbering started over.</p>
+ *
+ * <pre>{@code
+ * try (UdpFrameReceiver receiver = UdpFrameReceiver.bind(new InetSocketAddress(5004))) {
+ *     UdpFrameReceiver.Frame frame = receiver.receive(100);
+ *     if (frame != null) {
+ *         upload(frame.pixels(), frame.width(), frame.height());
+ *     }
+ *     println(receiver.getLostFrames() + " frames lost");
+ * }
+ * }</pre>
+ *
+ * <p>Not thread-safe: use one receiver per consumer thread.</p>
+ *
+ * @since 1.6.0
+ */
+public final class UdpFrameReceiver implements AutoCloseable {
+
+	/** Receive buffer requested from the socket, enough for a few uncompressed frames in flight. */
+	private static final int RECEIVE_BUFFER_BYTES = 8 * 1024 * 1024;
+	/** Largest frame accepted, as a guard against corrupt headers. */
+	private static final int MAX_FRAME_BYTES = 512 * 1024 * 1024;
+	/** Frames a packet may trail the current one by and still count as late rather than a sender restart. */
+	private static final int REORDER_WINDOW = 16;
+
+	private static final OutputManager.NdiPixelFormat[] PIXEL_FORMATS = OutputManager.NdiPixelFormat.values();
+
+	private final DatagramChannel channel;
+	private final Selector selector;
+	private final ByteBuffer packet = ByteBuffer.allocateDirect(65_536).order(ByteOrder.LITTLE_ENDIAN);
+
+	/* Frame being reassembled. */
+	private boolean assembling;
+	private int frameNumber;
+	private int packetCount;
+	private int packetsReceived;
+	private final BitSet received = new BitSet();
+	private ByteBuffer assembly = ByteBuffer.allocateDirect(0);
+	private boolean hasPrevious;
+
+	private ByteBuffer completed = ByteBuffer.allocateDirect(0);
+	private final Frame frame = new Frame();
+
+	private long receivedFrames;
+	private long receivedPackets;
+	private long lostFrames;
+	private long lostPackets;
+	private long discardedPackets;
+
+	private UdpFrameReceiver(DatagramChannel channel, Selector selector) {
+		this.channel = channel;
+		this.selector = selector;
+	}
+
+	/**
+	 * Opens a receiver listening on a local address.
+	 *
+	 * @param address local address, such as {@code new InetSocketAddress(5004)}; port zero picks a free one
+	 * @return a bound receiver
+	 * @throws IOException if the socket cannot be opened or bound
+	 */
+	public static UdpFrameReceiver bind(InetSocketAddress address) throws IOException {
+		DatagramChannel channel = DatagramChannel.open();
+		try {
+			channel.setOption(StandardSocketOptions.SO_RCVBUF, RECEIVE_BUFFER_BYTES);
+			channel.bind(address);
+			channel.configureBlocking(false);
+			Selector selector = Selector.open();
+			channel.register(selector, SelectionKey.OP_READ);
+			return new UdpFrameReceiver(channel, selector);
+		} catch (IOException | RuntimeException error) {
+			channel.close();
+			throw error;
+		}
+	}
+
+	/**
+	 * Returns the port the receiver is bound to.
+	 *
+	 * @return local UDP port
+	 * @throws IOException if the socket is closed
+	 */
+	public int getLocalPort() throws IOException {
+		return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+	}
+
+	/**
+	 * Reads datagrams until a frame is complete or the timeout expires.
+	 *
+	 * <p>The returned frame and its pixels are reused and stay valid until the next call.</p>
+	 *
+	 * @param timeoutMillis longest wait, or zero to only read datagrams already queued
+	 * @return the next complete frame, or {@code null} when none completed in time
+	 * @throws IOException if reading from the socket fails
+	 */
+	public Frame receive(long timeoutMillis) throws IOException {
+		long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+		while (true) {
+			packet.clear();
+			if (channel.receive(packet) != null) {
+				packet.flip();
+				if (accept()) {
+					return frame;
+				}
+				continue;
+			}
+
+			long remainingMillis = (deadline - System.nanoTime()) / 1_000_000L;
+			if (remainingMillis <= 0) {
+				return null;
+			}
+			selector.select(remainingMillis);
+			selector.selectedKeys().clear();
+		}
+	}
+
+	/** Places one datagram into the frame being reassembled, reporting whether the frame completed. */
+	private boolean accept() {
+		int payload = packet.remaining() - UdpFrameSink.HEADER_BYTES;
+		if (payload < 0 || packet.getInt(UdpFrameSink.MAGIC_OFFSET) != UdpFrameSink.MAGIC) {
+			discardedPackets++;
+			return false;
+		}
+		int number = packet.getInt(UdpFrameSink.FRAME_NUMBER_OFFSET);
+		int index = packet.getInt(UdpFrameSink.PACKET_INDEX_OFFSET);
+		int count = packet.getInt(UdpFrameSink.PACKET_COUNT_OFFSET);
+		int offset = packet.getInt(UdpFrameSink.BYTE_OFFSET_OFFSET);
+		int frameBytes = packet.getInt(UdpFrameSink.FRAME_BYTES_OFFSET);
+		if (count <= 0 || index < 0 || index >= count || frameBytes <= 0 || frameBytes > MAX_FRAME_BYTES
+				|| offset < 0 || offset > frameBytes - payload) {
+			discardedPackets++;
+			return false;
+		}
+
+		if (!assembling || number != frameNumber) {
+			int ahead = number - frameNumber;
+			// Frame numbers restart from one whenever the sender restarts
+			boolean restarted = ahead < -REORDER_WINDOW;
+			if (hasPrevious && ahead <= 0 && !restarted) {
+				// A packet of a frame already completed or abandoned
+				discardedPackets++;
+				return false;
+			}
+			if (assembling) {
+				lostFrames++;
+				lostPackets += packetCount - packetsReceived;
+			}
+			if (hasPrevious && ahead > 1 && !restarted) {
+				lostFrames += ahead - 1;
+			}
+			begin(number, count, frameBytes);
+		} else if (count != packetCount || frameBytes != assembly.limit()) {
+			discardedPackets++;
+			return false;
+		}
+
+		if (received.get(index)) {
+			discardedPackets++;
+			return false;
+		}
+		received.set(index);
+		packetsReceived++;
+		receivedPackets++;
+		assembly.put(offset, packet, UdpFrameSink.HEADER_BYTES, payload);
+		if (packetsReceived < packetCount) {
+			return false;
+		}
+
+		assembling = false;
+		receivedFrames++;
+		ByteBuffer pixels = assembly;
+		assembly = completed;
+		completed = pixels;
+		frame.frameNumber = number;
+		frame.width = packet.getInt(UdpFrameSink.WIDTH_OFFSET);
+		frame.height = packet.getInt(UdpFrameSink.HEIGHT_OFFSET);
+		frame.pixelFormat = pixelFormat(packet.getInt(UdpFrameSink.FORMAT_OFFSET));
+		frame.captureNanos = packet.getLong(UdpFrameSink.CAPTURE_NANOS_OFFSET);
+		return true;
+	}
+
+	private void begin(int number, int count, int frameBytes) {
+		assembling = true;
+		hasPrevious = true;
+		frameNumber = number;
+		packetCount = count;
+		packetsReceived = 0;
+		received.clear();
+		if (assembly.capacity() < frameBytes) {
+			assembly = ByteBuffer.allocateDirect(frameBytes).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		assembly.clear().limit(frameBytes);
+	}
+
+	private static OutputManager.NdiPixelFormat pixelFormat(int fourCC) {
+		for (OutputManager.NdiPixelFormat format : PIXEL_FORMATS) {
+			if (SharedMemoryRing.fourCC(format) == fourCC) {
+				return format;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of complete frames received.
+	 *
+	 * @return received frames
+	 */
+	public long getReceivedFrames() {
+		return receivedFrames;
+	}
+
+	/**
+	 * Returns the number of datagrams placed into frames.
+	 *
+	 * @return received packets
+	 */
+	public long getReceivedPackets() {
+		return receivedPackets;
+	}
+
+	/**
+	 * Returns the number of frames abandoned incomplete or never seen.
+	 *
+	 * @return lost frames
+	 */
+	public long getLostFrames() {
+		return lostFrames;
+	}
+
+	/**
+	 * Returns the number of packets missing from abandoned frames. Packets of frames never seen are not
+	 * known and are not counted.
+	 *
+	 * @return lost packets
+	 */
+	public long getLostPackets() {
+		return lostPackets;
+	}
+
+	/**
+	 * Returns the number of datagrams ignored as malformed, duplicated, or belonging to an older frame.
+	 *
+	 * @return discarded packets
+	 */
+	public long getDiscardedPackets() {
+		return discardedPackets;
+	}
+
+	/** Closes the socket. */
+	@Override
+	public void close() throws IOException {
+		try {
+			selector.close();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * One reassembled frame. Instances are reused by {@link #receive(long)}.
+	 *
+	 * @since 1.6.0
+	 */
+	public final class Frame {
+
+		private long frameNumber;
+		private long captureNanos;
+		private int width;
+		private int height;
+		private OutputManager.NdiPixelFormat pixelFormat;
+
+		private Frame() {
+		}
+
+		/**
+		 * Returns the sender's frame number.
+		 *
+		 * @return frame number, counting from one for each start of the output
+		 */
+		public long frameNumber() {
+			return frameNumber;
+		}
+
+		/**
+		 * Returns when the frame was captured, on the sender's {@link System#nanoTime()} clock.
+		 *
+		 * @return capture time in nanoseconds
+		 */
+		public long captureNanos() {
+			return captureNanos;
+		}
+
+		/**
+		 * Returns the frame width.
+		 *
+		 * @return width in pixels
+		 */
+		public int width() {
+			return width;
+		}
+
+		/**
+		 * Returns the frame height.
+		 *
+		 * @return height in pixels
+		 */
+		public int height() {
+			return height;
+		}
+
+		/**
+		 * Returns the layout of {@link #pixels()}.
+		 *
+		 * @return pixel layout, or {@code null} if the sender used an unknown one
+		 */
+		public OutputManager.NdiPixelFormat pixelFormat() {
+			return pixelFormat;
+		}
+
+		/**
+		 * Returns the reassembled pixels, rows top first, valid until the next receive.
+		 *
+		 * @return read-only little-endian view of the frame bytes
+		 */
+		public ByteBuffer pixels() {
+			return completed.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+}
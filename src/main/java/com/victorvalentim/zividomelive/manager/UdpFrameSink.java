@@ -0,0 +1,397 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.support.LogManager;
+import com.victorvalentim.zividomelive.zividomelive;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Streams uncompressed frames as UDP datagrams.
+ *
+ * <p>A pixel {@link OutputSink}: the draw thread retains the shared {@link OutputFrame} and hands it to
+ * a dedicated sender worker through a {@link FrameMailbox}, so a newer frame replaces one the worker has
+ * not taken yet. The worker cuts the frame into datagrams of at most {@link #maxPayloadBytes()} and sends
+ * each with one gathering write of a reusable header and a slice of the pooled frame buffer, so the
+ * pixels are never copied on the Java side.</p>
+ *
+ * <p>Every datagram starts with a {@value #HEADER_BYTES}-byte little-endian header:</p>
+ * <pre>
+ *  0 int  magic "ZDUP"          24 int  pixel format FourCC
+ *  4 int  frame number          28 int  byte offset of the payload in the frame
+ *  8 int  packet index          32 int  frame bytes
+ * 12 int  packets in the frame  36 int  first line of the payload
+ * 16 int  width                 40 long capture time, System.nanoTime()
+ * 20 int  height
+ * </pre>
+ * <p>{@link UdpFrameReceiver} reassembles the frames and reports loss.</p>
+ */
+final class UdpFrameSink implements OutputSink {
+
+	/** {@code "ZDUP"} read as a little-endian int. */
+	static final int MAGIC = 0x5055445A;
+	static final int HEADER_BYTES = 48;
+	/** Largest payload that fits an IPv4 UDP datagram with the header. */
+	static final int MAX_PAYLOAD_BYTES = 65_507 - HEADER_BYTES;
+
+	static final int MAGIC_OFFSET = 0;
+	static final int FRAME_NUMBER_OFFSET = 4;
+	static final int PACKET_INDEX_OFFSET = 8;
+	static final int PACKET_COUNT_OFFSET = 12;
+	static final int WIDTH_OFFSET = 16;
+	static final int HEIGHT_OFFSET = 20;
+	static final int FORMAT_OFFSET = 24;
+	static final int BYTE_OFFSET_OFFSET = 28;
+	static final int FRAME_BYTES_OFFSET = 32;
+	static final int LINE_OFFSET = 36;
+	static final int CAPTURE_NANOS_OFFSET = 40;
+
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final Logger logger = LogManager.getLogger();
+	private final String workerName;
+	private final long shutdownTimeoutMillis;
+	private final Executor lifecycle;
+
+	private volatile zividomelive.ViewType view = zividomelive.ViewType.FISHEYE_DOMEMASTER;
+	private volatile InetSocketAddress destination;
+	private volatile int maxPayloadBytes;
+
+	/* Lifecycle state, guarded by this. */
+	private volatile boolean enabled;
+	private volatile boolean unavailable;
+	private volatile String failureReason = "";
+	private volatile boolean workerRunning;
+	private Thread workerThread;
+	private DatagramChannel channel;
+	private volatile FrameMailbox<Holder> mailbox;
+
+	private final AtomicLong capturedFrames = new AtomicLong();
+	private final AtomicLong sentFrames = new AtomicLong();
+	private final AtomicLong sentPackets = new AtomicLong();
+	private final AtomicLong droppedFrames = new AtomicLong();
+	private final AtomicLong failedFrames = new AtomicLong();
+
+	/**
+	 * Creates a stopped sink without a destination.
+	 *
+	 * @param workerName name of the sender worker thread
+	 * @param maxPayloadBytes largest payload per datagram
+	 * @param shutdownTimeoutMillis longest wait for the worker when stopping
+	 * @param lifecycle executor that joins stopped workers off the calling thread
+	 */
+	UdpFrameSink(String workerName, int maxPayloadBytes, long shutdownTimeoutMillis, Executor lifecycle) {
+		this.workerName = workerName;
+		this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+		this.lifecycle = lifecycle;
+		setMaxPayloadBytes(maxPayloadBytes);
+	}
+
+	@Override
+	public String name() {
+		return "UDP";
+	}
+
+	@Override
+	public Input input() {
+		return Input.PIXELS;
+	}
+
+	@Override
+	public zividomelive.ViewType view() {
+		return view;
+	}
+
+	void setView(zividomelive.ViewType view) {
+		this.view = view;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	InetSocketAddress destination() {
+		return destination;
+	}
+
+	/** Sets the receiver address, used from the next start. */
+	void setDestination(InetSocketAddress destination) {
+		this.destination = destination;
+	}
+
+	int maxPayloadBytes() {
+		return maxPayloadBytes;
+	}
+
+	/** Sets the largest payload per datagram, applied from the next frame. */
+	void setMaxPayloadBytes(int maxPayloadBytes) {
+		if (maxPayloadBytes < 1 || maxPayloadBytes > MAX_PAYLOAD_BYTES) {
+			throw new IllegalArgumentException("UDP payload must be between 1 and " + MAX_PAYLOAD_BYTES + " bytes");
+		}
+		this.maxPayloadBytes = maxPayloadBytes;
+	}
+
+	/**
+	 * Starts or stops streaming. Starting opens a channel connected to the destination and starts the
+	 * sender worker; stopping closes the channel, which aborts a send in progress, and leaves the bounded
+	 * join of the worker to the lifecycle executor, so it never blocks the caller.
+	 *
+	 * @param publish {@code true} to stream frames
+	 * @return the resulting state
+	 */
+	synchronized OutputManager.OutputState setEnabled(boolean publish) {
+		if (publish) {
+			start();
+		} else {
+			stop();
+		}
+		return state();
+	}
+
+	private void start() {
+		if (enabled) {
+			return;
+		}
+		// Clears a worker that stopped after a send failure
+		stop();
+		unavailable = false;
+		failureReason = "";
+		InetSocketAddress target = destination;
+		if (target == null || target.isUnresolved()) {
+			fail(target == null ? "no UDP destination is set" : "cannot resolve " + target.getHostString());
+			return;
+		}
+
+		try {
+			channel = DatagramChannel.open();
+			channel.connect(target);
+		} catch (IOException | RuntimeException error) {
+			closeChannel();
+			fail(OutputManager.rootCauseMessage(error));
+			return;
+		}
+
+		mailbox = new FrameMailbox<>(new Holder(), new Holder(), new Holder());
+		Thread worker = new Thread(this::workerLoop, workerName);
+		worker.setDaemon(true);
+		workerThread = worker;
+		workerRunning = true;
+		enabled = true;
+		worker.start();
+		logger.info("UDP output streaming to " + target + ".");
+	}
+
+	private void stop() {
+		enabled = false;
+		workerRunning = false;
+		Thread worker = workerThread;
+		workerThread = null;
+		closeMailbox(mailbox);
+		mailbox = null;
+		// Closing also aborts a send still blocked in the worker
+		if (closeChannel() && worker != null) {
+			logger.info("UDP output stopped.");
+		}
+		if (worker != null) {
+			joinWorker(worker);
+		}
+	}
+
+	/** Closes a mailbox and releases the frame the worker had not taken yet. */
+	private static void closeMailbox(FrameMailbox<Holder> handoff) {
+		if (handoff == null) {
+			return;
+		}
+		Holder pending = handoff.close();
+		if (pending != null) {
+			pending.release();
+		}
+	}
+
+	/** Waits a bounded interval for a stopped worker on the lifecycle executor. */
+	private void joinWorker(Thread worker) {
+		try {
+			lifecycle.execute(() -> {
+				if (!OutputManager.waitForWorker(worker, shutdownTimeoutMillis)) {
+					logger.warning("UDP sender worker did not stop within " + shutdownTimeoutMillis + " ms.");
+				}
+			});
+		} catch (RejectedExecutionException ignored) {
+			// The worker is a daemon and exits once it sees the closed mailbox and channel
+		}
+	}
+
+	private void fail(String reason) {
+		unavailable = true;
+		failureReason = reason;
+		logger.warning("UDP output is unavailable: " + reason);
+	}
+
+	private boolean closeChannel() {
+		DatagramChannel current = channel;
+		channel = null;
+		if (current == null) {
+			return false;
+		}
+		try {
+			current.close();
+		} catch (IOException error) {
+			logger.warning("Failed to close the UDP channel: " + OutputManager.rootCauseMessage(error));
+		}
+		return true;
+	}
+
+	@Override
+	public void sendPixels(OutputFrame frame) {
+		FrameMailbox<Holder> handoff = mailbox;
+		if (handoff == null || !enabled) {
+			droppedFrames.incrementAndGet();
+			return;
+		}
+
+		Holder holder = handoff.writable();
+		frame.retain();
+		holder.frame = frame;
+		switch (handoff.publish()) {
+			case FRESH:
+				capturedFrames.incrementAndGet();
+				break;
+			case REPLACED:
+				capturedFrames.incrementAndGet();
+				droppedFrames.incrementAndGet();
+				handoff.writable().release();
+				break;
+			default:
+				droppedFrames.incrementAndGet();
+				holder.release();
+				break;
+		}
+	}
+
+	@Override
+	public void recordFailedFrame() {
+		failedFrames.incrementAndGet();
+	}
+
+	@Override
+	public void recordDroppedFrame() {
+		droppedFrames.incrementAndGet();
+	}
+
+	/** Packetizing and sending loop. No OpenGL calls are made here. */
+	private void workerLoop() {
+		FrameMailbox<Holder> handoff = mailbox;
+		DatagramChannel target = channel;
+		ByteBuffer header = ByteBuffer.allocateDirect(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer[] datagram = new ByteBuffer[2];
+		int frameNumber = 0;
+		while (workerRunning) {
+			Holder holder = handoff.await(IDLE_PARK_NANOS);
+			if (holder == null) {
+				continue;
+			}
+			try {
+				sendFrame(target, holder.frame, ++frameNumber, header, datagram);
+				sentFrames.incrementAndGet();
+			} catch (PortUnreachableException noReceiver) {
+				// Reported for an earlier datagram while nothing listens at the destination
+				droppedFrames.incrementAndGet();
+			} catch (IOException | RuntimeException error) {
+				failedFrames.incrementAndGet();
+				if (workerRunning) {
+					enabled = false;
+					workerRunning = false;
+					// Frames published after the failure are released by the draw thread
+					closeMailbox(handoff);
+					fail(OutputManager.rootCauseMessage(error));
+				}
+			} finally {
+				holder.release();
+			}
+		}
+	}
+
+	/** Sends one frame as consecutive datagrams, each a gathering write of the header and a payload slice. */
+	private void sendFrame(DatagramChannel target, OutputFrame frame, int frameNumber, ByteBuffer header,
+						   ByteBuffer[] datagram) throws IOException {
+		int frameBytes = frame.pixels.limit();
+		int payload = maxPayloadBytes;
+		int packetCount = Math.max(1, (frameBytes + payload - 1) / payload);
+		int lineStride = Math.max(1, OutputManager.ndiLineStride(frame.width, frame.pixelFormat));
+
+		header.putInt(MAGIC_OFFSET, MAGIC);
+		header.putInt(FRAME_NUMBER_OFFSET, frameNumber);
+		header.putInt(PACKET_COUNT_OFFSET, packetCount);
+		header.putInt(WIDTH_OFFSET, frame.width);
+		header.putInt(HEIGHT_OFFSET, frame.height);
+		header.putInt(FORMAT_OFFSET, SharedMemoryRing.fourCC(frame.pixelFormat));
+		header.putInt(FRAME_BYTES_OFFSET, frameBytes);
+		header.putLong(CAPTURE_NANOS_OFFSET, frame.captureNanos);
+
+		ByteBuffer pixels = frame.pixels.duplicate();
+		datagram[0] = header;
+		datagram[1] = pixels;
+		for (int packet = 0, offset = 0; packet < packetCount; packet++, offset += payload) {
+			header.putInt(PACKET_INDEX_OFFSET, packet);
+			header.putInt(BYTE_OFFSET_OFFSET, offset);
+			header.putInt(LINE_OFFSET, offset / lineStride);
+			header.clear();
+			pixels.limit(Math.min(frameBytes, offset + payload)).position(offset);
+			target.write(datagram);
+			sentPackets.incrementAndGet();
+		}
+	}
+
+	/** Returns the observable lifecycle state of this sink. */
+	OutputManager.OutputState state() {
+		return OutputManager.resolveOutputState(true, unavailable, workerRunning, enabled, false);
+	}
+
+	String failureReason() {
+		return failureReason;
+	}
+
+	long capturedFrames() {
+		return capturedFrames.get();
+	}
+
+	long sentFrames() {
+		return sentFrames.get();
+	}
+
+	long sentPackets() {
+		return sentPackets.get();
+	}
+
+	long droppedFrames() {
+		return droppedFrames.get();
+	}
+
+	long failedFrames() {
+		return failedFrames.get();
+	}
+
+	/** Mailbox item holding one retained frame: one is sent while one is filled and one waits. */
+	private static final class Holder {
+
+		private OutputFrame frame;
+
+		private void release() {
+			OutputFrame held = frame;
+			frame = null;
+			if (held != null) {
+				held.release();
+			}
+		}
+	}
+}
@@ -3,6 +3,10 @@ package com.victorvalentim.zividomelive.render;
 import com.victorvalentim.zividomelive.Scene;
 import com.victorvalentim.zividomelive.render.camera.CameraManager;
 import com.victorvalentim.zividomelive.render.camera.CameraOrientation;
+import com.victorvalentim.zividomelive.render.projection.FaceResolution;
+import com.victorvalentim.zividomelive.render.projection.FaceScissor;
+import com.victorvalentim.zividomelive.render.projection.FaceVisibility;
+import com.victorvalentim.zividomelive.render.projection.ProjectionRotation;
 import com.victorvalentim.zividomelive.support.LogManager;
 import processing.core.PApplet;
 import processing.core.PConstants;
@@ -10,20 +14,39 @@ import processing.core.PGraphics;
 import processing.core.PVector;
 import processing.opengl.PGraphicsOpenGL;
 
+import java.util.Arrays;
 import java.util.logging.Logger;
 
 /**
  * CubemapRenderer class handles the rendering of cubemap faces using Processing's PGraphicsOpenGL.
  * It uses cached frustum parameters for rendering.
+ *
+ * <p>When face culling is enabled for a dome field of view, faces the dome can never sample are
+ * not rendered; the faces rendered by the last capture are reported by
+ * {@link #getVisibleFaceMask()}. With adaptive resolution also enabled, each face is allocated at
+ * the size its densest dome sample needs, capped at the base resolution. Faces the dome only partly
+ * sees are scissored to the footprint it samples, plus a guard band for bilinear filtering.</p>
+ *
+ * <p>With orientation at projection enabled, faces are captured in scene space and the spherical
+ * orientation is left to the projection passes, which apply {@link #getProjectionRotation()}. Pitch,
+ * yaw and roll then no longer change the face content, and culling, adaptive sizing and scissors
+ * follow the rotated dome axis.</p>
+ *
+ * <p>A capture told that the scene has not changed reuses every face whose content is still valid:
+ * same scene, same face camera, same allocation, and a previously shaded region covering the one now
+ * needed. Only the remaining faces are rendered, so with orientation at projection a static scene
+ * keeps its faces while the dome is re-aimed.</p>
  */
 public class CubemapRenderer implements PConstants {
     private static final int NUM_FACES = 6;
     private static final float DEFAULT_NEAR_PLANE = 0.01f;
     private static final float DEFAULT_FAR_PLANE = 10000000.0f;
+    private static final int GUARD_TEXELS = 2;
     private static final Logger LOGGER = LogManager.getLogger();
 
     private PGraphicsOpenGL[] cubemapFaces;
     private int resolution;
+    private final int[] faceResolutions = new int[NUM_FACES];
     private final PApplet parent;
 
     // Cached frustum parameters
@@ -32,6 +55,26 @@ public class CubemapRenderer implements PConstants {
     private volatile float cachedFieldOfView;
 
     private final SphericalOrientation legacyOrientation = new SphericalOrientation();
+    private boolean orientationAtProjection;
+    private float[] projectionRotation = ProjectionRotation.identity();
+
+    private boolean faceCullingEnabled;
+    private float cullingFov;
+    private volatile int visibleFaceMask = FaceVisibility.ALL_FACES;
+
+    private boolean adaptiveResolution;
+    private int adaptiveDomeResolution;
+    private float adaptiveSizePercentage;
+    private float densityScale = 1.0f;
+    private int[] cachedFaceResolutions;
+    private final float[] cachedFaceResolutionInputs = new float[8];
+    private int[][] cachedFaceScissors;
+    private final float[] cachedFaceScissorInputs = new float[NUM_FACES + 4];
+
+    private int capturedFaces;
+    private final int[][] capturedRegions = new int[NUM_FACES][];
+    private Scene capturedScene;
+    private final float[] capturedCamera = new float[7];
 
 
     /**
@@ -43,6 +86,7 @@ public class CubemapRenderer implements PConstants {
     public CubemapRenderer(int initialResolution, PApplet parent) {
         this.parent = parent;
         this.resolution = initialResolution;
+        Arrays.fill(faceResolutions, initialResolution);
         initializeCubemapFaces();
         cachedNearPlane = DEFAULT_NEAR_PLANE;
         cachedFarPlane = DEFAULT_FAR_PLANE;
@@ -60,7 +104,27 @@ public class CubemapRenderer implements PConstants {
             if (cubemapFaces[i] != null) {
                 cubemapFaces[i].dispose();
             }
-            cubemapFaces[i] = (PGraphicsOpenGL) parent.createGraphics(resolution, resolution, P3D);
+            cubemapFaces[i] = (PGraphicsOpenGL) parent.createGraphics(faceResolutions[i], faceResolutions[i], P3D);
+        }
+        invalidateFaces();
+    }
+
+    /**
+     * Reallocates only the faces whose size differs from the requested one.
+     *
+     * @param sizes six face edge lengths
+     */
+    private void applyFaceResolutions(int[] sizes) {
+        for (int i = 0; i < NUM_FACES; i++) {
+            if (faceResolutions[i] == sizes[i]) {
+                continue;
+            }
+            faceResolutions[i] = sizes[i];
+            capturedFaces &= ~(1 << i);
+            if (cubemapFaces[i] != null) {
+                cubemapFaces[i].dispose();
+            }
+            cubemapFaces[i] = (PGraphicsOpenGL) parent.createGraphics(sizes[i], sizes[i], P3D);
         }
     }
 
@@ -72,25 +136,252 @@ public class CubemapRenderer implements PConstants {
     void updateResolution(int newResolution) {
         if (this.resolution != newResolution) {
             this.resolution = newResolution;
+            Arrays.fill(faceResolutions, newResolution);
             initializeCubemapFaces();
         }
     }
 
     /**
-     * Configures the camera for each cubemap face using asynchronously calculated frustum parameters.
+     * Chooses where the spherical orientation is applied.
+     * <p>
+     * When enabled, faces are captured without the orientation and consumers must rotate their
+     * directions by {@link #getProjectionRotation()}. Keep it disabled while a skybox layout shows the
+     * faces directly, since nothing re-projects them there.
+     * </p>
+     *
+     * @param enabled {@code true} to apply the orientation in the projection passes
+     */
+    public void setOrientationAtProjection(boolean enabled) {
+        orientationAtProjection = enabled;
+    }
+
+    /**
+     * Returns whether the spherical orientation is left to the projection passes.
+     *
+     * @return {@code true} if faces are captured in scene space
+     */
+    public boolean isOrientationAtProjection() {
+        return orientationAtProjection;
+    }
+
+    /**
+     * Returns the rotation projection passes must apply to the faces of the last capture.
+     *
+     * @return a row-major 3x3 rotation; the identity when the orientation is baked into the faces
+     */
+    public float[] getProjectionRotation() {
+        return projectionRotation.clone();
+    }
+
+    /**
+     * Records the rotation the next capture leaves to the projection passes.
+     *
      * @param sphericalOrientation unit quaternion describing the spherical orientation
      */
+    void updateProjectionRotation(Quaternion sphericalOrientation) {
+        projectionRotation = orientationAtProjection && sphericalOrientation != null
+                ? ProjectionRotation.fromOrientation(sphericalOrientation.x, sphericalOrientation.y,
+                        sphericalOrientation.z, sphericalOrientation.w)
+                : ProjectionRotation.identity();
+    }
+
+    /**
+     * Restricts capture to the faces a dome of the given field of view can sample.
+     * <p>
+     * Only enable this when every consumer of the faces is a domemaster of this FOV; the
+     * equirectangular and skybox layouts need the full sphere.
+     * </p>
+     *
+     * @param fov the dome field of view in degrees
+     */
+    public void setFaceCulling(float fov) {
+        faceCullingEnabled = true;
+        cullingFov = fov;
+    }
+
+    /**
+     * Renders all six faces on every capture.
+     */
+    public void disableFaceCulling() {
+        faceCullingEnabled = false;
+    }
+
+    /**
+     * Returns whether face culling is enabled.
+     *
+     * @return {@code true} if captures skip faces the dome cannot sample
+     */
+    public boolean isFaceCullingEnabled() {
+        return faceCullingEnabled;
+    }
+
+    /**
+     * Sizes each face by the texel density a dome of the given target actually samples.
+     * <p>
+     * Takes effect only while face culling is enabled, since both assume the domemaster is the
+     * sole consumer of the faces. Faces are reallocated only when their computed size changes.
+     * </p>
+     *
+     * @param domeResolution the domemaster edge length in pixels
+     * @param sizePercentage the domemaster Size%, {@code 0..100}
+     */
+    public void setAdaptiveResolution(int domeResolution, float sizePercentage) {
+        adaptiveResolution = true;
+        adaptiveDomeResolution = domeResolution;
+        adaptiveSizePercentage = sizePercentage;
+    }
+
+    /**
+     * Allocates every face at the base resolution.
+     */
+    public void disableAdaptiveResolution() {
+        adaptiveResolution = false;
+    }
+
+    /**
+     * Returns whether adaptive per-face resolution is enabled.
+     *
+     * @return {@code true} if faces may be smaller than the base resolution
+     */
+    public boolean isAdaptiveResolutionEnabled() {
+        return adaptiveResolution;
+    }
+
+    /**
+     * Sets the oversampling applied to the density each face must provide.
+     *
+     * @param scale {@code 1} for one face texel per dome pixel; larger values keep more detail
+     */
+    public void setDensityScale(float scale) {
+        densityScale = Math.max(0.0f, scale);
+    }
+
+    /**
+     * Returns the edge length currently allocated for a face.
+     *
+     * @param face face index in {@code [0, 5]}
+     * @return the face resolution in pixels
+     */
+    public int getFaceResolution(int face) {
+        return faceResolutions[face];
+    }
+
+    /**
+     * Computes the face sizes the next capture will allocate.
+     * <p>
+     * The density analysis is rerun only when FOV, Size%, the dome or base resolution, the
+     * density scale or the dome axis change.
+     * </p>
+     *
+     * @return six face edge lengths
+     */
+    int[] computeFaceResolutions() {
+        if (!faceCullingEnabled || !adaptiveResolution) {
+            int[] sizes = new int[NUM_FACES];
+            Arrays.fill(sizes, resolution);
+            return sizes;
+        }
+        float[] axis = ProjectionRotation.domeAxis(projectionRotation);
+        float[] inputs = {resolution, adaptiveDomeResolution, cullingFov, adaptiveSizePercentage, densityScale,
+                axis[0], axis[1], axis[2]};
+        if (cachedFaceResolutions == null || !Arrays.equals(cachedFaceResolutionInputs, inputs)) {
+            cachedFaceResolutions = FaceResolution.faceSizes(resolution, adaptiveDomeResolution, cullingFov,
+                    adaptiveSizePercentage, axis[0], axis[1], axis[2], densityScale);
+            System.arraycopy(inputs, 0, cachedFaceResolutionInputs, 0, inputs.length);
+        }
+        return cachedFaceResolutions.clone();
+    }
+
+    /**
+     * Computes the pixel rectangle each face must shade for the next capture.
+     * <p>
+     * Rectangles are recomputed only when the FOV, the dome axis or a face size changes. A {@code null} entry means the
+     * whole face is rendered; an empty rectangle means the dome samples nothing on that face.
+     * </p>
+     *
+     * @return six rectangles {@code {x, y, width, height}} in face pixels, top row first
+     */
+    int[][] computeFaceScissors() {
+        int[][] scissors = new int[NUM_FACES][];
+        if (!faceCullingEnabled) {
+            return scissors;
+        }
+        float[] axis = ProjectionRotation.domeAxis(projectionRotation);
+        float[] inputs = new float[NUM_FACES + 4];
+        inputs[0] = cullingFov;
+        System.arraycopy(axis, 0, inputs, 1, 3);
+        for (int i = 0; i < NUM_FACES; i++) {
+            inputs[i + 4] = faceResolutions[i];
+        }
+        if (cachedFaceScissors == null || !Arrays.equals(cachedFaceScissorInputs, inputs)) {
+            cachedFaceScissors = new int[NUM_FACES][];
+            for (int i = 0; i < NUM_FACES; i++) {
+                int[] rect = FaceScissor.pixelRect(i, faceResolutions[i], axis[0], axis[1], axis[2],
+                        cullingFov, GUARD_TEXELS);
+                cachedFaceScissors[i] = FaceScissor.coversFace(rect, faceResolutions[i]) ? null : rect;
+            }
+            System.arraycopy(inputs, 0, cachedFaceScissorInputs, 0, inputs.length);
+        }
+        for (int i = 0; i < NUM_FACES; i++) {
+            scissors[i] = cachedFaceScissors[i] == null ? null : cachedFaceScissors[i].clone();
+        }
+        return scissors;
+    }
+
+    /**
+     * Returns the faces rendered by the most recent capture.
+     *
+     * @return bit mask with bit {@code i} set when face {@code i} was rendered
+     */
+    public int getVisibleFaceMask() {
+        return visibleFaceMask;
+    }
+
+    /**
+     * Computes the faces the next capture will render.
+     * <p>
+     * When the orientation is baked into every face camera the dome always looks down {@code +Z}
+     * in cubemap space; with orientation at projection it looks along the rotated axis.
+     * </p>
+     *
+     * @return bit mask of faces to render
+     */
+    int computeVisibleFaceMask() {
+        if (!faceCullingEnabled) {
+            return FaceVisibility.ALL_FACES;
+        }
+        float guard = GUARD_TEXELS * HALF_PI / Math.max(1, resolution);
+        float[] axis = ProjectionRotation.domeAxis(projectionRotation);
+        return FaceVisibility.visibleFaceMask(axis[0], axis[1], axis[2], cullingFov, guard);
+    }
+
+    /**
+     * Configures the camera for each cubemap face using asynchronously calculated frustum parameters.
+     * @param sphericalOrientation unit quaternion applied to the scene, or {@code null} to capture in scene space
+     * @param scissor pixel rectangle to shade, or {@code null} to shade the whole face
+     */
     private void configureCameraForFace(
             PGraphicsOpenGL pg,
             CameraOrientation orientation,
-            Quaternion sphericalOrientation) {
+            Quaternion sphericalOrientation,
+            int[] scissor) {
         PVector eye = new PVector(0, 0, 0);
 
         pg.camera(eye.x, eye.y, eye.z, orientation.centerX, orientation.centerY, orientation.centerZ,
                   orientation.upX, orientation.upY, orientation.upZ);
         pg.perspective(cachedFieldOfView, 1, cachedNearPlane, cachedFarPlane);
 
-        pg.applyMatrix(sphericalOrientation.toMatrix());
+        if (sphericalOrientation != null) {
+            pg.applyMatrix(sphericalOrientation.toMatrix());
+        }
+
+        if (scissor != null) {
+            // clip() follows imageMode; scenes may have left it changed
+            int imageMode = pg.imageMode;
+            pg.imageMode(CORNER);
+            pg.clip(scissor[0], scissor[1], scissor[2], scissor[3]);
+            pg.imageMode(imageMode);
+        }
     }
 
     /**
@@ -120,24 +411,149 @@ public class CubemapRenderer implements PConstants {
             Quaternion sphericalOrientation,
             CameraManager cameraManager,
             Scene currentScene) {
+        captureCubemap(sphericalOrientation, cameraManager, currentScene, true);
+    }
+
+    /**
+     * Captures the cubemap faces, reusing those still valid when the scene reports no change.
+     *
+     * @param sphericalOrientation unit quaternion describing the spherical orientation
+     * @param cameraManager manager for camera orientations
+     * @param currentScene the current scene to render
+     * @param sceneChanged whether the scene would draw differently than at the previous capture
+     * @return {@code true} if any face returned by {@link #getCubemapFaces()} changed
+     */
+    public boolean captureCubemap(
+            Quaternion sphericalOrientation,
+            CameraManager cameraManager,
+            Scene currentScene,
+            boolean sceneChanged) {
         if (cubemapFaces == null) {
             initializeCubemapFaces();
         }
         Quaternion effectiveOrientation = sphericalOrientation == null
                 ? new Quaternion(0.0f, 0.0f, 0.0f, 1.0f)
                 : sphericalOrientation;
+        updateProjectionRotation(effectiveOrientation);
+        Quaternion cameraOrientation = orientationAtProjection ? null : effectiveOrientation;
+        applyFaceResolutions(computeFaceResolutions());
+        int previousMask = visibleFaceMask;
+        int mask = computeVisibleFaceMask();
+        int[][] scissors = computeFaceScissors();
         for (int i = 0; i < NUM_FACES; i++) {
+            if (scissors[i] != null && (scissors[i][2] == 0 || scissors[i][3] == 0)) {
+                mask &= ~(1 << i);
+            }
+        }
+        visibleFaceMask = mask;
+        float[] camera = cameraKey(cameraOrientation);
+        int redraw = facesToRedraw(mask, scissors, currentScene, sceneChanged, camera);
+        boolean changed = false;
+        for (int i = 0; i < NUM_FACES; i++) {
+            if ((mask & (1 << i)) == 0) {
+                boolean stale = (previousMask & (1 << i)) != 0;
+                if (stale) {
+                    // Clear once so a culled face never holds stale content
+                    cubemapFaces[i].beginDraw();
+                    cubemapFaces[i].background(0, 0);
+                    cubemapFaces[i].endDraw();
+                    capturedFaces &= ~(1 << i);
+                    changed = true;
+                }
+                continue;
+            }
+            if ((redraw & (1 << i)) == 0) {
+                continue;
+            }
             cubemapFaces[i].beginDraw();
             cubemapFaces[i].background(0, 0);
             configureCameraForFace(
                     cubemapFaces[i],
                     cameraManager.getOrientation(i),
-                    effectiveOrientation);
+                    cameraOrientation,
+                    scissors[i]);
             if (currentScene != null) {
                 currentScene.sceneRender(cubemapFaces[i]);
             }
+            if (scissors[i] != null) {
+                // Leave no scissor behind, so the next clear covers the whole face
+                cubemapFaces[i].noClip();
+            }
             cubemapFaces[i].endDraw();
+            recordCapturedFace(i, scissors[i], currentScene, camera);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Computes which visible faces the next capture must render.
+     * <p>
+     * Every visible face is rendered when the scene changed or differs from the last capture, or the
+     * face camera moved. Otherwise a face is reused when it holds content and the region shaded for
+     * it covers the region now needed.
+     * </p>
+     *
+     * @param mask faces the capture needs
+     * @param scissors regions the capture needs, {@code null} for whole faces
+     * @param scene the scene about to be rendered
+     * @param sceneChanged whether the scene reported a change
+     * @param camera face camera parameters from {@link #cameraKey(Quaternion)}
+     * @return bit mask of faces to render
+     */
+    int facesToRedraw(int mask, int[][] scissors, Scene scene, boolean sceneChanged, float[] camera) {
+        if (sceneChanged || scene != capturedScene || !Arrays.equals(capturedCamera, camera)) {
+            return mask;
         }
+        int redraw = 0;
+        for (int i = 0; i < NUM_FACES; i++) {
+            int bit = 1 << i;
+            if ((mask & bit) != 0
+                    && ((capturedFaces & bit) == 0 || !FaceScissor.contains(capturedRegions[i], scissors[i]))) {
+                redraw |= bit;
+            }
+        }
+        return redraw;
+    }
+
+    /**
+     * Records that a face was rendered, as {@link #captureCubemap} does after drawing it.
+     *
+     * @param face face index in {@code [0, 5]}
+     * @param region shaded rectangle, or {@code null} for the whole face
+     * @param scene the scene rendered
+     * @param camera face camera parameters from {@link #cameraKey(Quaternion)}
+     */
+    void recordCapturedFace(int face, int[] region, Scene scene, float[] camera) {
+        capturedFaces |= 1 << face;
+        capturedRegions[face] = region;
+        capturedScene = scene;
+        System.arraycopy(camera, 0, capturedCamera, 0, camera.length);
+    }
+
+    /**
+     * Returns the face camera parameters that change what every face shows.
+     *
+     * @param cameraOrientation orientation baked into the face cameras, or {@code null}
+     * @return frustum and orientation values to compare between captures
+     */
+    float[] cameraKey(Quaternion cameraOrientation) {
+        float[] key = {cachedNearPlane, cachedFarPlane, cachedFieldOfView, 0f, 0f, 0f, 0f};
+        if (cameraOrientation != null) {
+            key[3] = cameraOrientation.x;
+            key[4] = cameraOrientation.y;
+            key[5] = cameraOrientation.z;
+            key[6] = cameraOrientation.w;
+        }
+        return key;
+    }
+
+    /**
+     * Forces the next capture to render every visible face, for changes the scene cannot report.
+     */
+    public void invalidateFaces() {
+        capturedFaces = 0;
+        capturedScene = null;
     }
 
     /**
@@ -164,5 +580,6 @@ public class CubemapRenderer implements PConstants {
             }
             cubemapFaces = null;
         }
+        invalidateFaces();
     }
 }
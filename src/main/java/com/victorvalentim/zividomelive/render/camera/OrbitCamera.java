@@ -70,6 +70,15 @@ public class OrbitCamera implements PConstants {
     /** Distance change per fractional (trackpad) wheel notch. */
     private float wheelPadStep = 4f;
 
+    /** Pose difference below which the camera counts as settled on its goals. */
+    private static final float SETTLE_EPSILON = 1e-4f;
+    /** Largest {@code 1 - |dot|} between settled orientations, about 0.05 degrees. */
+    private static final float ORIENTATION_EPSILON = 1e-7f;
+    /** Whether the last {@link #update()} moved the camera. */
+    private boolean moving = true;
+    /** Set by snaps so the next update reports a move. */
+    private boolean snapped = false;
+
     private int lastMouseX = -1;
     private int lastMouseY = -1;
     private boolean dragging = false;
@@ -108,6 +117,8 @@ public class OrbitCamera implements PConstants {
      * The library calls this once per frame; scenes normally do not need to.
      */
     public void update() {
+        moving = snapped || !isSettled();
+        snapped = false;
         orientation = orientation.slerp(goalOrientation, lerpFactor);
         target.set(PVector.lerp(target, goalTarget, lerpFactor));
         distance = PApplet.lerp(distance, goalDistance, lerpFactor);
@@ -230,6 +241,7 @@ public class OrbitCamera implements PConstants {
         goalOrientation = new Quaternion(orientation.x, orientation.y, orientation.z, orientation.w);
         distance = guardDistance(d, d);
         goalDistance = distance;
+        snapped = true;
     }
 
     /**
@@ -256,6 +268,7 @@ public class OrbitCamera implements PConstants {
         this.maxDistance = max;
         this.goalDistance = guardDistance(goalDistance, goalDistance);
         this.distance = guardDistance(distance, distance);
+        this.snapped = true;
     }
 
     /**
@@ -355,5 +368,26 @@ public class OrbitCamera implements PConstants {
     public Quaternion getOrientation() {
         return orientation;
     }
-}
 
+    /**
+     * Returns whether the last per-frame {@link #update()} moved the camera.
+     * <p>
+     * A camera easing toward its goals, or snapped to a new pose, reports {@code true}; once the
+     * current pose is within a small tolerance of the goals it reports {@code false}. Scenes that
+     * apply this camera can return it from {@code Scene.hasChanged(long)}.
+     * </p>
+     *
+     * @return {@code true} if the scene camera moved this frame
+     */
+    public boolean isMoving() {
+        return moving;
+    }
+
+    private boolean isSettled() {
+        float dot = orientation.x * goalOrientation.x + orientation.y * goalOrientation.y
+                + orientation.z * goalOrientation.z + orientation.w * goalOrientation.w;
+        return Math.abs(distance - goalDistance) <= SETTLE_EPSILON * Math.max(1f, Math.abs(goalDistance))
+                && PVector.dist(target, goalTarget) <= SETTLE_EPSILON * Math.max(1f, Math.abs(goalDistance))
+                && 1f - Math.abs(dot) <= ORIENTATION_EPSILON;
+    }
+}
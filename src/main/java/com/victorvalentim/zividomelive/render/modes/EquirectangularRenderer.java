@@ -1,5 +1,6 @@
 package com.victorvalentim.zividomelive.render.modes;
 
+import com.victorvalentim.zividomelive.render.projection.ProjectionRotation;
 import com.victorvalentim.zividomelive.support.LogManager;
 import processing.core.*;
 import processing.opengl.*;
@@ -46,6 +47,19 @@ public class EquirectangularRenderer {
      * @param faces an array of PGraphics objects representing the cubemap faces
      */
     public void render(PGraphicsOpenGL[] faces) {
+        render(faces, ProjectionRotation.identity());
+    }
+
+    /**
+     * Renders the equirectangular projection from cubemap faces captured without the spherical
+     * orientation, rotating every direction in the shader instead.
+     *
+     * @param faces an array of PGraphics objects representing the cubemap faces
+     * @param rotation row-major projection rotation, see {@link ProjectionRotation}
+     * @throws IllegalArgumentException if {@code rotation} is not a finite 3x3 matrix
+     */
+    public void render(PGraphicsOpenGL[] faces, float[] rotation) {
+        float[] frameRotation = ProjectionRotation.copyOf(rotation);
         if (equirectangularShader == null) {
             LOGGER.warning("Equirectangular shader not initialized; skipping render.");
             return;
@@ -67,6 +81,8 @@ public class EquirectangularRenderer {
         equirectangularShader.set("posZ", faces[4]);
         equirectangularShader.set("negZ", faces[5]);
         equirectangularShader.set("resolution", new float[]{equirectangular.width, equirectangular.height});
+        // Rows as vec3[3], independent of how matrix uniforms are ordered
+        equirectangularShader.set("orientation", frameRotation, 3);
         equirectangular.shader(equirectangularShader);
         equirectangular.rect(0, 0, equirectangular.width, equirectangular.height);
         equirectangular.endDraw();
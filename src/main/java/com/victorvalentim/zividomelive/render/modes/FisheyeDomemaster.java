@@ -1,24 +1,42 @@
 package com.victorvalentim.zividomelive.render.modes;
 
 
+import com.victorvalentim.zividomelive.render.projection.ProjectionRotation;
+import com.victorvalentim.zividomelive.render.projection.WarpTable;
 import com.victorvalentim.zividomelive.support.LogManager;
 import processing.core.PApplet;
 import processing.core.PGraphics;
+import processing.core.PImage;
 import processing.opengl.PGraphicsOpenGL;
 import processing.opengl.PShader;
 import java.util.logging.Logger;
 
 /**
- * The FisheyeDomemaster class handles the rendering of fisheye domemaster projections from equirectangular maps.
+ * The FisheyeDomemaster class handles the rendering of fisheye domemaster projections, either from
+ * equirectangular maps or directly from the six cubemap faces.
  */
 public class FisheyeDomemaster {
+
+    /**
+     * Source the domemaster is projected from.
+     */
+    public enum SourceMode {
+        /** Warp a completed equirectangular map, then scale it by Size% in a second pass. */
+        EQUIRECTANGULAR,
+        /** Sample the six cubemap faces per dome pixel and apply Size% in the same pass. */
+        DIRECT
+    }
+
     private static final Logger LOGGER = LogManager.getLogger();
     private PGraphics domemaster;
     private PGraphics domemasterSize;
     private final PShader domemasterShader;
+    private final PShader directShader;
     private final int resolution;
     private float sizePercentage;
     private final PApplet parent;
+    private WarpTable warpTable;
+    private PImage warpTexture;
 
     /**
      * Constructs a FisheyeDomemaster with the specified resolution, shader files, and parent PApplet.
@@ -29,10 +47,27 @@ public class FisheyeDomemaster {
      * @param parent the parent PApplet instance
      */
     public FisheyeDomemaster(int resolution,String fragmentShaderPath, String vertexShaderPath, PApplet parent) {
+        this(resolution, fragmentShaderPath, null, vertexShaderPath, parent);
+    }
+
+    /**
+     * Constructs a FisheyeDomemaster that can also project directly from cubemap faces.
+     *
+     * @param resolution the resolution of the domemaster projection
+     * @param fragmentShaderPath the path to the equirectangular-source fragment shader (.frag)
+     * @param directFragmentShaderPath the path to the cubemap-source fragment shader (.frag), or {@code null}
+     * @param vertexShaderPath the path to the vertex shader file (.vert)
+     * @param parent the parent PApplet instance
+     */
+    public FisheyeDomemaster(int resolution, String fragmentShaderPath, String directFragmentShaderPath,
+                             String vertexShaderPath, PApplet parent) {
         this.resolution = resolution;
         this.sizePercentage = 100.0f;
         this.parent = parent;
         this.domemasterShader = parent.loadShader(fragmentShaderPath, vertexShaderPath);
+        this.directShader = directFragmentShaderPath != null
+                ? parent.loadShader(directFragmentShaderPath, vertexShaderPath)
+                : null;
     }
 
     /**
@@ -57,6 +92,10 @@ public class FisheyeDomemaster {
 
     /**
      * Sets the field of view (FOV) for the domemaster shader.
+     * <p>
+     * The warp lookup texture is rebuilt only when the FOV differs from the one the current
+     * {@link WarpTable} was built for.
+     * </p>
      *
      * @param fov the field of view to set
      */
@@ -65,7 +104,34 @@ public class FisheyeDomemaster {
             LOGGER.warning("Domemaster shader not initialized; skipping FOV update.");
             return;
         }
-        domemasterShader.set("fov", fov);
+        if (warpTable != null && warpTable.matches(resolution, fov)) {
+            return;
+        }
+        warpTable = WarpTable.forDomemaster(resolution, fov);
+        warpTexture = createWarpTexture(warpTable);
+    }
+
+    /**
+     * Uploads a warp table as a lookup image sampled with {@code texelFetch}.
+     *
+     * @param table the table to upload
+     * @return the packed lookup image
+     */
+    private PImage createWarpTexture(WarpTable table) {
+        PImage image = parent.createImage(resolution, resolution, PApplet.ARGB);
+        image.loadPixels();
+        System.arraycopy(table.toPackedArgb(), 0, image.pixels, 0, image.pixels.length);
+        image.updatePixels();
+        return image;
+    }
+
+    /**
+     * Returns the warp table currently used by the domemaster pass.
+     *
+     * @return the current table, or {@code null} before the first FOV update
+     */
+    public WarpTable getWarpTable() {
+        return warpTable;
     }
 
     /**
@@ -114,6 +180,7 @@ public class FisheyeDomemaster {
         domemaster.beginDraw();
         domemaster.background(0, 0); // Set transparent background
         domemasterShader.set("equirectangularMap", equirectangular);
+        domemasterShader.set("warpTable", warpTexture);
         domemasterShader.set("resolution", new float[]{domemaster.width, domemaster.height});
         domemaster.shader(domemasterShader);
         domemaster.rect(0, 0, domemaster.width, domemaster.height);
@@ -126,6 +193,84 @@ public class FisheyeDomemaster {
         domemasterSize.endDraw();
     }
 
+    /**
+     * Renders the domemaster straight from the cubemap faces in a single pass.
+     * <p>
+     * Every dome pixel is converted to a view direction and sampled from its cube face; Size% is
+     * applied by scaling the dome disc inside the same shader, so neither the equirectangular map nor
+     * the intermediate full-size domemaster is needed.
+     * </p>
+     *
+     * @param faces the six cubemap faces ordered {@code +X, -X, +Y, -Y, +Z, -Z}
+     * @param fov the field of view to use for the shader
+     */
+    public void applyDirect(PGraphicsOpenGL[] faces, float fov) {
+        applyDirect(faces, fov, ProjectionRotation.identity());
+    }
+
+    /**
+     * Renders the domemaster straight from cubemap faces captured without the spherical orientation,
+     * rotating every dome direction in the shader instead.
+     *
+     * @param faces the six cubemap faces ordered {@code +X, -X, +Y, -Y, +Z, -Z}
+     * @param fov the field of view to use for the shader
+     * @param rotation row-major projection rotation, see {@link ProjectionRotation}
+     * @throws IllegalArgumentException if {@code rotation} is not a finite 3x3 matrix
+     */
+    public void applyDirect(PGraphicsOpenGL[] faces, float fov, float[] rotation) {
+        float[] domeRotation = ProjectionRotation.copyOf(rotation);
+        if (directShader == null) {
+            LOGGER.warning("Direct domemaster shader not initialized; skipping shader pass.");
+            return;
+        }
+        if (!hasValidFaces(faces)) {
+            LOGGER.warning("Cubemap faces unavailable; skipping direct domemaster render.");
+            return;
+        }
+        if (domemasterSize == null) {
+            initializeDomemasterSize();
+        }
+
+        domemasterSize.beginDraw();
+        domemasterSize.background(0, 0); // Set transparent background
+        directShader.set("posX", faces[0]);
+        directShader.set("negX", faces[1]);
+        directShader.set("posY", faces[2]);
+        directShader.set("negY", faces[3]);
+        directShader.set("posZ", faces[4]);
+        directShader.set("negZ", faces[5]);
+        directShader.set("fov", fov);
+        directShader.set("sizeScale", sizePercentage / 100.0f);
+        // Rows as vec3[3], independent of how matrix uniforms are ordered
+        directShader.set("orientation", domeRotation, 3);
+        directShader.set("resolution", new float[]{domemasterSize.width, domemasterSize.height});
+        domemasterSize.shader(directShader);
+        domemasterSize.rect(0, 0, domemasterSize.width, domemasterSize.height);
+        domemasterSize.endDraw();
+    }
+
+    /**
+     * Returns whether this instance can render in the given source mode.
+     *
+     * @param mode the source mode to check
+     * @return {@code true} if the shader for {@code mode} was loaded
+     */
+    public boolean supports(SourceMode mode) {
+        return mode == SourceMode.DIRECT ? directShader != null : domemasterShader != null;
+    }
+
+    private boolean hasValidFaces(PGraphicsOpenGL[] faces) {
+        if (faces == null || faces.length < 6) {
+            return false;
+        }
+        for (int i = 0; i < 6; i++) {
+            if (faces[i] == null || faces[i].getTexture() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns the PGraphics object for the domemaster projection.
      *
@@ -139,9 +284,12 @@ public class FisheyeDomemaster {
     }
 
     /**
-     * Releases the graphical resources used by the domemaster projection.
+     * Releases the graphical resources used by the domemaster projection, including the warp table
+     * and its lookup texture; the next FOV update rebuilds them.
      */
     public void dispose() {
+        warpTable = null;
+        warpTexture = null;
         if (domemaster != null) {
             domemaster.dispose();
             domemaster = null;
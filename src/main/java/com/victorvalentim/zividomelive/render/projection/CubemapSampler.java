@@ -0,0 +1,217 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+/**
+ * CPU counterpart of the cubemap lookup performed by {@code shaders/equirectangular.frag}.
+ * <p>
+ * Faces are square ARGB {@code int[]} buffers in Processing pixel order (top row first), indexed
+ * like {@link com.victorvalentim.zividomelive.render.CubemapRenderer}: {@code +X, -X, +Y, -Y, +Z, -Z}.
+ * Face selection and the per-face {@code (u, v)} convention follow {@code convert_xyz_to_cube_uv}
+ * exactly, so a CPU result can be compared pixel for pixel with the GPU output.
+ * </p>
+ */
+public final class CubemapSampler {
+
+    /** Number of faces expected in a cubemap buffer set. */
+    public static final int NUM_FACES = 6;
+
+    private CubemapSampler() {
+        // Utility class
+    }
+
+    /**
+     * Returns the face a direction falls on, using the same tie-breaking order as the shader.
+     *
+     * @param x direction X component
+     * @param y direction Y component
+     * @param z direction Z component
+     * @return face index in {@code [0, 5]}
+     */
+    public static int faceIndex(float x, float y, float z) {
+        float absX = Math.abs(x);
+        float absY = Math.abs(y);
+        float absZ = Math.abs(z);
+        if (absX >= absY && absX >= absZ) {
+            return x > 0f ? 0 : 1;
+        }
+        if (absY >= absX && absY >= absZ) {
+            return y > 0f ? 2 : 3;
+        }
+        return z > 0f ? 4 : 5;
+    }
+
+    /**
+     * Projects a direction onto its cube face and writes the face-local texture coordinates.
+     * <p>
+     * {@code uv[0]} and {@code uv[1]} receive the shader's {@code (u, v)} in {@code [0, 1]}, where
+     * {@code v} grows upwards as in OpenGL texture space.
+     * </p>
+     *
+     * @param x direction X component
+     * @param y direction Y component
+     * @param z direction Z component
+     * @param uv two-element array receiving the face coordinates
+     * @return face index in {@code [0, 5]}
+     */
+    public static int toFaceUv(float x, float y, float z, float[] uv) {
+        int face = faceIndex(x, y, z);
+        float maxAxis;
+        float uc;
+        float vc;
+        switch (face) {
+            case 0:
+                maxAxis = Math.abs(x);
+                uc = -z;
+                vc = y;
+                break;
+            case 1:
+                maxAxis = Math.abs(x);
+                uc = z;
+                vc = y;
+                break;
+            case 2:
+                maxAxis = Math.abs(y);
+                uc = x;
+                vc = -z;
+                break;
+            case 3:
+                maxAxis = Math.abs(y);
+                uc = x;
+                vc = z;
+                break;
+            case 4:
+                maxAxis = Math.abs(z);
+                uc = x;
+                vc = y;
+                break;
+            default:
+                maxAxis = Math.abs(z);
+                uc = -x;
+                vc = y;
+                break;
+        }
+        uv[0] = clamp01(0.5f * (uc / maxAxis + 1f));
+        uv[1] = clamp01(0.5f * (vc / maxAxis + 1f));
+        return face;
+    }
+
+    /**
+     * Samples the cubemap along a direction with bilinear filtering and clamp-to-edge addressing.
+     *
+     * @param faces six square ARGB face buffers
+     * @param x direction X component
+     * @param y direction Y component
+     * @param z direction Z component
+     * @param uv scratch array of at least two elements
+     * @return the filtered ARGB colour
+     */
+    public static int sample(int[][] faces, float x, float y, float z, float[] uv) {
+        int face = toFaceUv(x, y, z, uv);
+        int[] pixels = faces[face];
+        int size = faceSize(pixels);
+        return sampleBilinear(pixels, size, size, uv[0] * size - 0.5f, (1f - uv[1]) * size - 0.5f);
+    }
+
+    /**
+     * Bilinearly samples an ARGB buffer at a continuous pixel position.
+     * <p>
+     * Integer coordinates address pixel centres; positions outside the image are clamped to the
+     * nearest edge pixel. All four channels, alpha included, are interpolated independently.
+     * </p>
+     *
+     * @param pixels ARGB pixels, top row first
+     * @param width image width
+     * @param height image height
+     * @param px horizontal position in pixels
+     * @param py vertical position in pixels, growing downwards
+     * @return the filtered ARGB colour
+     */
+    public static int sampleBilinear(int[] pixels, int width, int height, float px, float py) {
+        float fx = (float) Math.floor(px);
+        float fy = (float) Math.floor(py);
+        float tx = px - fx;
+        float ty = py - fy;
+        int x0 = clamp((int) fx, width - 1);
+        int y0 = clamp((int) fy, height - 1);
+        int x1 = clamp((int) fx + 1, width - 1);
+        int y1 = clamp((int) fy + 1, height - 1);
+
+        int c00 = pixels[y0 * width + x0];
+        int c10 = pixels[y0 * width + x1];
+        int c01 = pixels[y1 * width + x0];
+        int c11 = pixels[y1 * width + x1];
+
+        return (lerpChannel(c00, c10, c01, c11, 24, tx, ty) << 24)
+                | (lerpChannel(c00, c10, c01, c11, 16, tx, ty) << 16)
+                | (lerpChannel(c00, c10, c01, c11, 8, tx, ty) << 8)
+                | lerpChannel(c00, c10, c01, c11, 0, tx, ty);
+    }
+
+    /**
+     * Returns the edge length of a square face buffer.
+     *
+     * @param pixels face pixels
+     * @return the face edge length in pixels
+     * @throws IllegalArgumentException if the buffer is empty or not square
+     */
+    public static int faceSize(int[] pixels) {
+        int size = (int) Math.round(Math.sqrt(pixels.length));
+        if (size <= 0 || size * size != pixels.length) {
+            throw new IllegalArgumentException("Cubemap face must be a non-empty square, got " + pixels.length + " pixels");
+        }
+        return size;
+    }
+
+    /**
+     * Validates a cubemap buffer set.
+     *
+     * @param faces the buffers to check
+     * @throws IllegalArgumentException if fewer than six faces are present or any face is null or not square
+     */
+    public static void requireFaces(int[][] faces) {
+        if (faces == null || faces.length < NUM_FACES) {
+            throw new IllegalArgumentException("Six cubemap faces are required");
+        }
+        for (int i = 0; i < NUM_FACES; i++) {
+            if (faces[i] == null) {
+                throw new IllegalArgumentException("Cubemap face " + i + " is null");
+            }
+            faceSize(faces[i]);
+        }
+    }
+
+    /**
+     * Validates a cubemap buffer set whose faces all share one size.
+     *
+     * @param faces the buffers to check
+     * @return the edge length of every face
+     * @throws IllegalArgumentException if the faces are invalid or differ in size
+     */
+    static int requireUniformFaces(int[][] faces) {
+        requireFaces(faces);
+        int size = faceSize(faces[0]);
+        for (int i = 1; i < NUM_FACES; i++) {
+            if (faces[i].length != faces[0].length) {
+                throw new IllegalArgumentException("Cubemap faces must share one size");
+            }
+        }
+        return size;
+    }
+
+    private static int lerpChannel(int c00, int c10, int c01, int c11, int shift, float tx, float ty) {
+        float a = (c00 >>> shift) & 0xFF;
+        float b = (c10 >>> shift) & 0xFF;
+        float c = (c01 >>> shift) & 0xFF;
+        float d = (c11 >>> shift) & 0xFF;
+        float top = a + (b - a) * tx;
+        float bottom = c + (d - c) * tx;
+        return (int) (top + (bottom - top) * ty + 0.5f);
+    }
+
+    private static int clamp(int value, int max) {
+        return value < 0 ? 0 : Math.min(value, max);
+    }
+
+    private static float clamp01(float value) {
+        return value < 0f ? 0f : Math.min(value, 1f);
+    }
+}
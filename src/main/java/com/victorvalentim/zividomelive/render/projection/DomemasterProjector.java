@@ -0,0 +1,162 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pure-Java cubemap to domemaster projection that samples the six faces directly.
+ * <p>
+ * This is the CPU reference for the {@code DIRECT} source mode of
+ * {@link com.victorvalentim.zividomelive.render.modes.FisheyeDomemaster}: each dome pixel is turned
+ * into a view direction and looked up on its cube face, with the Size% scaling applied in the same
+ * pass. No equirectangular intermediate is produced. The mapping is evaluated once into a
+ * {@link ResampleTable} the projector keeps until a size, the FOV, Size% or the rotation changes; every frame
+ * then runs the integer {@link ResampleKernel}, with rows split across a {@link ForkJoinPool} and one scratch
+ * buffer per worker thread. A new rotation is rebuilt into the arrays of the current table.
+ * </p>
+ */
+public class DomemasterProjector {
+
+    private final ResampleKernel kernel;
+    private volatile float[] rotation = ProjectionRotation.identity();
+    private ResampleTable table;
+
+    /**
+     * Creates a projector that runs on the common fork/join pool.
+     */
+    public DomemasterProjector() {
+        this(ForkJoinPool.commonPool(), EquirectangularProjector.DEFAULT_ROWS_PER_TASK);
+    }
+
+    /**
+     * Creates a projector that runs on the given pool.
+     *
+     * @param pool the fork/join pool used to process rows
+     * @param rowsPerTask the row count below which work is no longer split
+     * @throws IllegalArgumentException if {@code pool} is null or {@code rowsPerTask} is not positive
+     */
+    public DomemasterProjector(ForkJoinPool pool, int rowsPerTask) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        if (rowsPerTask <= 0) {
+            throw new IllegalArgumentException("rowsPerTask must be positive");
+        }
+        this.kernel = new ResampleKernel(pool, rowsPerTask);
+    }
+
+    /**
+     * Sets the rotation applied to every dome direction before the face lookup.
+     *
+     * @param rotation row-major 3x3 rotation, see {@link ProjectionRotation}
+     * @throws IllegalArgumentException if {@code rotation} is not a finite 3x3 matrix
+     */
+    public void setRotation(float[] rotation) {
+        this.rotation = ProjectionRotation.copyOf(rotation);
+    }
+
+    /**
+     * Returns the rotation applied to dome directions.
+     *
+     * @return a copy of the row-major rotation, the identity by default
+     */
+    public float[] getRotation() {
+        return rotation.clone();
+    }
+
+    /**
+     * Projects six cubemap faces into a new square domemaster.
+     *
+     * @param faces six square ARGB face buffers of one size, ordered {@code +X, -X, +Y, -Y, +Z, -Z}
+     * @param resolution the domemaster edge length in pixels
+     * @param fov the dome field of view in degrees
+     * @param sizePercentage the dome diameter as a percentage of the frame, {@code 0..100}
+     * @return the domemaster ARGB pixels, top row first
+     * @throws IllegalArgumentException if the faces are invalid
+     */
+    public int[] project(int[][] faces, int resolution, float fov, float sizePercentage) {
+        int[] target = new int[resolution * resolution];
+        project(faces, target, resolution, fov, sizePercentage);
+        return target;
+    }
+
+    /**
+     * Projects six cubemap faces into an existing domemaster buffer.
+     *
+     * @param faces six square ARGB face buffers of one size, ordered {@code +X, -X, +Y, -Y, +Z, -Z}
+     * @param target the destination buffer of at least {@code resolution * resolution} pixels
+     * @param resolution the domemaster edge length in pixels
+     * @param fov the dome field of view in degrees
+     * @param sizePercentage the dome diameter as a percentage of the frame, {@code 0..100}
+     * @throws IllegalArgumentException if the faces are invalid or the target is too small
+     */
+    public synchronized void project(int[][] faces, int[] target, int resolution, float fov, float sizePercentage) {
+        int faceSize = CubemapSampler.requireUniformFaces(faces);
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("resolution must be positive");
+        }
+        if (target == null || target.length < resolution * resolution) {
+            throw new IllegalArgumentException("Target buffer is smaller than " + resolution + "x" + resolution);
+        }
+        table = ResampleTable.forCubemapDomemaster(faceSize, resolution, fov, sizePercentage, rotation, table);
+        kernel.resample(table, faces, target);
+    }
+
+    /**
+     * Computes the view direction of a domemaster pixel.
+     * <p>
+     * The dome centre looks down {@code +Z}; the distance from the centre maps linearly to the polar
+     * angle up to {@code fov / 2}. {@code +X} is to the right and {@code +Y} towards the bottom of the
+     * frame, matching Processing's Y-down world. This is the direction the legacy equirectangular
+     * chain ends up sampling, so both source modes agree on orientation.
+     * </p>
+     *
+     * @param x pixel column
+     * @param row pixel row, {@code 0} being the top of the frame
+     * @param resolution the domemaster edge length in pixels
+     * @param fov the dome field of view in degrees; values above 360 are clamped
+     * @param sizePercentage the dome diameter as a percentage of the frame, {@code 0..100}
+     * @param direction three-element array receiving the unit direction
+     * @return {@code false} if the pixel lies outside the dome disc and is left transparent
+     */
+    public static boolean direction(int x, int row, int resolution, float fov, float sizePercentage, float[] direction) {
+        return new Geometry(resolution, fov, sizePercentage).direction(x, row, direction);
+    }
+
+    /** Constants of the dome mapping, shared by {@link #direction} and the resample tables. */
+    static final class Geometry {
+        final int resolution;
+        final float maxTheta;
+        final float diameter;
+        /** Projection rotation, or {@code null} for the identity. */
+        final float[] rotation;
+
+        Geometry(int resolution, float fov, float sizePercentage) {
+            this(resolution, fov, sizePercentage, null);
+        }
+
+        Geometry(int resolution, float fov, float sizePercentage, float[] rotation) {
+            this.resolution = resolution;
+            this.rotation = rotation == null || ProjectionRotation.isIdentity(rotation) ? null : rotation;
+            this.maxTheta = (float) Math.toRadians(Math.min(fov, 360f)) / 2f;
+            this.diameter = resolution * Math.max(0f, Math.min(sizePercentage, 100f)) / 100f;
+        }
+
+        boolean direction(int x, int row, float[] direction) {
+            if (diameter <= 0f) {
+                return false;
+            }
+            float ux = (2f * (x + 0.5f) - resolution) / diameter;
+            float uy = (2f * (row + 0.5f) - resolution) / diameter;
+            float l = (float) Math.sqrt(ux * ux + uy * uy);
+            if (l > 1f) {
+                return false;
+            }
+            float theta = l * maxTheta;
+            float radial = l > 0f ? (float) Math.sin(theta) / l : 0f;
+            direction[0] = radial * ux;
+            direction[1] = radial * uy;
+            direction[2] = (float) Math.cos(theta);
+            return true;
+        }
+    }
+}
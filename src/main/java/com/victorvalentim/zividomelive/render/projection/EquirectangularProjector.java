@@ -0,0 +1,102 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pure-Java cubemap to equirectangular projection.
+ * <p>
+ * This is the CPU reference for {@link com.victorvalentim.zividomelive.render.modes.EquirectangularRenderer}:
+ * it reproduces the direction math of {@code shaders/equirectangular.frag} on six ARGB face buffers and
+ * needs no OpenGL context, so it can run on headless render nodes and in tests. The mapping is evaluated
+ * once into a {@link ResampleTable} the projector keeps until a size or the rotation changes; every frame
+ * then runs the integer {@link ResampleKernel}, with rows split across a {@link ForkJoinPool} and one
+ * scratch buffer per worker thread. A new rotation is rebuilt into the arrays of the current table.
+ * </p>
+ */
+public class EquirectangularProjector {
+
+    /** Default number of rows below which a task is processed sequentially. */
+    public static final int DEFAULT_ROWS_PER_TASK = 16;
+
+    private final ResampleKernel kernel;
+    private volatile float[] rotation = ProjectionRotation.identity();
+    private ResampleTable table;
+
+    /**
+     * Creates a projector that runs on the common fork/join pool.
+     */
+    public EquirectangularProjector() {
+        this(ForkJoinPool.commonPool(), DEFAULT_ROWS_PER_TASK);
+    }
+
+    /**
+     * Creates a projector that runs on the given pool.
+     *
+     * @param pool the fork/join pool used to process rows
+     * @param rowsPerTask the row count below which work is no longer split
+     * @throws IllegalArgumentException if {@code pool} is null or {@code rowsPerTask} is not positive
+     */
+    public EquirectangularProjector(ForkJoinPool pool, int rowsPerTask) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        if (rowsPerTask <= 0) {
+            throw new IllegalArgumentException("rowsPerTask must be positive");
+        }
+        this.kernel = new ResampleKernel(pool, rowsPerTask);
+    }
+
+    /**
+     * Sets the rotation applied to every frame direction before the face lookup.
+     *
+     * @param rotation row-major 3x3 rotation, see {@link ProjectionRotation}
+     * @throws IllegalArgumentException if {@code rotation} is not a finite 3x3 matrix
+     */
+    public void setRotation(float[] rotation) {
+        this.rotation = ProjectionRotation.copyOf(rotation);
+    }
+
+    /**
+     * Returns the rotation applied to frame directions.
+     *
+     * @return a copy of the row-major rotation, the identity by default
+     */
+    public float[] getRotation() {
+        return rotation.clone();
+    }
+
+    /**
+     * Projects six cubemap faces into a new {@code 2 * resolution x resolution} equirectangular frame.
+     *
+     * @param faces six square ARGB face buffers of one size, ordered {@code +X, -X, +Y, -Y, +Z, -Z}
+     * @param resolution the frame height; the width is twice this value
+     * @return the equirectangular ARGB pixels, top row first
+     * @throws IllegalArgumentException if the faces are invalid
+     */
+    public int[] project(int[][] faces, int resolution) {
+        int[] target = new int[resolution * 2 * resolution];
+        project(faces, target, resolution * 2, resolution);
+        return target;
+    }
+
+    /**
+     * Projects six cubemap faces into an existing equirectangular buffer.
+     *
+     * @param faces six square ARGB face buffers of one size, ordered {@code +X, -X, +Y, -Y, +Z, -Z}
+     * @param target the destination buffer of at least {@code width * height} pixels
+     * @param width the frame width
+     * @param height the frame height
+     * @throws IllegalArgumentException if the faces are invalid or the target is too small
+     */
+    public synchronized void project(int[][] faces, int[] target, int width, int height) {
+        int faceSize = CubemapSampler.requireUniformFaces(faces);
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Equirectangular size must be positive");
+        }
+        if (target == null || target.length < width * height) {
+            throw new IllegalArgumentException("Target buffer is smaller than " + width + "x" + height);
+        }
+        table = ResampleTable.forEquirectangular(faceSize, width, height, rotation, table);
+        kernel.resample(table, faces, target);
+    }
+}
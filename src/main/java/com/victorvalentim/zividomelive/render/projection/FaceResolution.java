@@ -0,0 +1,137 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import java.util.Arrays;
+
+/**
+ * Per-face cubemap resolution derived from the texel density a domemaster actually samples.
+ * <p>
+ * A dome of diameter {@code D} pixels spanning a polar angle {@code thetaMax} has a radial density of
+ * {@code (D / 2) / thetaMax} pixels per radian; tangentially, at polar angle {@code theta}, the density is
+ * that value times {@code theta / sin(theta)}, which grows towards the rim. A cube face of edge {@code S}
+ * has {@code S / 2} texels per radian at its centre and {@code (S / 2) / cos(gamma)} or more at angle
+ * {@code gamma} from its normal. A face is therefore sharp enough when
+ * {@code S / 2 >= max(domeDensity(theta) * cos(gamma))} over the directions it contributes to the dome.
+ * </p>
+ * <p>
+ * The maximum is evaluated on a fixed grid over each face, restricted to the dome cap, and the result is
+ * rounded up to {@link #QUANTUM} pixels and capped at the base resolution. Faces the dome cannot reach get
+ * {@link #MIN_FACE_SIZE}.
+ * </p>
+ */
+public final class FaceResolution {
+
+    /** Face sizes are rounded up to a multiple of this value to limit reallocations. */
+    public static final int QUANTUM = 32;
+
+    /** Smallest face edge ever allocated, also used for faces outside the dome. */
+    public static final int MIN_FACE_SIZE = QUANTUM;
+
+    private static final int GRID = 64;
+
+    private FaceResolution() {
+        // Utility class
+    }
+
+    /**
+     * Computes the edge length each face needs for a dome.
+     *
+     * @param baseResolution the uniform face resolution, used as the upper bound
+     * @param domeResolution the domemaster edge length in pixels
+     * @param fov the dome field of view in degrees
+     * @param sizePercentage the dome diameter as a percentage of the frame, {@code 0..100}
+     * @param axisX dome axis X component in cubemap space
+     * @param axisY dome axis Y component in cubemap space
+     * @param axisZ dome axis Z component in cubemap space
+     * @param densityScale oversampling factor applied to the required density, {@code 1} for one texel per dome pixel
+     * @return six face sizes ordered {@code +X, -X, +Y, -Y, +Z, -Z}
+     */
+    public static int[] faceSizes(int baseResolution, int domeResolution, float fov, float sizePercentage,
+                                  float axisX, float axisY, float axisZ, float densityScale) {
+        int[] sizes = new int[CubemapSampler.NUM_FACES];
+        double length = Math.sqrt(axisX * axisX + axisY * axisY + axisZ * axisZ);
+        double thetaMax = Math.toRadians(Math.min(fov, 360f)) / 2.0;
+        double diameter = domeResolution * Math.max(0f, Math.min(sizePercentage, 100f)) / 100.0;
+        if (length == 0.0 || thetaMax <= 0.0 || diameter <= 0.0) {
+            Arrays.fill(sizes, quantize(0.0, baseResolution));
+            return sizes;
+        }
+        double[] axis = {axisX / length, axisY / length, axisZ / length};
+        double radialDensity = diameter / 2.0 / thetaMax * Math.max(0f, densityScale);
+        int visible = FaceVisibility.visibleFaceMask(axisX, axisY, axisZ, fov, 0f);
+        for (int face = 0; face < CubemapSampler.NUM_FACES; face++) {
+            if ((visible & (1 << face)) == 0) {
+                sizes[face] = quantize(0.0, baseResolution);
+                continue;
+            }
+            double required = maxWeightedDensity(axis, face, thetaMax);
+            if (required < 0.0) {
+                // The cap only grazes the face between grid samples; use the rim density
+                required = rimFactor(thetaMax);
+            }
+            sizes[face] = quantize(2.0 * radialDensity * required, baseResolution);
+        }
+        return sizes;
+    }
+
+    private static double maxWeightedDensity(double[] axis, int face, double thetaMax) {
+        double best = -1.0;
+        double[] d = new double[3];
+        for (int a = 0; a <= GRID; a++) {
+            double u = -1.0 + 2.0 * a / GRID;
+            for (int b = 0; b <= GRID; b++) {
+                double v = -1.0 + 2.0 * b / GRID;
+                double norm = faceDirection(face, u, v, d);
+                double theta = Math.acos(Math.max(-1.0, Math.min(1.0, d[0] * axis[0] + d[1] * axis[1] + d[2] * axis[2])));
+                if (theta > thetaMax) {
+                    continue;
+                }
+                double cosGamma = 1.0 / norm;
+                best = Math.max(best, rimFactor(theta) * cosGamma);
+            }
+        }
+        return best;
+    }
+
+    private static double rimFactor(double theta) {
+        return theta > 1e-6 ? Math.max(1.0, theta / Math.sin(theta)) : 1.0;
+    }
+
+    /**
+     * Writes the unit direction of face coordinate {@code (u, v)} and returns the unnormalised length.
+     */
+    private static double faceDirection(int face, double u, double v, double[] d) {
+        double x;
+        double y;
+        double z;
+        switch (face) {
+            case 0:
+                x = 1; y = u; z = v;
+                break;
+            case 1:
+                x = -1; y = u; z = v;
+                break;
+            case 2:
+                x = u; y = 1; z = v;
+                break;
+            case 3:
+                x = u; y = -1; z = v;
+                break;
+            case 4:
+                x = u; y = v; z = 1;
+                break;
+            default:
+                x = u; y = v; z = -1;
+                break;
+        }
+        double norm = Math.sqrt(x * x + y * y + z * z);
+        d[0] = x / norm;
+        d[1] = y / norm;
+        d[2] = z / norm;
+        return norm;
+    }
+
+    private static int quantize(double required, int baseResolution) {
+        int size = (int) Math.ceil(required / QUANTUM) * QUANTUM;
+        return Math.min(Math.max(size, MIN_FACE_SIZE), baseResolution);
+    }
+}
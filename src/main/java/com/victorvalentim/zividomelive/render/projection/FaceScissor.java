@@ -0,0 +1,230 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import java.util.Arrays;
+
+/**
+ * Scissor rectangles covering the part of each cube face a dome can sample.
+ * <p>
+ * A face point {@code p = N + s * U + t * V}, with {@code (s, t)} in {@code [-1, 1]} and the face frame of
+ * {@link CubemapSampler#toFaceUv}, is inside the dome cap when {@code dot(p, axis) >= cos(thetaMax) * |p|}.
+ * Along a face row {@code t} is fixed, {@code dot(p, axis)} is linear in {@code s} and the squared inequality is
+ * quadratic, so the visible set on that row is bounded by the roots of both and can be found exactly.
+ * Rows give exact horizontal extents and columns exact vertical extents on a fixed grid; the combined
+ * footprint is widened by one grid step, which comfortably covers the curvature missed between lines.
+ * </p>
+ * <p>
+ * Rectangles are expressed in Processing pixel coordinates of the face image (top row first), the space
+ * {@code PGraphics.clip} expects, and are widened by a texel guard band for the bilinear taps of the
+ * domemaster lookup.
+ * </p>
+ */
+public final class FaceScissor {
+
+    private static final int GRID = 64;
+    private static final double PAD = 2.0 / GRID;
+
+    // Face frames matching CubemapSampler.toFaceUv: normal, u axis, v axis (v grows upwards)
+    private static final double[][] NORMAL = {
+            {1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}
+    };
+    private static final double[][] U_AXIS = {
+            {0, 0, -1}, {0, 0, 1}, {1, 0, 0}, {1, 0, 0}, {1, 0, 0}, {-1, 0, 0}
+    };
+    private static final double[][] V_AXIS = {
+            {0, 1, 0}, {0, 1, 0}, {0, 0, -1}, {0, 0, 1}, {0, 1, 0}, {0, 1, 0}
+    };
+
+    private FaceScissor() {
+        // Utility class
+    }
+
+    /**
+     * Computes the face-coordinate bounds of the dome footprint on one face.
+     *
+     * @param face face index in {@code [0, 5]}
+     * @param axisX dome axis X component in cubemap space
+     * @param axisY dome axis Y component in cubemap space
+     * @param axisZ dome axis Z component in cubemap space
+     * @param fov the dome field of view in degrees
+     * @param guardRadians extra angular margin added to the cap
+     * @return {@code {uMin, vMin, uMax, vMax}} in the shader's {@code [0, 1]} face coordinates, or {@code null}
+     *         when the dome samples nothing on the face
+     */
+    public static float[] footprint(int face, float axisX, float axisY, float axisZ, float fov, float guardRadians) {
+        double length = Math.sqrt(axisX * axisX + axisY * axisY + axisZ * axisZ);
+        double capRadius = Math.toRadians(Math.min(fov, 360f)) / 2.0 + Math.max(0f, guardRadians);
+        if (length == 0.0 || Float.isNaN(fov) || capRadius >= Math.PI) {
+            return new float[]{0f, 0f, 1f, 1f};
+        }
+        if (capRadius <= 0.0) {
+            return null;
+        }
+        double[] axis = {axisX / length, axisY / length, axisZ / length};
+        double cosCap = Math.cos(capRadius);
+        double alpha = dot(axis, NORMAL[face]);
+        double beta = dot(axis, U_AXIS[face]);
+        double gamma = dot(axis, V_AXIS[face]);
+
+        // bounds[0..1] = s range, bounds[2..3] = t range
+        double[] bounds = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        double[] range = new double[2];
+        for (int i = 0; i <= GRID; i++) {
+            double line = -1.0 + 2.0 * i / GRID;
+            // Row: t = line, s varies
+            if (visibleRange(alpha + gamma * line, beta, line, cosCap, range)) {
+                include(bounds, 0, range[0], range[1]);
+                include(bounds, 2, line, line);
+            }
+            // Column: s = line, t varies
+            if (visibleRange(alpha + beta * line, gamma, line, cosCap, range)) {
+                include(bounds, 2, range[0], range[1]);
+                include(bounds, 0, line, line);
+            }
+        }
+        if (bounds[0] > bounds[1]) {
+            return null;
+        }
+        return new float[]{
+                toUv(bounds[0] - PAD), toUv(bounds[2] - PAD),
+                toUv(bounds[1] + PAD), toUv(bounds[3] + PAD)
+        };
+    }
+
+    /**
+     * Computes the pixel rectangle a face must render for a dome.
+     *
+     * @param face face index in {@code [0, 5]}
+     * @param faceSize the face edge length in pixels
+     * @param axisX dome axis X component in cubemap space
+     * @param axisY dome axis Y component in cubemap space
+     * @param axisZ dome axis Z component in cubemap space
+     * @param fov the dome field of view in degrees
+     * @param guardTexels texels added on every side for the filter footprint
+     * @return {@code {x, y, width, height}} in face pixels with {@code y} counted from the top row; width and
+     *         height are zero when the dome samples nothing on the face
+     */
+    public static int[] pixelRect(int face, int faceSize, float axisX, float axisY, float axisZ,
+                                  float fov, int guardTexels) {
+        float guardRadians = guardTexels * (float) Math.PI / 2f / Math.max(1, faceSize);
+        float[] uv = footprint(face, axisX, axisY, axisZ, fov, guardRadians);
+        if (uv == null) {
+            return new int[]{0, 0, 0, 0};
+        }
+        int x0 = clamp((int) Math.floor(uv[0] * faceSize) - guardTexels, faceSize);
+        int x1 = clamp((int) Math.ceil(uv[2] * faceSize) + guardTexels, faceSize);
+        int y0 = clamp((int) Math.floor((1f - uv[3]) * faceSize) - guardTexels, faceSize);
+        int y1 = clamp((int) Math.ceil((1f - uv[1]) * faceSize) + guardTexels, faceSize);
+        return new int[]{x0, y0, x1 - x0, y1 - y0};
+    }
+
+    /**
+     * Returns whether a pixel rectangle covers the whole face.
+     *
+     * @param rect rectangle from {@link #pixelRect}
+     * @param faceSize the face edge length in pixels
+     * @return {@code true} when no scissor is needed
+     */
+    public static boolean coversFace(int[] rect, int faceSize) {
+        return rect[0] == 0 && rect[1] == 0 && rect[2] == faceSize && rect[3] == faceSize;
+    }
+
+    /**
+     * Returns whether a rendered region already holds every pixel of a requested one.
+     *
+     * @param rendered rectangle shaded earlier, or {@code null} for the whole face
+     * @param requested rectangle now needed, or {@code null} for the whole face
+     * @return {@code true} when {@code requested} lies inside {@code rendered}
+     */
+    public static boolean contains(int[] rendered, int[] requested) {
+        if (rendered == null) {
+            return true;
+        }
+        if (requested == null) {
+            return false;
+        }
+        return requested[0] >= rendered[0] && requested[1] >= rendered[1]
+                && requested[0] + requested[2] <= rendered[0] + rendered[2]
+                && requested[1] + requested[3] <= rendered[1] + rendered[3];
+    }
+
+    /**
+     * Finds the visible extent along one face line {@code p(w) = c + w * dir}, with {@code dot(p, axis)}
+     * equal to {@code offset + slope * w} and {@code |p|^2 = 1 + fixed^2 + w^2}.
+     */
+    private static boolean visibleRange(double offset, double slope, double fixed, double cosCap, double[] range) {
+        double base = 1.0 + fixed * fixed;
+        double[] candidates = new double[8];
+        int count = 0;
+        candidates[count++] = -1.0;
+        candidates[count++] = 1.0;
+        if (slope != 0.0) {
+            candidates[count++] = -offset / slope;
+        }
+        // (offset + slope * w)^2 - cosCap^2 * (base + w^2) = 0
+        double k2 = cosCap * cosCap;
+        double a = slope * slope - k2;
+        double b = 2.0 * offset * slope;
+        double c = offset * offset - k2 * base;
+        if (Math.abs(a) > 1e-12) {
+            double discriminant = b * b - 4.0 * a * c;
+            if (discriminant >= 0.0) {
+                double root = Math.sqrt(discriminant);
+                candidates[count++] = (-b - root) / (2.0 * a);
+                candidates[count++] = (-b + root) / (2.0 * a);
+            }
+        } else if (b != 0.0) {
+            candidates[count++] = -c / b;
+        }
+        Arrays.sort(candidates, 0, count);
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double previous = Double.NaN;
+        for (int i = 0; i < count; i++) {
+            double w = candidates[i];
+            if (w < -1.0 || w > 1.0) {
+                continue;
+            }
+            if (!Double.isNaN(previous)) {
+                double middle = 0.5 * (previous + w);
+                if (inside(offset + slope * middle, base + middle * middle, cosCap)) {
+                    min = Math.min(min, previous);
+                    max = Math.max(max, w);
+                }
+            }
+            if (inside(offset + slope * w, base + w * w, cosCap)) {
+                min = Math.min(min, w);
+                max = Math.max(max, w);
+            }
+            previous = w;
+        }
+        if (min > max) {
+            return false;
+        }
+        range[0] = min;
+        range[1] = max;
+        return true;
+    }
+
+    private static boolean inside(double projection, double lengthSquared, double cosCap) {
+        return projection >= cosCap * Math.sqrt(lengthSquared);
+    }
+
+    private static void include(double[] bounds, int index, double low, double high) {
+        bounds[index] = Math.min(bounds[index], low);
+        bounds[index + 1] = Math.max(bounds[index + 1], high);
+    }
+
+    private static float toUv(double coordinate) {
+        return (float) (0.5 * (Math.max(-1.0, Math.min(1.0, coordinate)) + 1.0));
+    }
+
+    private static int clamp(int value, int max) {
+        return value < 0 ? 0 : Math.min(value, max);
+    }
+
+    private static double dot(double[] a, double[] b) {
+        return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+    }
+}
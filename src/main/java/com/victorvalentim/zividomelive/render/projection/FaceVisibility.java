@@ -0,0 +1,124 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+/**
+ * Analytic test of which cube faces a dome of a given field of view can sample.
+ * <p>
+ * The dome samples every direction within {@code fov / 2} of its axis, a spherical cap. A face is
+ * reachable when the angular distance from the axis to the face's spherical square is within the cap
+ * radius; the distance is zero when the axis pierces the face, and otherwise the distance to the
+ * nearest of its four edge arcs. At 180 degrees only the back face is unreachable; it becomes
+ * reachable above roughly 250.5 degrees, where the cap first touches its corners.
+ * </p>
+ * <p>
+ * Masks use bit {@code i} for face {@code i} in the {@code +X, -X, +Y, -Y, +Z, -Z} order of
+ * {@link com.victorvalentim.zividomelive.render.CubemapRenderer}.
+ * </p>
+ */
+public final class FaceVisibility {
+
+    /** Mask with all six faces set. */
+    public static final int ALL_FACES = (1 << CubemapSampler.NUM_FACES) - 1;
+
+    // Outward normal axis (0 = X, 1 = Y, 2 = Z) and sign per face
+    private static final int[] NORMAL_AXIS = {0, 0, 1, 1, 2, 2};
+    private static final float[] NORMAL_SIGN = {1f, -1f, 1f, -1f, 1f, -1f};
+
+    private FaceVisibility() {
+        // Utility class
+    }
+
+    /**
+     * Computes the faces a dome can sample.
+     *
+     * @param axisX dome axis X component in cubemap space
+     * @param axisY dome axis Y component in cubemap space
+     * @param axisZ dome axis Z component in cubemap space
+     * @param fov the dome field of view in degrees; values above 360 are clamped
+     * @param guardRadians extra angular margin added to the cap, for example to cover filter taps
+     * @return bit mask of reachable faces
+     */
+    public static int visibleFaceMask(float axisX, float axisY, float axisZ, float fov, float guardRadians) {
+        double length = Math.sqrt(axisX * axisX + axisY * axisY + axisZ * axisZ);
+        if (length == 0.0 || Float.isNaN(fov)) {
+            return ALL_FACES;
+        }
+        double[] axis = {axisX / length, axisY / length, axisZ / length};
+        double capRadius = Math.toRadians(Math.min(fov, 360f)) / 2.0 + Math.max(0f, guardRadians);
+        if (capRadius >= Math.PI) {
+            return ALL_FACES;
+        }
+        int mask = 0;
+        for (int face = 0; face < CubemapSampler.NUM_FACES; face++) {
+            if (angularDistance(axis, face) <= capRadius) {
+                mask |= 1 << face;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the smallest angle between a unit direction and any direction on a cube face.
+     *
+     * @param axis unit direction
+     * @param face face index in {@code [0, 5]}
+     * @return the angular distance in radians, {@code 0} when the direction falls on the face
+     */
+    static double angularDistance(double[] axis, int face) {
+        int n = NORMAL_AXIS[face];
+        int i = (n + 1) % 3;
+        int j = (n + 2) % 3;
+        double along = axis[n] * NORMAL_SIGN[face];
+        if (along > 0.0 && Math.abs(axis[i]) <= along && Math.abs(axis[j]) <= along) {
+            return 0.0;
+        }
+        double[][] corners = new double[4][];
+        double[] signs = {-1, -1, 1, -1, 1, 1, -1, 1};
+        for (int c = 0; c < 4; c++) {
+            double[] corner = new double[3];
+            corner[n] = NORMAL_SIGN[face];
+            corner[i] = signs[c * 2];
+            corner[j] = signs[c * 2 + 1];
+            corners[c] = normalize(corner);
+        }
+        double best = Math.PI;
+        for (int c = 0; c < 4; c++) {
+            best = Math.min(best, angleToArc(axis, corners[c], corners[(c + 1) % 4]));
+        }
+        return best;
+    }
+
+    private static double angleToArc(double[] a, double[] p, double[] q) {
+        double[] m = normalize(cross(p, q));
+        double h = dot(a, m);
+        double[] t = {a[0] - h * m[0], a[1] - h * m[1], a[2] - h * m[2]};
+        double tLength = Math.sqrt(dot(t, t));
+        if (tLength > 1e-12) {
+            double[] tn = {t[0] / tLength, t[1] / tLength, t[2] / tLength};
+            if (dot(cross(p, tn), m) >= 0.0 && dot(cross(tn, q), m) >= 0.0) {
+                return Math.atan2(Math.abs(h), tLength);
+            }
+        }
+        return Math.min(angle(a, p), angle(a, q));
+    }
+
+    private static double angle(double[] a, double[] b) {
+        return Math.acos(Math.max(-1.0, Math.min(1.0, dot(a, b))));
+    }
+
+    private static double dot(double[] a, double[] b) {
+        return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+    }
+
+    private static double[] cross(double[] a, double[] b) {
+        return new double[]{
+                a[1] * b[2] - a[2] * b[1],
+                a[2] * b[0] - a[0] * b[2],
+                a[0] * b[1] - a[1] * b[0]
+        };
+    }
+
+    private static double[] normalize(double[] v) {
+        double length = Math.sqrt(dot(v, v));
+        return new double[]{v[0] / length, v[1] / length, v[2] / length};
+    }
+}
@@ -0,0 +1,121 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+/**
+ * Row-major 3x3 rotations applied to projection directions before the cube face lookup.
+ * <p>
+ * When cube faces are captured without the spherical orientation, a projection pass rotates each of its
+ * directions instead: the pixel that looks along {@code d} samples the faces along {@code R * d}. The result
+ * matches faces captured with the orientation baked into every face camera, so pitch, yaw and roll changes
+ * re-project the existing faces instead of rendering the scene six more times.
+ * </p>
+ */
+public final class ProjectionRotation {
+
+    /** Number of elements in a rotation matrix. */
+    public static final int LENGTH = 9;
+
+    private ProjectionRotation() {
+        // Utility class
+    }
+
+    /**
+     * Returns a new identity rotation.
+     *
+     * @return the row-major identity matrix
+     */
+    public static float[] identity() {
+        return new float[]{1f, 0f, 0f, 0f, 1f, 0f, 0f, 0f, 1f};
+    }
+
+    /**
+     * Returns the projection rotation equivalent to a spherical orientation baked into the face cameras.
+     * <p>
+     * A face camera that applies the rotation of {@code q} to the scene shows, along {@code d}, what lies
+     * along {@code q^-1 * d}; the returned matrix is therefore the rotation of the conjugate quaternion.
+     * The quaternion is normalised first.
+     * </p>
+     *
+     * @param x quaternion X component
+     * @param y quaternion Y component
+     * @param z quaternion Z component
+     * @param w quaternion W component
+     * @return the row-major projection rotation, or the identity for a zero quaternion
+     */
+    public static float[] fromOrientation(float x, float y, float z, float w) {
+        double length = Math.sqrt(x * x + y * y + z * z + w * w);
+        if (length == 0.0 || Double.isNaN(length)) {
+            return identity();
+        }
+        double qx = -x / length;
+        double qy = -y / length;
+        double qz = -z / length;
+        double qw = w / length;
+        return new float[]{
+                (float) (1.0 - 2.0 * (qy * qy + qz * qz)),
+                (float) (2.0 * (qx * qy - qw * qz)),
+                (float) (2.0 * (qx * qz + qw * qy)),
+                (float) (2.0 * (qx * qy + qw * qz)),
+                (float) (1.0 - 2.0 * (qx * qx + qz * qz)),
+                (float) (2.0 * (qy * qz - qw * qx)),
+                (float) (2.0 * (qx * qz - qw * qy)),
+                (float) (2.0 * (qy * qz + qw * qx)),
+                (float) (1.0 - 2.0 * (qx * qx + qy * qy))
+        };
+    }
+
+    /**
+     * Returns whether a matrix is exactly the identity, so callers can skip the rotation.
+     *
+     * @param rotation row-major rotation
+     * @return {@code true} for the identity
+     */
+    public static boolean isIdentity(float[] rotation) {
+        return rotation[0] == 1f && rotation[4] == 1f && rotation[8] == 1f
+                && rotation[1] == 0f && rotation[2] == 0f && rotation[3] == 0f
+                && rotation[5] == 0f && rotation[6] == 0f && rotation[7] == 0f;
+    }
+
+    /**
+     * Rotates a direction in place.
+     *
+     * @param rotation row-major rotation
+     * @param direction three-element direction, replaced by {@code rotation * direction}
+     */
+    public static void rotate(float[] rotation, float[] direction) {
+        float x = direction[0];
+        float y = direction[1];
+        float z = direction[2];
+        direction[0] = rotation[0] * x + rotation[1] * y + rotation[2] * z;
+        direction[1] = rotation[3] * x + rotation[4] * y + rotation[5] * z;
+        direction[2] = rotation[6] * x + rotation[7] * y + rotation[8] * z;
+    }
+
+    /**
+     * Returns where the dome centre, {@code +Z} in projection space, lands on the cube.
+     *
+     * @param rotation row-major rotation
+     * @return the unit dome axis in cubemap space
+     */
+    public static float[] domeAxis(float[] rotation) {
+        return new float[]{rotation[2], rotation[5], rotation[8]};
+    }
+
+    /**
+     * Validates and copies a rotation.
+     *
+     * @param rotation row-major rotation
+     * @return a defensive copy
+     * @throws IllegalArgumentException if the matrix is null, not 3x3, or not finite
+     */
+    public static float[] copyOf(float[] rotation) {
+        if (rotation == null || rotation.length != LENGTH) {
+            throw new IllegalArgumentException("rotation must hold " + LENGTH + " elements");
+        }
+        for (float value : rotation) {
+            if (!Float.isFinite(value)) {
+                throw new IllegalArgumentException("rotation must be finite");
+            }
+        }
+        return rotation.clone();
+    }
+}
@@ -0,0 +1,172 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import com.victorvalentim.zividomelive.support.PixelKernels;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Integer bilinear resampler driven by a {@link ResampleTable}.
+ * <p>
+ * Work proceeds in chunks of {@link #CHUNK} pixels. A gather loop first copies the four taps and the weight
+ * of every pixel into a scratch buffer; {@link PixelKernels#blendBilinear} then blends them with
+ * straight-line integer arithmetic, using the Vector API when it is enabled. Blending uses the packed
+ * two-channel form: red/blue and alpha/green are each interpolated as two 16-bit lanes of one {@code int}
+ * with 8-bit weights, first horizontally and then vertically, with rounding at each step.
+ * </p>
+ * <p>
+ * {@link #resampleRows} performs no allocation at all when the caller supplies the scratch buffer;
+ * {@link #resample} splits rows across a {@link ForkJoinPool} and reuses one scratch buffer per worker thread.
+ * </p>
+ */
+public class ResampleKernel {
+
+    /** Pixels gathered and blended per inner pass. */
+    public static final int CHUNK = 256;
+
+    /** Length of the scratch buffer {@link #resampleRows} requires. */
+    public static final int SCRATCH_LENGTH = 5 * CHUNK;
+
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[SCRATCH_LENGTH]);
+
+    private final ForkJoinPool pool;
+    private final int rowsPerTask;
+
+    /**
+     * Creates a kernel that runs on the common fork/join pool.
+     */
+    public ResampleKernel() {
+        this(ForkJoinPool.commonPool(), EquirectangularProjector.DEFAULT_ROWS_PER_TASK);
+    }
+
+    /**
+     * Creates a kernel that runs on the given pool.
+     *
+     * @param pool the fork/join pool used to process rows
+     * @param rowsPerTask the row count below which work is no longer split
+     * @throws IllegalArgumentException if {@code pool} is null or {@code rowsPerTask} is not positive
+     */
+    public ResampleKernel(ForkJoinPool pool, int rowsPerTask) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        if (rowsPerTask <= 0) {
+            throw new IllegalArgumentException("rowsPerTask must be positive");
+        }
+        this.pool = pool;
+        this.rowsPerTask = rowsPerTask;
+    }
+
+    /**
+     * Resamples the sources into the target in parallel.
+     *
+     * @param table the resampling plan
+     * @param sources ARGB source buffers, as many as {@link ResampleTable#getSourceCount()}
+     * @param target the destination buffer of at least {@code width * height} pixels
+     * @throws IllegalArgumentException if a buffer does not fit the table
+     */
+    public void resample(ResampleTable table, int[][] sources, int[] target) {
+        validate(table, sources, target);
+        pool.invoke(new RowTask(table, sources, target, 0, table.getHeight(), rowsPerTask));
+    }
+
+    /**
+     * Resamples a band of rows on the calling thread without allocating.
+     *
+     * @param table the resampling plan
+     * @param sources ARGB source buffers, as many as {@link ResampleTable#getSourceCount()}
+     * @param target the destination buffer of at least {@code width * height} pixels
+     * @param startRow first row to write
+     * @param endRow row after the last row to write
+     * @param scratch working buffer of at least {@link #SCRATCH_LENGTH} ints
+     * @throws IllegalArgumentException if a buffer does not fit the table
+     */
+    public static void resampleRows(ResampleTable table, int[][] sources, int[] target,
+                                    int startRow, int endRow, int[] scratch) {
+        validate(table, sources, target);
+        if (scratch == null || scratch.length < SCRATCH_LENGTH) {
+            throw new IllegalArgumentException("scratch must hold " + SCRATCH_LENGTH + " ints");
+        }
+        int width = table.getWidth();
+        int end = Math.min(endRow, table.getHeight()) * width;
+        for (int start = Math.max(0, startRow) * width; start < end; start += CHUNK) {
+            int count = Math.min(CHUNK, end - start);
+            gather(table, sources, start, count, scratch);
+            PixelKernels.blendBilinear(scratch, CHUNK, count, target, start);
+        }
+    }
+
+    private static void gather(ResampleTable table, int[][] sources, int start, int count, int[] scratch) {
+        int[] taps = table.taps;
+        char[] weights = table.weights;
+        int sourceWidth = table.getSourceWidth();
+        for (int i = 0; i < count; i++) {
+            int tap = taps[start + i];
+            scratch[4 * CHUNK + i] = weights[start + i];
+            if (tap < 0) {
+                scratch[i] = 0;
+                scratch[CHUNK + i] = 0;
+                scratch[2 * CHUNK + i] = 0;
+                scratch[3 * CHUNK + i] = 0;
+                continue;
+            }
+            int[] source = sources[tap >>> ResampleTable.SOURCE_SHIFT];
+            int topLeft = tap & ResampleTable.OFFSET_MASK;
+            int stepX = (tap & ResampleTable.STEP_X_BIT) != 0 ? 1 : 0;
+            int bottomLeft = (tap & ResampleTable.STEP_Y_BIT) != 0 ? topLeft + sourceWidth : topLeft;
+            scratch[i] = source[topLeft];
+            scratch[CHUNK + i] = source[topLeft + stepX];
+            scratch[2 * CHUNK + i] = source[bottomLeft];
+            scratch[3 * CHUNK + i] = source[bottomLeft + stepX];
+        }
+    }
+
+    private static void validate(ResampleTable table, int[][] sources, int[] target) {
+        if (table == null) {
+            throw new IllegalArgumentException("table cannot be null");
+        }
+        if (sources == null || sources.length < table.getSourceCount()) {
+            throw new IllegalArgumentException(table.getSourceCount() + " source buffers are required");
+        }
+        int sourcePixels = table.getSourceWidth() * table.getSourceHeight();
+        for (int i = 0; i < table.getSourceCount(); i++) {
+            if (sources[i] == null || sources[i].length < sourcePixels) {
+                throw new IllegalArgumentException("Source " + i + " is smaller than "
+                        + table.getSourceWidth() + "x" + table.getSourceHeight());
+            }
+        }
+        if (target == null || target.length < table.getWidth() * table.getHeight()) {
+            throw new IllegalArgumentException("Target buffer is smaller than "
+                    + table.getWidth() + "x" + table.getHeight());
+        }
+    }
+
+    private static final class RowTask extends RecursiveAction {
+        private final ResampleTable table;
+        private final int[][] sources;
+        private final int[] target;
+        private final int startRow;
+        private final int endRow;
+        private final int threshold;
+
+        RowTask(ResampleTable table, int[][] sources, int[] target, int startRow, int endRow, int threshold) {
+            this.table = table;
+            this.sources = sources;
+            this.target = target;
+            this.startRow = startRow;
+            this.endRow = endRow;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (endRow - startRow <= threshold) {
+                resampleRows(table, sources, target, startRow, endRow, SCRATCH.get());
+                return;
+            }
+            int mid = (startRow + endRow) >>> 1;
+            invokeAll(new RowTask(table, sources, target, startRow, mid, threshold),
+                    new RowTask(table, sources, target, mid, endRow, threshold));
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Precomputed bilinear resampling plan for one projection: which source texels every target pixel reads
+ * and with which fixed-point weights.
+ * <p>
+ * Each target pixel stores one packed tap word and one weight word. The tap holds the source buffer index
+ * (the cube face for cubemap sources), the offset of the top-left texel within that buffer, and whether the
+ * right and lower neighbours exist or are clamped onto the same texel. The weight word holds the horizontal
+ * and vertical fractions as 8-bit values, {@code 0..255} meaning {@code 0..255/256}. Pixels with no source,
+ * such as those outside the dome disc, hold {@link #NO_TAP}. {@link ResampleKernel} consumes the table with
+ * integer arithmetic only, so the trigonometry of the mapping runs once per table instead of once per pixel
+ * per frame.
+ * </p>
+ * <p>
+ * Tables depend only on sizes, FOV, Size% and projection rotation. Unrotated tables are immutable and shared
+ * through a least-recently-used cache bounded by {@link #CACHE_BYTES}; a table larger than the budget is not
+ * cached. Rotated tables are never cached, since every rotation would be a new entry: the projectors keep
+ * their current table and, when the rotation changes, rebuild it into the same tap and weight arrays.
+ * </p>
+ */
+public final class ResampleTable {
+
+    /** Tap value of a target pixel that stays transparent. */
+    public static final int NO_TAP = -1;
+
+    /** Largest source buffer, in pixels, a tap offset can address. */
+    public static final int MAX_SOURCE_PIXELS = 1 << 26;
+
+    static final int OFFSET_MASK = MAX_SOURCE_PIXELS - 1;
+    static final int STEP_X_BIT = 1 << 26;
+    static final int STEP_Y_BIT = 1 << 27;
+    static final int SOURCE_SHIFT = 28;
+
+    /** Largest total size, in bytes, of the unrotated tables kept by the shared cache. */
+    public static final long CACHE_BYTES = 128L << 20;
+
+    /** Bytes of table data per target pixel: one tap word and one weight word. */
+    static final int BYTES_PER_PIXEL = Integer.BYTES + Character.BYTES;
+
+    private static final Map<Key, ResampleTable> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cachedBytes;
+
+    private final Key key;
+    private final float[] rotation;
+    private final boolean shared;
+    private final int width;
+    private final int height;
+    private final int sourceCount;
+    private final int sourceWidth;
+    private final int sourceHeight;
+    final int[] taps;
+    final char[] weights;
+
+    private ResampleTable(Key key, float[] rotation, boolean shared, int width, int height, int sourceCount,
+                          int sourceWidth, int sourceHeight, ResampleTable recycled) {
+        this.key = key;
+        this.rotation = rotation;
+        this.shared = shared;
+        this.width = width;
+        this.height = height;
+        this.sourceCount = sourceCount;
+        this.sourceWidth = sourceWidth;
+        this.sourceHeight = sourceHeight;
+        if (recycled != null && recycled.taps.length == width * height) {
+            this.taps = recycled.taps;
+            this.weights = recycled.weights;
+        } else {
+            this.taps = new int[width * height];
+            this.weights = new char[width * height];
+        }
+    }
+
+    /**
+     * Returns the table that resamples six cube faces into an equirectangular frame.
+     * <p>
+     * The direction of every pixel follows {@code shaders/equirectangular.frag}, so the result matches
+     * {@link CubemapSampler#sample} up to the 8-bit weight quantisation.
+     * </p>
+     *
+     * @param faceSize the edge length of every face in pixels
+     * @param width the equirectangular frame width
+     * @param height the equirectangular frame height
+     * @return the shared table for these parameters
+     * @throws IllegalArgumentException if a size is not positive or a face is too large
+     */
+    public static ResampleTable forEquirectangular(int faceSize, int width, int height) {
+        return forEquirectangular(faceSize, width, height, ProjectionRotation.identity());
+    }
+
+    /**
+     * Returns the table that resamples six cube faces captured without the spherical orientation into an
+     * equirectangular frame that applies it.
+     *
+     * @param faceSize the edge length of every face in pixels
+     * @param width the equirectangular frame width
+     * @param height the equirectangular frame height
+     * @param rotation row-major projection rotation, see {@link ProjectionRotation}
+     * @return the shared table for the identity rotation, otherwise a new uncached table
+     * @throws IllegalArgumentException if a size is not positive, a face is too large, or {@code rotation}
+     *         is not a finite 3x3 matrix
+     */
+    public static ResampleTable forEquirectangular(int faceSize, int width, int height, float[] rotation) {
+        return forEquirectangular(faceSize, width, height, rotation, null);
+    }
+
+    /**
+     * Returns {@code previous} if it was built for these parameters, otherwise the table for them, rebuilt into
+     * the arrays of {@code previous} when it is rotated or uncached and has the same pixel count.
+     *
+     * @param previous the table the caller used last, or {@code null}
+     */
+    static ResampleTable forEquirectangular(int faceSize, int width, int height, float[] rotation,
+                                            ResampleTable previous) {
+        if (faceSize <= 0 || width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Sizes must be positive");
+        }
+        float[] frameRotation = ProjectionRotation.copyOf(rotation);
+        requireAddressable(faceSize, faceSize);
+        Key key = new Key(0, faceSize, width, height);
+        return obtain(key, frameRotation, previous, width, height, table -> fillEquirectangular(table, faceSize));
+    }
+
+    /**
+     * Returns the table that resamples six cube faces captured without the spherical orientation straight
+     * into a square domemaster that applies it.
+     * <p>
+     * The direction of every pixel follows {@link DomemasterProjector#direction}, Size% included; pixels
+     * outside the dome disc hold {@link #NO_TAP}.
+     * </p>
+     *
+     * @param faceSize the edge length of every face in pixels
+     * @param resolution the domemaster edge length in pixels
+     * @param fov the dome field of view in degrees
+     * @param sizePercentage the dome diameter as a percentage of the frame, {@code 0..100}
+     * @param rotation row-major projection rotation, see {@link ProjectionRotation}
+     * @return the shared table for the identity rotation, otherwise a new uncached table
+     * @throws IllegalArgumentException if a size is not positive, a face is too large, or {@code rotation}
+     *         is not a finite 3x3 matrix
+     */
+    public static ResampleTable forCubemapDomemaster(int faceSize, int resolution, float fov, float sizePercentage,
+                                                     float[] rotation) {
+        return forCubemapDomemaster(faceSize, resolution, fov, sizePercentage, rotation, null);
+    }
+
+    /**
+     * Returns {@code previous} if it was built for these parameters, otherwise the table for them, rebuilt into
+     * the arrays of {@code previous} when it is rotated or uncached and has the same pixel count.
+     *
+     * @param previous the table the caller used last, or {@code null}
+     */
+    static ResampleTable forCubemapDomemaster(int faceSize, int resolution, float fov, float sizePercentage,
+                                              float[] rotation, ResampleTable previous) {
+        if (faceSize <= 0 || resolution <= 0) {
+            throw new IllegalArgumentException("Sizes must be positive");
+        }
+        float[] domeRotation = ProjectionRotation.copyOf(rotation);
+        requireAddressable(faceSize, faceSize);
+        Key key = new Key(2, faceSize, resolution, Float.floatToIntBits(fov), Float.floatToIntBits(sizePercentage));
+        return obtain(key, domeRotation, previous, resolution, resolution, table -> fillCubemapDomemaster(table,
+                faceSize, new DomemasterProjector.Geometry(resolution, fov, sizePercentage, table.rotation)));
+    }
+
+    /**
+     * Returns the table that resamples an equirectangular frame into a square domemaster.
+     * <p>
+     * Sample coordinates come from {@link WarpTable#forDomemaster(int, float)}; the result matches
+     * {@link WarpTable#remap} up to the 8-bit weight quantisation.
+     * </p>
+     *
+     * @param resolution the domemaster edge length in pixels
+     * @param fov the dome field of view in degrees
+     * @param equirectangularWidth the source frame width
+     * @param equirectangularHeight the source frame height
+     * @return the shared table for these parameters, or a new one if it exceeds the cache budget
+     * @throws IllegalArgumentException if a size is not positive or the source is too large
+     */
+    public static ResampleTable forDomemaster(int resolution, float fov, int equirectangularWidth,
+                                              int equirectangularHeight) {
+        if (resolution <= 0 || equirectangularWidth <= 0 || equirectangularHeight <= 0) {
+            throw new IllegalArgumentException("Sizes must be positive");
+        }
+        requireAddressable(equirectangularWidth, equirectangularHeight);
+        Key key = new Key(1, resolution, equirectangularWidth, equirectangularHeight, Float.floatToIntBits(fov));
+        return obtain(key, null, null, resolution, resolution,
+                table -> fillDomemaster(table, WarpTable.forDomemaster(resolution, fov)));
+    }
+
+    /**
+     * Returns the total size of the tables held by the shared cache.
+     *
+     * @return the cached table data in bytes, at most {@link #CACHE_BYTES}
+     */
+    public static long getCachedBytes() {
+        synchronized (CACHE) {
+            return cachedBytes;
+        }
+    }
+
+    /**
+     * Reuses {@code previous} when it matches, serves unrotated tables from the cache, and builds the rest.
+     */
+    private static ResampleTable obtain(Key key, float[] rotation, ResampleTable previous, int width, int height,
+                                        Consumer<ResampleTable> fill) {
+        float[] tableRotation = rotation == null || ProjectionRotation.isIdentity(rotation) ? null : rotation;
+        if (previous != null && previous.key.equals(key) && Arrays.equals(previous.rotation, tableRotation)) {
+            return previous;
+        }
+        ResampleTable recycled = previous != null && !previous.shared ? previous : null;
+        long bytes = (long) width * height * BYTES_PER_PIXEL;
+        if (tableRotation != null || bytes > CACHE_BYTES) {
+            ResampleTable table = key.create(tableRotation, false, width, height, recycled);
+            fill.accept(table);
+            return table;
+        }
+        synchronized (CACHE) {
+            ResampleTable table = CACHE.get(key);
+            if (table == null) {
+                table = key.create(null, true, width, height, null);
+                fill.accept(table);
+                CACHE.put(key, table);
+                cachedBytes += bytes;
+                Iterator<ResampleTable> eldest = CACHE.values().iterator();
+                while (cachedBytes > CACHE_BYTES) {
+                    cachedBytes -= eldest.next().byteSize();
+                    eldest.remove();
+                }
+            }
+            return table;
+        }
+    }
+
+    private long byteSize() {
+        return (long) taps.length * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Returns the target width.
+     *
+     * @return the width in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the target height.
+     *
+     * @return the height in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of source buffers the table reads.
+     *
+     * @return six for cubemap sources, one for an equirectangular source
+     */
+    public int getSourceCount() {
+        return sourceCount;
+    }
+
+    /**
+     * Returns the width every source buffer must have.
+     *
+     * @return the source width in pixels
+     */
+    public int getSourceWidth() {
+        return sourceWidth;
+    }
+
+    /**
+     * Returns the height every source buffer must have.
+     *
+     * @return the source height in pixels
+     */
+    public int getSourceHeight() {
+        return sourceHeight;
+    }
+
+    private static void fillEquirectangular(ResampleTable table, int faceSize) {
+        int width = table.width;
+        int height = table.height;
+        // The direction is separable: one sine and cosine per column and per row
+        float[] sinTheta = new float[width];
+        float[] cosTheta = new float[width];
+        for (int x = 0; x < width; x++) {
+            float theta = (x + 0.5f) / width * 2f * (float) Math.PI;
+            sinTheta[x] = (float) Math.sin(theta);
+            cosTheta[x] = (float) Math.cos(theta);
+        }
+        float[] direction = new float[3];
+        float[] uv = new float[2];
+        for (int row = 0; row < height; row++) {
+            // gl_FragCoord.y grows upwards while Processing rows grow downwards
+            float phi = (1f - (row + 0.5f) / height) * (float) Math.PI;
+            float sinPhi = (float) Math.sin(phi);
+            float cosPhi = (float) Math.cos(phi);
+            for (int x = 0; x < width; x++) {
+                // The shader mirrors X and Z to rotate the seam 180 degrees around the vertical axis
+                direction[0] = -sinPhi * sinTheta[x];
+                direction[1] = cosPhi;
+                direction[2] = -sinPhi * cosTheta[x];
+                if (table.rotation != null) {
+                    ProjectionRotation.rotate(table.rotation, direction);
+                }
+                int face = CubemapSampler.toFaceUv(direction[0], direction[1], direction[2], uv);
+                table.set(row * width + x, face, uv[0] * faceSize - 0.5f, (1f - uv[1]) * faceSize - 0.5f);
+            }
+        }
+    }
+
+    private static void fillCubemapDomemaster(ResampleTable table, int faceSize,
+                                              DomemasterProjector.Geometry geometry) {
+        int resolution = geometry.resolution;
+        float[] direction = new float[3];
+        float[] uv = new float[2];
+        for (int row = 0; row < resolution; row++) {
+            for (int x = 0; x < resolution; x++) {
+                int index = row * resolution + x;
+                if (!geometry.direction(x, row, direction)) {
+                    table.taps[index] = NO_TAP;
+                    continue;
+                }
+                if (geometry.rotation != null) {
+                    ProjectionRotation.rotate(geometry.rotation, direction);
+                }
+                int face = CubemapSampler.toFaceUv(direction[0], direction[1], direction[2], uv);
+                table.set(index, face, uv[0] * faceSize - 0.5f, (1f - uv[1]) * faceSize - 0.5f);
+            }
+        }
+    }
+
+    private static void fillDomemaster(ResampleTable table, WarpTable warp) {
+        int resolution = warp.getResolution();
+        for (int i = 0; i < resolution * resolution; i++) {
+            if (!warp.isInside(i)) {
+                table.taps[i] = NO_TAP;
+                continue;
+            }
+            table.set(i, 0, warp.getU(i) * table.sourceWidth - 0.5f,
+                    (1f - warp.getV(i)) * table.sourceHeight - 0.5f);
+        }
+    }
+
+    /**
+     * Records the clamp-to-edge bilinear footprint of a continuous source position.
+     */
+    private void set(int index, int source, float px, float py) {
+        int x0 = (int) Math.floor(px);
+        int y0 = (int) Math.floor(py);
+        int wx = Math.round((px - x0) * 256f);
+        int wy = Math.round((py - y0) * 256f);
+        if (wx == 256) {
+            x0++;
+            wx = 0;
+        }
+        if (wy == 256) {
+            y0++;
+            wy = 0;
+        }
+        int left = clamp(x0, sourceWidth - 1);
+        int right = clamp(x0 + 1, sourceWidth - 1);
+        int top = clamp(y0, sourceHeight - 1);
+        int bottom = clamp(y0 + 1, sourceHeight - 1);
+        int tap = (source << SOURCE_SHIFT) | (top * sourceWidth + left);
+        if (right != left) {
+            tap |= STEP_X_BIT;
+        }
+        if (bottom != top) {
+            tap |= STEP_Y_BIT;
+        }
+        taps[index] = tap;
+        weights[index] = (char) ((wx << 8) | wy);
+    }
+
+    private static void requireAddressable(int sourceWidth, int sourceHeight) {
+        if ((long) sourceWidth * sourceHeight > MAX_SOURCE_PIXELS) {
+            throw new IllegalArgumentException("Source of " + sourceWidth + "x" + sourceHeight
+                    + " exceeds " + MAX_SOURCE_PIXELS + " pixels");
+        }
+    }
+
+    private static int clamp(int value, int max) {
+        return value < 0 ? 0 : Math.min(value, max);
+    }
+
+    /** Geometry of a table: its kind followed by its sizes and the bits of FOV and Size%, never the rotation. */
+    private static final class Key {
+        private final int[] values;
+
+        Key(int... values) {
+            this.values = values;
+        }
+
+        ResampleTable create(float[] rotation, boolean shared, int width, int height, ResampleTable recycled) {
+            // Cubemap tables read six faces of values[1] pixels; the domemaster reads one equirectangular frame
+            boolean cubemap = values[0] != 1;
+            return new ResampleTable(this, rotation, shared, width, height,
+                    cubemap ? CubemapSampler.NUM_FACES : 1,
+                    cubemap ? values[1] : values[2], cubemap ? values[1] : values[3], recycled);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(values, ((Key) other).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+}
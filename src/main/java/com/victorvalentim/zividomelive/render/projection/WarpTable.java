@@ -0,0 +1,195 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+/**
+ * Precomputed domemaster warp: the equirectangular sample coordinate of every output pixel.
+ * <p>
+ * The fisheye mapping of {@code shaders/domemaster.frag} depends only on the output resolution and
+ * the field of view, so the polar conversion ({@code atan}, {@code length}, {@code sin}/{@code cos},
+ * {@code atan}, {@code asin}) is evaluated once per {@code (resolution, fov)} pair instead of once per
+ * pixel per frame. Tables are immutable and not cached: a table holds two floats per output pixel,
+ * 128 MB at 4K, so it lives only as long as its owner keeps it, as {@code FisheyeDomemaster} does
+ * until the FOV changes or it is disposed.
+ * </p>
+ * <p>
+ * Coordinates are stored as interleaved {@code (u, v)} pairs in OpenGL texture space of the
+ * equirectangular map, rows ordered top first like Processing pixels. Pixels outside the dome disc
+ * hold {@link Float#NaN}.
+ * </p>
+ */
+public final class WarpTable {
+
+    private final int resolution;
+    private final float fov;
+    private final float[] coordinates;
+
+    private WarpTable(int resolution, float fov) {
+        this.resolution = resolution;
+        this.fov = fov;
+        this.coordinates = build(resolution, fov);
+    }
+
+    /**
+     * Builds the warp table for a square domemaster.
+     *
+     * @param resolution the domemaster edge length in pixels
+     * @param fov the dome field of view in degrees; values above 360 are clamped as in the shader
+     * @return a new table for these parameters
+     * @throws IllegalArgumentException if {@code resolution} is not positive
+     */
+    public static WarpTable forDomemaster(int resolution, float fov) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("resolution must be positive");
+        }
+        return new WarpTable(resolution, fov);
+    }
+
+    /**
+     * Returns whether this table was built for the given parameters.
+     *
+     * @param resolution the domemaster edge length in pixels
+     * @param fov the dome field of view in degrees
+     * @return {@code true} if no rebuild is needed
+     */
+    public boolean matches(int resolution, float fov) {
+        return this.resolution == resolution && Float.compare(this.fov, fov) == 0;
+    }
+
+    /**
+     * Returns the domemaster edge length this table was built for.
+     *
+     * @return the resolution in pixels
+     */
+    public int getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Returns the field of view this table was built for.
+     *
+     * @return the field of view in degrees
+     */
+    public float getFov() {
+        return fov;
+    }
+
+    /**
+     * Returns the equirectangular {@code u} coordinate for an output pixel.
+     *
+     * @param index the pixel index, top row first
+     * @return {@code u} in {@code [0, 1)}, or {@link Float#NaN} outside the dome
+     */
+    public float getU(int index) {
+        return coordinates[index * 2];
+    }
+
+    /**
+     * Returns the equirectangular {@code v} coordinate for an output pixel.
+     *
+     * @param index the pixel index, top row first
+     * @return {@code v} in {@code [0, 1]} (OpenGL orientation), or {@link Float#NaN} outside the dome
+     */
+    public float getV(int index) {
+        return coordinates[index * 2 + 1];
+    }
+
+    /**
+     * Returns whether an output pixel lies inside the dome disc.
+     *
+     * @param index the pixel index, top row first
+     * @return {@code true} if the pixel is sampled
+     */
+    public boolean isInside(int index) {
+        return !Float.isNaN(coordinates[index * 2]);
+    }
+
+    /**
+     * Warps an equirectangular frame into a domemaster on the CPU.
+     * <p>
+     * Each pixel costs one table read and one bilinear fetch; pixels outside the dome become
+     * transparent black, matching the shader's {@code discard} on a cleared target.
+     * </p>
+     *
+     * @param equirectangular the equirectangular ARGB pixels, top row first
+     * @param width the equirectangular width
+     * @param height the equirectangular height
+     * @param target the destination buffer of at least {@code resolution * resolution} pixels
+     */
+    public void remap(int[] equirectangular, int width, int height, int[] target) {
+        if (equirectangular == null || equirectangular.length < width * height) {
+            throw new IllegalArgumentException("Equirectangular buffer is smaller than " + width + "x" + height);
+        }
+        int pixels = resolution * resolution;
+        if (target == null || target.length < pixels) {
+            throw new IllegalArgumentException("Target buffer is smaller than " + resolution + "x" + resolution);
+        }
+        for (int i = 0; i < pixels; i++) {
+            float u = coordinates[i * 2];
+            if (Float.isNaN(u)) {
+                target[i] = 0;
+                continue;
+            }
+            float v = coordinates[i * 2 + 1];
+            target[i] = CubemapSampler.sampleBilinear(equirectangular, width, height,
+                    u * width - 0.5f, (1f - v) * height - 0.5f);
+        }
+    }
+
+    /**
+     * Packs the table into ARGB pixels for upload as a lookup texture.
+     * <p>
+     * {@code u} and {@code v} are quantized to 16 bits and stored as {@code (R, G)} and
+     * {@code (B, A)} high/low byte pairs. Rows are emitted bottom first so that
+     * {@code texelFetch(table, ivec2(gl_FragCoord.xy), 0)} addresses the entry of the fragment being
+     * shaded. Pixels outside the dome are zero; the shader rejects them with its own radius test.
+     * </p>
+     *
+     * @return packed pixels for a {@code resolution x resolution} image
+     */
+    public int[] toPackedArgb() {
+        int[] packed = new int[resolution * resolution];
+        for (int row = 0; row < resolution; row++) {
+            int source = (resolution - 1 - row) * resolution;
+            int destination = row * resolution;
+            for (int x = 0; x < resolution; x++) {
+                int index = source + x;
+                if (!isInside(index)) {
+                    continue;
+                }
+                int u = Math.round(coordinates[index * 2] * 65535f);
+                int v = Math.round(coordinates[index * 2 + 1] * 65535f);
+                packed[destination + x] = (v & 0xFF) << 24 | (u >>> 8) << 16 | (u & 0xFF) << 8 | (v >>> 8);
+            }
+        }
+        return packed;
+    }
+
+    private static float[] build(int resolution, float fov) {
+        float[] table = new float[resolution * resolution * 2];
+        double maxTheta = Math.toRadians(Math.min(fov, 360f)) / 2.0;
+        for (int row = 0; row < resolution; row++) {
+            double uy = 2.0 * (row + 0.5) / resolution - 1.0;
+            for (int x = 0; x < resolution; x++) {
+                double ux = 2.0 * (x + 0.5) / resolution - 1.0;
+                double l = Math.sqrt(ux * ux + uy * uy);
+                int index = (row * resolution + x) * 2;
+                if (l > 1.0) {
+                    table[index] = Float.NaN;
+                    table[index + 1] = Float.NaN;
+                    continue;
+                }
+                // Dome centre looks down +Z; the radius maps linearly to the polar angle
+                double theta = l * maxTheta;
+                double radial = l > 0.0 ? Math.sin(theta) / l : 0.0;
+                double dx = radial * ux;
+                double dy = radial * uy;
+                double dz = Math.cos(theta);
+
+                double u = 0.5 + Math.atan2(dx, dz) / (2.0 * Math.PI);
+                double v = 0.5 - Math.asin(Math.max(-1.0, Math.min(1.0, dy))) / Math.PI;
+                table[index] = (float) (u - Math.floor(u));
+                table[index + 1] = (float) v;
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,415 @@
+package com.victorvalentim.zividomelive.support;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hot per-pixel loops shared by the CPU projection and the NDI conversion.
+ * <p>
+ * Each operation has a scalar implementation and, when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, a Vector API implementation that processes one hardware
+ * vector of pixels per iteration. The implementation is chosen once, when the class initialises: the
+ * vector one is used only if the module is resolved, the preferred vector shape holds at least four ints
+ * and every Vector API entry point links. Setting the system property {@value #SIMD_PROPERTY} to
+ * {@code false} forces the scalar path. Both implementations produce identical results.
+ * </p>
+ * <p>
+ * Frame conversions of at least {@link #PARALLEL_THRESHOLD} pixels are split into contiguous bands of
+ * pixels that are converted concurrently on the common fork/join pool. Conversions also accept an
+ * {@link IntBuffer} source, such as a view of a direct frame buffer; sources without an accessible array
+ * are staged through a bounded heap chunk per band.
+ * </p>
+ */
+public final class PixelKernels {
+
+	/** System property that disables the Vector API path when set to {@code false}. */
+	public static final String SIMD_PROPERTY = "zividomelive.simd";
+
+	/** Pixel count from which {@link #argbToRgba(int[], int, ByteBuffer)} converts in parallel. */
+	public static final int PARALLEL_THRESHOLD = 1 << 20;
+
+	/** Pixels converted by one fork/join leaf task. */
+	static final int PARALLEL_GRAIN = 1 << 18;
+
+	/** Pixels copied at a time out of a source buffer without an accessible array. */
+	static final int STAGING_PIXELS = 1 << 14;
+
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+	private static final String VECTOR_IMPLEMENTATION =
+			"com.victorvalentim.zividomelive.support.VectorPixelKernels";
+
+	private static final Kernels SCALAR = new ScalarPixelKernels();
+	private static final Kernels VECTOR = loadVector();
+	private static final Kernels ACTIVE =
+			VECTOR != null && !"false".equalsIgnoreCase(System.getProperty(SIMD_PROPERTY)) ? VECTOR : SCALAR;
+
+	private PixelKernels() {
+		// Private constructor to prevent instantiation
+	}
+
+	/**
+	 * Returns whether the Vector API implementation is in use.
+	 *
+	 * @return {@code true} when pixels are processed with SIMD vectors
+	 */
+	public static boolean isVectorized() {
+		return ACTIVE != SCALAR;
+	}
+
+	/**
+	 * Describes the implementation in use, for diagnostics.
+	 *
+	 * @return {@code "scalar"} or the Vector API shape, for example {@code "Vector API, 256-bit"}
+	 */
+	public static String describe() {
+		return ACTIVE.description();
+	}
+
+	/**
+	 * Writes ARGB pixels as packed RGBA bytes starting at index zero of the buffer.
+	 * <p>
+	 * Bytes are written at absolute indices, so the buffer position, limit and byte order are neither used
+	 * nor changed.
+	 * </p>
+	 *
+	 * @param argb source pixels
+	 * @param count number of pixels to convert
+	 * @param rgba destination holding at least {@code count * 4} bytes below its limit
+	 */
+	public static void argbToRgba(int[] argb, int count, ByteBuffer rgba) {
+		argbToRgba(argb, count, rgba, count >= PARALLEL_THRESHOLD ? ForkJoinPool.commonPool() : null);
+	}
+
+	/**
+	 * Writes ARGB pixels as packed RGBA bytes, splitting the work across the given pool.
+	 * <p>
+	 * Each task writes a disjoint band of the buffer at absolute indices. The call returns once every band
+	 * is written.
+	 * </p>
+	 *
+	 * @param argb source pixels
+	 * @param count number of pixels to convert
+	 * @param rgba destination holding at least {@code count * 4} bytes below its limit
+	 * @param pool the fork/join pool to convert on, or {@code null} to convert on the calling thread
+	 */
+	public static void argbToRgba(int[] argb, int count, ByteBuffer rgba, ForkJoinPool pool) {
+		argbToRgba(IntBuffer.wrap(argb), count, rgba, pool);
+	}
+
+	/**
+	 * Writes ARGB pixels read from a buffer as packed RGBA bytes starting at index zero of the destination.
+	 * <p>
+	 * The source is read at absolute indices from zero, so its position and limit are ignored. Frames of at
+	 * least {@link #PARALLEL_THRESHOLD} pixels are converted on the common fork/join pool.
+	 * </p>
+	 *
+	 * @param argb source pixels, for example a little-endian view of a direct frame buffer
+	 * @param count number of pixels to convert
+	 * @param rgba destination holding at least {@code count * 4} bytes below its limit
+	 */
+	public static void argbToRgba(IntBuffer argb, int count, ByteBuffer rgba) {
+		argbToRgba(argb, count, rgba, count >= PARALLEL_THRESHOLD ? ForkJoinPool.commonPool() : null);
+	}
+
+	/**
+	 * Writes ARGB pixels read from a buffer as packed RGBA bytes, splitting the work across the given pool.
+	 *
+	 * @param argb source pixels
+	 * @param count number of pixels to convert
+	 * @param rgba destination holding at least {@code count * 4} bytes below its limit
+	 * @param pool the fork/join pool to convert on, or {@code null} to convert on the calling thread
+	 */
+	public static void argbToRgba(IntBuffer argb, int count, ByteBuffer rgba, ForkJoinPool pool) {
+		if (pool == null || pool.getParallelism() < 2 || count <= PARALLEL_GRAIN) {
+			convertRgbaBand(ACTIVE, argb, 0, count, rgba);
+			return;
+		}
+		pool.invoke(new ConvertTask(ACTIVE, argb, rgba, 0, count));
+	}
+
+	/**
+	 * Encodes an ARGB frame as BT.709 UYVY 4:2:2 starting at index zero of the buffer.
+	 * <p>
+	 * Every horizontal pixel pair becomes four bytes {@code U, Y0, V, Y1} in limited range (luma 16..235,
+	 * chroma 16..240), computed with integer coefficients; chroma is the average of the pair and alpha is
+	 * discarded. Frames of at least {@link #PARALLEL_THRESHOLD} pixels are encoded by rows on the common
+	 * fork/join pool. Bytes are written at absolute indices, as for {@link #argbToRgba(int[], int, ByteBuffer)}.
+	 * </p>
+	 *
+	 * @param argb source pixels, row-major
+	 * @param width frame width in pixels, even
+	 * @param height frame height in pixels
+	 * @param uyvy destination holding at least {@code width * height * 2} bytes below its limit
+	 * @throws IllegalArgumentException if {@code width} is odd
+	 */
+	public static void argbToUyvy(int[] argb, int width, int height, ByteBuffer uyvy) {
+		argbToUyvy(argb, width, height, uyvy,
+				(long) width * height >= PARALLEL_THRESHOLD ? ForkJoinPool.commonPool() : null);
+	}
+
+	/**
+	 * Encodes an ARGB frame as BT.709 UYVY 4:2:2, splitting rows across the given pool.
+	 *
+	 * @param argb source pixels, row-major
+	 * @param width frame width in pixels, even
+	 * @param height frame height in pixels
+	 * @param uyvy destination holding at least {@code width * height * 2} bytes below its limit
+	 * @param pool the fork/join pool to encode on, or {@code null} to encode on the calling thread
+	 * @throws IllegalArgumentException if {@code width} is odd
+	 */
+	public static void argbToUyvy(int[] argb, int width, int height, ByteBuffer uyvy, ForkJoinPool pool) {
+		argbToUyvy(IntBuffer.wrap(argb), width, height, uyvy, pool);
+	}
+
+	/**
+	 * Encodes an ARGB frame read from a buffer as BT.709 UYVY 4:2:2 starting at index zero of the
+	 * destination. The source is read at absolute indices from zero.
+	 *
+	 * @param argb source pixels, row-major
+	 * @param width frame width in pixels, even
+	 * @param height frame height in pixels
+	 * @param uyvy destination holding at least {@code width * height * 2} bytes below its limit
+	 * @throws IllegalArgumentException if {@code width} is odd
+	 */
+	public static void argbToUyvy(IntBuffer argb, int width, int height, ByteBuffer uyvy) {
+		argbToUyvy(argb, width, height, uyvy,
+				(long) width * height >= PARALLEL_THRESHOLD ? ForkJoinPool.commonPool() : null);
+	}
+
+	/**
+	 * Encodes an ARGB frame read from a buffer as BT.709 UYVY 4:2:2, splitting rows across the given pool.
+	 *
+	 * @param argb source pixels, row-major
+	 * @param width frame width in pixels, even
+	 * @param height frame height in pixels
+	 * @param uyvy destination holding at least {@code width * height * 2} bytes below its limit
+	 * @param pool the fork/join pool to encode on, or {@code null} to encode on the calling thread
+	 * @throws IllegalArgumentException if {@code width} is odd
+	 */
+	public static void argbToUyvy(IntBuffer argb, int width, int height, ByteBuffer uyvy, ForkJoinPool pool) {
+		if ((width & 1) != 0) {
+			throw new IllegalArgumentException("UYVY needs an even width, got " + width);
+		}
+		int rowsPerTask = Math.max(1, PARALLEL_GRAIN / Math.max(1, width));
+		if (pool == null || pool.getParallelism() < 2 || height <= rowsPerTask) {
+			convertUyvyBand(argb, width, 0, height, uyvy);
+			return;
+		}
+		pool.invoke(new UyvyTask(argb, width, uyvy, 0, height, rowsPerTask));
+	}
+
+	/**
+	 * Shrinks an ARGB frame by an integer factor, averaging each {@code factor x factor} block per channel
+	 * with rounding. Trailing columns and rows that do not fill a whole block are dropped.
+	 * <p>
+	 * Both buffers are accessed at absolute indices from zero. Source rows are staged one at a time, so
+	 * direct buffers are read with bulk copies.
+	 * </p>
+	 *
+	 * @param source source pixels, row-major
+	 * @param width source width in pixels
+	 * @param height source height in pixels
+	 * @param factor shrink factor, at least one
+	 * @param target destination holding at least {@code (width / factor) * (height / factor)} pixels
+	 * @throws IllegalArgumentException if the factor is not positive, exceeds a dimension, or a buffer is
+	 *                                  too small
+	 */
+	public static void downsampleArgb(IntBuffer source, int width, int height, int factor, IntBuffer target) {
+		if (factor < 1 || width < factor || height < factor) {
+			throw new IllegalArgumentException("Cannot shrink " + width + "x" + height + " by " + factor);
+		}
+		int outWidth = width / factor;
+		int outHeight = height / factor;
+		if (source.capacity() < Math.multiplyExact(width, height) || target.capacity() < outWidth * outHeight) {
+			throw new IllegalArgumentException("Downsample buffers are too small");
+		}
+
+		int[] row = new int[width];
+		int[] sums = new int[outWidth * 4];
+		int area = factor * factor;
+		int half = area / 2;
+		for (int outY = 0; outY < outHeight; outY++) {
+			Arrays.fill(sums, 0);
+			for (int dy = 0; dy < factor; dy++) {
+				source.get((outY * factor + dy) * width, row, 0, width);
+				for (int outX = 0, x = 0; outX < outWidth; outX++) {
+					int sum = outX * 4;
+					for (int dx = 0; dx < factor; dx++, x++) {
+						int pixel = row[x];
+						sums[sum] += pixel >>> 24;
+						sums[sum + 1] += (pixel >>> 16) & 0xFF;
+						sums[sum + 2] += (pixel >>> 8) & 0xFF;
+						sums[sum + 3] += pixel & 0xFF;
+					}
+				}
+			}
+			int base = outY * outWidth;
+			for (int outX = 0; outX < outWidth; outX++) {
+				int sum = outX * 4;
+				target.put(base + outX, (sums[sum] + half) / area << 24
+						| (sums[sum + 1] + half) / area << 16
+						| (sums[sum + 2] + half) / area << 8
+						| (sums[sum + 3] + half) / area);
+			}
+		}
+	}
+
+	/**
+	 * Blends gathered bilinear taps with 8-bit fixed-point weights.
+	 * <p>
+	 * {@code scratch} holds five planes of {@code stride} ints: the top-left, top-right, bottom-left and
+	 * bottom-right ARGB taps, then the weights packed as {@code (wx << 8) | wy}, each fraction in
+	 * {@code 0..255} meaning {@code 0..255/256}. Red/blue and alpha/green are interpolated as two 16-bit
+	 * lanes of one {@code int}, horizontally then vertically, with rounding at each step.
+	 * </p>
+	 *
+	 * @param scratch the five tap and weight planes
+	 * @param stride distance between planes, at least {@code count}
+	 * @param count number of pixels to blend
+	 * @param target destination pixels
+	 * @param targetOffset index of the first destination pixel
+	 */
+	public static void blendBilinear(int[] scratch, int stride, int count, int[] target, int targetOffset) {
+		ACTIVE.blendBilinear(scratch, stride, count, target, targetOffset);
+	}
+
+	/** Returns the scalar implementation, regardless of the active one. */
+	static Kernels scalar() {
+		return SCALAR;
+	}
+
+	/** Returns the Vector API implementation, or {@code null} when it is unavailable. */
+	static Kernels vector() {
+		return VECTOR;
+	}
+
+	/**
+	 * Loads the Vector API implementation by name, so this class never links against an unresolved module.
+	 */
+	private static Kernels loadVector() {
+		if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+			LOGGER.fine(() -> VECTOR_MODULE + " is not enabled; using scalar pixel kernels");
+			return null;
+		}
+		try {
+			Kernels kernels = (Kernels) Class.forName(VECTOR_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+			LOGGER.fine(() -> "Using " + kernels.description() + " pixel kernels");
+			return kernels;
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			LOGGER.log(Level.FINE, "Vector API pixel kernels unavailable; using scalar pixel kernels", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Converts pixels {@code [from, to)} of a source buffer, directly when it exposes its array and through
+	 * a staging chunk otherwise.
+	 */
+	private static void convertRgbaBand(Kernels kernels, IntBuffer argb, int from, int to, ByteBuffer rgba) {
+		if (argb.hasArray() && argb.arrayOffset() == 0) {
+			kernels.argbToRgba(argb.array(), from, to, rgba);
+			return;
+		}
+		int[] chunk = new int[Math.max(1, Math.min(STAGING_PIXELS, to - from))];
+		for (int start = from; start < to; start += chunk.length) {
+			int length = Math.min(chunk.length, to - start);
+			argb.get(start, chunk, 0, length);
+			ByteBuffer band = rgba.duplicate().position(start * 4).slice().order(rgba.order());
+			kernels.argbToRgba(chunk, 0, length, band);
+		}
+	}
+
+	/** Encodes rows {@code [fromRow, toRow)} of a source buffer, staging whole rows when it has no array. */
+	private static void convertUyvyBand(IntBuffer argb, int width, int fromRow, int toRow, ByteBuffer uyvy) {
+		if (argb.hasArray() && argb.arrayOffset() == 0) {
+			ScalarPixelKernels.convertUyvyRows(argb.array(), width, fromRow, toRow, uyvy);
+			return;
+		}
+		int rows = Math.max(1, Math.min(STAGING_PIXELS / Math.max(1, width), toRow - fromRow));
+		int[] chunk = new int[rows * width];
+		for (int row = fromRow; row < toRow; row += rows) {
+			int count = Math.min(rows, toRow - row);
+			argb.get(row * width, chunk, 0, count * width);
+			ByteBuffer band = uyvy.duplicate().position(row * width * 2).slice();
+			ScalarPixelKernels.convertUyvyRows(chunk, width, 0, count, band);
+		}
+	}
+
+	/** One implementation of the pixel loops. */
+	interface Kernels {
+
+		String description();
+
+		void argbToRgba(int[] argb, int from, int to, ByteBuffer rgba);
+
+		default void argbToRgba(int[] argb, int count, ByteBuffer rgba) {
+			argbToRgba(argb, 0, count, rgba);
+		}
+
+		void blendBilinear(int[] scratch, int stride, int count, int[] target, int targetOffset);
+	}
+
+	/** Converts one band of pixels, halving it until it fits {@link #PARALLEL_GRAIN}. */
+	private static final class ConvertTask extends RecursiveAction {
+		private final Kernels kernels;
+		private final IntBuffer argb;
+		private final ByteBuffer rgba;
+		private final int from;
+		private final int to;
+
+		ConvertTask(Kernels kernels, IntBuffer argb, ByteBuffer rgba, int from, int to) {
+			this.kernels = kernels;
+			this.argb = argb;
+			this.rgba = rgba;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARALLEL_GRAIN) {
+				convertRgbaBand(kernels, argb, from, to, rgba);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new ConvertTask(kernels, argb, rgba, from, mid),
+					new ConvertTask(kernels, argb, rgba, mid, to));
+		}
+	}
+
+	/** Encodes one band of rows as UYVY, halving it until it fits the row threshold. */
+	private static final class UyvyTask extends RecursiveAction {
+		private final IntBuffer argb;
+		private final int width;
+		private final ByteBuffer uyvy;
+		private final int fromRow;
+		private final int toRow;
+		private final int threshold;
+
+		UyvyTask(IntBuffer argb, int width, ByteBuffer uyvy, int fromRow, int toRow, int threshold) {
+			this.argb = argb;
+			this.width = width;
+			this.uyvy = uyvy;
+			this.fromRow = fromRow;
+			this.toRow = toRow;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if (toRow - fromRow <= threshold) {
+				convertUyvyBand(argb, width, fromRow, toRow, uyvy);
+				return;
+			}
+			int mid = (fromRow + toRow) >>> 1;
+			invokeAll(new UyvyTask(argb, width, uyvy, fromRow, mid, threshold),
+					new UyvyTask(argb, width, uyvy, mid, toRow, threshold));
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.victorvalentim.zividomelive.support;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Portable implementation of {@link PixelKernels}, also used for the tails the vector loops leave.
+ */
+final class ScalarPixelKernels implements PixelKernels.Kernels {
+
+	static final int LANES = 0x00FF00FF;
+	static final int ROUNDING = 0x00800080;
+
+	/** Pixels swizzled into a local array before each bulk store. */
+	private static final int CHUNK = 1024;
+
+	// BT.709 limited-range coefficients per 8-bit channel, scaled by 2^16: Y spans 16..235, Cb and Cr 16..240
+	private static final int Y_R = 11966;
+	private static final int Y_G = 40254;
+	private static final int Y_B = 4064;
+	private static final int CB_R = -6596;
+	private static final int CB_G = -22188;
+	private static final int CB_B = 28784;
+	private static final int CR_R = 28784;
+	private static final int CR_G = -26145;
+	private static final int CR_B = -2639;
+	private static final int Y_BIAS = (16 << 16) + (1 << 15);
+	private static final int C_BIAS = (128 << 17) + (1 << 16);
+
+	@Override
+	public String description() {
+		return "scalar";
+	}
+
+	@Override
+	public void argbToRgba(int[] argb, int from, int to, ByteBuffer rgba) {
+		convertRange(argb, from, to, rgba);
+	}
+
+	@Override
+	public void blendBilinear(int[] scratch, int stride, int count, int[] target, int targetOffset) {
+		blendBilinear(scratch, stride, 0, count, target, targetOffset);
+	}
+
+	/**
+	 * Converts pixels {@code [from, to)} a word at a time: each chunk is swizzled into a local array and
+	 * stored with one bulk put through an {@link IntBuffer} view in the buffer's byte order.
+	 */
+	static void convertRange(int[] argb, int from, int to, ByteBuffer rgba) {
+		if (from >= to) {
+			return;
+		}
+		ByteOrder order = rgba.order();
+		IntBuffer words = rgba.duplicate().order(order).position(0).asIntBuffer();
+		boolean bigEndian = order == ByteOrder.BIG_ENDIAN;
+		int[] chunk = new int[Math.min(CHUNK, to - from)];
+		for (int start = from; start < to; start += chunk.length) {
+			int length = Math.min(chunk.length, to - start);
+			if (bigEndian) {
+				for (int i = 0; i < length; i++) {
+					int pixel = argb[start + i];
+					chunk[i] = (pixel << 8) | (pixel >>> 24);
+				}
+			} else {
+				for (int i = 0; i < length; i++) {
+					int pixel = argb[start + i];
+					chunk[i] = (pixel & 0xFF00FF00) | ((pixel >>> 16) & 0xFF) | ((pixel & 0xFF) << 16);
+				}
+			}
+			words.put(start, chunk, 0, length);
+		}
+	}
+
+	/** Blends pixels {@code [from, to)} of the scratch planes. */
+	static void blendBilinear(int[] scratch, int stride, int from, int to, int[] target, int targetOffset) {
+		int weights = 4 * stride;
+		for (int i = from; i < to; i++) {
+			int weight = scratch[weights + i];
+			int wx = weight >>> 8;
+			int wy = weight & 0xFF;
+			int ix = 256 - wx;
+			int iy = 256 - wy;
+			int c00 = scratch[i];
+			int c10 = scratch[stride + i];
+			int c01 = scratch[2 * stride + i];
+			int c11 = scratch[3 * stride + i];
+
+			int topRb = (((c00 & LANES) * ix + (c10 & LANES) * wx + ROUNDING) >>> 8) & LANES;
+			int topAg = ((((c00 >>> 8) & LANES) * ix + ((c10 >>> 8) & LANES) * wx + ROUNDING) >>> 8) & LANES;
+			int bottomRb = (((c01 & LANES) * ix + (c11 & LANES) * wx + ROUNDING) >>> 8) & LANES;
+			int bottomAg = ((((c01 >>> 8) & LANES) * ix + ((c11 >>> 8) & LANES) * wx + ROUNDING) >>> 8) & LANES;
+
+			int rb = ((topRb * iy + bottomRb * wy + ROUNDING) >>> 8) & LANES;
+			int ag = (topAg * iy + bottomAg * wy + ROUNDING) & ~LANES;
+			target[targetOffset + i] = ag | rb;
+		}
+	}
+
+	/**
+	 * Encodes rows {@code [fromRow, toRow)} of an even-width ARGB frame as BT.709 UYVY 4:2:2.
+	 * <p>
+	 * Each horizontal pixel pair becomes one little-endian word {@code U | Y0 << 8 | V << 16 | Y1 << 24},
+	 * with chroma taken from the pair's average; alpha is discarded.
+	 * </p>
+	 */
+	static void convertUyvyRows(int[] argb, int width, int fromRow, int toRow, ByteBuffer uyvy) {
+		if (fromRow >= toRow) {
+			return;
+		}
+		IntBuffer words = uyvy.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(0).asIntBuffer();
+		int pairs = width >> 1;
+		int[] row = new int[pairs];
+		for (int y = fromRow; y < toRow; y++) {
+			int source = y * width;
+			for (int i = 0; i < pairs; i++) {
+				int p0 = argb[source + 2 * i];
+				int p1 = argb[source + 2 * i + 1];
+				int r0 = (p0 >>> 16) & 0xFF;
+				int g0 = (p0 >>> 8) & 0xFF;
+				int b0 = p0 & 0xFF;
+				int r1 = (p1 >>> 16) & 0xFF;
+				int g1 = (p1 >>> 8) & 0xFF;
+				int b1 = p1 & 0xFF;
+				int y0 = (Y_R * r0 + Y_G * g0 + Y_B * b0 + Y_BIAS) >> 16;
+				int y1 = (Y_R * r1 + Y_G * g1 + Y_B * b1 + Y_BIAS) >> 16;
+				int r = r0 + r1;
+				int g = g0 + g1;
+				int b = b0 + b1;
+				int u = (CB_R * r + CB_G * g + CB_B * b + C_BIAS) >> 17;
+				int v = (CR_R * r + CR_G * g + CR_B * b + C_BIAS) >> 17;
+				row[i] = u | (y0 << 8) | (v << 16) | (y1 << 24);
+			}
+			words.put(y * pairs, row, 0, pairs);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.victorvalentim.zividomelive.support;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.victorvalentim.zividomelive.support.ScalarPixelKernels.LANES;
+import static com.victorvalentim.zividomelive.support.ScalarPixelKernels.ROUNDING;
+import static jdk.incubator.vector.VectorOperators.LSHL;
+import static jdk.incubator.vector.VectorOperators.LSHR;
+
+/**
+ * Vector API implementation of {@link PixelKernels}.
+ * <p>
+ * Only {@link PixelKernels} refers to this class, by name and after checking that {@code jdk.incubator.vector}
+ * is resolved. The constructor runs both kernels once so that a JDK whose Vector API lacks a method used here
+ * fails during selection rather than on the render or NDI thread.
+ * </p>
+ */
+final class VectorPixelKernels implements PixelKernels.Kernels {
+
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+	private static final int MIN_LANES = 4;
+
+	VectorPixelKernels() {
+		int lanes = SPECIES.length();
+		if (lanes < MIN_LANES) {
+			throw new UnsupportedOperationException("Preferred vector shape holds only " + lanes + " ints");
+		}
+		argbToRgba(new int[lanes], 0, lanes, ByteBuffer.allocate(lanes * 4));
+		blendBilinear(new int[5 * lanes], lanes, lanes, new int[lanes], 0);
+	}
+
+	@Override
+	public String description() {
+		return "Vector API, " + SPECIES.vectorBitSize() + "-bit";
+	}
+
+	@Override
+	public void argbToRgba(int[] argb, int from, int to, ByteBuffer rgba) {
+		int lanes = SPECIES.length();
+		int bound = from + SPECIES.loopBound(to - from);
+		int i = from;
+		for (; i < bound; i += lanes) {
+			IntVector pixel = IntVector.fromArray(SPECIES, argb, i);
+			// A little-endian ABGR word is the byte sequence R, G, B, A
+			IntVector abgr = pixel.and(0xFF00FF00)
+					.or(pixel.lanewise(LSHR, 16).and(0xFF))
+					.or(pixel.and(0xFF).lanewise(LSHL, 16));
+			abgr.intoByteBuffer(rgba, i << 2, ByteOrder.LITTLE_ENDIAN);
+		}
+		ScalarPixelKernels.convertRange(argb, i, to, rgba);
+	}
+
+	@Override
+	public void blendBilinear(int[] scratch, int stride, int count, int[] target, int targetOffset) {
+		int lanes = SPECIES.length();
+		int bound = SPECIES.loopBound(count);
+		int weights = 4 * stride;
+		int i = 0;
+		for (; i < bound; i += lanes) {
+			IntVector weight = IntVector.fromArray(SPECIES, scratch, weights + i);
+			IntVector wx = weight.lanewise(LSHR, 8);
+			IntVector wy = weight.and(0xFF);
+			IntVector ix = wx.neg().add(256);
+			IntVector iy = wy.neg().add(256);
+			IntVector c00 = IntVector.fromArray(SPECIES, scratch, i);
+			IntVector c10 = IntVector.fromArray(SPECIES, scratch, stride + i);
+			IntVector c01 = IntVector.fromArray(SPECIES, scratch, 2 * stride + i);
+			IntVector c11 = IntVector.fromArray(SPECIES, scratch, 3 * stride + i);
+
+			IntVector topRb = lerp(c00.and(LANES), c10.and(LANES), ix, wx);
+			IntVector topAg = lerp(c00.lanewise(LSHR, 8).and(LANES), c10.lanewise(LSHR, 8).and(LANES), ix, wx);
+			IntVector bottomRb = lerp(c01.and(LANES), c11.and(LANES), ix, wx);
+			IntVector bottomAg = lerp(c01.lanewise(LSHR, 8).and(LANES), c11.lanewise(LSHR, 8).and(LANES), ix, wx);
+
+			IntVector rb = lerp(topRb, bottomRb, iy, wy);
+			IntVector ag = topAg.mul(iy).add(bottomAg.mul(wy)).add(ROUNDING).and(~LANES);
+			ag.or(rb).intoArray(target, targetOffset + i);
+		}
+		ScalarPixelKernels.blendBilinear(scratch, stride, i, count, target, targetOffset);
+	}
+
+	/** Interpolates two packed 16-bit-lane values and returns the rounded 8-bit lanes. */
+	private static IntVector lerp(IntVector a, IntVector b, IntVector weightA, IntVector weightB) {
+		return a.mul(weightA).add(b.mul(weightB)).add(ROUNDING).lanewise(LSHR, 8).and(LANES);
+	}
+}
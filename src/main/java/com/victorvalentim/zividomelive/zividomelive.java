@@ -4,12 +4,17 @@ import com.victorvalentim.zividomelive.manager.*;
 import com.victorvalentim.zividomelive.render.*;
 import com.victorvalentim.zividomelive.render.camera.*;
 import com.victorvalentim.zividomelive.render.modes.*;
+import com.victorvalentim.zividomelive.render.projection.FaceVisibility;
+import com.victorvalentim.zividomelive.render.projection.ProjectionRotation;
 import com.victorvalentim.zividomelive.support.*;
 import processing.core.*;
 import processing.event.*;
 import processing.opengl.*;
 import controlP5.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.logging.Logger;
 
@@ -60,6 +65,7 @@ public class zividomelive implements PConstants {
 	private static final String EQUIRECT_FRAG = "data/shaders/equirectangular.frag";
 	private static final String DOME_VERT = "data/shaders/domemaster.vert";
 	private static final String DOME_FRAG = "data/shaders/domemaster.frag";
+	private static final String DOME_DIRECT_FRAG = "data/shaders/domemaster_direct.frag";
 
 	private ControlManager controlManager;
 	// Output pipeline (high resolution)
@@ -88,6 +94,10 @@ public class zividomelive implements PConstants {
 	private boolean resumeNdiOutput;
 	private boolean resumeSpoutOutput;
 	private boolean resumeSyphonOutput;
+	private boolean resumeSharedMemoryOutput;
+	private boolean resumeUdpOutput;
+	private boolean resumeMjpegMonitor;
+	private final List<String> resumeNdiRoutes = new ArrayList<>();
 	private SplashScreen splash;
 	private SceneManager sceneManager;
 	private Scene fallbackScene;
@@ -124,6 +134,14 @@ public class zividomelive implements PConstants {
 
 	private ViewType currentView = ViewType.FISHEYE_DOMEMASTER;
 	private RenderMode renderMode = RenderMode.FULL;
+	private FisheyeDomemaster.SourceMode fisheyeSourceMode = FisheyeDomemaster.SourceMode.DIRECT;
+	private volatile int visibleFaceMask = FaceVisibility.ALL_FACES;
+	private boolean adaptiveFaceResolution = true;
+	private boolean orientationAtProjection = true;
+	private float[] masterRotation = ProjectionRotation.identity();
+	private boolean sceneChanged = true;
+	private boolean masterFacesChanged = true;
+	private Object[] projectionInputs;
 	private StandardOutputAspectMode standardOutputAspectMode = StandardOutputAspectMode.AUTO;
 
 	private boolean pendingOutputReset = false;
@@ -471,7 +489,7 @@ public class zividomelive implements PConstants {
 		LOGGER.info("CubemapRenderer (output) initialized at " + outputResolution + "px.");
 		equirectangularRenderer = new EquirectangularRenderer(outputResolution, EQUIRECT_FRAG, EQUIRECT_VERT, p);
 		LOGGER.info("EquirectangularRenderer (output) initialized.");
-		fisheyeDomemaster = new FisheyeDomemaster(outputResolution, DOME_FRAG, DOME_VERT, p);
+		fisheyeDomemaster = new FisheyeDomemaster(outputResolution, DOME_FRAG, DOME_DIRECT_FRAG, DOME_VERT, p);
 		fisheyeDomemaster.setSizePercentage(fishSize);
 		LOGGER.info("FisheyeDomemaster (output) initialized.");
 		cubemapViewRenderer = new CubemapViewRenderer(p, outputResolution);
@@ -685,7 +703,7 @@ public class zividomelive implements PConstants {
 
 		previewCubemapRenderer = new CubemapRenderer(previewResolution, p);
 		previewEquirectangularRenderer = new EquirectangularRenderer(previewResolution, EQUIRECT_FRAG, EQUIRECT_VERT, p);
-		previewFisheyeDomemaster = new FisheyeDomemaster(previewResolution, DOME_FRAG, DOME_VERT, p);
+		previewFisheyeDomemaster = new FisheyeDomemaster(previewResolution, DOME_FRAG, DOME_DIRECT_FRAG, DOME_VERT, p);
 		previewFisheyeDomemaster.setSizePercentage(fishSize);
 		previewCubemapViewRenderer = new CubemapViewRenderer(p, previewResolution);
 
@@ -720,8 +738,8 @@ public class zividomelive implements PConstants {
 
 	private void capturePreviewCubemap() {
 		if (previewCubemapRenderer != null) {
-			previewCubemapRenderer.captureCubemap(
-					sphericalOrientation.getQuaternion(), cameraManager, getCurrentScene());
+			masterFacesChanged = previewCubemapRenderer.captureCubemap(
+					sphericalOrientation.getQuaternion(), cameraManager, getCurrentScene(), sceneChanged);
 		}
 	}
 
@@ -734,7 +752,8 @@ public class zividomelive implements PConstants {
 	 * @return cached requirements for the current preview state
 	 */
 	private RenderRequirementsPolicy.Requirements computePreviewRequirements() {
-		return RenderRequirementsPolicy.forPreview(renderMode, getCurrentView(), showPreview);
+		return RenderRequirementsPolicy.forPreview(
+				renderMode, getCurrentView(), showPreview, usesDirectFisheye(previewFisheyeDomemaster));
 	}
 
 	/**
@@ -749,10 +768,26 @@ public class zividomelive implements PConstants {
 				outputsActive && outputManager.requiresView(ViewType.FISHEYE_DOMEMASTER),
 				outputsActive && outputManager.requiresView(ViewType.EQUIRECTANGULAR),
 				outputsActive && outputManager.requiresView(ViewType.CUBEMAP),
-				outputsActive && outputManager.requiresView(ViewType.STANDARD)
+				outputsActive && outputManager.requiresView(ViewType.STANDARD),
+				usesDirectFisheye(fisheyeDomemaster)
 		);
 	}
 
+	/**
+	 * Returns whether a fisheye renderer projects straight from the cubemap this frame.
+	 *
+	 * <p>Falls back to the equirectangular source when the renderer was created without the
+	 * direct shader, for example through {@link #setFisheyeDomemaster(FisheyeDomemaster)}.</p>
+	 *
+	 * @param renderer fisheye renderer of the pipeline being resolved
+	 * @return {@code true} when the direct single-pass path is used
+	 */
+	private boolean usesDirectFisheye(FisheyeDomemaster renderer) {
+		return fisheyeSourceMode == FisheyeDomemaster.SourceMode.DIRECT
+				&& renderer != null
+				&& renderer.supports(FisheyeDomemaster.SourceMode.DIRECT);
+	}
+
 	/**
 	 * Captures at most one cubemap for the current frame.
 	 *
@@ -767,19 +802,100 @@ public class zividomelive implements PConstants {
 	private PGraphicsOpenGL[] captureMasterCubemap(
 			RenderRequirementsPolicy.Requirements preview,
 			RenderRequirementsPolicy.Requirements output) {
+		masterFacesChanged = true;
 		if (output.needsCubemapSource()) {
+			configureFaceCulling(
+					cubemapRenderer, output.needsFullSphere() || preview.needsFullSphere(), outputResolution);
+			configureFaceOrientation(cubemapRenderer, output.needsCubemapLayout() || preview.needsCubemapLayout());
 			captureCubemap();
-			return cubemapRenderer != null ? cubemapRenderer.getCubemapFaces() : null;
+			return masterFacesOf(cubemapRenderer);
 		}
 
 		if (preview.needsCubemapSource()) {
+			configureFaceCulling(previewCubemapRenderer, preview.needsFullSphere(), previewResolution);
+			configureFaceOrientation(previewCubemapRenderer, preview.needsCubemapLayout());
 			capturePreviewCubemap();
-			return previewCubemapRenderer != null ? previewCubemapRenderer.getCubemapFaces() : null;
+			return masterFacesOf(previewCubemapRenderer);
 		}
 
 		return null;
 	}
 
+	private PGraphicsOpenGL[] masterFacesOf(CubemapRenderer renderer) {
+		if (renderer == null) {
+			return null;
+		}
+		visibleFaceMask = renderer.getVisibleFaceMask();
+		masterRotation = renderer.getProjectionRotation();
+		return renderer.getCubemapFaces();
+	}
+
+	/**
+	 * Decides whether the cubemap-derived passes must run this frame.
+	 *
+	 * <p>They are skipped only when the master faces were reused and every other input of the
+	 * projections is unchanged: requirements, output state, render targets, FOV, Size% and
+	 * projection rotation. The targets then still hold last frame's results.</p>
+	 *
+	 * @param preview window-preview requirements
+	 * @param output external-output requirements
+	 * @param masterFaces faces returned by the master capture
+	 * @param outputActive whether the output pipeline runs this frame
+	 * @return {@code true} if the projection passes must render
+	 */
+	private boolean needsReprojection(
+			RenderRequirementsPolicy.Requirements preview,
+			RenderRequirementsPolicy.Requirements output,
+			PGraphicsOpenGL[] masterFaces,
+			boolean outputActive) {
+		Object[] inputs = {
+				preview, output, outputActive, masterFaces == null ? null : masterFaces.clone(),
+				masterRotation, getFov(), fishSize,
+				equirectangularRenderer, fisheyeDomemaster, cubemapViewRenderer,
+				previewEquirectangularRenderer, previewFisheyeDomemaster, previewCubemapViewRenderer
+		};
+		boolean reproject = masterFacesChanged || !Arrays.deepEquals(inputs, projectionInputs);
+		projectionInputs = inputs;
+		return reproject;
+	}
+
+	/**
+	 * Leaves the spherical orientation to the projection passes unless a skybox view shows the
+	 * captured faces directly.
+	 *
+	 * @param renderer cubemap renderer about to capture the master faces
+	 * @param cubemapLayout whether a skybox view displays the same faces
+	 */
+	private void configureFaceOrientation(CubemapRenderer renderer, boolean cubemapLayout) {
+		if (renderer != null) {
+			renderer.setOrientationAtProjection(orientationAtProjection && !cubemapLayout);
+		}
+	}
+
+	/**
+	 * Enables face culling and adaptive face sizing on the master cubemap when only domemasters
+	 * consume it.
+	 *
+	 * @param renderer cubemap renderer about to capture the master faces
+	 * @param fullSphere whether an equirectangular or skybox view reads the same faces
+	 * @param domeResolution edge length of the largest domemaster fed by these faces
+	 */
+	private void configureFaceCulling(CubemapRenderer renderer, boolean fullSphere, int domeResolution) {
+		if (renderer == null) {
+			return;
+		}
+		if (fullSphere) {
+			renderer.disableFaceCulling();
+		} else {
+			renderer.setFaceCulling(getFov());
+		}
+		if (adaptiveFaceResolution) {
+			renderer.setAdaptiveResolution(domeResolution, fishSize);
+		} else {
+			renderer.disableAdaptiveResolution();
+		}
+	}
+
 	/**
 	 * Renders only the passes required by the application preview window.
 	 *
@@ -801,22 +917,29 @@ public class zividomelive implements PConstants {
 	private void renderPreviewPipeline(
 			RenderRequirementsPolicy.Requirements preview,
 			RenderRequirementsPolicy.Requirements output,
-			PGraphicsOpenGL[] masterFaces) {
+			PGraphicsOpenGL[] masterFaces,
+			boolean reproject) {
 		if (preview.needsStandard()) {
 			standardRendererPreview.render();
 		}
 
+		if (!reproject) {
+			return;
+		}
+
 		if (preview.needsEquirectangular()) {
 			if (output.needsEquirectangular() && output.needsCubemapSource()) {
 				copyToPreview(equirectangularRenderer.getEquirectangular(), previewEquirectangularRenderer.getEquirectangular());
 			} else {
-				previewEquirectangularRenderer.render(masterFaces);
+				previewEquirectangularRenderer.render(masterFaces, masterRotation);
 			}
 		}
 
 		if (preview.needsFisheye()) {
 			if (output.needsFisheye()) {
 				copyToPreview(fisheyeDomemaster.getDomemasterGraphics(), previewFisheyeDomemaster.getDomemasterGraphics());
+			} else if (preview.needsDirectFisheye()) {
+				previewFisheyeDomemaster.applyDirect(masterFaces, getFov(), masterRotation);
 			} else {
 				previewFisheyeDomemaster.applyShader(previewEquirectangularRenderer.getEquirectangular(), getFov());
 			}
@@ -846,28 +969,35 @@ public class zividomelive implements PConstants {
 	 * output passes that need it.</p>
 	 *
 	 * <p>Example: NDI requests equirectangular, Syphon requests fisheye →
-	 * one cubemap capture → one equirectangular pass → one fisheye pass.</p>
+	 * one cubemap capture → one equirectangular pass → one fisheye pass. With the default
+	 * {@link FisheyeDomemaster.SourceMode#DIRECT} source, a fisheye-only frame skips the
+	 * equirectangular pass entirely.</p>
 	 *
 	 * <p>Returns immediately when {@code outputManager} is {@code null} or inactive.
 	 * Must be called from the Processing draw thread.</p>
 	 */
 	private void renderOutputPipeline(
 			RenderRequirementsPolicy.Requirements output,
-			PGraphicsOpenGL[] masterFaces) {
+			PGraphicsOpenGL[] masterFaces,
+			boolean reproject) {
 		if (output.needsCubemapSource() && masterFaces == null) {
 			return;
 		}
 
-		if (output.needsEquirectangular()) {
-			equirectangularRenderer.render(masterFaces);
+		if (reproject && output.needsEquirectangular()) {
+			equirectangularRenderer.render(masterFaces, masterRotation);
 		}
 
-		if (output.needsFisheye()) {
-			fisheyeDomemaster.applyShader(
-					equirectangularRenderer.getEquirectangular(), getFov());
+		if (reproject) {
+			if (output.needsDirectFisheye()) {
+				fisheyeDomemaster.applyDirect(masterFaces, getFov(), masterRotation);
+			} else if (output.needsFisheye()) {
+				fisheyeDomemaster.applyShader(
+						equirectangularRenderer.getEquirectangular(), getFov());
+			}
 		}
 
-		if (output.needsCubemapLayout()) {
+		if (reproject && output.needsCubemapLayout()) {
 			cubemapViewRenderer.drawCubemapToGraphics(masterFaces);
 		}
 
@@ -943,10 +1073,12 @@ public class zividomelive implements PConstants {
 	 *   <li>Clear the window background.</li>
 	 *   <li>Apply any pending output-resolution change (output FBOs only, preview unaffected).</li>
 	 *   <li>Ensure preview FBOs are valid for the current window size.</li>
-	 *   <li>Resolve preview and output requirements, then capture at most one master cubemap.</li>
+	 *   <li>Resolve preview and output requirements, then capture at most one master cubemap.
+	 *       Faces are reused while {@link Scene#hasChanged(long)} reports no change.</li>
 	 *   <li>When at least one output is active, run its minimal projection passes and submit
 	 *       completed targets to the enabled backends.</li>
-	 *   <li>Run the preview passes, reusing completed output projections when available.</li>
+	 *   <li>Run the preview passes, reusing completed output projections when available.
+	 *       Cubemap-derived passes are skipped when neither the faces nor their inputs changed.</li>
 	 *   <li>Composite the preview FBO onto the window.</li>
 	 *   <li>Optionally draw the floating fisheye thumbnail (preview FBO only).</li>
 	 *   <li>Draw the control panel.</li>
@@ -963,16 +1095,19 @@ public class zividomelive implements PConstants {
 		ensurePreviewRenderers();
 		syncCurrentSceneToRenderers();
 
+		sceneChanged = getCurrentScene().hasChanged(p.frameCount);
 		RenderRequirementsPolicy.Requirements preview = computePreviewRequirements();
 		RenderRequirementsPolicy.Requirements output = computeOutputRequirements();
 		PGraphicsOpenGL[] masterFaces = captureMasterCubemap(preview, output);
+		boolean outputActive = outputManager != null && outputManager.isActive();
+		boolean reproject = needsReprojection(preview, output, masterFaces, outputActive);
 
-		if (outputManager != null && outputManager.isActive()) {
-			renderOutputPipeline(output, masterFaces);
+		if (outputActive) {
+			renderOutputPipeline(output, masterFaces, reproject);
 			outputManager.sendOutput();
 		}
 
-		renderPreviewPipeline(preview, output, masterFaces);
+		renderPreviewPipeline(preview, output, masterFaces, reproject);
 
 		// Only preview FBOs are composited onto the main window.
 		displayPreviewCurrentView();
@@ -1017,8 +1152,8 @@ public class zividomelive implements PConstants {
 	 */
 	private void captureCubemap() {
 		if (cubemapRenderer != null) {
-			cubemapRenderer.captureCubemap(
-					sphericalOrientation.getQuaternion(), cameraManager, getCurrentScene());
+			masterFacesChanged = cubemapRenderer.captureCubemap(
+					sphericalOrientation.getQuaternion(), cameraManager, getCurrentScene(), sceneChanged);
 		} else {
 			LOGGER.severe("Error: CubemapRenderer not initialized.");
 		}
@@ -1509,6 +1644,88 @@ public class zividomelive implements PConstants {
 		this.fov = fov;
 	}
 
+	/**
+	 * Returns the cube faces rendered for the most recent master cubemap capture.
+	 *
+	 * <p>Bit {@code i} is set when face {@code i} ({@code +X, -X, +Y, -Y, +Z, -Z}) was rendered.
+	 * Faces are skipped only when every view reading the cubemap is a domemaster whose FOV
+	 * cannot reach them, for example the back face below roughly 250 degrees.</p>
+	 *
+	 * @return visible-face bit mask
+	 */
+	public int getVisibleFaceMask() {
+		return visibleFaceMask;
+	}
+
+	/**
+	 * Returns whether cube faces are sized by the density the domemaster samples.
+	 *
+	 * @return {@code true} when adaptive per-face resolution is enabled
+	 */
+	public boolean isAdaptiveFaceResolution() {
+		return adaptiveFaceResolution;
+	}
+
+	/**
+	 * Enables or disables adaptive per-face cubemap resolution.
+	 *
+	 * <p>When enabled (the default) and only domemasters read the cubemap, each face is
+	 * allocated at the resolution its densest dome sample needs, capped at the base resolution.
+	 * Equirectangular and skybox views always use uniform full-resolution faces.</p>
+	 *
+	 * @param enabled {@code true} to size faces adaptively
+	 */
+	public void setAdaptiveFaceResolution(boolean enabled) {
+		adaptiveFaceResolution = enabled;
+	}
+
+	/**
+	 * Returns whether pitch, yaw and roll are applied by the projection passes.
+	 *
+	 * @return {@code true} when cube faces are captured in scene space
+	 */
+	public boolean isOrientationAtProjection() {
+		return orientationAtProjection;
+	}
+
+	/**
+	 * Chooses where pitch, yaw and roll are applied.
+	 *
+	 * <p>When enabled (the default), cube faces are captured in scene space and the equirectangular
+	 * and direct domemaster passes rotate their directions instead, so orientation changes do not
+	 * alter the captured faces. While a skybox view reads the cubemap, the orientation is baked into
+	 * the faces as before.</p>
+	 *
+	 * @param enabled {@code true} to apply the orientation at projection time
+	 */
+	public void setOrientationAtProjection(boolean enabled) {
+		orientationAtProjection = enabled;
+	}
+
+	/**
+	 * Gets the source the fisheye domemaster is projected from.
+	 *
+	 * @return the current fisheye source mode
+	 */
+	public FisheyeDomemaster.SourceMode getFisheyeSourceMode() {
+		return fisheyeSourceMode;
+	}
+
+	/**
+	 * Sets the source the fisheye domemaster is projected from.
+	 *
+	 * <p>{@link FisheyeDomemaster.SourceMode#DIRECT} (the default) samples the cubemap faces in
+	 * one pass with Size% applied in place. {@link FisheyeDomemaster.SourceMode#EQUIRECTANGULAR}
+	 * restores the 1.5 chain through the equirectangular map.</p>
+	 *
+	 * @param mode the new source mode; {@code null} is ignored
+	 */
+	public void setFisheyeSourceMode(FisheyeDomemaster.SourceMode mode) {
+		if (mode != null) {
+			fisheyeSourceMode = mode;
+		}
+	}
+
 	/**
 	 * Gets the current pitch.
 	 *
@@ -1629,7 +1846,7 @@ public class zividomelive implements PConstants {
 	/**
 	 * Sets the target frame rate applied during setup. Defaults to 60.
 	 * Call before setup() to take effect at startup; calling afterwards applies immediately and
-	 * updates the default NDI frame-rate metadata. Reapplying the configured value does not
+	 * updates the default NDI frame rate, which also paces NDI capture. Reapplying the configured value does not
 	 * restart Processing's animator.
 	 *
 	 * @param fps desired frame rate, must be positive
@@ -1664,10 +1881,7 @@ public class zividomelive implements PConstants {
 	 * @return true if output is enabled, false otherwise
 	 */
 	public boolean isEnableOutput() {
-		return outputManager != null
-				&& (outputManager.isNdiEnabled()
-				|| outputManager.isSpoutEnabled()
-				|| outputManager.isSyphonEnabled());
+		return outputManager != null && outputManager.isActive();
 	}
 
 	/**
@@ -1935,6 +2149,20 @@ public class zividomelive implements PConstants {
 			if (resumeSyphonOutput && !outputManager.isSyphonEnabled()) {
 				outputManager.toggleOutput("syphon");
 			}
+			if (resumeSharedMemoryOutput && !outputManager.isSharedMemoryEnabled()) {
+				outputManager.setSharedMemoryEnabled(true);
+			}
+			if (resumeUdpOutput && !outputManager.isUdpEnabled()) {
+				outputManager.setUdpEnabled(true);
+			}
+			if (resumeMjpegMonitor && !outputManager.isMjpegMonitorEnabled()) {
+				outputManager.setMjpegMonitorEnabled(true);
+			}
+			for (String route : resumeNdiRoutes) {
+				if (outputManager.getNdiRouteNames().contains(route)) {
+					outputManager.setNdiRouteEnabled(route, true);
+				}
+			}
 		}
 		clearPausedOutputState();
 		LOGGER.info("Processes resumed.");
@@ -1953,6 +2181,14 @@ public class zividomelive implements PConstants {
 			resumeNdiOutput = outputManager.isNdiEnabled();
 			resumeSpoutOutput = outputManager.isSpoutEnabled();
 			resumeSyphonOutput = outputManager.isSyphonEnabled();
+			resumeSharedMemoryOutput = outputManager.isSharedMemoryEnabled();
+			resumeUdpOutput = outputManager.isUdpEnabled();
+			resumeMjpegMonitor = outputManager.isMjpegMonitorEnabled();
+			for (String route : outputManager.getNdiRouteNames()) {
+				if (outputManager.isNdiRouteEnabled(route)) {
+					resumeNdiRoutes.add(route);
+				}
+			}
 			outputManager.stopOutput();
 		}
 		LOGGER.info("Processes paused.");
@@ -1963,6 +2199,10 @@ public class zividomelive implements PConstants {
 		resumeNdiOutput = false;
 		resumeSpoutOutput = false;
 		resumeSyphonOutput = false;
+		resumeSharedMemoryOutput = false;
+		resumeUdpOutput = false;
+		resumeMjpegMonitor = false;
+		resumeNdiRoutes.clear();
 	}
 
 	/**
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RenderRequirementsPolicyTest {
 
@@ -74,6 +76,55 @@ class RenderRequirementsPolicyTest {
 		}
 	}
 
+	@Test
+	void directFisheyeDropsEquirectangularUnlessRequested() {
+		for (int mask = 0; mask < 16; mask++) {
+			boolean fisheye = (mask & 1) != 0;
+			boolean equirectangular = (mask & 2) != 0;
+			boolean cubemap = (mask & 4) != 0;
+			boolean standard = (mask & 8) != 0;
+			RenderRequirementsPolicy.Requirements requirements = RenderRequirementsPolicy.forOutputs(
+					true, fisheye, equirectangular, cubemap, standard, true);
+
+			assertRequirements(
+					requirements,
+					fisheye,
+					equirectangular,
+					cubemap,
+					standard,
+					fisheye || equirectangular || cubemap);
+			assertEquals(fisheye, requirements.needsDirectFisheye());
+		}
+	}
+
+	@Test
+	void floatingDirectPreviewCapturesCubemapWithoutEquirectangular() {
+		RenderRequirementsPolicy.Requirements standard = RenderRequirementsPolicy.forPreview(
+				RenderMode.FULL, zividomelive.ViewType.STANDARD, true, true);
+
+		assertRequirements(standard, true, false, false, true, true);
+		assertTrue(standard.needsDirectFisheye());
+	}
+
+	@Test
+	void legacyOverloadsKeepEquirectangularFisheyeSource() {
+		assertFalse(RenderRequirementsPolicy.forOutputs(true, true, false, false, false).needsDirectFisheye());
+		assertFalse(RenderRequirementsPolicy.forPreview(
+				RenderMode.DOMEMASTER, zividomelive.ViewType.STANDARD, false).needsDirectFisheye());
+	}
+
+	@Test
+	void onlyEquirectangularAndSkyboxRequestsNeedTheFullSphere() {
+		for (int mask = 0; mask < 16; mask++) {
+			boolean equirectangular = (mask & 2) != 0;
+			boolean cubemap = (mask & 4) != 0;
+			assertEquals(equirectangular || cubemap, RenderRequirementsPolicy.forOutputs(
+					true, (mask & 1) != 0, equirectangular, cubemap, (mask & 8) != 0).needsFullSphere());
+		}
+		assertFalse(RenderRequirementsPolicy.forPreview(
+				RenderMode.DOMEMASTER, zividomelive.ViewType.STANDARD, true).needsFullSphere());
+	}
+
 	private static void assertRequirements(
 			RenderRequirementsPolicy.Requirements requirements,
 			boolean fisheye,
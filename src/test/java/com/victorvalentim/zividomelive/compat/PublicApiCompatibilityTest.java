@@ -74,7 +74,10 @@ class PublicApiCompatibilityTest {
 		assertArrayEquals(new OutputManager.OutputType[]{
 				OutputManager.OutputType.NDI,
 				OutputManager.OutputType.SPOUT,
-				OutputManager.OutputType.SYPHON
+				OutputManager.OutputType.SYPHON,
+				OutputManager.OutputType.SHARED_MEMORY,
+				OutputManager.OutputType.UDP,
+				OutputManager.OutputType.MJPEG
 		}, OutputManager.OutputType.values());
 		assertArrayEquals(new OutputManager.OutputState[]{
 				OutputManager.OutputState.UNAVAILABLE,
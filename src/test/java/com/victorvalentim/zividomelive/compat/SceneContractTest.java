@@ -20,6 +20,7 @@ class SceneContractTest {
 
 		assertDefaultMethod("setupScene");
 		assertDefaultMethod("update");
+		assertDefaultMethod("hasChanged", long.class);
 		assertDefaultMethod("keyEvent", KeyEvent.class);
 		assertDefaultMethod("mouseEvent", MouseEvent.class);
 		assertDefaultControlEventMethod();
@@ -27,6 +28,13 @@ class SceneContractTest {
 		assertDefaultMethod("getName");
 	}
 
+	@Test
+	void scenesReportAChangeEveryFrameByDefault() {
+		Scene scene = new ContractScene();
+		assertTrue(scene.hasChanged(0L));
+		assertTrue(scene.hasChanged(1L));
+	}
+
 	@Test
 	void defaultSceneNameUsesConcreteClassSimpleName() {
 		Scene scene = new ContractScene();
@@ -0,0 +1,80 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameBufferPoolTest {
+
+	private static final int PAGE = FrameBufferPool.PAGE_SIZE;
+
+	@Test
+	void buffersAreDirectPageAlignedAndLimitedToTheRequest() {
+		FrameBufferPool pool = new FrameBufferPool();
+		OutputFrame frame = pool.acquire(3 * PAGE + 5);
+
+		assertTrue(frame.pixels.isDirect());
+		assertEquals(0, frame.pixels.alignmentOffset(0, PAGE));
+		assertEquals(4 * PAGE, frame.pixels.capacity());
+		assertEquals(0, frame.pixels.position());
+		assertEquals(3 * PAGE + 5, frame.pixels.limit());
+		assertThrows(IllegalArgumentException.class, () -> pool.acquire(0));
+	}
+
+	@Test
+	void occupancyAndHighWaterFollowAcquireAndRelease() {
+		FrameBufferPool pool = new FrameBufferPool();
+		OutputFrame first = pool.acquire(PAGE);
+		OutputFrame second = pool.acquire(2 * PAGE);
+		assertEquals(2, pool.framesInUse());
+		assertEquals(3L * PAGE, pool.bytesInUse());
+
+		second.retain();
+		second.release();
+		assertEquals(2, pool.framesInUse());
+
+		first.release();
+		second.release();
+		assertEquals(0, pool.framesInUse());
+		assertEquals(0L, pool.bytesInUse());
+		assertEquals(2, pool.highWaterFrames());
+		assertEquals(3L * PAGE, pool.highWaterBytes());
+		assertEquals(3L * PAGE, pool.bytesAllocated());
+	}
+
+	@Test
+	void sizeClassesAreReusedIndependently() {
+		FrameBufferPool pool = new FrameBufferPool();
+		OutputFrame small = pool.acquire(100);
+		small.release();
+
+		OutputFrame large = pool.acquire(PAGE + 1);
+		assertNotSame(small, large);
+		// Any request rounding to one page reuses the idle one-page frame
+		assertSame(small, pool.acquire(PAGE));
+		assertEquals(PAGE, small.pixels.limit());
+	}
+
+	@Test
+	void idleFramesAreCappedAndTrimmed() {
+		FrameBufferPool pool = new FrameBufferPool();
+		OutputFrame[] frames = new OutputFrame[FrameBufferPool.MAX_IDLE_PER_SIZE + 2];
+		for (int i = 0; i < frames.length; i++) {
+			frames[i] = pool.acquire(PAGE);
+		}
+		for (OutputFrame frame : frames) {
+			frame.release();
+		}
+		assertEquals(FrameBufferPool.MAX_IDLE_PER_SIZE, pool.idleFrames());
+		assertEquals((long) FrameBufferPool.MAX_IDLE_PER_SIZE * PAGE, pool.bytesAllocated());
+
+		pool.trim();
+		assertEquals(0, pool.idleFrames());
+		assertEquals(0L, pool.bytesAllocated());
+		assertEquals(frames.length, pool.highWaterFrames());
+	}
+}
@@ -0,0 +1,147 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameMailboxTest {
+
+	@Test
+	void readerGetsTheLatestPublishOnlyOnce() {
+		FrameMailbox<long[]> mailbox = mailbox();
+		assertNull(mailbox.take());
+
+		mailbox.writable()[0] = 1;
+		assertEquals(FrameMailbox.Publish.FRESH, mailbox.publish());
+		mailbox.writable()[0] = 2;
+		assertEquals(FrameMailbox.Publish.REPLACED, mailbox.publish());
+		// The replaced frame comes back to the writer for reuse
+		assertEquals(1, mailbox.writable()[0]);
+		assertTrue(mailbox.hasPending());
+
+		assertEquals(2, mailbox.take()[0]);
+		assertFalse(mailbox.hasPending());
+		assertNull(mailbox.take());
+	}
+
+	@Test
+	void itemHeldByTheReaderIsNeverHandedToTheWriter() {
+		FrameMailbox<long[]> mailbox = mailbox();
+		mailbox.writable()[0] = 1;
+		mailbox.publish();
+		long[] held = mailbox.take();
+
+		for (int frame = 2; frame < 10; frame++) {
+			assertNotSame(held, mailbox.writable());
+			mailbox.writable()[0] = frame;
+			mailbox.publish();
+		}
+		assertEquals(1, held[0]);
+		assertEquals(9, mailbox.take()[0]);
+	}
+
+	@Test
+	void closeReturnsThePendingItemAndRejectsLaterPublishes() {
+		FrameMailbox<long[]> mailbox = mailbox();
+		mailbox.writable()[0] = 7;
+		mailbox.publish();
+		long[] writable = mailbox.writable();
+
+		assertEquals(7, mailbox.close()[0]);
+		assertEquals(FrameMailbox.Publish.CLOSED, mailbox.publish());
+		assertSame(writable, mailbox.writable());
+		assertFalse(mailbox.hasPending());
+		assertNull(mailbox.take());
+		assertNull(mailbox.close());
+	}
+
+	@Test
+	void publishWakesAParkedReader() throws Exception {
+		FrameMailbox<long[]> mailbox = mailbox();
+		CountDownLatch parked = new CountDownLatch(1);
+		AtomicReference<long[]> received = new AtomicReference<>();
+		Thread reader = new Thread(() -> {
+			parked.countDown();
+			long[] item = null;
+			while (item == null) {
+				item = mailbox.await(TimeUnit.SECONDS.toNanos(30));
+			}
+			received.set(item);
+		}, "mailbox-test-reader");
+		reader.setDaemon(true);
+		reader.start();
+		assertTrue(parked.await(1, TimeUnit.SECONDS));
+		Thread.sleep(20);
+
+		long publishedAt = System.nanoTime();
+		mailbox.writable()[0] = 42;
+		mailbox.publish();
+		reader.join(5_000);
+
+		assertFalse(reader.isAlive());
+		assertEquals(42, received.get()[0]);
+		assertTrue(System.nanoTime() - publishedAt < TimeUnit.SECONDS.toNanos(5));
+	}
+
+	@Test
+	void concurrentHandOffKeepsOrderAndAccountsForEveryFrame() throws Exception {
+		int frames = 200_000;
+		FrameMailbox<long[]> mailbox = mailbox();
+		AtomicLong taken = new AtomicLong();
+		AtomicReference<String> failure = new AtomicReference<>();
+		CountDownLatch done = new CountDownLatch(1);
+
+		Thread reader = new Thread(() -> {
+			long last = 0;
+			while (last < frames && failure.get() == null) {
+				long[] item = mailbox.await(TimeUnit.MILLISECONDS.toNanos(10));
+				if (item == null) {
+					continue;
+				}
+				long sequence = item[0];
+				if (sequence <= last) {
+					failure.set("frame " + sequence + " arrived after " + last);
+				}
+				// The writer keeps publishing while the reader holds this item
+				Thread.onSpinWait();
+				if (item[0] != sequence) {
+					failure.set("frame " + sequence + " was overwritten while held");
+				}
+				last = sequence;
+				taken.incrementAndGet();
+			}
+			done.countDown();
+		}, "mailbox-stress-reader");
+		reader.setDaemon(true);
+		reader.start();
+
+		long replaced = 0;
+		for (long sequence = 1; sequence <= frames; sequence++) {
+			long[] item = mailbox.writable();
+			item[0] = sequence;
+			if (mailbox.publish() == FrameMailbox.Publish.REPLACED) {
+				replaced++;
+			}
+		}
+
+		assertTrue(done.await(30, TimeUnit.SECONDS), "reader did not receive the last frame");
+		assertNull(failure.get(), failure.get());
+		// Every frame was either taken or replaced by a newer one, and the last one always arrives
+		assertEquals(frames, taken.get() + replaced);
+		assertFalse(mailbox.hasPending());
+	}
+
+	private static FrameMailbox<long[]> mailbox() {
+		return new FrameMailbox<>(new long[1], new long[1], new long[1]);
+	}
+}
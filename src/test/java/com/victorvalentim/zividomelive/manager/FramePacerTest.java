@@ -0,0 +1,109 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FramePacerTest {
+
+	private static final long SIXTY_FPS_NANOS = 16_666_667L;
+
+	@Test
+	void halvesA60FpsSketchEvenlyDespiteFrameJitter() {
+		FramePacer pacer = new FramePacer(30, 1);
+		Random random = new Random(3L);
+
+		int captured = 0;
+		for (int frame = 0; frame < 600; frame++) {
+			long now = frame * SIXTY_FPS_NANOS + random.nextInt(2_000_000) - 1_000_000;
+			boolean capture = pacer.shouldCapture(now);
+			// Vsync jitter never turns the alternation into one or two frame gaps
+			assertEquals(frame % 2 == 0, capture, "frame " + frame);
+			if (capture) {
+				captured++;
+			}
+		}
+
+		assertEquals(300, captured);
+		assertEquals(300, pacer.skippedFrames());
+		assertTrue(pacer.jitterNanos() < 2_000_000L, Long.toString(pacer.jitterNanos()));
+	}
+
+	@Test
+	void fractionalRatesDoNotDriftOverLongRuns() {
+		FramePacer pacer = new FramePacer(30000, 1001);
+		long frames = 60L * 60 * 10;
+
+		long captured = 0;
+		for (long frame = 0; frame < frames; frame++) {
+			if (pacer.shouldCapture(frame * SIXTY_FPS_NANOS)) {
+				captured++;
+			}
+		}
+
+		// Ten minutes at 30000/1001 fps is 17982.02 frames
+		double seconds = frames * SIXTY_FPS_NANOS / 1e9;
+		assertEquals(seconds * 30000 / 1001, captured, 1.0);
+	}
+
+	@Test
+	void decimatesToRatesThatAreNotDivisorsOfTheRenderRate() {
+		FramePacer pacer = new FramePacer(25, 1);
+
+		long captured = 0;
+		for (long frame = 0; frame < 3600; frame++) {
+			if (pacer.shouldCapture(frame * SIXTY_FPS_NANOS)) {
+				captured++;
+			}
+		}
+
+		assertEquals(1500, captured, 1);
+		assertTrue(pacer.lastIntervalNanos() == 2 * SIXTY_FPS_NANOS || pacer.lastIntervalNanos() == 3 * SIXTY_FPS_NANOS);
+		assertTrue(pacer.jitterNanos() > 0);
+	}
+
+	@Test
+	void capturesEveryFrameWhenRenderingSlowerThanTheTarget() {
+		FramePacer pacer = new FramePacer(60, 1);
+		long interval = 40_000_000L;
+
+		for (int frame = 0; frame < 100; frame++) {
+			assertTrue(pacer.shouldCapture(frame * interval));
+		}
+		assertEquals(0, pacer.skippedFrames());
+		assertEquals(interval, pacer.lastIntervalNanos());
+	}
+
+	@Test
+	void restartsTheScheduleAfterAPauseAndAfterRateChanges() {
+		FramePacer pacer = new FramePacer(30, 1);
+		for (int frame = 0; frame < 60; frame++) {
+			pacer.shouldCapture(frame * SIXTY_FPS_NANOS);
+		}
+		long jitter = pacer.jitterNanos();
+
+		// Outputs were idle for ten seconds: capture at once rather than catching up
+		long resumed = 70L * 1_000_000_000L;
+		assertTrue(pacer.shouldCapture(resumed));
+		assertFalse(pacer.shouldCapture(resumed + SIXTY_FPS_NANOS));
+		assertTrue(pacer.shouldCapture(resumed + 2 * SIXTY_FPS_NANOS));
+		assertEquals(jitter, pacer.jitterNanos(), 100_000L);
+
+		pacer.setRate(60, 1);
+		assertTrue(pacer.shouldCapture(resumed + 3 * SIXTY_FPS_NANOS));
+		assertTrue(pacer.shouldCapture(resumed + 4 * SIXTY_FPS_NANOS));
+		assertEquals(1_000_000_000L / 60, pacer.periodNanos());
+	}
+
+	@Test
+	void rejectsNonPositiveRates() {
+		assertThrows(IllegalArgumentException.class, () -> new FramePacer(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new FramePacer(30, 0));
+		assertThrows(IllegalArgumentException.class, () -> new FramePacer(30, 1).setRate(-1, 1));
+	}
+}
@@ -0,0 +1,167 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MjpegMonitorSinkTest {
+
+	private final MjpegMonitorSink monitor = new MjpegMonitorSink("mjpeg-test", 0, 5, 512, 0.8f);
+	private final List<HttpURLConnection> connections = new ArrayList<>();
+
+	@AfterEach
+	void stop() {
+		monitor.setEnabled(false);
+		connections.forEach(HttpURLConnection::disconnect);
+	}
+
+	@Test
+	void idleMonitorWantsNoFrames() {
+		assertEquals(OutputManager.OutputState.AVAILABLE, monitor.state());
+		assertEquals(OutputManager.OutputState.ENABLED, monitor.setEnabled(true));
+
+		assertTrue(monitor.isServing());
+		assertFalse(monitor.isEnabled());
+		assertFalse(monitor.wantsFrame(System.nanoTime()));
+		assertEquals(0, monitor.encodedFrames());
+	}
+
+	@Test
+	void clientsReceiveJpegFramesAtTheMonitorRate() throws Exception {
+		monitor.setEnabled(true);
+		HttpURLConnection connection = connect();
+		assertEquals(200, connection.getResponseCode());
+		assertTrue(connection.getContentType().startsWith("multipart/x-mixed-replace"));
+		awaitClients(1);
+
+		long now = System.nanoTime();
+		assertTrue(monitor.wantsFrame(now));
+		assertFalse(monitor.wantsFrame(now + TimeUnit.MILLISECONDS.toNanos(10)));
+		assertTrue(monitor.wantsFrame(now + TimeUnit.MILLISECONDS.toNanos(200)));
+
+		int[] red = new int[64 * 32];
+		Arrays.fill(red, 0xFFFF0000);
+		Thread producer = new Thread(() -> {
+			while (!Thread.currentThread().isInterrupted()) {
+				monitor.offer(red, 64, 32);
+				try {
+					Thread.sleep(50L);
+				} catch (InterruptedException stop) {
+					return;
+				}
+			}
+		});
+		producer.start();
+		BufferedImage frame;
+		try {
+			frame = ImageIO.read(new ByteArrayInputStream(readPart(connection.getInputStream())));
+		} finally {
+			producer.interrupt();
+			producer.join();
+		}
+
+		assertNotNull(frame);
+		assertEquals(64, frame.getWidth());
+		assertEquals(32, frame.getHeight());
+		int rgb = frame.getRGB(32, 16);
+		assertTrue((rgb >> 16 & 0xFF) > 200 && (rgb >> 8 & 0xFF) < 50, Integer.toHexString(rgb));
+		assertTrue(monitor.encodedFrames() >= 1);
+	}
+
+	@Test
+	void clientsBeyondTheLimitAreTurnedAway() throws Exception {
+		monitor.setEnabled(true);
+		for (int i = 0; i < MjpegMonitorSink.MAX_CLIENTS; i++) {
+			assertEquals(200, connect().getResponseCode());
+		}
+		awaitClients(MjpegMonitorSink.MAX_CLIENTS);
+
+		assertEquals(503, connect().getResponseCode());
+		assertEquals(MjpegMonitorSink.MAX_CLIENTS, monitor.clients());
+	}
+
+	@Test
+	void stoppingDisconnectsClients() throws Exception {
+		monitor.setEnabled(true);
+		HttpURLConnection connection = connect();
+		assertEquals(200, connection.getResponseCode());
+		awaitClients(1);
+
+		assertEquals(OutputManager.OutputState.AVAILABLE, monitor.setEnabled(false));
+
+		awaitClients(0);
+		assertFalse(monitor.isEnabled());
+	}
+
+	@Test
+	void settingsAreValidated() {
+		assertThrows(IllegalArgumentException.class, () -> monitor.setPort(70_000));
+		assertThrows(IllegalArgumentException.class, () -> monitor.setMaxSize(8));
+		assertThrows(IllegalArgumentException.class, () -> monitor.setQuality(1.5f));
+		assertThrows(IllegalArgumentException.class, () -> monitor.setQuality(Float.NaN));
+		monitor.setMaxSize(256);
+		assertEquals(256, monitor.maxSize());
+	}
+
+	private HttpURLConnection connect() throws IOException {
+		HttpURLConnection connection = (HttpURLConnection)
+				new URL("http://127.0.0.1:" + monitor.port() + "/").openConnection();
+		connection.setConnectTimeout(5_000);
+		connection.setReadTimeout(5_000);
+		connections.add(connection);
+		return connection;
+	}
+
+	private void awaitClients(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (monitor.clients() != expected && System.nanoTime() < deadline) {
+			Thread.sleep(10L);
+		}
+		assertEquals(expected, monitor.clients());
+	}
+
+	/** Reads the headers and body of one multipart part. */
+	private static byte[] readPart(InputStream in) throws IOException {
+		int length = -1;
+		String line;
+		while (!(line = readLine(in)).isEmpty() || length < 0) {
+			if (line.toLowerCase().startsWith("content-length:")) {
+				length = Integer.parseInt(line.substring(15).trim());
+			}
+		}
+		return in.readNBytes(length);
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != '\n') {
+			if (b < 0) {
+				throw new IOException("stream ended");
+			}
+			if (b != '\r') {
+				line.write(b);
+			}
+		}
+		return line.toString(StandardCharsets.US_ASCII);
+	}
+}
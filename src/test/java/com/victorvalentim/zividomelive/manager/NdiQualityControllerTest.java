@@ -0,0 +1,173 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdiQualityControllerTest {
+
+	private static final long PERIOD_NANOS = 1_000_000_000L / 60;
+	/** Frames handed to the routes in one window sample at 60 fps. */
+	private static final int FRAMES_PER_SAMPLE = 15;
+
+	private NdiQualityController controller;
+	private long now;
+	private long captured;
+	private long lost;
+	private long sent;
+	private long sendNanos;
+
+	@BeforeEach
+	void setUp() {
+		controller = new NdiQualityController();
+		now = 1_000_000_000L;
+		assertNull(sample(0, 0));
+	}
+
+	@Test
+	void holdsFullQualityWhileSendsAreClean() {
+		for (int index = 0; index < 200; index++) {
+			assertNull(sample(0, PERIOD_NANOS / 4));
+		}
+		assertEquals(OutputManager.NdiQuality.FULL, controller.quality());
+		assertEquals(0.0, controller.lossRatio());
+		assertEquals(0.25, controller.sendLoad(), 1e-6);
+	}
+
+	@Test
+	void stepsDownOnceTheWindowShowsSustainedLoss() {
+		NdiQualityChange change = null;
+		int samples = 0;
+		while (change == null) {
+			change = sample(3, PERIOD_NANOS / 4);
+			samples++;
+		}
+
+		assertEquals(NdiQualityController.WINDOW_SAMPLES, samples);
+		assertEquals(OutputManager.NdiQuality.FULL, change.previous());
+		assertEquals(OutputManager.NdiQuality.COMPACT, change.current());
+		assertTrue(change.isDowngrade());
+		assertEquals(0.2, change.lossRatio(), 1e-9);
+		assertEquals(now, change.timestampNanos());
+	}
+
+	@Test
+	void stepsDownWhenSendsTakeLongerThanAFramePeriod() {
+		NdiQualityChange change = untilChange(0, PERIOD_NANOS * 3 / 2);
+
+		assertEquals(OutputManager.NdiQuality.COMPACT, change.current());
+		assertEquals(0.0, change.lossRatio());
+		assertEquals(1.5, change.sendLoad(), 1e-6);
+	}
+
+	@Test
+	void clockedSendsNearOnePeriodDoNotStepDown() {
+		for (int index = 0; index < 100; index++) {
+			assertNull(sample(0, PERIOD_NANOS));
+		}
+		assertEquals(OutputManager.NdiQuality.FULL, controller.quality());
+	}
+
+	@Test
+	void eachStepNeedsAFreshWindowAndStopsAtQuarter() {
+		assertEquals(OutputManager.NdiQuality.COMPACT, untilChange(5, 0).current());
+		// The window restarts, so a single bad sample after a step cannot step again
+		assertNull(sample(5, 0));
+		assertEquals(OutputManager.NdiQuality.HALF, untilChange(5, 0).current());
+		assertEquals(OutputManager.NdiQuality.QUARTER, untilChange(5, 0).current());
+
+		for (int index = 0; index < 100; index++) {
+			assertNull(sample(5, 0));
+		}
+		assertEquals(OutputManager.NdiQuality.QUARTER, controller.quality());
+	}
+
+	@Test
+	void stepsUpOnlyAfterTheHoldAndOneLevelAtATime() {
+		untilChange(5, 0);
+		long steppedDownAt = now;
+
+		NdiQualityChange change = untilChange(0, PERIOD_NANOS / 4);
+
+		assertEquals(OutputManager.NdiQuality.COMPACT, change.previous());
+		assertEquals(OutputManager.NdiQuality.FULL, change.current());
+		assertFalse(change.isDowngrade());
+		assertTrue(now - steppedDownAt >= NdiQualityController.UP_HOLD_NANOS);
+	}
+
+	@Test
+	void lossBetweenTheThresholdsNeitherStepsDownNorUp() {
+		untilChange(5, 0);
+
+		// One lost frame in 45 is about 2 %, between the step-up and step-down limits
+		for (int index = 0; index < 200; index++) {
+			assertNull(sample(index % 3 == 0 ? 1 : 0, 0));
+		}
+		assertEquals(OutputManager.NdiQuality.COMPACT, controller.quality());
+	}
+
+	@Test
+	void windowRestartsWhenCountersGoBackwards() {
+		for (int index = 0; index < NdiQualityController.WINDOW_SAMPLES - 1; index++) {
+			assertNull(sample(5, 0));
+		}
+		// A removed route takes its counts with it
+		captured -= 1_000;
+		lost -= 100;
+		assertNull(sample(5, 0));
+
+		for (int index = 0; index < NdiQualityController.WINDOW_SAMPLES - 1; index++) {
+			assertNull(sample(5, 0));
+		}
+		assertNotNull(sample(5, 0));
+	}
+
+	@Test
+	void sparseWindowsAreNotJudged() {
+		for (int index = 0; index < 100; index++) {
+			now += NdiQualityController.SAMPLE_NANOS;
+			if (index % 2 == 0) {
+				captured++;
+				lost++;
+			}
+			// Half the minimum per window, all of it lost
+			assertNull(controller.update(now, captured, lost, sent, sendNanos, PERIOD_NANOS));
+		}
+		assertEquals(OutputManager.NdiQuality.FULL, controller.quality());
+	}
+
+	@Test
+	void resetReturnsToFullQuality() {
+		untilChange(5, 0);
+
+		controller.reset();
+
+		assertEquals(OutputManager.NdiQuality.FULL, controller.quality());
+		assertNull(sample(5, 0));
+	}
+
+	/** Advances one sample in which the routes lost {@code lostFrames} and each sent frame took {@code frameSendNanos}. */
+	private NdiQualityChange sample(int lostFrames, long frameSendNanos) {
+		now += NdiQualityController.SAMPLE_NANOS;
+		captured += FRAMES_PER_SAMPLE;
+		lost += lostFrames;
+		sent += FRAMES_PER_SAMPLE - lostFrames;
+		sendNanos += (FRAMES_PER_SAMPLE - lostFrames) * frameSendNanos;
+		return controller.update(now, captured, lost, sent, sendNanos, PERIOD_NANOS);
+	}
+
+	private NdiQualityChange untilChange(int lostFrames, long frameSendNanos) {
+		for (int index = 0; index < 1_000; index++) {
+			NdiQualityChange change = sample(lostFrames, frameSendNanos);
+			if (change != null) {
+				return change;
+			}
+		}
+		throw new AssertionError("No quality step");
+	}
+}
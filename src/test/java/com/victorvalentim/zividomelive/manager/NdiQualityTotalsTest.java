@@ -0,0 +1,75 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NdiQualityTotalsTest {
+
+	private final NdiQualityTotals totals = new NdiQualityTotals();
+	private final Object first = new Object();
+	private final Object second = new Object();
+
+	@Test
+	void aStartingRouteOnlyAddsGrowthAfterItsBaseline() {
+		// The route lost 40 frames in an earlier activation
+		sample(first, 100, 40);
+		assertEquals(0, totals.captured());
+		assertEquals(0, totals.lost());
+
+		sample(first, 110, 43);
+		assertEquals(10, totals.captured());
+		assertEquals(3, totals.lost());
+	}
+
+	@Test
+	void aStoppingRouteNeverPullsTheTotalsBackwards() {
+		totals.add(first, 0, 0, 0, 0);
+		totals.add(second, 0, 0, 0, 0);
+		totals.endSample();
+		totals.add(first, 20, 5, 15, 1_000);
+		totals.add(second, 30, 7, 23, 2_000);
+		totals.endSample();
+		assertEquals(12, totals.lost());
+
+		// The second route stopped; only the first is still enabled
+		totals.add(first, 25, 6, 19, 1_500);
+		totals.endSample();
+		assertEquals(55, totals.captured());
+		assertEquals(13, totals.lost());
+		assertEquals(42, totals.sent());
+		assertEquals(3_500, totals.sendNanos());
+	}
+
+	@Test
+	void aRestartedRouteTakesAFreshBaseline() {
+		sample(first, 0, 0);
+		sample(first, 10, 2);
+
+		totals.endSample();
+		// Frames counted while the route was stopped belong to no window
+		sample(first, 60, 52);
+		assertEquals(10, totals.captured());
+		assertEquals(2, totals.lost());
+
+		sample(first, 70, 53);
+		assertEquals(20, totals.captured());
+		assertEquals(3, totals.lost());
+	}
+
+	@Test
+	void clearForgetsBaselinesButKeepsTheTotals() {
+		sample(first, 0, 0);
+		sample(first, 10, 4);
+
+		totals.clear();
+		sample(first, 30, 13);
+		assertEquals(10, totals.captured());
+		assertEquals(4, totals.lost());
+	}
+
+	private void sample(Object route, long captured, long lost) {
+		totals.add(route, captured, lost, captured - lost, (captured - lost) * 100);
+		totals.endSample();
+	}
+}
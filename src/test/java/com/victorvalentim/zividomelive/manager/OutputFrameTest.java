@@ -0,0 +1,77 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutputFrameTest {
+
+	@Test
+	void sharedFrameReturnsToThePoolAfterTheLastRelease() {
+		FrameBufferPool pool = new FrameBufferPool();
+		OutputFrame frame = pool.acquire(64);
+		assertEquals(1, frame.references());
+
+		// Two routes sending the same view each hold a reference
+		frame.retain();
+		frame.retain();
+		frame.release();
+		frame.release();
+		assertEquals(0, pool.idleFrames());
+
+		frame.release();
+		assertEquals(0, frame.references());
+		assertEquals(1, pool.idleFrames());
+		assertSame(frame, pool.acquire(64));
+		assertEquals(1, frame.references());
+	}
+
+	@Test
+	void releasingPastZeroThrowsWithoutRecyclingTwice() {
+		FrameBufferPool pool = new FrameBufferPool();
+		OutputFrame frame = pool.acquire(64);
+		frame.release();
+		assertEquals(1, pool.idleFrames());
+
+		assertThrows(IllegalStateException.class, frame::release);
+		assertEquals(0, frame.references());
+		assertEquals(1, pool.idleFrames());
+	}
+
+	@Test
+	void framesInUseAreNeverHandedOutTwice() {
+		FrameBufferPool pool = new FrameBufferPool();
+		OutputFrame first = pool.acquire(64);
+		OutputFrame second = pool.acquire(64);
+		assertNotSame(first, second);
+	}
+
+	@Test
+	void bgraFramesExposeTheirBytesAsArgbPixels() {
+		OutputFrame frame = new FrameBufferPool().acquire(8);
+		frame.argbWords().put(new int[]{0x80102030, 0xFF405060});
+
+		IntBuffer argb = frame.argbPixels();
+		assertEquals(0x80102030, argb.get(0));
+		assertEquals(0xFF405060, argb.get(1));
+		ByteBuffer bytes = frame.pixels();
+		assertTrue(bytes.isReadOnly());
+		// Little-endian ARGB words are B, G, R, A bytes
+		assertEquals(0x30, bytes.get(0));
+		assertEquals(0x20, bytes.get(1));
+		assertEquals(0x10, bytes.get(2));
+		assertEquals((byte) 0x80, bytes.get(3));
+		assertThrows(java.nio.ReadOnlyBufferException.class, () -> argb.put(0, 0));
+
+		frame.pixelFormat = OutputManager.NdiPixelFormat.RGBA;
+		assertNull(frame.argbPixels());
+	}
+}
@@ -8,8 +8,10 @@ import processing.core.PApplet;
 
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.time.Duration;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -17,6 +19,7 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -81,7 +84,7 @@ class OutputManagerHardeningTest {
 		};
 		ByteBuffer rgba = ByteBuffer.allocateDirect(16);
 
-		OutputManager.writeArgbAsRgba(twoByTwoArgb, twoByTwoArgb.length, rgba);
+		OutputManager.writeArgbAsRgba(argbWords(twoByTwoArgb), twoByTwoArgb.length, rgba);
 
 		byte[] encoded = new byte[rgba.remaining()];
 		rgba.get(encoded);
@@ -94,29 +97,84 @@ class OutputManagerHardeningTest {
 	}
 
 	@Test
-	void ndiMetadataUsesPackedProgressiveRgba() {
+	void ndiEncodingOfLargeFramesMatchesPerPixelSwizzle() {
+		int width = 2048;
+		int height = 1024;
+		int[] argb = new int[width * height];
+		for (int i = 0; i < argb.length; i++) {
+			argb[i] = i * 0x9E3779B9;
+		}
+		ByteBuffer rgba = ByteBuffer.allocateDirect(argb.length * 4);
+
+		OutputManager.writeArgbAsRgba(argbWords(argb), argb.length, rgba);
+
+		assertEquals(argb.length * 4, rgba.remaining());
+		for (int i = 0; i < argb.length; i += 997) {
+			int pixel = argb[i];
+			assertEquals((byte) (pixel >>> 16), rgba.get(i * 4), "red " + i);
+			assertEquals((byte) (pixel >>> 8), rgba.get(i * 4 + 1), "green " + i);
+			assertEquals((byte) pixel, rgba.get(i * 4 + 2), "blue " + i);
+			assertEquals((byte) (pixel >>> 24), rgba.get(i * 4 + 3), "alpha " + i);
+		}
+	}
+
+	@Test
+	void ndiUyvyEncodingUsesHalfTheBytesOfPackedFormats() {
+		int[] twoByTwoArgb = {
+				0xFFFFFFFF, 0xFFFFFFFF,
+				0xFF000000, 0xFF000000
+		};
+		ByteBuffer uyvy = ByteBuffer.allocateDirect(16);
+
+		OutputManager.writeArgbAsUyvy(argbWords(twoByTwoArgb), 2, 2, uyvy);
+
+		assertEquals(0, uyvy.position());
+		assertEquals(8, uyvy.limit());
+		byte[] encoded = new byte[uyvy.remaining()];
+		uyvy.get(encoded);
+		assertArrayEquals(new byte[]{
+				(byte) 128, (byte) 235, (byte) 128, (byte) 235,
+				(byte) 128, 16, (byte) 128, 16
+		}, encoded);
+		assertThrows(IllegalArgumentException.class,
+				() -> OutputManager.writeArgbAsUyvy(argbWords(new int[3]), 3, 1, ByteBuffer.allocateDirect(8)));
+	}
+
+	@Test
+	void ndiMetadataUsesPackedProgressiveFrames() {
 		assertAll(
+				() -> assertEquals(OutputManager.NdiPixelFormat.BGRA,
+						OutputManager.DEFAULT_NDI_PIXEL_FORMAT),
+				() -> assertEquals(DevolayFrameFourCCType.BGRA,
+						OutputManager.NdiPixelFormat.BGRA.fourCCType()),
 				() -> assertEquals(DevolayFrameFourCCType.RGBA,
-						OutputManager.NDI_FRAME_FOUR_CC_TYPE),
+						OutputManager.NdiPixelFormat.RGBA.fourCCType()),
+				() -> assertEquals(DevolayFrameFourCCType.UYVY,
+						OutputManager.NdiPixelFormat.UYVY.fourCCType()),
+				() -> assertEquals(3840, OutputManager.ndiLineStride(1920, OutputManager.NdiPixelFormat.UYVY)),
+				() -> assertEquals(7680, OutputManager.ndiLineStride(1920, OutputManager.NdiPixelFormat.BGRA)),
+				() -> assertEquals(OutputManager.NdiPixelFormat.BGRA,
+						OutputManager.NdiPixelFormat.UYVY.forWidth(1921)),
+				() -> assertEquals(OutputManager.NdiPixelFormat.UYVY,
+						OutputManager.NdiPixelFormat.UYVY.forWidth(1920)),
 				() -> assertEquals(DevolayFrameFormatType.PROGRESSIVE,
 						OutputManager.NDI_FRAME_FORMAT_TYPE),
-				() -> assertEquals(4, OutputManager.ndiLineStride(1)),
-				() -> assertEquals(7680, OutputManager.ndiLineStride(1920)),
+				() -> assertEquals(4, OutputManager.ndiLineStride(1, OutputManager.NdiPixelFormat.RGBA)),
 				() -> assertThrows(IllegalArgumentException.class,
-						() -> OutputManager.ndiLineStride(0)));
+						() -> OutputManager.ndiLineStride(0, OutputManager.NdiPixelFormat.BGRA)));
 	}
 
 	@Test
 	void ndiPipelineKeepsThreeBoundedFrameSlots() throws Exception {
 		OutputManager manager = new OutputManager(new zividomelive(new PApplet()));
-		Object[] slots = (Object[]) readField(manager, "ndiSlots");
-		BlockingQueue<?> freeSlots = (BlockingQueue<?>) readField(manager, "ndiFreeSlots");
-		BlockingQueue<?> readySlots = (BlockingQueue<?>) readField(manager, "ndiReadySlots");
+		Object route = readField(manager, "ndiRoute");
+		Object[] slots = (Object[]) readField(route, "slots");
 
 		assertAll(
 				() -> assertEquals(3, slots.length),
-				() -> assertEquals(3, freeSlots.remainingCapacity()),
-				() -> assertEquals(3, readySlots.remainingCapacity()));
+				() -> assertEquals(3, NdiRoute.SLOT_COUNT),
+				// Slots and their mailbox exist only while a sender is active
+				() -> assertNull(readField(route, "mailbox")));
 	}
 
 	@Test
@@ -138,9 +196,10 @@ class OutputManagerHardeningTest {
 		worker.start();
 		assertTrue(started.await(1, TimeUnit.SECONDS));
 
-		setField(manager, "ndiWorkerThread", worker);
-		setField(manager, "ndiWorkerRunning", true);
-		setField(manager, "ndiEnabled", true);
+		Object route = readField(manager, "ndiRoute");
+		setField(route, "workerThread", worker);
+		setField(route, "workerRunning", true);
+		setField(route, "enabled", true);
 
 		try {
 			long startedAt = System.nanoTime();
@@ -167,21 +226,122 @@ class OutputManagerHardeningTest {
 				manager.getOutputState(OutputManager.OutputType.NDI));
 	}
 
+	@Test
+	void ndiRequestsNeverBlockTheDrawThreadWhileTheLifecycleIsBusy() throws Exception {
+		OutputManager manager = new OutputManager(new zividomelive(new PApplet()), 5_000);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread worker = blockedWorker(release);
+		Object route = readField(manager, "ndiRoute");
+		setField(route, "workerThread", worker);
+		setField(route, "workerRunning", true);
+		setField(route, "enabled", true);
+		setField(route, "requested", true);
+
+		try {
+			CompletableFuture<OutputManager.OutputState> disabled = manager.setNdiEnabled(false);
+
+			// Publication stops before the call returns; the join happens on the lifecycle thread
+			assertEquals(false, readField(route, "enabled"));
+			assertTrue(awaitState(manager, OutputManager.OutputState.STOPPING, 2_000));
+			assertTrue(awaitJoinOnLifecycleThread(2_000), "lifecycle thread never joined the worker");
+			assertFalse(disabled.isDone());
+
+			// Requests made while the join is held return without waiting for it. The bound is only
+			// a sanity check: a single call blocking on the join would take the full 5 s timeout.
+			long startedAt = System.nanoTime();
+			for (int index = 0; index < 200; index++) {
+				manager.toggleOutput("ndi");
+				manager.getOutputState(OutputManager.OutputType.NDI);
+			}
+			CompletableFuture<OutputManager.OutputState> last = manager.setNdiEnabled(false);
+			Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+			assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, elapsed.toString());
+			assertFalse(disabled.isDone());
+			assertFalse(last.isDone());
+			assertTrue(worker.isAlive());
+
+			release.countDown();
+			assertEquals(OutputManager.OutputState.AVAILABLE, disabled.get(5, TimeUnit.SECONDS));
+			// Superseded toggles collapse: the latest request leaves NDI stopped
+			assertEquals(OutputManager.OutputState.AVAILABLE, last.get(5, TimeUnit.SECONDS));
+			assertFalse(manager.isNdiEnabled());
+		} finally {
+			release.countDown();
+			worker.join(1_000);
+		}
+	}
+
 	@Test
 	void constructorRejectsInvalidShutdownTimeout() {
 		zividomelive dome = new zividomelive(new PApplet());
 		assertThrows(IllegalArgumentException.class, () -> new OutputManager(dome, 0));
 	}
 
-	private static void setField(OutputManager manager, String fieldName, Object value) throws Exception {
-		Field field = OutputManager.class.getDeclaredField(fieldName);
+	/** Stores ARGB pixels in a direct little-endian word view, as a pooled frame holds them. */
+	private static IntBuffer argbWords(int[] argb) {
+		IntBuffer words = ByteBuffer.allocateDirect(argb.length * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		words.put(argb).clear();
+		return words;
+	}
+
+	private static Thread blockedWorker(CountDownLatch release) throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		Thread worker = new Thread(() -> {
+			started.countDown();
+			while (release.getCount() > 0) {
+				try {
+					release.await();
+				} catch (InterruptedException ignored) {
+					// Simulates a native send that does not honor Java interruption.
+				}
+			}
+		}, "blocked-ndi-test-worker");
+		worker.setDaemon(true);
+		worker.start();
+		assertTrue(started.await(1, TimeUnit.SECONDS));
+		return worker;
+	}
+
+	/** Waits until the NDI lifecycle thread is parked in {@link Thread#join(long)}. */
+	private static boolean awaitJoinOnLifecycleThread(long timeoutMillis) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		while (System.nanoTime() < deadline) {
+			for (Thread thread : Thread.getAllStackTraces().keySet()) {
+				if (!thread.getName().equals("ziviDomeLive-NDI-Lifecycle")) {
+					continue;
+				}
+				for (StackTraceElement frame : thread.getStackTrace()) {
+					if (frame.getClassName().equals(Thread.class.getName()) && frame.getMethodName().equals("join")) {
+						return true;
+					}
+				}
+			}
+			Thread.sleep(1);
+		}
+		return false;
+	}
+
+	private static boolean awaitState(OutputManager manager, OutputManager.OutputState state, long timeoutMillis)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		while (System.nanoTime() < deadline) {
+			if (manager.getOutputState(OutputManager.OutputType.NDI) == state) {
+				return true;
+			}
+			Thread.sleep(1);
+		}
+		return false;
+	}
+
+	private static void setField(Object target, String fieldName, Object value) throws Exception {
+		Field field = target.getClass().getDeclaredField(fieldName);
 		field.setAccessible(true);
-		field.set(manager, value);
+		field.set(target, value);
 	}
 
-	private static Object readField(OutputManager manager, String fieldName) throws Exception {
-		Field field = OutputManager.class.getDeclaredField(fieldName);
+	private static Object readField(Object target, String fieldName) throws Exception {
+		Field field = target.getClass().getDeclaredField(fieldName);
 		field.setAccessible(true);
-		return field.get(manager);
+		return field.get(target);
 	}
 }
@@ -8,6 +8,8 @@ import org.junit.jupiter.api.Assumptions;
 import processing.core.PApplet;
 
 import java.lang.reflect.Field;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -74,18 +76,23 @@ class OutputManagerTest {
 	}
 
 	@Test
-	void ndiToggleEnablesAndDisablesWhenAvailable() {
-		boolean before = outputManager.isNdiEnabled();
+	void ndiToggleEnablesAndDisablesWhenAvailable() throws Exception {
+		assertFalse(outputManager.isNdiEnabled());
 		outputManager.toggleOutput("ndi");
-		boolean after = outputManager.isNdiEnabled();
+		// Requests apply in order, so this completes once the toggle has been applied
+		OutputManager.OutputState started = outputManager.setNdiEnabled(true).get(5, TimeUnit.SECONDS);
 
-		if (after != before) {
-			// NDI natives are available: toggling back must restore the previous state.
+		if (started == OutputManager.OutputState.ENABLED) {
+			// NDI natives are available: toggling back stops publication at once.
+			assertTrue(outputManager.isNdiEnabled());
 			outputManager.toggleOutput("ndi");
-			assertEquals(before, outputManager.isNdiEnabled());
+			assertFalse(outputManager.isNdiEnabled());
+			assertEquals(OutputManager.OutputState.AVAILABLE,
+					outputManager.setNdiEnabled(false).get(5, TimeUnit.SECONDS));
 		} else {
 			// NDI unavailable on this platform: state must remain disabled.
-			assertFalse(after);
+			assertEquals(OutputManager.OutputState.UNAVAILABLE, started);
+			assertFalse(outputManager.isNdiEnabled());
 		}
 	}
 
@@ -96,6 +103,63 @@ class OutputManagerTest {
 		}
 	}
 
+	@Test
+	void sharedMemoryOutputIsRoutedLikeTheOtherOutputs() {
+		outputManager.setViewForOutput(OutputManager.OutputType.SHARED_MEMORY, zividomelive.ViewType.CUBEMAP);
+
+		assertEquals(zividomelive.ViewType.CUBEMAP,
+				outputManager.getViewForOutput(OutputManager.OutputType.SHARED_MEMORY));
+		assertEquals(zividomelive.ViewType.FISHEYE_DOMEMASTER,
+				outputManager.getViewForOutput(OutputManager.OutputType.NDI));
+		assertFalse(outputManager.isSharedMemoryEnabled());
+		assertFalse(outputManager.requiresView(zividomelive.ViewType.CUBEMAP));
+		assertEquals("/dev/shm/ziviDomeLive", outputManager.getSharedMemoryPath().toString());
+		OutputManager.OutputState expected = System.getProperty("os.name", "").toLowerCase(Locale.ROOT)
+				.contains("linux") ? OutputManager.OutputState.AVAILABLE : OutputManager.OutputState.UNAVAILABLE;
+		assertEquals(expected, outputManager.getOutputState(OutputManager.OutputType.SHARED_MEMORY));
+	}
+
+	@Test
+	void udpOutputIsRoutedLikeTheOtherOutputs() {
+		outputManager.setUdpView(zividomelive.ViewType.EQUIRECTANGULAR);
+
+		assertEquals(zividomelive.ViewType.EQUIRECTANGULAR,
+				outputManager.getViewForOutput(OutputManager.OutputType.UDP));
+		assertEquals(zividomelive.ViewType.FISHEYE_DOMEMASTER,
+				outputManager.getViewForOutput(OutputManager.OutputType.NDI));
+		assertFalse(outputManager.isUdpEnabled());
+		assertNull(outputManager.getUdpDestination());
+		assertEquals(OutputManager.OutputState.AVAILABLE, outputManager.getOutputState(OutputManager.OutputType.UDP));
+
+		// Without a destination the output cannot start
+		assertEquals(OutputManager.OutputState.UNAVAILABLE, outputManager.setUdpEnabled(true));
+		assertFalse(outputManager.getOutputFailureReason(OutputManager.OutputType.UDP).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> outputManager.setUdpDestination(" ", 5004));
+		assertThrows(IllegalArgumentException.class, () -> outputManager.setUdpPayloadBytes(0));
+	}
+
+	@Test
+	void mjpegMonitorIsRoutedLikeTheOtherOutputs() {
+		outputManager.setMjpegMonitorView(zividomelive.ViewType.STANDARD);
+
+		assertEquals(zividomelive.ViewType.STANDARD, outputManager.getViewForOutput(OutputManager.OutputType.MJPEG));
+		assertFalse(outputManager.isMjpegMonitorEnabled());
+		assertEquals(OutputManager.DEFAULT_MJPEG_PORT, outputManager.getMjpegMonitorPort());
+		assertEquals(OutputManager.OutputState.AVAILABLE, outputManager.getOutputState(OutputManager.OutputType.MJPEG));
+
+		outputManager.setMjpegMonitorPort(0);
+		try {
+			assertEquals(OutputManager.OutputState.ENABLED, outputManager.setMjpegMonitorEnabled(true));
+			assertNotEquals(0, outputManager.getMjpegMonitorPort());
+			// Without a client the monitor requests no view
+			assertFalse(outputManager.requiresView(zividomelive.ViewType.STANDARD));
+			assertEquals(0, outputManager.getMjpegMonitorClients());
+		} finally {
+			outputManager.shutdownOutputs();
+		}
+		assertFalse(outputManager.isMjpegMonitorEnabled());
+	}
+
 	@Test
 	void setViewForOutputUpdatesMapping() {
 		outputManager.setViewForOutput(OutputManager.OutputType.NDI, zividomelive.ViewType.EQUIRECTANGULAR);
@@ -124,6 +188,98 @@ class OutputManagerTest {
 		assertThrows(IllegalArgumentException.class, () -> outputManager.setNdiFrameRate(60, 0));
 	}
 
+	@Test
+	void ndiPixelFormatDefaultsToBgraAndRejectsNull() {
+		assertEquals(OutputManager.NdiPixelFormat.BGRA, outputManager.getNdiPixelFormat());
+
+		outputManager.setNdiPixelFormat(OutputManager.NdiPixelFormat.RGBA);
+
+		assertEquals(OutputManager.NdiPixelFormat.RGBA, outputManager.getNdiPixelFormat());
+		assertThrows(IllegalArgumentException.class, () -> outputManager.setNdiPixelFormat(null));
+	}
+
+	@Test
+	void namedNdiRoutesAreRegisteredStoppedAndRoutedIndependently() {
+		outputManager.addNdiRoute("dome", zividomelive.ViewType.FISHEYE_DOMEMASTER);
+		outputManager.addNdiRoute(" pano ", zividomelive.ViewType.EQUIRECTANGULAR);
+
+		assertEquals(java.util.List.of("dome", "pano"), outputManager.getNdiRouteNames());
+		assertEquals(zividomelive.ViewType.EQUIRECTANGULAR, outputManager.getNdiRouteView("pano"));
+		assertEquals(OutputManager.OutputState.AVAILABLE, outputManager.getNdiRouteState("dome"));
+		assertFalse(outputManager.isNdiRouteEnabled("dome"));
+		assertEquals(0L, outputManager.getNdiSentFrames("dome"));
+		assertFalse(outputManager.requiresView(zividomelive.ViewType.EQUIRECTANGULAR));
+		assertFalse(outputManager.isActive());
+
+		outputManager.setNdiRouteView("pano", zividomelive.ViewType.CUBEMAP);
+		assertEquals(zividomelive.ViewType.CUBEMAP, outputManager.getNdiRouteView("pano"));
+		assertEquals(zividomelive.ViewType.FISHEYE_DOMEMASTER,
+				outputManager.getViewForOutput(OutputManager.OutputType.NDI));
+
+		assertTrue(outputManager.removeNdiRoute("dome"));
+		assertFalse(outputManager.removeNdiRoute("dome"));
+		assertEquals(java.util.List.of("pano"), outputManager.getNdiRouteNames());
+	}
+
+	@Test
+	void ndiRouteNamesMustBeUniqueAndKnown() {
+		outputManager.addNdiRoute("dome", zividomelive.ViewType.FISHEYE_DOMEMASTER);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> outputManager.addNdiRoute("dome", zividomelive.ViewType.STANDARD));
+		assertThrows(IllegalArgumentException.class,
+				() -> outputManager.addNdiRoute(" ", zividomelive.ViewType.STANDARD));
+		assertThrows(IllegalArgumentException.class,
+				() -> outputManager.addNdiRoute("flat", null));
+		assertThrows(IllegalArgumentException.class, () -> outputManager.getNdiRouteState("missing"));
+		assertThrows(IllegalArgumentException.class, () -> outputManager.setNdiRouteEnabled("missing", true));
+	}
+
+	@Test
+	void ndiAsyncReadbackIsOptIn() {
+		assertFalse(outputManager.isNdiAsyncReadback());
+
+		outputManager.setNdiAsyncReadback(true);
+
+		assertTrue(outputManager.isNdiAsyncReadback());
+	}
+
+	@Test
+	void ndiPacingIsOnByDefaultAndStartsWithoutMetrics() {
+		assertTrue(outputManager.isNdiPacing());
+		assertEquals(0, outputManager.getNdiPacingSkippedFrames());
+		assertEquals(0, outputManager.getNdiFrameJitterNanos());
+		assertEquals(0, outputManager.getNdiFrameIntervalNanos());
+
+		outputManager.setNdiPacing(false);
+
+		assertFalse(outputManager.isNdiPacing());
+	}
+
+	@Test
+	void ndiAdaptiveQualityIsOptInAndStartsAtFullQuality() {
+		assertFalse(outputManager.isNdiAdaptiveQuality());
+		assertEquals(OutputManager.NdiQuality.FULL, outputManager.getNdiQuality());
+
+		outputManager.setNdiAdaptiveQuality(true);
+
+		assertTrue(outputManager.isNdiAdaptiveQuality());
+		assertEquals(OutputManager.NdiQuality.FULL, outputManager.getNdiQuality());
+	}
+
+	@Test
+	void ndiQualityListenersRejectNullAndDuplicates() {
+		NdiQualityListener listener = change -> { };
+
+		assertThrows(IllegalArgumentException.class, () -> outputManager.addNdiQualityListener(null));
+		outputManager.addNdiQualityListener(listener);
+		assertThrows(IllegalArgumentException.class, () -> outputManager.addNdiQualityListener(listener));
+
+		assertTrue(outputManager.removeNdiQualityListener(listener));
+		assertFalse(outputManager.removeNdiQualityListener(listener));
+		assertFalse(outputManager.removeNdiQualityListener(null));
+	}
+
 	@Test
 	void facadeFrameRateChangesUpdateNdiMetadataAfterSetup() throws Exception {
 		zividomelive lib = new zividomelive(new HeadlessApplet());
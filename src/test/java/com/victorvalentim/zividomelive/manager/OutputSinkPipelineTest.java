@@ -0,0 +1,177 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.zividomelive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import processing.core.PApplet;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutputSinkPipelineTest {
+
+	private static final int WIDTH = 4;
+	private static final int HEIGHT = 2;
+
+	private OutputManager outputManager;
+	private int[] pixels;
+
+	@BeforeEach
+	void createOutputManager() {
+		outputManager = new OutputManager(new zividomelive(new PApplet()));
+		pixels = new int[WIDTH * HEIGHT];
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = 0xFF000000 | i * 0x010203;
+		}
+	}
+
+	@Test
+	void pixelSinksOnOneViewShareASingleCapturedFrame() {
+		MemoryOutputSink dome = pixelSink("dome", zividomelive.ViewType.FISHEYE_DOMEMASTER);
+		MemoryOutputSink mirror = pixelSink("mirror", zividomelive.ViewType.FISHEYE_DOMEMASTER);
+		MemoryOutputSink pano = pixelSink("pano", zividomelive.ViewType.EQUIRECTANGULAR);
+
+		assertTrue(outputManager.isActive());
+		assertTrue(outputManager.requiresView(zividomelive.ViewType.EQUIRECTANGULAR));
+
+		outputManager.publishPixels(zividomelive.ViewType.FISHEYE_DOMEMASTER, pixels, WIDTH, HEIGHT);
+
+		assertEquals(1, dome.getFrameCount());
+		assertEquals(1, mirror.getFrameCount());
+		assertEquals(0, pano.getFrameCount());
+		OutputFrame frame = dome.getLatestFrame();
+		assertSame(frame, mirror.getLatestFrame());
+		assertEquals(zividomelive.ViewType.FISHEYE_DOMEMASTER, frame.view());
+		assertEquals(OutputManager.NdiPixelFormat.BGRA, frame.pixelFormat());
+		assertArrayEquals(pixels, dome.copyLatestPixels());
+		assertEquals(1, outputManager.getFrameBuffersInUse());
+
+		MemoryOutputSink.Record record = dome.getRecords().get(0);
+		assertEquals(WIDTH, record.width());
+		assertEquals(HEIGHT, record.height());
+		assertTrue(record.latencyNanos() >= 0);
+	}
+
+	@Test
+	void framesReturnToThePoolOnceEverySinkLetsGo() {
+		MemoryOutputSink dome = pixelSink("dome", zividomelive.ViewType.FISHEYE_DOMEMASTER);
+		MemoryOutputSink mirror = pixelSink("mirror", zividomelive.ViewType.FISHEYE_DOMEMASTER);
+
+		outputManager.publishPixels(zividomelive.ViewType.FISHEYE_DOMEMASTER, pixels, WIDTH, HEIGHT);
+		OutputFrame first = dome.getLatestFrame();
+		assertEquals(2, first.references());
+
+		// Each sink swaps the first frame for the second, so the first is back in the pool
+		outputManager.publishPixels(zividomelive.ViewType.FISHEYE_DOMEMASTER, pixels, WIDTH, HEIGHT);
+		assertEquals(0, first.references());
+
+		outputManager.publishPixels(zividomelive.ViewType.FISHEYE_DOMEMASTER, pixels, WIDTH, HEIGHT);
+		assertSame(first, dome.getLatestFrame());
+
+		dome.reset();
+		mirror.reset();
+		assertEquals(0, first.references());
+		assertEquals(0, outputManager.getFrameBuffersInUse());
+		assertEquals(0L, outputManager.getFrameBufferBytesInUse());
+		assertEquals(2, outputManager.getFrameBuffersHighWater());
+		assertTrue(outputManager.getFrameBufferBytesHighWater() >= 2L * WIDTH * HEIGHT * 4);
+	}
+
+	@Test
+	void disabledRemovedAndFailingSinksDoNotDisturbTheOthers() {
+		MemoryOutputSink dome = pixelSink("dome", zividomelive.ViewType.FISHEYE_DOMEMASTER);
+		MemoryOutputSink disabled = pixelSink("disabled", zividomelive.ViewType.FISHEYE_DOMEMASTER);
+		disabled.setEnabled(false);
+		MemoryOutputSink removed = pixelSink("removed", zividomelive.ViewType.FISHEYE_DOMEMASTER);
+		assertTrue(outputManager.removeOutputSink(removed));
+		assertFalse(outputManager.removeOutputSink(removed));
+		FailingSink failing = new FailingSink();
+		outputManager.addOutputSink(failing);
+
+		outputManager.publishPixels(zividomelive.ViewType.FISHEYE_DOMEMASTER, pixels, WIDTH, HEIGHT);
+
+		assertEquals(1, dome.getFrameCount());
+		assertEquals(0, disabled.getFrameCount());
+		assertEquals(0, removed.getFrameCount());
+		assertEquals(1, failing.failedFrames);
+	}
+
+	@Test
+	void sinksMustBeDistinctAndNonNull() {
+		MemoryOutputSink dome = pixelSink("dome", zividomelive.ViewType.FISHEYE_DOMEMASTER);
+
+		assertThrows(IllegalArgumentException.class, () -> outputManager.addOutputSink(dome));
+		assertThrows(IllegalArgumentException.class, () -> outputManager.addOutputSink(null));
+		assertFalse(outputManager.removeOutputSink(null));
+	}
+
+	@Test
+	void memorySinkKeepsABoundedHistoryAndMeasuresDeliveryRate() {
+		MemoryOutputSink sink = new MemoryOutputSink("bench", OutputSink.Input.PIXELS,
+				zividomelive.ViewType.STANDARD, 8);
+		outputManager.addOutputSink(sink);
+
+		for (int frame = 0; frame < 50; frame++) {
+			outputManager.publishPixels(zividomelive.ViewType.STANDARD, pixels, WIDTH, HEIGHT);
+		}
+
+		List<MemoryOutputSink.Record> records = sink.getRecords();
+		assertEquals(50, sink.getFrameCount());
+		assertEquals(8, records.size());
+		assertEquals(42, records.get(0).sequence());
+		assertEquals(49, records.get(7).sequence());
+		assertTrue(sink.getMaxLatencyNanos() >= sink.getMeanLatencyNanos());
+		assertTrue(sink.getFramesPerSecond() > 0.0);
+
+		sink.reset();
+		assertEquals(0, sink.getFrameCount());
+		assertNull(sink.getLatestFrame());
+	}
+
+	private MemoryOutputSink pixelSink(String name, zividomelive.ViewType view) {
+		MemoryOutputSink sink = new MemoryOutputSink(name, OutputSink.Input.PIXELS, view);
+		outputManager.addOutputSink(sink);
+		return sink;
+	}
+
+	private static final class FailingSink implements OutputSink {
+		private int failedFrames;
+
+		@Override
+		public String name() {
+			return "failing";
+		}
+
+		@Override
+		public Input input() {
+			return Input.PIXELS;
+		}
+
+		@Override
+		public zividomelive.ViewType view() {
+			return zividomelive.ViewType.FISHEYE_DOMEMASTER;
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public void sendPixels(OutputFrame frame) {
+			throw new IllegalStateException("encoder offline");
+		}
+
+		@Override
+		public void recordFailedFrame() {
+			failedFrames++;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.Test;
+import processing.opengl.PGL;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PboReadbackTest {
+
+	@Test
+	void flippedByteCopyRestoresSourceRowOrder() {
+		// Three rows of two BGRA pixels as OpenGL returns them, bottom row first
+		ByteBuffer bottomUp = ByteBuffer.allocateDirect(24);
+		for (int i = 0; i < 24; i++) {
+			bottomUp.put(i, (byte) i);
+		}
+		ByteBuffer topDown = ByteBuffer.allocateDirect(32);
+		topDown.position(5);
+
+		PboReadback.copyRowsFlipped(bottomUp, 8, 3, topDown);
+
+		assertEquals(0, topDown.position());
+		assertEquals(24, topDown.limit());
+		byte[] copied = new byte[24];
+		topDown.get(copied);
+		assertArrayEquals(new byte[]{
+				16, 17, 18, 19, 20, 21, 22, 23,
+				8, 9, 10, 11, 12, 13, 14, 15,
+				0, 1, 2, 3, 4, 5, 6, 7
+		}, copied);
+		assertEquals(0, bottomUp.position());
+	}
+
+	@Test
+	void readBindsTheColorFramebufferAndRestoresTheReadBinding() {
+		List<String> calls = new ArrayList<>();
+		PboReadback.FramebufferReader gl = new PboReadback.FramebufferReader() {
+			@Override
+			public int readFramebufferBinding() {
+				calls.add("query");
+				return 3;
+			}
+
+			@Override
+			public void bindReadFramebuffer(int framebuffer) {
+				calls.add("bind " + framebuffer);
+			}
+
+			@Override
+			public void readBuffer(int mode) {
+				calls.add("readBuffer " + Integer.toHexString(mode));
+			}
+
+			@Override
+			public void readPixelsIntoPackBuffer(int width, int height, int format) {
+				calls.add("read " + width + "x" + height + " " + Integer.toHexString(format));
+			}
+		};
+
+		PboReadback.readColorFramebuffer(gl, 7, 4, 2, PboReadback.GL_BGRA);
+
+		assertEquals(List.of("query", "bind 7", "readBuffer " + Integer.toHexString(PGL.COLOR_ATTACHMENT0),
+				"read 4x2 80e1", "bind 3"), calls);
+	}
+
+	@Test
+	void ringNeedsTwoBuffersAndAContext() {
+		assertThrows(IllegalArgumentException.class, () -> new PboReadback(1));
+		assertFalse(PboReadback.isSupported(null));
+	}
+
+	@Test
+	void versionCheckNeedsDesktop32OrEs30() {
+		assertTrue(PboReadback.isSupportedVersion("4.6.0 NVIDIA 550.54"));
+		assertTrue(PboReadback.isSupportedVersion("3.2.0 Build 27.20"));
+		assertTrue(PboReadback.isSupportedVersion("OpenGL ES 3.0 Mesa 23.2"));
+		assertFalse(PboReadback.isSupportedVersion("3.1 Mesa 23.2"));
+		assertFalse(PboReadback.isSupportedVersion("2.1 Metal - 88"));
+		assertFalse(PboReadback.isSupportedVersion("OpenGL ES 2.0 ANGLE"));
+		assertFalse(PboReadback.isSupportedVersion("unknown"));
+		assertFalse(PboReadback.isSupportedVersion(null));
+	}
+
+	@Test
+	void anEmptyRingHasNothingToDeliver() {
+		assertEquals(PboReadback.Poll.IDLE, new PboReadback(PboReadback.DEFAULT_RING_SIZE)
+				.poll((pixels, width, height, format, captureNanos) -> {
+					throw new AssertionError("nothing was requested");
+				}));
+	}
+
+}
@@ -0,0 +1,178 @@
+package com.victorvalentim.zividomelive.manager;
+
+import com.victorvalentim.zividomelive.zividomelive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedMemoryRingTest {
+
+	@TempDir
+	Path directory;
+
+	private final FrameBufferPool pool = new FrameBufferPool();
+
+	@Test
+	void readerCopiesTheLatestFrameOnce() throws IOException {
+		Path path = directory.resolve("ring");
+		try (SharedMemoryRing ring = SharedMemoryRing.create(path, 3, 64);
+			 SharedMemoryFrameReader reader = SharedMemoryFrameReader.open(path)) {
+			assertNull(reader.poll());
+
+			ring.write(frame(4, 2, 7));
+
+			SharedMemoryFrameReader.Frame frame = reader.poll();
+			assertNotNull(frame);
+			assertEquals(1, frame.frameNumber());
+			assertEquals(4, frame.width());
+			assertEquals(2, frame.height());
+			assertEquals(16, frame.lineStride());
+			assertEquals(OutputManager.NdiPixelFormat.BGRA, frame.pixelFormat());
+			assertEquals(zividomelive.ViewType.EQUIRECTANGULAR, frame.view());
+			assertEquals(1_007L, frame.captureNanos());
+			ByteBuffer pixels = frame.pixels();
+			assertEquals(32, pixels.remaining());
+			for (int index = 0; index < 32; index++) {
+				assertEquals(7, pixels.get(index));
+			}
+			assertNull(reader.poll());
+		}
+	}
+
+	@Test
+	void slowReadersSkipToTheLatestFrameAndCountTheRest() throws IOException {
+		Path path = directory.resolve("ring");
+		try (SharedMemoryRing ring = SharedMemoryRing.create(path, 3, 64);
+			 SharedMemoryFrameReader reader = SharedMemoryFrameReader.open(path)) {
+			for (int value = 1; value <= 5; value++) {
+				ring.write(frame(4, 2, value));
+			}
+
+			SharedMemoryFrameReader.Frame frame = reader.poll();
+
+			assertEquals(5, frame.frameNumber());
+			assertEquals(5, frame.pixels().get(0));
+			assertEquals(4, reader.getMissedFrames());
+		}
+	}
+
+	@Test
+	void concurrentReadsNeverReturnATornFrame() throws Exception {
+		Path path = directory.resolve("ring");
+		int bytes = 256 * 1024;
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		try (SharedMemoryRing ring = SharedMemoryRing.create(path, 2, bytes);
+			 SharedMemoryFrameReader reader = SharedMemoryFrameReader.open(path)) {
+			Thread writer = new Thread(() -> {
+				OutputFrame frame = pool.acquire(bytes);
+				frame.width = bytes / 4;
+				frame.height = 1;
+				byte[] fill = new byte[bytes];
+				for (int number = 1; running.get(); number++) {
+					// Every byte carries the low bits of the frame number it belongs to
+					Arrays.fill(fill, (byte) (number + 1));
+					frame.pixels.put(0, fill);
+					ring.write(frame);
+				}
+				frame.release();
+			}, "shm-writer");
+			writer.start();
+
+			long frames = 0;
+			long deadline = System.nanoTime() + 300_000_000L;
+			try {
+				while (System.nanoTime() < deadline) {
+					SharedMemoryFrameReader.Frame frame = reader.poll();
+					if (frame == null) {
+						continue;
+					}
+					frames++;
+					ByteBuffer pixels = frame.pixels();
+					byte expected = (byte) (frame.frameNumber() + 1);
+					for (int index = 0; index < bytes; index += 509) {
+						assertEquals(expected, pixels.get(index), "frame " + frame.frameNumber());
+					}
+					assertEquals(expected, pixels.get(bytes - 1));
+				}
+			} catch (Throwable error) {
+				failure.set(error);
+			} finally {
+				running.set(false);
+				writer.join();
+			}
+			if (failure.get() != null) {
+				throw new AssertionError(failure.get());
+			}
+			assertTrue(frames > 0);
+		}
+	}
+
+	@Test
+	void closingMarksTheRingAndDeletesTheFile() throws IOException {
+		Path path = directory.resolve("ring");
+		SharedMemoryRing ring = SharedMemoryRing.create(path, 3, 64);
+		SharedMemoryFrameReader reader = SharedMemoryFrameReader.open(path);
+		ring.write(frame(4, 2, 1));
+
+		ring.close();
+
+		assertFalse(Files.exists(path));
+		assertNull(reader.poll());
+		assertThrows(IllegalStateException.class, () -> ring.write(frame(4, 2, 1)));
+		reader.close();
+		assertThrows(IllegalStateException.class, reader::poll);
+	}
+
+	@Test
+	void writerRejectsFramesLargerThanASlot() throws IOException {
+		try (SharedMemoryRing ring = SharedMemoryRing.create(directory.resolve("ring"), 3, 16)) {
+			assertThrows(IllegalArgumentException.class, () -> ring.write(frame(4, 2, 1)));
+			assertEquals(0, ring.frameNumber());
+		}
+	}
+
+	@Test
+	void slotsArePageAligned() {
+		assertEquals(4096, SharedMemoryRing.slotStride(1));
+		assertEquals(4096, SharedMemoryRing.slotStride(4096 - SharedMemoryRing.SLOT_HEADER_BYTES));
+		assertEquals(8192, SharedMemoryRing.slotStride(4096));
+	}
+
+	@Test
+	void openRejectsOtherFiles() throws IOException {
+		Path path = directory.resolve("other");
+		Files.write(path, new byte[SharedMemoryRing.HEADER_BYTES]);
+
+		assertThrows(IOException.class, () -> SharedMemoryFrameReader.open(path));
+		assertThrows(IOException.class, () -> SharedMemoryFrameReader.open(directory.resolve("missing")));
+	}
+
+	private OutputFrame frame(int width, int height, int value) {
+		int bytes = width * height * 4;
+		OutputFrame frame = pool.acquire(bytes);
+		for (int index = 0; index < bytes; index++) {
+			frame.pixels.put(index, (byte) value);
+		}
+		frame.width = width;
+		frame.height = height;
+		frame.pixelCount = width * height;
+		frame.view = zividomelive.ViewType.EQUIRECTANGULAR;
+		frame.captureNanos = 1_000L + value;
+		return frame;
+	}
+}
@@ -0,0 +1,133 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedMemorySinkTest {
+
+	@TempDir
+	Path directory;
+
+	private final FrameBufferPool pool = new FrameBufferPool();
+
+	@Test
+	void ringIsCreatedOnTheFirstFrameAndDeletedWhenDisabled() throws IOException {
+		Path path = directory.resolve("ziviDomeLive");
+		SharedMemorySink sink = new SharedMemorySink(path, true);
+		assertEquals(OutputManager.OutputState.AVAILABLE, sink.state());
+
+		assertEquals(OutputManager.OutputState.ENABLED, sink.setEnabled(true));
+		assertFalse(Files.exists(path));
+
+		sink.sendPixels(frame(8, 4));
+		assertTrue(Files.exists(path));
+		assertEquals(1, sink.writtenFrames());
+
+		assertEquals(OutputManager.OutputState.AVAILABLE, sink.setEnabled(false));
+		assertFalse(Files.exists(path));
+		sink.sendPixels(frame(8, 4));
+		assertEquals(1, sink.writtenFrames());
+		assertEquals(1, sink.droppedFrames());
+	}
+
+	@Test
+	void largerFramesReplaceTheRingAndReadersFollow() throws IOException {
+		Path path = directory.resolve("ziviDomeLive");
+		SharedMemorySink sink = new SharedMemorySink(path, true);
+		sink.setEnabled(true);
+		sink.sendPixels(frame(8, 4));
+
+		try (SharedMemoryFrameReader reader = SharedMemoryFrameReader.open(path)) {
+			assertEquals(8, reader.poll().width());
+
+			sink.sendPixels(frame(4, 4));
+			assertEquals(4, reader.poll().width());
+
+			sink.sendPixels(frame(64, 32));
+			SharedMemoryFrameReader.Frame frame = reader.poll();
+			assertEquals(64, frame.width());
+			assertEquals(32, frame.height());
+			assertEquals(1, frame.frameNumber());
+		}
+		assertFalse(Files.exists(directory.resolve("ziviDomeLive.tmp")));
+		sink.setEnabled(false);
+	}
+
+	@Test
+	void stateIsReadWithoutWaitingForAFrameCopy() throws Exception {
+		SharedMemorySink sink = new SharedMemorySink(directory.resolve("ziviDomeLive"), true);
+		sink.setEnabled(true);
+		sink.sendPixels(frame(8, 4));
+		CountDownLatch held = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// Holds the monitor sendPixels copies under, as a long frame copy would
+		Thread copier = new Thread(() -> {
+			synchronized (sink) {
+				held.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ignored) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}, "shm-test-copier");
+		copier.setDaemon(true);
+		copier.start();
+		try {
+			assertTrue(held.await(1, TimeUnit.SECONDS));
+			assertEquals(OutputManager.OutputState.ENABLED,
+					CompletableFuture.supplyAsync(sink::state).get(5, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+			copier.join(1_000);
+		}
+		sink.setEnabled(false);
+	}
+
+	@Test
+	void unsupportedPlatformsAndMissingDirectoriesAreUnavailable() {
+		SharedMemorySink unsupported = new SharedMemorySink(directory.resolve("ring"), false);
+		assertEquals(OutputManager.OutputState.UNAVAILABLE, unsupported.state());
+		assertEquals(OutputManager.OutputState.UNAVAILABLE, unsupported.setEnabled(true));
+		assertFalse(unsupported.isEnabled());
+
+		SharedMemorySink missing = new SharedMemorySink(directory.resolve("missing").resolve("ring"), true);
+		assertEquals(OutputManager.OutputState.UNAVAILABLE, missing.setEnabled(true));
+		assertTrue(missing.failureReason().contains("missing"));
+
+		// An explicit retry clears the failure once the directory exists
+		assertTrue(directory.resolve("missing").toFile().mkdir());
+		assertEquals(OutputManager.OutputState.ENABLED, missing.setEnabled(true));
+		assertEquals("", missing.failureReason());
+		missing.setEnabled(false);
+	}
+
+	@Test
+	void disabledSinkWritesNothing() {
+		SharedMemorySink sink = new SharedMemorySink(directory.resolve("ring"), true);
+
+		sink.sendPixels(frame(8, 4));
+
+		assertEquals(0, sink.writtenFrames());
+		assertEquals(0, directory.toFile().list().length);
+	}
+
+	private OutputFrame frame(int width, int height) {
+		OutputFrame frame = pool.acquire(width * height * 4);
+		frame.width = width;
+		frame.height = height;
+		frame.pixelCount = width * height;
+		return frame;
+	}
+}
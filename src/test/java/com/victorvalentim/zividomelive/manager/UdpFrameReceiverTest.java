@@ -0,0 +1,133 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UdpFrameReceiverTest {
+
+	/** Frame of three packets of four bytes each. */
+	private static final int FRAME_BYTES = 12;
+	private static final int PAYLOAD = 4;
+
+	private UdpFrameReceiver receiver;
+	private DatagramChannel sender;
+
+	@BeforeEach
+	void open() throws IOException {
+		receiver = UdpFrameReceiver.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		sender = DatagramChannel.open();
+		sender.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getLocalPort()));
+	}
+
+	@AfterEach
+	void close() throws IOException {
+		sender.close();
+		receiver.close();
+	}
+
+	@Test
+	void packetsAreReassembledInAnyOrder() throws IOException {
+		send(1, 2);
+		send(1, 0);
+		send(1, 1);
+
+		UdpFrameReceiver.Frame frame = receiver.receive(5_000L);
+		assertNotNull(frame);
+		assertEquals(1, frame.frameNumber());
+		assertEquals(3, frame.width());
+		assertEquals(1, frame.height());
+		assertEquals(OutputManager.NdiPixelFormat.BGRA, frame.pixelFormat());
+		ByteBuffer pixels = frame.pixels();
+		assertEquals(FRAME_BYTES, pixels.remaining());
+		for (int i = 0; i < FRAME_BYTES; i++) {
+			assertEquals((byte) (10 + i), pixels.get(i));
+		}
+		assertEquals(1, receiver.getReceivedFrames());
+		assertEquals(0, receiver.getLostFrames());
+	}
+
+	@Test
+	void incompleteAndSkippedFramesAreCountedAsLost() throws IOException {
+		sendFrame(1);
+		send(2, 0);
+		// Frame 3 never arrives; frame 4 abandons frame 2 with two packets missing
+		sendFrame(4);
+
+		assertEquals(1, receiver.receive(5_000L).frameNumber());
+		assertEquals(4, receiver.receive(5_000L).frameNumber());
+		assertEquals(2, receiver.getReceivedFrames());
+		assertEquals(2, receiver.getLostFrames());
+		assertEquals(2, receiver.getLostPackets());
+	}
+
+	@Test
+	void latePacketsAndDuplicatesAreDiscarded() throws IOException {
+		sendFrame(2);
+		send(1, 0);
+		send(3, 0);
+		send(3, 0);
+		send(3, 1);
+		send(3, 2);
+
+		assertEquals(2, receiver.receive(5_000L).frameNumber());
+		assertEquals(3, receiver.receive(5_000L).frameNumber());
+		assertEquals(2, receiver.getDiscardedPackets());
+		assertEquals(0, receiver.getLostFrames());
+	}
+
+	@Test
+	void aRestartedSenderIsFollowed() throws IOException {
+		sendFrame(40);
+		sendFrame(1);
+
+		assertEquals(40, receiver.receive(5_000L).frameNumber());
+		assertEquals(1, receiver.receive(5_000L).frameNumber());
+		assertEquals(0, receiver.getLostFrames());
+	}
+
+	@Test
+	void foreignDatagramsAreIgnored() throws IOException {
+		sender.write(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+		sender.write(ByteBuffer.allocate(UdpFrameSink.HEADER_BYTES + PAYLOAD));
+
+		assertNull(receiver.receive(200L));
+		assertEquals(2, receiver.getDiscardedPackets());
+	}
+
+	private void sendFrame(int frameNumber) throws IOException {
+		for (int packet = 0; packet < FRAME_BYTES / PAYLOAD; packet++) {
+			send(frameNumber, packet);
+		}
+	}
+
+	/** Sends one packet laid out like {@link UdpFrameSink}, with bytes counting up from ten. */
+	private void send(int frameNumber, int packet) throws IOException {
+		ByteBuffer datagram = ByteBuffer.allocate(UdpFrameSink.HEADER_BYTES + PAYLOAD).order(ByteOrder.LITTLE_ENDIAN);
+		datagram.putInt(UdpFrameSink.MAGIC_OFFSET, UdpFrameSink.MAGIC);
+		datagram.putInt(UdpFrameSink.FRAME_NUMBER_OFFSET, frameNumber);
+		datagram.putInt(UdpFrameSink.PACKET_INDEX_OFFSET, packet);
+		datagram.putInt(UdpFrameSink.PACKET_COUNT_OFFSET, FRAME_BYTES / PAYLOAD);
+		datagram.putInt(UdpFrameSink.WIDTH_OFFSET, 3);
+		datagram.putInt(UdpFrameSink.HEIGHT_OFFSET, 1);
+		datagram.putInt(UdpFrameSink.FORMAT_OFFSET, SharedMemoryRing.fourCC(OutputManager.NdiPixelFormat.BGRA));
+		datagram.putInt(UdpFrameSink.BYTE_OFFSET_OFFSET, packet * PAYLOAD);
+		datagram.putInt(UdpFrameSink.FRAME_BYTES_OFFSET, FRAME_BYTES);
+		datagram.putInt(UdpFrameSink.LINE_OFFSET, 0);
+		for (int i = 0; i < PAYLOAD; i++) {
+			datagram.put(UdpFrameSink.HEADER_BYTES + i, (byte) (10 + packet * PAYLOAD + i));
+		}
+		sender.write(datagram);
+	}
+}
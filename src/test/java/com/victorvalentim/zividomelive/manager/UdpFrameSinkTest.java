@@ -0,0 +1,159 @@
+package com.victorvalentim.zividomelive.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UdpFrameSinkTest {
+
+	private final FrameBufferPool pool = new FrameBufferPool();
+
+	@Test
+	void framesArriveWholeOnLoopback() throws IOException {
+		try (UdpFrameReceiver receiver = UdpFrameReceiver.bind(
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+			UdpFrameSink sink = new UdpFrameSink("udp-test", 1_000, 1_000L, Runnable::run);
+			sink.setDestination(new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getLocalPort()));
+			assertEquals(OutputManager.OutputState.ENABLED, sink.setEnabled(true));
+
+			try {
+				for (int expected = 1; expected <= 3; expected++) {
+					OutputFrame frame = frame(32, 16, expected);
+					frame.captureNanos = 42L * expected;
+					sink.sendPixels(frame);
+					frame.release();
+
+					UdpFrameReceiver.Frame received = receiver.receive(5_000L);
+					assertNotNull(received);
+					assertEquals(expected, received.frameNumber());
+					assertEquals(32, received.width());
+					assertEquals(16, received.height());
+					assertEquals(OutputManager.NdiPixelFormat.BGRA, received.pixelFormat());
+					assertEquals(42L * expected, received.captureNanos());
+					ByteBuffer pixels = received.pixels();
+					assertEquals(32 * 16 * 4, pixels.remaining());
+					for (int i = 0; i < pixels.remaining(); i++) {
+						assertEquals((byte) (i * 7 + expected), pixels.get(i));
+					}
+				}
+			} finally {
+				sink.setEnabled(false);
+			}
+
+			// 2048 bytes in payloads of at most 1000 bytes
+			assertEquals(9, sink.sentPackets());
+			assertEquals(3, sink.sentFrames());
+			assertEquals(9, receiver.getReceivedPackets());
+			assertEquals(0, receiver.getLostFrames());
+		}
+	}
+
+	@Test
+	void missingDestinationIsUnavailableUntilSet() throws IOException {
+		UdpFrameSink sink = new UdpFrameSink("udp-test", 1_000, 1_000L, Runnable::run);
+		assertEquals(OutputManager.OutputState.AVAILABLE, sink.state());
+
+		assertEquals(OutputManager.OutputState.UNAVAILABLE, sink.setEnabled(true));
+		assertFalse(sink.isEnabled());
+		assertTrue(sink.failureReason().contains("destination"));
+
+		sink.setDestination(InetSocketAddress.createUnresolved("unresolved.invalid", 5004));
+		assertEquals(OutputManager.OutputState.UNAVAILABLE, sink.setEnabled(true));
+
+		try (UdpFrameReceiver receiver = UdpFrameReceiver.bind(
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+			sink.setDestination(new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getLocalPort()));
+			assertEquals(OutputManager.OutputState.ENABLED, sink.setEnabled(true));
+			assertEquals("", sink.failureReason());
+			assertEquals(OutputManager.OutputState.AVAILABLE, sink.setEnabled(false));
+		}
+	}
+
+	@Test
+	void stoppingLeavesTheWorkerJoinToTheLifecycleExecutor() throws IOException {
+		List<Runnable> lifecycle = new ArrayList<>();
+		try (UdpFrameReceiver receiver = UdpFrameReceiver.bind(
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+			UdpFrameSink sink = new UdpFrameSink("udp-test", 1_000, 1_000L, lifecycle::add);
+			sink.setDestination(new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getLocalPort()));
+			assertEquals(OutputManager.OutputState.ENABLED, sink.setEnabled(true));
+
+			assertEquals(OutputManager.OutputState.AVAILABLE, sink.setEnabled(false));
+			assertEquals(1, lifecycle.size());
+			lifecycle.get(0).run();
+		}
+	}
+
+	@Test
+	void aFailedWorkerClosesItsMailbox() throws Exception {
+		try (UdpFrameReceiver receiver = UdpFrameReceiver.bind(
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+			UdpFrameSink sink = new UdpFrameSink("udp-test", 1_000, 1_000L, Runnable::run);
+			sink.setDestination(new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getLocalPort()));
+			sink.setEnabled(true);
+
+			// A frame without width cannot be packetized and fails the worker
+			OutputFrame broken = frame(8, 4, 1);
+			broken.width = 0;
+			sink.sendPixels(broken);
+			long deadline = System.nanoTime() + 5_000_000_000L;
+			while (sink.state() != OutputManager.OutputState.UNAVAILABLE && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			assertEquals(OutputManager.OutputState.UNAVAILABLE, sink.state());
+			assertEquals(1, sink.failedFrames());
+			assertEquals(1, broken.references());
+
+			// No frame can be left waiting in a mailbox that no worker reads
+			Field mailbox = UdpFrameSink.class.getDeclaredField("mailbox");
+			mailbox.setAccessible(true);
+			assertEquals(FrameMailbox.Publish.CLOSED, ((FrameMailbox<?>) mailbox.get(sink)).publish());
+			sink.setEnabled(false);
+		}
+	}
+
+	@Test
+	void disabledSinkDropsFramesWithoutRetainingThem() {
+		UdpFrameSink sink = new UdpFrameSink("udp-test", 1_000, 1_000L, Runnable::run);
+		OutputFrame frame = frame(8, 4, 1);
+
+		sink.sendPixels(frame);
+		frame.release();
+
+		assertEquals(1, sink.droppedFrames());
+		assertEquals(0, sink.capturedFrames());
+	}
+
+	@Test
+	void payloadMustFitADatagram() {
+		UdpFrameSink sink = new UdpFrameSink("udp-test", 1_000, 1_000L, Runnable::run);
+
+		assertThrows(IllegalArgumentException.class, () -> sink.setMaxPayloadBytes(0));
+		assertThrows(IllegalArgumentException.class, () -> sink.setMaxPayloadBytes(UdpFrameSink.MAX_PAYLOAD_BYTES + 1));
+		sink.setMaxPayloadBytes(UdpFrameSink.MAX_PAYLOAD_BYTES);
+		assertEquals(UdpFrameSink.MAX_PAYLOAD_BYTES, sink.maxPayloadBytes());
+	}
+
+	private OutputFrame frame(int width, int height, int seed) {
+		OutputFrame frame = pool.acquire(width * height * 4);
+		frame.width = width;
+		frame.height = height;
+		frame.pixelCount = width * height;
+		for (int i = 0; i < frame.pixels.limit(); i++) {
+			frame.pixels.put(i, (byte) (i * 7 + seed));
+		}
+		return frame;
+	}
+}
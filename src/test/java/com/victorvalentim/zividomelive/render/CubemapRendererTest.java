@@ -0,0 +1,158 @@
+package com.victorvalentim.zividomelive.render;
+
+import com.victorvalentim.zividomelive.Scene;
+import com.victorvalentim.zividomelive.render.projection.FaceResolution;
+import com.victorvalentim.zividomelive.render.projection.FaceVisibility;
+import com.victorvalentim.zividomelive.render.projection.ProjectionRotation;
+import org.junit.jupiter.api.Test;
+import processing.core.PApplet;
+import processing.core.PGraphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static processing.core.PConstants.HALF_PI;
+
+class CubemapRendererTest {
+
+    /**
+     * Headless PApplet stub; face targets are never drawn by these tests.
+     */
+    private static class StubApplet extends PApplet {
+        @Override
+        public PGraphics createGraphics(int w, int h, String renderer) {
+            return null;
+        }
+    }
+
+    @Test
+    void rendersAllFacesUntilCullingIsEnabled() {
+        CubemapRenderer renderer = new CubemapRenderer(512, new StubApplet());
+
+        assertFalse(renderer.isFaceCullingEnabled());
+        assertEquals(FaceVisibility.ALL_FACES, renderer.getVisibleFaceMask());
+        assertEquals(FaceVisibility.ALL_FACES, renderer.computeVisibleFaceMask());
+    }
+
+    @Test
+    void cullingFollowsTheDomeFov() {
+        CubemapRenderer renderer = new CubemapRenderer(512, new StubApplet());
+
+        renderer.setFaceCulling(180f);
+        assertTrue(renderer.isFaceCullingEnabled());
+        assertEquals(FaceVisibility.ALL_FACES & ~(1 << 5), renderer.computeVisibleFaceMask());
+
+        renderer.setFaceCulling(260f);
+        assertEquals(FaceVisibility.ALL_FACES, renderer.computeVisibleFaceMask());
+
+        renderer.setFaceCulling(180f);
+        renderer.disableFaceCulling();
+        assertEquals(FaceVisibility.ALL_FACES, renderer.computeVisibleFaceMask());
+    }
+
+    @Test
+    void orientationAtProjectionTiltsTheCulledDome() {
+        CubemapRenderer renderer = new CubemapRenderer(512, new StubApplet());
+        renderer.setFaceCulling(180f);
+        // Quarter turn about +Y: the dome centre now looks along -X of the scene-space faces
+        Quaternion orientation = Quaternion.fromAxisAngle(0f, 1f, 0f, HALF_PI);
+
+        renderer.updateProjectionRotation(orientation);
+        assertTrue(ProjectionRotation.isIdentity(renderer.getProjectionRotation()));
+        assertEquals(FaceVisibility.ALL_FACES & ~(1 << 5), renderer.computeVisibleFaceMask());
+
+        renderer.setOrientationAtProjection(true);
+        assertTrue(renderer.isOrientationAtProjection());
+        renderer.updateProjectionRotation(orientation);
+        assertArrayEquals(new float[]{-1f, 0f, 0f},
+                ProjectionRotation.domeAxis(renderer.getProjectionRotation()), 1e-6f);
+        assertEquals(FaceVisibility.ALL_FACES & ~(1 << 0), renderer.computeVisibleFaceMask());
+        assertNull(renderer.computeFaceScissors()[1]);
+        assertNotNull(renderer.computeFaceScissors()[4]);
+    }
+
+    @Test
+    void unchangedScenesReuseCapturedFaces() {
+        CubemapRenderer renderer = new CubemapRenderer(512, new StubApplet());
+        Scene scene = pg -> { };
+        float[] camera = renderer.cameraKey(null);
+        int[][] wholeFaces = new int[6][];
+        int all = FaceVisibility.ALL_FACES;
+
+        assertEquals(all, renderer.facesToRedraw(all, wholeFaces, scene, false, camera));
+        for (int face = 0; face < 6; face++) {
+            renderer.recordCapturedFace(face, null, scene, camera);
+        }
+        assertEquals(0, renderer.facesToRedraw(all, wholeFaces, scene, false, camera));
+        assertEquals(all, renderer.facesToRedraw(all, wholeFaces, scene, true, camera));
+        assertEquals(all, renderer.facesToRedraw(all, wholeFaces, pg -> { }, false, camera));
+        Quaternion tilted = Quaternion.fromAxisAngle(1f, 0f, 0f, 0.1f);
+        assertEquals(all, renderer.facesToRedraw(all, wholeFaces, scene, false, renderer.cameraKey(tilted)));
+
+        renderer.invalidateFaces();
+        assertEquals(all, renderer.facesToRedraw(all, wholeFaces, scene, false, camera));
+    }
+
+    @Test
+    void reusedFacesMustCoverTheNewScissor() {
+        CubemapRenderer renderer = new CubemapRenderer(512, new StubApplet());
+        Scene scene = pg -> { };
+        float[] camera = renderer.cameraKey(null);
+        int[][] scissors = new int[6][];
+        scissors[0] = new int[]{0, 0, 256, 512};
+        for (int face = 0; face < 6; face++) {
+            renderer.recordCapturedFace(face, scissors[face], scene, camera);
+        }
+
+        int[][] narrower = new int[6][];
+        narrower[0] = new int[]{0, 0, 200, 512};
+        assertEquals(0, renderer.facesToRedraw(FaceVisibility.ALL_FACES, narrower, scene, false, camera));
+
+        int[][] wider = new int[6][];
+        wider[0] = new int[]{0, 0, 300, 512};
+        assertEquals(1, renderer.facesToRedraw(FaceVisibility.ALL_FACES, wider, scene, false, camera));
+        assertEquals(1, renderer.facesToRedraw(FaceVisibility.ALL_FACES, new int[6][], scene, false, camera));
+    }
+
+    @Test
+    void adaptiveResolutionAppliesOnlyWhileCulling() {
+        CubemapRenderer renderer = new CubemapRenderer(2048, new StubApplet());
+        renderer.setAdaptiveResolution(2048, 100f);
+
+        assertArrayEquals(new int[]{2048, 2048, 2048, 2048, 2048, 2048}, renderer.computeFaceResolutions());
+
+        renderer.setFaceCulling(180f);
+        int[] sizes = renderer.computeFaceResolutions();
+        assertArrayEquals(FaceResolution.faceSizes(2048, 2048, 180f, 100f, 0f, 0f, 1f, 1f), sizes);
+        assertTrue(sizes[4] < 2048);
+
+        renderer.disableAdaptiveResolution();
+        assertArrayEquals(new int[]{2048, 2048, 2048, 2048, 2048, 2048}, renderer.computeFaceResolutions());
+        assertEquals(2048, renderer.getFaceResolution(4));
+    }
+
+    @Test
+    void scissorsSideFacesOnlyWhileCulling() {
+        CubemapRenderer renderer = new CubemapRenderer(512, new StubApplet());
+
+        for (int[] scissor : renderer.computeFaceScissors()) {
+            assertNull(scissor);
+        }
+
+        renderer.setFaceCulling(180f);
+        int[][] scissors = renderer.computeFaceScissors();
+        assertNull(scissors[4]);
+        for (int side = 0; side < 4; side++) {
+            assertNotNull(scissors[side]);
+            assertTrue(scissors[side][2] * scissors[side][3] < 512 * 512 * 3 / 5, "side " + side);
+        }
+
+        renderer.setFaceCulling(360f);
+        for (int[] scissor : renderer.computeFaceScissors()) {
+            assertNull(scissor);
+        }
+    }
+}
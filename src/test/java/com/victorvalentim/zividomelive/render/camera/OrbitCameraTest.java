@@ -84,6 +84,25 @@ class OrbitCameraTest {
 		assertEquals(1f, Math.abs(orientation.w), EPSILON);
 	}
 
+	@Test
+	void reportsMovementUntilSettled() {
+		OrbitCamera camera = new OrbitCamera(100f);
+		camera.update();
+		assertFalse(camera.isMoving());
+
+		camera.rotateAround(0f, 1f, 0f, 0.5f);
+		camera.update();
+		assertTrue(camera.isMoving());
+		settle(camera);
+		assertFalse(camera.isMoving());
+
+		camera.snapTo(0f, 0f, 0f, new Quaternion(0, 0, 0, 1), 50f);
+		camera.update();
+		assertTrue(camera.isMoving());
+		camera.update();
+		assertFalse(camera.isMoving());
+	}
+
 	private static void settle(OrbitCamera camera) {
 		for (int i = 0; i < 200; i++) {
 			camera.update();
@@ -1,5 +1,6 @@
 package com.victorvalentim.zividomelive.render.modes;
 
+import com.victorvalentim.zividomelive.render.projection.WarpTable;
 import org.junit.jupiter.api.Test;
 import processing.core.PApplet;
 import processing.opengl.PShader;
@@ -19,6 +20,16 @@ class FisheyeDomemasterTest {
 		}
 	}
 
+	/**
+	 * Headless PApplet stub whose shaders accept uniforms without a GL context.
+	 */
+	private static class ShaderApplet extends PApplet {
+		@Override
+		public PShader loadShader(String fragFilename, String vertFilename) {
+			return new PShader();
+		}
+	}
+
 	private FisheyeDomemaster newFisheye() {
 		return new FisheyeDomemaster(1024, "frag", "vert", new StubApplet());
 	}
@@ -53,4 +64,56 @@ class FisheyeDomemasterTest {
 		FisheyeDomemaster fisheye = newFisheye();
 		assertDoesNotThrow(() -> fisheye.applyShader(null, 210f));
 	}
+
+	@Test
+	void setFOVWithNullShaderSkipsWarpTable() {
+		FisheyeDomemaster fisheye = newFisheye();
+		fisheye.setFOV(210f);
+		assertNull(fisheye.getWarpTable());
+	}
+
+	@Test
+	void warpTableIsRebuiltOnlyWhenFovChanges() {
+		FisheyeDomemaster fisheye = new FisheyeDomemaster(32, "frag", "vert", new ShaderApplet());
+
+		fisheye.setFOV(210f);
+		WarpTable first = fisheye.getWarpTable();
+		assertNotNull(first);
+		assertTrue(first.matches(32, 210f));
+
+		fisheye.setFOV(210f);
+		assertSame(first, fisheye.getWarpTable());
+
+		fisheye.setFOV(180f);
+		assertTrue(fisheye.getWarpTable().matches(32, 180f));
+	}
+
+	@Test
+	void disposeReleasesTheWarpTable() {
+		FisheyeDomemaster fisheye = new FisheyeDomemaster(32, "frag", "vert", new ShaderApplet());
+		fisheye.setFOV(210f);
+
+		fisheye.dispose();
+		assertNull(fisheye.getWarpTable());
+
+		fisheye.setFOV(210f);
+		assertTrue(fisheye.getWarpTable().matches(32, 210f));
+	}
+
+	@Test
+	void directModeRequiresDirectShader() {
+		FisheyeDomemaster legacy = new FisheyeDomemaster(32, "frag", "vert", new ShaderApplet());
+		assertTrue(legacy.supports(FisheyeDomemaster.SourceMode.EQUIRECTANGULAR));
+		assertFalse(legacy.supports(FisheyeDomemaster.SourceMode.DIRECT));
+
+		FisheyeDomemaster direct = new FisheyeDomemaster(32, "frag", "direct", "vert", new ShaderApplet());
+		assertTrue(direct.supports(FisheyeDomemaster.SourceMode.DIRECT));
+	}
+
+	@Test
+	void applyDirectWithMissingFacesDoesNotThrow() {
+		FisheyeDomemaster fisheye = new FisheyeDomemaster(32, "frag", "direct", "vert", new ShaderApplet());
+		assertDoesNotThrow(() -> fisheye.applyDirect(null, 210f));
+		assertDoesNotThrow(() -> newFisheye().applyDirect(null, 210f));
+	}
 }
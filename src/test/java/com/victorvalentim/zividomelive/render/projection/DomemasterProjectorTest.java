@@ -0,0 +1,144 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DomemasterProjectorTest {
+
+	/** Floating-point projection straight through {@link CubemapSampler}, the reference for the tables. */
+	static int[] floatProjection(int[][] faces, int resolution, float fov, float sizePercentage, float[] rotation) {
+		int[] target = new int[resolution * resolution];
+		float[] direction = new float[3];
+		float[] uv = new float[2];
+		for (int row = 0; row < resolution; row++) {
+			for (int x = 0; x < resolution; x++) {
+				if (DomemasterProjector.direction(x, row, resolution, fov, sizePercentage, direction)) {
+					ProjectionRotation.rotate(rotation, direction);
+					target[row * resolution + x] =
+							CubemapSampler.sample(faces, direction[0], direction[1], direction[2], uv);
+				}
+			}
+		}
+		return target;
+	}
+
+	@Test
+	void directProjectionMatchesEquirectangularChainOrientation() {
+		int resolution = 64;
+		int[][] faces = EquirectangularProjectorTest.solidFaces(8);
+		int[] direct = new DomemasterProjector().project(faces, resolution, 180f, 100f);
+
+		int[] equirect = new EquirectangularProjector().project(faces, 128);
+		int[] chained = new int[resolution * resolution];
+		WarpTable.forDomemaster(resolution, 180f).remap(equirect, 256, 128, chained);
+
+		int middle = resolution / 2;
+		int[] probes = {
+				middle * resolution + middle,
+				2 * resolution + middle,
+				(resolution - 3) * resolution + middle,
+				middle * resolution + 2,
+				middle * resolution + resolution - 3,
+				0
+		};
+		for (int probe : probes) {
+			assertEquals(chained[probe], direct[probe], "pixel " + probe);
+		}
+	}
+
+	@Test
+	void directProjectionStaysCloseToChainOnSmoothContent() {
+		int resolution = 48;
+		int[][] faces = EquirectangularProjectorTest.gradientFaces(32);
+		int[] direct = new DomemasterProjector().project(faces, resolution, 210f, 100f);
+		int[] equirect = new EquirectangularProjector().project(faces, 256);
+		int[] chained = new int[resolution * resolution];
+		WarpTable.forDomemaster(resolution, 210f).remap(equirect, 512, 256, chained);
+
+		int compared = 0;
+		long totalError = 0;
+		for (int i = 0; i < direct.length; i++) {
+			if (direct[i] == 0 || chained[i] == 0) {
+				assertEquals(direct[i] == 0, chained[i] == 0, "dome coverage differs at " + i);
+				continue;
+			}
+			if (((direct[i] >>> 16) & 0xFF) != ((chained[i] >>> 16) & 0xFF)) {
+				continue; // face seam: the chain blends across faces differently
+			}
+			totalError += Math.abs((direct[i] & 0xFF) - (chained[i] & 0xFF));
+			totalError += Math.abs(((direct[i] >>> 8) & 0xFF) - ((chained[i] >>> 8) & 0xFF));
+			compared++;
+		}
+		assertTrue(compared > direct.length / 2);
+		assertTrue(totalError / (double) compared < 4.0, "mean error " + totalError / (double) compared);
+	}
+
+	@Test
+	void sizePercentageShrinksTheDiscInPlace() {
+		int resolution = 40;
+		int[][] faces = EquirectangularProjectorTest.solidFaces(4);
+		int[] half = new DomemasterProjector().project(faces, resolution, 180f, 50f);
+
+		int middle = resolution / 2;
+		assertEquals(faces[4][0], half[middle * resolution + middle]);
+		assertEquals(0, half[middle * resolution + 2], "outside the scaled disc");
+		assertEquals(faces[1][0], half[middle * resolution + 11], "rim of the scaled disc");
+
+		int[] none = new DomemasterProjector().project(faces, resolution, 180f, 0f);
+		assertArrayEquals(new int[resolution * resolution], none);
+	}
+
+	@Test
+	void rotationAtProjectionMatchesBakedOrientation() {
+		int resolution = 64;
+		float[] rotation = ProjectionRotation.fromOrientation(0.2f, -0.35f, 0.1f, 0.9f);
+		int[] baked = new DomemasterProjector()
+				.project(ProjectionRotationTest.directionFaces(48, rotation), resolution, 210f, 100f);
+
+		DomemasterProjector projector = new DomemasterProjector();
+		projector.setRotation(rotation);
+		int[] projected = projector.project(
+				ProjectionRotationTest.directionFaces(48, ProjectionRotation.identity()), resolution, 210f, 100f);
+
+		assertTrue(baked[resolution / 2 * resolution + resolution / 2] != 0);
+		assertTrue(ProjectionRotationTest.meanError(baked, projected) < 1.0,
+				"mean error " + ProjectionRotationTest.meanError(baked, projected));
+		assertThrows(IllegalArgumentException.class, () -> projector.setRotation(new float[3]));
+	}
+
+	@Test
+	void directionFollowsDomeConvention() {
+		float[] direction = new float[3];
+		assertTrue(DomemasterProjector.direction(50, 50, 101, 180f, 100f, direction));
+		assertEquals(1f, direction[2], 1e-6f);
+		assertFalse(DomemasterProjector.direction(0, 0, 101, 180f, 100f, direction));
+	}
+
+	@Test
+	void parallelProjectionMatchesSequentialRows() {
+		int resolution = 33;
+		int[][] faces = EquirectangularProjectorTest.gradientFaces(8);
+		int[] parallel = new int[resolution * resolution];
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			new DomemasterProjector(pool, 1).project(faces, parallel, resolution, 200f, 90f);
+		} finally {
+			pool.shutdown();
+		}
+
+		int[] sequential = new int[resolution * resolution];
+		ResampleTable table = ResampleTable.forCubemapDomemaster(8, resolution, 200f, 90f, ProjectionRotation.identity());
+		int[] scratch = new int[ResampleKernel.SCRATCH_LENGTH];
+		for (int row = 0; row < resolution; row += 4) {
+			ResampleKernel.resampleRows(table, faces, sequential, row, row + 4, scratch);
+		}
+		assertArrayEquals(sequential, parallel);
+	}
+}
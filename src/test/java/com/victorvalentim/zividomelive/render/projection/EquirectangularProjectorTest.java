@@ -0,0 +1,140 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EquirectangularProjectorTest {
+
+	private static final int[] FACE_COLORS = {
+			0xFFFF0000, 0xFF00FFFF, 0xFF00FF00, 0xFFFF00FF, 0xFF0000FF, 0xFFFFFF00
+	};
+
+	static int[][] solidFaces(int size) {
+		int[][] faces = new int[6][size * size];
+		for (int i = 0; i < 6; i++) {
+			java.util.Arrays.fill(faces[i], FACE_COLORS[i]);
+		}
+		return faces;
+	}
+
+	static int[][] gradientFaces(int size) {
+		int[][] faces = new int[6][size * size];
+		for (int f = 0; f < 6; f++) {
+			for (int y = 0; y < size; y++) {
+				for (int x = 0; x < size; x++) {
+					faces[f][y * size + x] = 0xFF000000 | (f * 40) << 16 | (x * 255 / (size - 1)) << 8 | (y * 255 / (size - 1));
+				}
+			}
+		}
+		return faces;
+	}
+
+	/** Floating-point projection straight through {@link CubemapSampler}, the reference for the tables. */
+	static int[] floatProjection(int[][] faces, int width, int height, float[] rotation) {
+		int[] target = new int[width * height];
+		float[] direction = new float[3];
+		float[] uv = new float[2];
+		for (int row = 0; row < height; row++) {
+			float phi = (1f - (row + 0.5f) / height) * (float) Math.PI;
+			for (int x = 0; x < width; x++) {
+				float theta = (x + 0.5f) / width * 2f * (float) Math.PI;
+				direction[0] = -(float) Math.sin(phi) * (float) Math.sin(theta);
+				direction[1] = (float) Math.cos(phi);
+				direction[2] = -(float) Math.sin(phi) * (float) Math.cos(theta);
+				ProjectionRotation.rotate(rotation, direction);
+				target[row * width + x] = CubemapSampler.sample(faces, direction[0], direction[1], direction[2], uv);
+			}
+		}
+		return target;
+	}
+
+	@Test
+	void cardinalDirectionsLandOnExpectedFaces() {
+		int resolution = 64;
+		int width = resolution * 2;
+		int[] frame = new EquirectangularProjector().project(solidFaces(8), resolution);
+
+		int equator = resolution / 2;
+		// Processing's Y axis points down, so the -Y face holds the zenith
+		assertEquals(FACE_COLORS[3], frame[0], "top row looks at -Y");
+		assertEquals(FACE_COLORS[2], frame[(resolution - 1) * width], "bottom row looks at +Y");
+		assertEquals(FACE_COLORS[4], frame[equator * width + width / 2], "centre looks at +Z");
+		assertEquals(FACE_COLORS[5], frame[equator * width], "left edge looks at -Z");
+		assertEquals(FACE_COLORS[1], frame[equator * width + width / 4], "first quarter looks at -X");
+		assertEquals(FACE_COLORS[0], frame[equator * width + 3 * width / 4], "third quarter looks at +X");
+	}
+
+	@Test
+	void parallelProjectionMatchesSequentialRows() {
+		int resolution = 48;
+		int width = resolution * 2;
+		int[][] faces = gradientFaces(16);
+		int[] parallel = new int[width * resolution];
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			new EquirectangularProjector(pool, 1).project(faces, parallel, width, resolution);
+		} finally {
+			pool.shutdown();
+		}
+
+		int[] sequential = new int[width * resolution];
+		ResampleTable table = ResampleTable.forEquirectangular(16, width, resolution);
+		int[] scratch = new int[ResampleKernel.SCRATCH_LENGTH];
+		for (int row = 0; row < resolution; row += 5) {
+			ResampleKernel.resampleRows(table, faces, sequential, row, row + 5, scratch);
+		}
+		assertArrayEquals(sequential, parallel);
+	}
+
+	@Test
+	void rotationAtProjectionMatchesBakedOrientation() {
+		int resolution = 48;
+		float[] rotation = ProjectionRotation.fromOrientation(-0.3f, 0.1f, 0.25f, 0.9f);
+		int[] baked = new EquirectangularProjector()
+				.project(ProjectionRotationTest.directionFaces(32, rotation), resolution);
+
+		EquirectangularProjector projector = new EquirectangularProjector();
+		projector.setRotation(rotation);
+		int[] projected = projector.project(
+				ProjectionRotationTest.directionFaces(32, ProjectionRotation.identity()), resolution);
+
+		double error = ProjectionRotationTest.meanError(baked, projected);
+		assertTrue(error < 1.0, "mean error " + error);
+	}
+
+	@Test
+	void faceCentreSamplesFaceCentrePixel() {
+		int size = 9;
+		int[][] faces = gradientFaces(size);
+		float[] uv = new float[2];
+		int centre = faces[4][(size / 2) * size + size / 2];
+		assertEquals(centre, CubemapSampler.sample(faces, 0f, 0f, 1f, uv));
+		assertEquals(0.5f, uv[0], 1e-6f);
+		assertEquals(0.5f, uv[1], 1e-6f);
+	}
+
+	@Test
+	void bilinearSamplingInterpolatesAllChannelsAndClampsEdges() {
+		int[] pixels = {0x00000000, 0xFFFFFFFF};
+		assertEquals(0x80808080, CubemapSampler.sampleBilinear(pixels, 2, 1, 0.5f, 0f));
+		assertEquals(0x00000000, CubemapSampler.sampleBilinear(pixels, 2, 1, -3f, -3f));
+		assertEquals(0xFFFFFFFF, CubemapSampler.sampleBilinear(pixels, 2, 1, 5f, 5f));
+	}
+
+	@Test
+	void rejectsInvalidInputs() {
+		EquirectangularProjector projector = new EquirectangularProjector();
+		assertThrows(IllegalArgumentException.class, () -> projector.project(new int[5][4], 8));
+		assertThrows(IllegalArgumentException.class, () -> projector.project(new int[6][3], 8));
+		assertThrows(IllegalArgumentException.class, () -> projector.project(solidFaces(4), new int[10], 8, 4));
+		int[][] mixed = solidFaces(4);
+		mixed[5] = new int[9];
+		assertThrows(IllegalArgumentException.class, () -> projector.project(mixed, 8));
+	}
+}
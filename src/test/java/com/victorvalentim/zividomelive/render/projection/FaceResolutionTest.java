@@ -0,0 +1,73 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FaceResolutionTest {
+
+	@Test
+	void hemisphereDomeShrinksTheCentreFaceAndDropsTheBackFace() {
+		int[] sizes = FaceResolution.faceSizes(2048, 2048, 180f, 100f, 0f, 0f, 1f, 1f);
+
+		// 2 * (R / 2) / (pi / 2) texels at the dome centre
+		int expectedCentre = (int) Math.ceil(2.0 * 2048 / Math.PI / FaceResolution.QUANTUM) * FaceResolution.QUANTUM;
+		assertEquals(expectedCentre, sizes[4]);
+		assertEquals(FaceResolution.MIN_FACE_SIZE, sizes[5]);
+		for (int side = 0; side < 4; side++) {
+			assertEquals(2048, sizes[side], "rim stretching needs full density on side " + side);
+		}
+	}
+
+	@Test
+	void sizesNeverExceedTheBaseResolutionAndStayQuantized() {
+		for (float fov = 60f; fov <= 360f; fov += 30f) {
+			for (int size : FaceResolution.faceSizes(1000, 4096, fov, 100f, 0f, 0f, 1f, 2f)) {
+				assertTrue(size <= 1000);
+				assertTrue(size == 1000 || size % FaceResolution.QUANTUM == 0);
+			}
+		}
+	}
+
+	@Test
+	void smallerDomeOrSizePercentageNeedsFewerTexels() {
+		int[] full = FaceResolution.faceSizes(4096, 1024, 200f, 100f, 0f, 0f, 1f, 1f);
+		int[] half = FaceResolution.faceSizes(4096, 1024, 200f, 50f, 0f, 0f, 1f, 1f);
+		for (int face = 0; face < 6; face++) {
+			assertTrue(half[face] <= full[face]);
+		}
+		assertArrayEquals(FaceResolution.faceSizes(4096, 512, 200f, 100f, 0f, 0f, 1f, 1f), half);
+	}
+
+	@Test
+	void computedSizesKeepAtLeastOneTexelPerDomePixel() {
+		int resolution = 192;
+		for (float fov : new float[]{120f, 180f, 230f}) {
+			int[] sizes = FaceResolution.faceSizes(100000, resolution, fov, 100f, 0f, 0f, 1f, 1f);
+			float[] d0 = new float[3];
+			float[] d1 = new float[3];
+			float[] uv0 = new float[2];
+			float[] uv1 = new float[2];
+			double smallestStep = Double.MAX_VALUE;
+			for (int row = 0; row < resolution - 1; row++) {
+				for (int x = 0; x < resolution - 1; x++) {
+					if (!DomemasterProjector.direction(x, row, resolution, fov, 100f, d0)) {
+						continue;
+					}
+					int face = CubemapSampler.toFaceUv(d0[0], d0[1], d0[2], uv0);
+					for (int step = 0; step < 2; step++) {
+						boolean inside = DomemasterProjector.direction(x + (step == 0 ? 1 : 0), row + step, resolution, fov, 100f, d1);
+						if (!inside || CubemapSampler.toFaceUv(d1[0], d1[1], d1[2], uv1) != face) {
+							continue;
+						}
+						double texels = Math.hypot(uv1[0] - uv0[0], uv1[1] - uv0[1]) * sizes[face];
+						smallestStep = Math.min(smallestStep, texels);
+					}
+				}
+			}
+			assertTrue(smallestStep >= 0.95, "fov " + fov + " smallest dome step " + smallestStep + " texels");
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FaceScissorTest {
+
+	private static final int FACE_SIZE = 128;
+	private static final int GUARD = 2;
+
+	@Test
+	void hemisphereDomeKeepsTheForwardHalfOfEachSideFace() {
+		// +X: u grows towards -Z, so the dome (+Z) sees the left half
+		int[] posX = FaceScissor.pixelRect(0, FACE_SIZE, 0f, 0f, 1f, 180f, GUARD);
+		assertEquals(0, posX[0]);
+		assertTrue(posX[2] <= FACE_SIZE / 2 + 8, "width " + posX[2]);
+		assertEquals(FACE_SIZE, posX[3]);
+
+		// +Y: v grows towards -Z, so the dome sees the bottom rows
+		int[] posY = FaceScissor.pixelRect(2, FACE_SIZE, 0f, 0f, 1f, 180f, GUARD);
+		assertEquals(FACE_SIZE, posY[2]);
+		assertTrue(posY[1] >= FACE_SIZE / 2 - 8, "top " + posY[1]);
+		assertEquals(FACE_SIZE, posY[1] + posY[3]);
+
+		assertTrue(FaceScissor.coversFace(FaceScissor.pixelRect(4, FACE_SIZE, 0f, 0f, 1f, 180f, GUARD), FACE_SIZE));
+	}
+
+	@Test
+	void unreachableFacesHaveNoFootprint() {
+		assertNull(FaceScissor.footprint(5, 0f, 0f, 1f, 180f, 0f));
+		assertArrayEquals(new int[]{0, 0, 0, 0}, FaceScissor.pixelRect(0, FACE_SIZE, 0f, 0f, 1f, 60f, 0));
+	}
+
+	@Test
+	void fullSphereNeedsNoScissor() {
+		for (int face = 0; face < 6; face++) {
+			assertTrue(FaceScissor.coversFace(FaceScissor.pixelRect(face, FACE_SIZE, 0f, 0f, 1f, 360f, GUARD), FACE_SIZE));
+		}
+	}
+
+	@Test
+	void containmentTreatsNullAsTheWholeFace() {
+		int[] rect = {10, 20, 30, 40};
+		assertTrue(FaceScissor.contains(null, rect));
+		assertTrue(FaceScissor.contains(null, null));
+		assertFalse(FaceScissor.contains(rect, null));
+		assertTrue(FaceScissor.contains(rect, new int[]{15, 20, 25, 40}));
+		assertFalse(FaceScissor.contains(rect, new int[]{15, 20, 30, 40}));
+		assertFalse(FaceScissor.contains(rect, new int[]{10, 19, 30, 40}));
+	}
+
+	@Test
+	void narrowDomeScissorsItsAxisFace() {
+		int[] rect = FaceScissor.pixelRect(4, FACE_SIZE, 0f, 0f, 1f, 60f, GUARD);
+		// tan(30 deg) of the half face each side of the centre
+		int half = (int) Math.ceil(Math.tan(Math.toRadians(30.0)) * FACE_SIZE / 2.0);
+		assertTrue(rect[2] >= 2 * half && rect[2] <= 2 * half + 16, "width " + rect[2]);
+		assertEquals(rect[2], rect[3]);
+		assertEquals(FACE_SIZE / 2, rect[0] + rect[2] / 2);
+	}
+
+	@Test
+	void everyTexelTheCpuProjectionSamplesIsInsideTheScissor() {
+		int resolution = 160;
+		float[][] axes = {{0f, 0f, 1f}, {0.3f, -0.5f, 0.8f}};
+		float[] direction = new float[3];
+		float[] uv = new float[2];
+		for (float[] axis : axes) {
+			for (float fov : new float[]{60f, 150f, 180f, 200f, 240f}) {
+				int[][] rects = new int[6][];
+				for (int face = 0; face < 6; face++) {
+					rects[face] = FaceScissor.pixelRect(face, FACE_SIZE, axis[0], axis[1], axis[2], fov, GUARD);
+				}
+				float[] rotation = rotationTo(axis);
+				for (int row = 0; row < resolution; row++) {
+					for (int x = 0; x < resolution; x++) {
+						if (!DomemasterProjector.direction(x, row, resolution, fov, 100f, direction)) {
+							continue;
+						}
+						float dx = rotation[0] * direction[0] + rotation[1] * direction[1] + rotation[2] * direction[2];
+						float dy = rotation[3] * direction[0] + rotation[4] * direction[1] + rotation[5] * direction[2];
+						float dz = rotation[6] * direction[0] + rotation[7] * direction[1] + rotation[8] * direction[2];
+						int face = CubemapSampler.toFaceUv(dx, dy, dz, uv);
+						int[] rect = rects[face];
+						float px = uv[0] * FACE_SIZE - 0.5f;
+						float py = (1f - uv[1]) * FACE_SIZE - 0.5f;
+						int tapX0 = Math.max(0, (int) Math.floor(px));
+						int tapY0 = Math.max(0, (int) Math.floor(py));
+						int tapX1 = Math.min(FACE_SIZE - 1, (int) Math.floor(px) + 1);
+						int tapY1 = Math.min(FACE_SIZE - 1, (int) Math.floor(py) + 1);
+						String where = "fov " + fov + " face " + face + " taps " + tapX0 + "," + tapY0;
+						assertTrue(tapX0 >= rect[0] && tapX1 < rect[0] + rect[2], where);
+						assertTrue(tapY0 >= rect[1] && tapY1 < rect[1] + rect[3], where);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Row-major rotation taking +Z onto the normalised axis, so dome directions can be tilted.
+	 */
+	private static float[] rotationTo(float[] axis) {
+		double length = Math.sqrt(axis[0] * axis[0] + axis[1] * axis[1] + axis[2] * axis[2]);
+		double[] z = {axis[0] / length, axis[1] / length, axis[2] / length};
+		double[] helper = Math.abs(z[1]) < 0.9 ? new double[]{0, 1, 0} : new double[]{1, 0, 0};
+		double[] x = normalize(cross(helper, z));
+		double[] y = cross(z, x);
+		return new float[]{
+				(float) x[0], (float) y[0], (float) z[0],
+				(float) x[1], (float) y[1], (float) z[1],
+				(float) x[2], (float) y[2], (float) z[2]
+		};
+	}
+
+	private static double[] cross(double[] a, double[] b) {
+		return new double[]{a[1] * b[2] - a[2] * b[1], a[2] * b[0] - a[0] * b[2], a[0] * b[1] - a[1] * b[0]};
+	}
+
+	private static double[] normalize(double[] v) {
+		double length = Math.sqrt(v[0] * v[0] + v[1] * v[1] + v[2] * v[2]);
+		return new double[]{v[0] / length, v[1] / length, v[2] / length};
+	}
+}
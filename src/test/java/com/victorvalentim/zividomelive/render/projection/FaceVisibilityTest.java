@@ -0,0 +1,87 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FaceVisibilityTest {
+
+	private static final int POS_Z = 1 << 4;
+	private static final int NEG_Z = 1 << 5;
+
+	@Test
+	void hemisphereDomeSkipsOnlyTheBackFace() {
+		assertEquals(FaceVisibility.ALL_FACES & ~NEG_Z, FaceVisibility.visibleFaceMask(0f, 0f, 1f, 180f, 0f));
+	}
+
+	@Test
+	void backFaceBecomesReachableAtItsCorners() {
+		double cornerDegrees = 2.0 * Math.toDegrees(Math.acos(-1.0 / Math.sqrt(3.0)));
+
+		assertEquals(0, FaceVisibility.visibleFaceMask(0f, 0f, 1f, (float) cornerDegrees - 0.1f, 0f) & NEG_Z);
+		assertEquals(NEG_Z, FaceVisibility.visibleFaceMask(0f, 0f, 1f, (float) cornerDegrees + 0.1f, 0f) & NEG_Z);
+		assertEquals(FaceVisibility.ALL_FACES, FaceVisibility.visibleFaceMask(0f, 0f, 1f, 360f, 0f));
+	}
+
+	@Test
+	void narrowDomeStaysOnItsAxisFace() {
+		assertEquals(POS_Z, FaceVisibility.visibleFaceMask(0f, 0f, 1f, 80f, 0f));
+		assertEquals(1, FaceVisibility.visibleFaceMask(1f, 0f, 0f, 80f, 0f));
+	}
+
+	@Test
+	void guardBandWidensTheCap() {
+		assertEquals(POS_Z, FaceVisibility.visibleFaceMask(0f, 0f, 1f, 88f, 0f));
+		assertEquals(FaceVisibility.ALL_FACES & ~NEG_Z,
+				FaceVisibility.visibleFaceMask(0f, 0f, 1f, 88f, (float) Math.toRadians(2.0)));
+	}
+
+	@Test
+	void maskIsTightAgainstFacesSampledByTheCpuProjection() {
+		float[][] axes = {{0f, 0f, 1f}, {0.3f, -0.5f, 0.8f}, {1f, 1f, 0f}, {-0.2f, 0.9f, -0.4f}};
+		for (float[] axis : axes) {
+			for (float fov = 30f; fov <= 360f; fov += 15f) {
+				String label = "axis " + axis[0] + "," + axis[1] + "," + axis[2] + " fov " + fov;
+				int sampled = sampledFaces(axis, fov);
+				int mask = FaceVisibility.visibleFaceMask(axis[0], axis[1], axis[2], fov, 0f);
+				assertEquals(0, sampled & ~mask, "culled a sampled face, " + label);
+				// A slightly narrower cap must not claim faces the projection never reaches
+				int narrower = FaceVisibility.visibleFaceMask(axis[0], axis[1], axis[2], fov - 2f, 0f);
+				assertEquals(0, narrower & ~sampled, "kept an unreachable face, " + label);
+			}
+		}
+	}
+
+	private static int sampledFaces(float[] axis, float fov) {
+		float length = (float) Math.sqrt(axis[0] * axis[0] + axis[1] * axis[1] + axis[2] * axis[2]);
+		float[] a = {axis[0] / length, axis[1] / length, axis[2] / length};
+		float[] helper = Math.abs(a[0]) < 0.9f ? new float[]{1f, 0f, 0f} : new float[]{0f, 1f, 0f};
+		float[] e1 = normalize(cross(helper, a));
+		float[] e2 = cross(a, e1);
+
+		int resolution = 401;
+		int mask = 0;
+		float[] d = new float[3];
+		for (int row = 0; row < resolution; row++) {
+			for (int x = 0; x < resolution; x++) {
+				if (!DomemasterProjector.direction(x, row, resolution, fov, 100f, d)) {
+					continue;
+				}
+				float wx = d[0] * e1[0] + d[1] * e2[0] + d[2] * a[0];
+				float wy = d[0] * e1[1] + d[1] * e2[1] + d[2] * a[1];
+				float wz = d[0] * e1[2] + d[1] * e2[2] + d[2] * a[2];
+				mask |= 1 << CubemapSampler.faceIndex(wx, wy, wz);
+			}
+		}
+		return mask;
+	}
+
+	private static float[] cross(float[] a, float[] b) {
+		return new float[]{a[1] * b[2] - a[2] * b[1], a[2] * b[0] - a[0] * b[2], a[0] * b[1] - a[1] * b[0]};
+	}
+
+	private static float[] normalize(float[] v) {
+		float length = (float) Math.sqrt(v[0] * v[0] + v[1] * v[1] + v[2] * v[2]);
+		return new float[]{v[0] / length, v[1] / length, v[2] / length};
+	}
+}
@@ -0,0 +1,106 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectionRotationTest {
+
+	private static final float EPSILON = 1e-6f;
+
+	@Test
+	void identityOrientationNeedsNoRotation() {
+		assertTrue(ProjectionRotation.isIdentity(ProjectionRotation.fromOrientation(0f, 0f, 0f, 1f)));
+		assertTrue(ProjectionRotation.isIdentity(ProjectionRotation.fromOrientation(0f, 0f, 0f, 0f)));
+		assertFalse(ProjectionRotation.isIdentity(quarterTurnAboutY()));
+	}
+
+	@Test
+	void projectionUndoesTheOrientationBakedIntoTheFaces() {
+		// A quarter turn about +Y carries the scene's -X onto +Z in front of the face cameras,
+		// so the projection must look back along -X to find what the dome centre showed
+		float[] rotation = quarterTurnAboutY();
+		assertArrayEquals(new float[]{-1f, 0f, 0f}, ProjectionRotation.domeAxis(rotation), EPSILON);
+
+		float[] direction = {0f, 0f, 1f};
+		ProjectionRotation.rotate(rotation, direction);
+		assertArrayEquals(new float[]{-1f, 0f, 0f}, direction, EPSILON);
+	}
+
+	@Test
+	void quaternionsAreNormalisedBeforeConversion() {
+		float s = (float) Math.sin(Math.PI / 4.0);
+		assertArrayEquals(quarterTurnAboutY(), ProjectionRotation.fromOrientation(0f, 3f * s, 0f, 3f * s), EPSILON);
+	}
+
+	@Test
+	void rejectsMalformedMatrices() {
+		assertThrows(IllegalArgumentException.class, () -> ProjectionRotation.copyOf(null));
+		assertThrows(IllegalArgumentException.class, () -> ProjectionRotation.copyOf(new float[4]));
+		float[] invalid = ProjectionRotation.identity();
+		invalid[3] = Float.NaN;
+		assertThrows(IllegalArgumentException.class, () -> ProjectionRotation.copyOf(invalid));
+	}
+
+	/**
+	 * Builds faces showing a smooth colour of the direction {@code rotation * d} along every face
+	 * direction {@code d}: with the identity these are scene-space faces, otherwise faces with the
+	 * orientation baked in.
+	 */
+	static int[][] directionFaces(int size, float[] rotation) {
+		float[][] normal = {{1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}};
+		float[][] uAxis = {{0, 0, -1}, {0, 0, 1}, {1, 0, 0}, {1, 0, 0}, {1, 0, 0}, {-1, 0, 0}};
+		float[][] vAxis = {{0, 1, 0}, {0, 1, 0}, {0, 0, -1}, {0, 0, 1}, {0, 1, 0}, {0, 1, 0}};
+		int[][] faces = new int[6][size * size];
+		float[] direction = new float[3];
+		for (int f = 0; f < 6; f++) {
+			for (int row = 0; row < size; row++) {
+				float c = 1f - 2f * (row + 0.5f) / size;
+				for (int x = 0; x < size; x++) {
+					float s = 2f * (x + 0.5f) / size - 1f;
+					float length = 0f;
+					for (int i = 0; i < 3; i++) {
+						direction[i] = normal[f][i] + s * uAxis[f][i] + c * vAxis[f][i];
+						length += direction[i] * direction[i];
+					}
+					ProjectionRotation.rotate(rotation, direction);
+					length = (float) Math.sqrt(length);
+					int r = Math.round((direction[0] / length + 1f) * 127.5f);
+					int g = Math.round((direction[1] / length + 1f) * 127.5f);
+					int b = Math.round((direction[2] / length + 1f) * 127.5f);
+					faces[f][row * size + x] = 0xFF000000 | r << 16 | g << 8 | b;
+				}
+			}
+		}
+		return faces;
+	}
+
+	/**
+	 * Mean absolute channel difference over the pixels both images cover.
+	 */
+	static double meanError(int[] expected, int[] actual) {
+		long total = 0;
+		int compared = 0;
+		for (int i = 0; i < expected.length; i++) {
+			if (expected[i] == 0 || actual[i] == 0) {
+				continue;
+			}
+			for (int shift = 0; shift < 24; shift += 8) {
+				total += Math.abs(((expected[i] >>> shift) & 0xFF) - ((actual[i] >>> shift) & 0xFF));
+			}
+			compared++;
+		}
+		return total / (3.0 * Math.max(1, compared));
+	}
+
+	/**
+	 * Projection rotation of an orientation that turns the scene a quarter turn about {@code +Y}.
+	 */
+	static float[] quarterTurnAboutY() {
+		float s = (float) Math.sin(Math.PI / 4.0);
+		return ProjectionRotation.fromOrientation(0f, s, 0f, s);
+	}
+}
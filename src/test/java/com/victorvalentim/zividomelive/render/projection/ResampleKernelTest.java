@@ -0,0 +1,182 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResampleKernelTest {
+
+	@Test
+	void equirectangularTableMatchesTheFloatProjection() {
+		int resolution = 48;
+		int[][] faces = EquirectangularProjectorTest.gradientFaces(32);
+		int[] expected = EquirectangularProjectorTest.floatProjection(faces, resolution * 2, resolution,
+				ProjectionRotation.identity());
+
+		ResampleTable table = ResampleTable.forEquirectangular(32, resolution * 2, resolution);
+		int[] actual = new int[resolution * 2 * resolution];
+		new ResampleKernel().resample(table, faces, actual);
+
+		assertTrue(largestChannelDifference(expected, actual) <= 2);
+	}
+
+	@Test
+	void rotatedEquirectangularTableMatchesTheRotatedProjection() {
+		int resolution = 48;
+		int[][] faces = EquirectangularProjectorTest.gradientFaces(32);
+		float[] rotation = ProjectionRotationTest.quarterTurnAboutY();
+		int[] expected = EquirectangularProjectorTest.floatProjection(faces, resolution * 2, resolution, rotation);
+
+		ResampleTable table = ResampleTable.forEquirectangular(32, resolution * 2, resolution,
+				rotation);
+		int[] actual = new int[resolution * 2 * resolution];
+		new ResampleKernel().resample(table, faces, actual);
+
+		assertTrue(largestChannelDifference(expected, actual) <= 2);
+		assertNotSame(table, ResampleTable.forEquirectangular(32, resolution * 2, resolution));
+	}
+
+	@Test
+	void cubemapDomemasterTableMatchesTheFloatProjection() {
+		int resolution = 56;
+		int[][] faces = EquirectangularProjectorTest.gradientFaces(32);
+		float[] rotation = ProjectionRotationTest.quarterTurnAboutY();
+		int[] expected = DomemasterProjectorTest.floatProjection(faces, resolution, 210f, 90f, rotation);
+
+		ResampleTable table = ResampleTable.forCubemapDomemaster(32, resolution, 210f, 90f, rotation);
+		int[] actual = new int[resolution * resolution];
+		new ResampleKernel().resample(table, faces, actual);
+
+		assertTrue(largestChannelDifference(expected, actual) <= 2);
+		assertEquals(0, actual[0], "corner lies outside the dome disc");
+	}
+
+	@Test
+	void domemasterTableMatchesTheWarpTableRemap() {
+		int resolution = 64;
+		int width = 96;
+		int height = 48;
+		int[] source = new int[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				source[y * width + x] = 0xFF000000 | (x * 255 / (width - 1)) << 8 | (y * 255 / (height - 1));
+			}
+		}
+
+		int[] expected = new int[resolution * resolution];
+		WarpTable.forDomemaster(resolution, 200f).remap(source, width, height, expected);
+		int[] actual = new int[resolution * resolution];
+		new ResampleKernel().resample(ResampleTable.forDomemaster(resolution, 200f, width, height),
+				new int[][]{source}, actual);
+
+		assertTrue(largestChannelDifference(expected, actual) <= 2);
+		assertEquals(0, actual[0], "corner lies outside the dome disc");
+	}
+
+	@Test
+	void sequentialRowsMatchTheParallelKernel() {
+		int resolution = 40;
+		int[][] faces = EquirectangularProjectorTest.gradientFaces(16);
+		ResampleTable table = ResampleTable.forEquirectangular(16, resolution * 2, resolution);
+
+		int[] parallel = new int[resolution * 2 * resolution];
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			new ResampleKernel(pool, 1).resample(table, faces, parallel);
+		} finally {
+			pool.shutdown();
+		}
+		int[] sequential = new int[parallel.length];
+		int[] scratch = new int[ResampleKernel.SCRATCH_LENGTH];
+		for (int row = 0; row < resolution; row += 7) {
+			ResampleKernel.resampleRows(table, faces, sequential, row, row + 7, scratch);
+		}
+
+		assertArrayEquals(parallel, sequential);
+	}
+
+	@Test
+	void solidSourcesStayExact() {
+		int[][] faces = EquirectangularProjectorTest.solidFaces(8);
+		ResampleTable table = ResampleTable.forEquirectangular(8, 64, 32);
+		int[] frame = new int[64 * 32];
+		new ResampleKernel().resample(table, faces, frame);
+
+		// The zenith row reads only the -Y face
+		for (int x = 0; x < 64; x++) {
+			assertEquals(0xFFFF00FF, frame[x]);
+		}
+	}
+
+	@Test
+	void tablesAreSharedUntilAParameterChanges() {
+		assertSame(ResampleTable.forDomemaster(32, 180f, 64, 32), ResampleTable.forDomemaster(32, 180f, 64, 32));
+		assertNotSame(ResampleTable.forDomemaster(32, 180f, 64, 32), ResampleTable.forDomemaster(32, 190f, 64, 32));
+		assertNotSame(ResampleTable.forEquirectangular(8, 16, 8), ResampleTable.forEquirectangular(8, 32, 8));
+	}
+
+	@Test
+	void rotatedTablesAreNeverCachedButReuseTheCallersArrays() {
+		float[] rotation = ProjectionRotationTest.quarterTurnAboutY();
+		ResampleTable first = ResampleTable.forCubemapDomemaster(32, 48, 210f, 90f, rotation);
+		assertNotSame(first, ResampleTable.forCubemapDomemaster(32, 48, 210f, 90f, rotation));
+
+		assertSame(first, ResampleTable.forCubemapDomemaster(32, 48, 210f, 90f, rotation, first));
+		ResampleTable turned = ResampleTable.forCubemapDomemaster(32, 48, 210f, 90f,
+				ProjectionRotation.fromOrientation(0f, 0f, 0.38268343f, 0.9238795f), first);
+		assertNotSame(first, turned);
+		assertSame(first.taps, turned.taps);
+		assertSame(first.weights, turned.weights);
+	}
+
+	@Test
+	void sharedTablesAreNeverRebuiltInPlace() {
+		ResampleTable shared = ResampleTable.forEquirectangular(8, 64, 32);
+		int[] taps = shared.taps.clone();
+
+		ResampleTable rotated = ResampleTable.forEquirectangular(8, 64, 32, ProjectionRotationTest.quarterTurnAboutY(),
+				shared);
+		assertNotSame(shared.taps, rotated.taps);
+		assertArrayEquals(taps, shared.taps);
+		assertSame(shared, ResampleTable.forEquirectangular(8, 64, 32, ProjectionRotation.identity(), rotated));
+	}
+
+	@Test
+	void theSharedCacheStaysWithinItsByteBudget() {
+		// Each 2048x2048 domemaster table takes 24 MB, so six of them overflow the 128 MB budget
+		for (int i = 0; i < 6; i++) {
+			ResampleTable.forDomemaster(2048, 180f + i, 64, 32);
+		}
+		assertTrue(ResampleTable.getCachedBytes() <= ResampleTable.CACHE_BYTES);
+	}
+
+	@Test
+	void rejectsBuffersThatDoNotFitTheTable() {
+		ResampleTable table = ResampleTable.forEquirectangular(8, 16, 8);
+		int[][] faces = EquirectangularProjectorTest.solidFaces(8);
+		assertThrows(IllegalArgumentException.class, () -> new ResampleKernel().resample(table, faces, new int[10]));
+		assertThrows(IllegalArgumentException.class,
+				() -> new ResampleKernel().resample(table, EquirectangularProjectorTest.solidFaces(4), new int[128]));
+		assertThrows(IllegalArgumentException.class,
+				() -> ResampleKernel.resampleRows(table, faces, new int[128], 0, 8, new int[4]));
+		assertThrows(IllegalArgumentException.class,
+				() -> ResampleTable.forDomemaster(16, 180f, 16384, 8192));
+	}
+
+	private static int largestChannelDifference(int[] expected, int[] actual) {
+		int worst = 0;
+		for (int i = 0; i < expected.length; i++) {
+			for (int shift = 0; shift < 32; shift += 8) {
+				worst = Math.max(worst, Math.abs(((expected[i] >>> shift) & 0xFF) - ((actual[i] >>> shift) & 0xFF)));
+			}
+		}
+		return worst;
+	}
+}
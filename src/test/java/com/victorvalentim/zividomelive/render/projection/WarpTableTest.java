@@ -0,0 +1,78 @@
+package com.victorvalentim.zividomelive.render.projection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WarpTableTest {
+
+	@Test
+	void tablesAreBuiltPerCallAndMatchTheirParameters() {
+		WarpTable table = WarpTable.forDomemaster(64, 210f);
+
+		assertNotSame(table, WarpTable.forDomemaster(64, 210f));
+		assertTrue(table.matches(64, 210f));
+		assertFalse(table.matches(64, 180f));
+		assertFalse(table.matches(32, 210f));
+	}
+
+	@Test
+	void centreLooksForwardAndCornersAreOutsideTheDome() {
+		int resolution = 65;
+		WarpTable table = WarpTable.forDomemaster(resolution, 180f);
+		int centre = (resolution / 2) * resolution + resolution / 2;
+
+		assertEquals(0.5f, table.getU(centre), 1e-6f);
+		assertEquals(0.5f, table.getV(centre), 1e-6f);
+		assertFalse(table.isInside(0));
+		assertTrue(Float.isNaN(table.getU(resolution * resolution - 1)));
+	}
+
+	@Test
+	void remapMatchesDirectCubemapLookupForSolidFaces() {
+		int resolution = 64;
+		int[][] faces = EquirectangularProjectorTest.solidFaces(8);
+		int[] equirect = new EquirectangularProjector().project(faces, 128);
+		int[] dome = new int[resolution * resolution];
+		WarpTable.forDomemaster(resolution, 180f).remap(equirect, 256, 128, dome);
+
+		int middle = resolution / 2;
+		assertEquals(faces[4][0], dome[middle * resolution + middle], "centre looks at +Z");
+		assertEquals(faces[3][0], dome[2 * resolution + middle], "top rim looks at -Y");
+		assertEquals(faces[2][0], dome[(resolution - 3) * resolution + middle], "bottom rim looks at +Y");
+		assertEquals(faces[1][0], dome[middle * resolution + 2], "left rim looks at -X");
+		assertEquals(faces[0][0], dome[middle * resolution + resolution - 3], "right rim looks at +X");
+		assertEquals(0, dome[0], "outside the dome is transparent");
+	}
+
+	@Test
+	void packedTextureStoresSixteenBitCoordinatesBottomRowFirst() {
+		int resolution = 16;
+		WarpTable table = WarpTable.forDomemaster(resolution, 210f);
+		int[] packed = table.toPackedArgb();
+
+		for (int row = 0; row < resolution; row++) {
+			for (int x = 0; x < resolution; x++) {
+				int index = row * resolution + x;
+				int texel = packed[(resolution - 1 - row) * resolution + x];
+				if (!table.isInside(index)) {
+					assertEquals(0, texel);
+					continue;
+				}
+				float u = (((texel >>> 16) & 0xFF) * 256 + ((texel >>> 8) & 0xFF)) / 65535f;
+				float v = ((texel & 0xFF) * 256 + (texel >>> 24)) / 65535f;
+				assertEquals(table.getU(index), u, 1f / 65535f);
+				assertEquals(table.getV(index), v, 1f / 65535f);
+			}
+		}
+	}
+
+	@Test
+	void rejectsNonPositiveResolution() {
+		assertThrows(IllegalArgumentException.class, () -> WarpTable.forDomemaster(0, 180f));
+	}
+}
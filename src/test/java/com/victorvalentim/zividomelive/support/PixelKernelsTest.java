@@ -0,0 +1,283 @@
+package com.victorvalentim.zividomelive.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PixelKernelsTest {
+
+	// Not a multiple of any vector length, so every run exercises a scalar tail
+	private static final int COUNT = 1021;
+
+	@Test
+	void scalarConversionWritesRgbaInEitherBufferOrder() {
+		int[] argb = {0x80112233, 0xFF445566};
+		byte[] expected = {0x11, 0x22, 0x33, (byte) 0x80, 0x44, 0x55, 0x66, (byte) 0xFF};
+		for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+			ByteBuffer rgba = ByteBuffer.allocateDirect(8).order(order);
+			PixelKernels.scalar().argbToRgba(argb, 2, rgba);
+			assertArrayEquals(expected, bytes(rgba, 8), order.toString());
+			assertEquals(0, rgba.position());
+		}
+	}
+
+	@Test
+	void scalarBlendMatchesPerChannelInterpolation() {
+		int stride = 4;
+		int[] scratch = new int[5 * stride];
+		scratch[0] = 0xFF000000;
+		scratch[stride] = 0xFFFFFFFF;
+		scratch[2 * stride] = 0xFF000000;
+		scratch[3 * stride] = 0xFFFFFFFF;
+		scratch[4 * stride] = 128 << 8;
+		int[] target = new int[1];
+		PixelKernels.scalar().blendBilinear(scratch, stride, 1, target, 0);
+		assertEquals(0xFF808080, target[0]);
+	}
+
+	@Test
+	void vectorConversionMatchesScalar() {
+		PixelKernels.Kernels vector = PixelKernels.vector();
+		assumeTrue(vector != null, "jdk.incubator.vector is not enabled");
+		int[] argb = randomPixels(COUNT, 1L);
+		for (ByteBuffer rgba : new ByteBuffer[]{ByteBuffer.allocateDirect(COUNT * 4), ByteBuffer.allocate(COUNT * 4)}) {
+			ByteBuffer reference = ByteBuffer.allocate(COUNT * 4);
+			PixelKernels.scalar().argbToRgba(argb, COUNT, reference);
+			vector.argbToRgba(argb, COUNT, rgba);
+			assertArrayEquals(bytes(reference, COUNT * 4), bytes(rgba, COUNT * 4));
+		}
+	}
+
+	@Test
+	void vectorBlendMatchesScalar() {
+		PixelKernels.Kernels vector = PixelKernels.vector();
+		assumeTrue(vector != null, "jdk.incubator.vector is not enabled");
+		int stride = COUNT + 3;
+		int[] scratch = randomPixels(5 * stride, 2L);
+		Random random = new Random(3L);
+		for (int i = 0; i < COUNT; i++) {
+			scratch[4 * stride + i] = random.nextInt(1 << 16);
+		}
+		int[] expected = new int[COUNT + 7];
+		int[] actual = new int[COUNT + 7];
+		PixelKernels.scalar().blendBilinear(scratch, stride, COUNT, expected, 7);
+		vector.blendBilinear(scratch, stride, COUNT, actual, 7);
+		assertArrayEquals(expected, actual);
+	}
+
+	@Test
+	void rangeConversionLeavesOtherPixelsUntouched() {
+		int[] argb = randomPixels(COUNT, 4L);
+		ByteBuffer reference = ByteBuffer.allocate(COUNT * 4);
+		PixelKernels.scalar().argbToRgba(argb, COUNT, reference);
+		for (PixelKernels.Kernels kernels : new PixelKernels.Kernels[]{PixelKernels.scalar(), PixelKernels.vector()}) {
+			if (kernels == null) {
+				continue;
+			}
+			ByteBuffer rgba = ByteBuffer.allocateDirect(COUNT * 4);
+			kernels.argbToRgba(argb, 0, 300, rgba);
+			kernels.argbToRgba(argb, 300, COUNT, rgba);
+			assertArrayEquals(bytes(reference, COUNT * 4), bytes(rgba, COUNT * 4), kernels.description());
+		}
+	}
+
+	@Test
+	void parallelConversionMatchesSequential() {
+		int count = 3 * PixelKernels.PARALLEL_GRAIN + 17;
+		int[] argb = randomPixels(count, 5L);
+		ByteBuffer expected = ByteBuffer.allocateDirect(count * 4).order(ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer actual = ByteBuffer.allocateDirect(count * 4).order(ByteOrder.LITTLE_ENDIAN);
+		PixelKernels.argbToRgba(argb, count, expected, null);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			PixelKernels.argbToRgba(argb, count, actual, pool);
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(0, actual.position());
+		assertArrayEquals(bytes(expected, count * 4), bytes(actual, count * 4));
+	}
+
+	@Test
+	void uyvyEncodesReferenceColoursInLimitedRange() {
+		int[] argb = {0xFFFFFFFF, 0xFF000000, 0xFFFF0000, 0xFFFF0000};
+		ByteBuffer uyvy = ByteBuffer.allocateDirect(8);
+		PixelKernels.argbToUyvy(argb, 4, 1, uyvy, null);
+		// White and black share chroma, which stays neutral; red has Y 63, Cb 102, Cr 240 in BT.709
+		assertArrayEquals(new byte[]{(byte) 128, (byte) 235, (byte) 128, 16, 102, 63, (byte) 240, 63},
+				bytes(uyvy, 8));
+		assertEquals(0, uyvy.position());
+	}
+
+	@Test
+	void uyvyRoundTripStaysCloseToTheArgbSource() {
+		int width = 64;
+		int height = 48;
+		Random random = new Random(9L);
+		int[] flat = new int[width * height];
+		int[] gradient = new int[width * height];
+		for (int i = 0; i < flat.length; i += 2) {
+			flat[i] = 0xFF000000 | random.nextInt(0x1000000);
+			flat[i + 1] = flat[i];
+		}
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				gradient[y * width + x] = 0xFF000000 | (x * 4 << 16) | (y * 5 << 8) | (255 - x * 2 - y);
+			}
+		}
+		// Pairs of one colour lose nothing to chroma subsampling, leaving only rounding; gradients also
+		// differ within a pair, so their shared chroma costs up to a few levels
+		assertRoundTripError(flat, width, height, 2, 1.0);
+		assertRoundTripError(gradient, width, height, 3, 1.5);
+	}
+
+	@Test
+	void parallelUyvyMatchesSequential() {
+		int width = 1024;
+		int height = 3 * PixelKernels.PARALLEL_GRAIN / width + 3;
+		int[] argb = randomPixels(width * height, 11L);
+		ByteBuffer expected = ByteBuffer.allocateDirect(width * height * 2);
+		ByteBuffer actual = ByteBuffer.allocateDirect(width * height * 2);
+		PixelKernels.argbToUyvy(argb, width, height, expected, null);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			PixelKernels.argbToUyvy(argb, width, height, actual, pool);
+		} finally {
+			pool.shutdown();
+		}
+		assertArrayEquals(bytes(expected, width * height * 2), bytes(actual, width * height * 2));
+	}
+
+	@Test
+	void directBufferSourcesMatchArraySources() {
+		int width = 2 * (PixelKernels.STAGING_PIXELS / 200) + 6;
+		int height = 101;
+		int count = width * height;
+		int[] argb = randomPixels(count, 13L);
+		// A direct frame buffer has no array, so it is staged through bounded chunks
+		IntBuffer direct = ByteBuffer.allocateDirect(count * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		direct.put(argb);
+
+		ByteBuffer expected = ByteBuffer.allocateDirect(count * 4).order(ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer actual = ByteBuffer.allocateDirect(count * 4).order(ByteOrder.LITTLE_ENDIAN);
+		PixelKernels.argbToRgba(argb, count, expected, null);
+		PixelKernels.argbToRgba(direct, count, actual, null);
+		assertArrayEquals(bytes(expected, count * 4), bytes(actual, count * 4));
+
+		PixelKernels.argbToUyvy(argb, width, height, expected, null);
+		PixelKernels.argbToUyvy(direct, width, height, actual, null);
+		assertArrayEquals(bytes(expected, count * 2), bytes(actual, count * 2));
+	}
+
+	@Test
+	void uyvyRejectsOddWidths() {
+		assertThrows(IllegalArgumentException.class,
+				() -> PixelKernels.argbToUyvy(new int[3], 3, 1, ByteBuffer.allocateDirect(8), null));
+	}
+
+	@Test
+	void activeImplementationIsDescribed() {
+		assertNotNull(PixelKernels.describe());
+		assertEquals(PixelKernels.vector() != null && !"false".equalsIgnoreCase(System.getProperty(PixelKernels.SIMD_PROPERTY)),
+				PixelKernels.isVectorized());
+	}
+
+	/** Decodes BT.709 limited-range UYVY back to RGB and bounds the per-channel error. */
+	private static void assertRoundTripError(int[] argb, int width, int height, int maxError, double maxMeanError) {
+		ByteBuffer uyvy = ByteBuffer.allocateDirect(width * height * 2);
+		PixelKernels.argbToUyvy(argb, width, height, uyvy, null);
+		long total = 0L;
+		int worst = 0;
+		for (int i = 0; i < argb.length; i++) {
+			int pair = (i >> 1) * 4;
+			double luma = ((uyvy.get(pair + 1 + 2 * (i & 1)) & 0xFF) - 16) / 219.0;
+			double cb = ((uyvy.get(pair) & 0xFF) - 128) / 224.0;
+			double cr = ((uyvy.get(pair + 2) & 0xFF) - 128) / 224.0;
+			double[] decoded = {
+					luma + 1.5748 * cr,
+					luma - 0.187324 * cb - 0.468124 * cr,
+					luma + 1.8556 * cb
+			};
+			for (int channel = 0; channel < 3; channel++) {
+				int source = (argb[i] >>> (16 - 8 * channel)) & 0xFF;
+				int value = (int) Math.round(Math.max(0.0, Math.min(1.0, decoded[channel])) * 255.0);
+				int error = Math.abs(value - source);
+				worst = Math.max(worst, error);
+				total += error;
+			}
+		}
+		double mean = total / (3.0 * argb.length);
+		assertTrue(worst <= maxError, "max channel error " + worst);
+		assertTrue(mean <= maxMeanError, "mean channel error " + mean);
+	}
+
+	@Test
+	void downsampleAveragesEachBlockWithRounding() {
+		// 5x3 source: the fifth column and third row do not fill a 2x2 block and are dropped
+		int[] source = {
+				0xFF000000, 0xFF000001, 0xFF102030, 0xFF102030, 0x12345678,
+				0x01000000, 0xFF000002, 0xFF102030, 0xFF102030, 0x12345678,
+				0x12345678, 0x12345678, 0x12345678, 0x12345678, 0x12345678,
+		};
+		IntBuffer target = IntBuffer.allocate(2);
+
+		PixelKernels.downsampleArgb(IntBuffer.wrap(source), 5, 3, 2, target);
+
+		// Alpha (255 * 3 + 1) / 4 rounds to 192; blue (0 + 1 + 0 + 2) / 4 rounds to 1
+		assertEquals(0xC0000001, target.get(0));
+		assertEquals(0xFF102030, target.get(1));
+	}
+
+	@Test
+	void downsampleByOneCopiesAndReadsDirectBuffers() {
+		int width = 37;
+		int height = 5;
+		int[] pixels = randomPixels(width * height, 7L);
+		ByteBuffer bytes = ByteBuffer.allocateDirect(pixels.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+		bytes.asIntBuffer().put(pixels);
+		IntBuffer target = ByteBuffer.allocateDirect(pixels.length * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+
+		PixelKernels.downsampleArgb(bytes.asIntBuffer(), width, height, 1, target);
+
+		int[] copied = new int[pixels.length];
+		target.get(0, copied);
+		assertArrayEquals(pixels, copied);
+	}
+
+	@Test
+	void downsampleRejectsInvalidArguments() {
+		IntBuffer source = IntBuffer.allocate(16);
+		assertThrows(IllegalArgumentException.class, () -> PixelKernels.downsampleArgb(source, 4, 4, 0, IntBuffer.allocate(16)));
+		assertThrows(IllegalArgumentException.class, () -> PixelKernels.downsampleArgb(source, 4, 4, 8, IntBuffer.allocate(16)));
+		assertThrows(IllegalArgumentException.class, () -> PixelKernels.downsampleArgb(source, 8, 8, 2, IntBuffer.allocate(16)));
+		assertThrows(IllegalArgumentException.class, () -> PixelKernels.downsampleArgb(source, 4, 4, 2, IntBuffer.allocate(3)));
+	}
+
+	private static int[] randomPixels(int count, long seed) {
+		Random random = new Random(seed);
+		int[] pixels = new int[count];
+		for (int i = 0; i < count; i++) {
+			pixels[i] = random.nextInt();
+		}
+		return pixels;
+	}
+
+	private static byte[] bytes(ByteBuffer buffer, int length) {
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = buffer.get(i);
+		}
+		return bytes;
+	}
+}